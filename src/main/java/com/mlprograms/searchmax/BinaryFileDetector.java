@@ -0,0 +1,197 @@
+package com.mlprograms.searchmax;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ordnet Dateien, die nach ihrer Endung als Text durchsucht würden, anhand ihrer ersten Bytes ein: Text, bekanntes
+ * Dokumentformat (PDF, Office) oder Binärdatei. Geprüft werden eine Byte-Order-Mark, Signaturen bekannter Formate
+ * und Nullbytes, die in Text außer UTF-16 nicht vorkommen. Binärdateien wie Archive, Abbilder und Videos werden
+ * ohne weiteres Lesen übersprungen, sofern der Benutzer sie nicht ausdrücklich durchsuchen lässt.
+ */
+public final class BinaryFileDetector {
+
+    /**
+     * So viele Bytes vom Dateianfang werden zur Einordnung gelesen.
+     */
+    public static final int SNIFF_LENGTH = 8 * 1024;
+
+    public static final BinaryFileDetector NONE = new BinaryFileDetector(true);
+
+    /**
+     * Ergebnis der Einordnung; {@link #PDF} und {@link #OFFICE} werden mit den Dokument-Extraktoren durchsucht.
+     */
+    public enum FileKind {
+        TEXT,
+        PDF,
+        OFFICE,
+        BINARY
+    }
+
+    /**
+     * Signaturen am Dateianfang, die sicher keine Textdatei einleiten. Formate, deren Kopf ohnehin Nullbytes enthält
+     * (ausführbare Dateien, Festplatten- und ISO-Abbilder), erkennt die Nullbyte-Prüfung.
+     */
+    private static final byte[][] BINARY_SIGNATURES = {
+            bytes(0x1F, 0x8B),                               // gzip
+            ascii("BZh"),                                    // bzip2
+            bytes(0xFD, '7', 'z', 'X', 'Z', 0x00),           // xz
+            bytes(0x28, 0xB5, 0x2F, 0xFD),                   // zstd
+            bytes('7', 'z', 0xBC, 0xAF, 0x27, 0x1C),         // 7z
+            ascii("Rar!\u001A\u0007"),                       // rar
+            bytes(0x89, 'P', 'N', 'G'),                      // png
+            bytes(0xFF, 0xD8, 0xFF),                         // jpeg
+            ascii("GIF87a"),
+            ascii("GIF89a"),
+            ascii("OggS"),
+            ascii("fLaC"),
+            ascii("ID3"),                                    // mp3
+            bytes(0x1A, 0x45, 0xDF, 0xA3),                   // matroska, webm
+            ascii("RIFF"),                                   // wav, avi, webp
+            bytes(0x7F, 'E', 'L', 'F'),
+            bytes(0xCA, 0xFE, 0xBA, 0xBE),                   // class, mach-o
+            ascii("SQLite format 3"),
+    };
+
+    private static final byte[] PDF_SIGNATURE = ascii("%PDF-");
+    private static final byte[] OLE2_SIGNATURE = bytes(0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1);
+    private static final byte[] ZIP_SIGNATURE = bytes('P', 'K', 0x03, 0x04);
+    private static final byte[] ZIP_EMPTY_SIGNATURE = bytes('P', 'K', 0x05, 0x06);
+    private static final byte[] MP4_SIGNATURE = ascii("ftyp");
+    private static final int MP4_SIGNATURE_OFFSET = 4;
+    private static final int ZIP_NAME_LENGTH_OFFSET = 26;
+    private static final int ZIP_NAME_OFFSET = 30;
+
+    /**
+     * Erste Einträge eines ZIP-Archivs, an denen Office Open XML und OpenDocument zu erkennen sind.
+     */
+    private static final String[] OFFICE_ZIP_ENTRIES = {"[Content_Types].xml", "_rels/", "mimetype", "docProps/", "word/", "xl/", "ppt/"};
+
+    private final boolean scanBinaryFiles;
+    private final AtomicLong skippedFiles = new AtomicLong();
+    private final AtomicLong skippedBytes = new AtomicLong();
+    private final AtomicLong detectedDocuments = new AtomicLong();
+
+    private BinaryFileDetector(final boolean scanBinaryFiles) {
+        this.scanBinaryFiles = scanBinaryFiles;
+    }
+
+    public static BinaryFileDetector create(final ContentScanSettings settings) {
+        final ContentScanSettings effectiveSettings = settings == null ? ContentScanSettings.DEFAULT : settings;
+        return new BinaryFileDetector(effectiveSettings.scanBinaryFiles());
+    }
+
+    /**
+     * Ordnet eine Datei anhand ihres Anfangs ein.
+     *
+     * @param header die ersten Bytes der Datei, höchstens {@link #SNIFF_LENGTH} davon werden ausgewertet
+     */
+    public static FileKind classify(final byte[] header, final int length) {
+        final int sniffLength = Math.min(length, SNIFF_LENGTH);
+        if (TextEncoding.detectByteOrderMark(header, sniffLength) != null) {
+            return FileKind.TEXT;
+        }
+        if (startsWith(header, sniffLength, 0, PDF_SIGNATURE)) {
+            return FileKind.PDF;
+        }
+        if (startsWith(header, sniffLength, 0, OLE2_SIGNATURE)) {
+            return FileKind.OFFICE;
+        }
+        if (startsWith(header, sniffLength, 0, ZIP_SIGNATURE)) {
+            return isOfficeZip(header, sniffLength) ? FileKind.OFFICE : FileKind.BINARY;
+        }
+        if (startsWith(header, sniffLength, 0, ZIP_EMPTY_SIGNATURE) || startsWith(header, sniffLength, MP4_SIGNATURE_OFFSET, MP4_SIGNATURE)) {
+            return FileKind.BINARY;
+        }
+        for (final byte[] signature : BINARY_SIGNATURES) {
+            if (startsWith(header, sniffLength, 0, signature)) {
+                return FileKind.BINARY;
+            }
+        }
+        if (TextEncoding.sniffUtf16(header, sniffLength) != null) {
+            return FileKind.TEXT;
+        }
+        for (int i = 0; i < sniffLength; i++) {
+            if (header[i] == 0) {
+                return FileKind.BINARY;
+            }
+        }
+        return FileKind.TEXT;
+    }
+
+    /**
+     * @return {@code true}, wenn der Inhalt von Binärdateien übersprungen wird
+     */
+    public boolean skipsBinaryFiles() {
+        return !scanBinaryFiles;
+    }
+
+    public void recordSkippedFile(final long fileSize) {
+        skippedFiles.incrementAndGet();
+        skippedBytes.addAndGet(Math.max(0, fileSize));
+    }
+
+    /**
+     * Zählt eine Datei, die trotz Textendung als Dokument durchsucht wird.
+     */
+    public void recordDetectedDocument() {
+        detectedDocuments.incrementAndGet();
+    }
+
+    /**
+     * Liefert eine Zusammenfassung für die Statusmeldung am Ende der Suche oder einen leeren Text.
+     */
+    public String formatSummary() {
+        final long files = skippedFiles.get();
+        final long documents = detectedDocuments.get();
+        if (files == 0 && documents == 0) {
+            return "";
+        }
+
+        final String summary = files == 0 ? "" : String.format("%d binary files skipped (%d MB not read)", files, skippedBytes.get() / (1024 * 1024));
+        if (documents == 0) {
+            return summary;
+        }
+        return (summary.isEmpty() ? "" : summary + ", ") + String.format("%d documents recognized by content", documents);
+    }
+
+    private static boolean isOfficeZip(final byte[] header, final int length) {
+        if (length < ZIP_NAME_OFFSET) {
+            return false;
+        }
+        final int nameLength = (header[ZIP_NAME_LENGTH_OFFSET] & 0xFF) | (header[ZIP_NAME_LENGTH_OFFSET + 1] & 0xFF) << 8;
+        final int nameEnd = Math.min(length, ZIP_NAME_OFFSET + nameLength);
+        final String firstEntry = new String(header, ZIP_NAME_OFFSET, nameEnd - ZIP_NAME_OFFSET, StandardCharsets.ISO_8859_1);
+        for (final String officeEntry : OFFICE_ZIP_ENTRIES) {
+            if (firstEntry.startsWith(officeEntry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(final byte[] header, final int length, final int offset, final byte[] signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] bytes(final int... values) {
+        final byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    private static byte[] ascii(final String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Einfache Unicode-Groß-/Kleinschreibungsfaltung über eine vorberechnete Tabelle. ASCII-Zeichen werden
+ * arithmetisch gefaltet, alle übrigen Zeichen der Basisebene über die Tabelle. Gefaltet wird wie bei
+ * {@link String#equalsIgnoreCase(String)} über {@code toLowerCase(toUpperCase(c))}, sodass z. B. das
+ * finale Sigma, das lange s oder das Kelvin-Zeichen mit ihren Gegenstücken übereinstimmen.
+ * Zeichen außerhalb der Basisebene (Surrogatpaare) werden über ihren Codepoint gefaltet.
+ */
+public final class CaseFolding {
+
+    private static final char[] FOLD_TABLE = buildFoldTable();
+
+    private CaseFolding() {
+    }
+
+    public static char fold(final char character) {
+        if (character < 128) {
+            return character >= 'A' && character <= 'Z' ? (char) (character | 0x20) : character;
+        }
+        return FOLD_TABLE[character];
+    }
+
+    public static int foldCodePoint(final int codePoint) {
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            return fold((char) codePoint);
+        }
+        return Character.toLowerCase(Character.toUpperCase(codePoint));
+    }
+
+    /**
+     * Faltet einen Text codepointweise, ohne dass sich seine Länge in UTF-16-Einheiten ändert.
+     */
+    public static String fold(final String text) {
+        final StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); ) {
+            final int codePoint = text.codePointAt(i);
+            final int foldedCodePoint = foldCodePoint(codePoint);
+            // Nur Faltungen übernehmen, die die Anzahl der UTF-16-Einheiten erhalten
+            folded.appendCodePoint(Character.charCount(foldedCodePoint) == Character.charCount(codePoint) ? foldedCodePoint : codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Liefert {@code true}, wenn der Text Zeichen außerhalb der Basisebene mit Groß-/Kleinvarianten enthält.
+     * Nur dann muss die Eingabe codepointweise gefaltet werden.
+     */
+    public static boolean hasFoldableSupplementaryCharacters(final String text) {
+        for (int i = 0; i < text.length(); ) {
+            final int codePoint = text.codePointAt(i);
+            if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT
+                    && Character.toUpperCase(codePoint) != Character.toLowerCase(codePoint)) {
+                return true;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return false;
+    }
+
+    /**
+     * Sucht ein bereits gefaltetes Muster im Bereich {@code [0, end)} eines Textes, ohne den Text zu kopieren.
+     */
+    public static boolean containsFolded(final String text, final int end, final String foldedPattern) {
+        final int patternLength = foldedPattern.length();
+        if (patternLength == 0) {
+            return true;
+        }
+
+        final char firstCharacter = foldedPattern.charAt(0);
+        final int lastStart = end - patternLength;
+        outer:
+        for (int i = 0; i <= lastStart; i++) {
+            if (fold(text.charAt(i)) != firstCharacter) {
+                continue;
+            }
+            for (int j = 1; j < patternLength; j++) {
+                if (fold(text.charAt(i + j)) != foldedPattern.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static char[] buildFoldTable() {
+        final char[] table = new char[Character.MAX_VALUE + 1];
+        for (int character = 0; character <= Character.MAX_VALUE; character++) {
+            table[character] = Character.toLowerCase(Character.toUpperCase((char) character));
+        }
+        return table;
+    }
+
+}
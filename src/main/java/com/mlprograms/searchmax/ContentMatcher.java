@@ -0,0 +1,1182 @@
+package com.mlprograms.searchmax;
+
+import com.mlprograms.searchmax.model.TextFiltersTableModel.Syntax;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Aho-Corasick-Automat für beliebig viele Inhaltsfilter. Der Text wird genau einmal Zeichen für
+ * Zeichen direkt im Lesepuffer durchlaufen, unabhängig von der Anzahl der Muster, und pro Puffer wird
+ * nichts allokiert. Alle Muster werden mit {@link CaseFolding} gefaltet und teilen sich einen Durchlauf; für case-sensitive Muster wird ein Treffer anschließend
+ * gegen die Originalzeichen geprüft. Der Zustand eines Durchlaufs bleibt über Puffergrenzen hinweg
+ * erhalten; vom vorherigen Puffer werden nur die letzten Zeichen für diese Prüfung aufbewahrt.
+ * <p>
+ * Die Übergänge sind als vollständige Tabelle über Zeichenklassen abgelegt: jedes in einem Muster
+ * vorkommende Zeichen bildet eine Klasse, alle übrigen Zeichen teilen sich Klasse 0 und führen stets
+ * zurück in den Startzustand. Die Faltung steckt damit bereits in der Klassentabelle. Nur wenn ein Muster
+ * Zeichen außerhalb der Basisebene mit Groß-/Kleinvarianten enthält, wird die Eingabe codepointweise
+ * gefaltet (langsamer Pfad). Jeder Eintrag enthält bereits den Zeilenversatz des Folgezustands,
+ * das Vorzeichenbit markiert Zustände mit Treffern.
+ * <p>
+ * Einfache Textdateien können auch als Bytes verarbeitet werden, ohne vorher in Zeichen dekodiert zu
+ * werden: Für CP1252 gibt es eine eigene Klassentabelle über alle 256 Bytes, bei UTF-8 laufen
+ * ASCII-Bytes direkt durch die Klassentabelle und nur Mehrbytesequenzen werden zusammengesetzt.
+ * Ungültige Sequenzen werden als Ersatzzeichen behandelt, statt den Durchlauf abzubrechen.
+ * <p>
+ * Reguläre Ausdrücke laufen als {@link StreamingRegex} neben dem Automaten her. Sobald es einen gibt, wird jedes
+ * Zeichen einzeln verarbeitet, auch aus Zeichenpuffern, und der Startbyte-Filter entfällt.
+ */
+@Slf4j
+public final class ContentMatcher {
+
+    private static final int[] NO_OUTPUTS = new int[0];
+    private static final int OUTPUT_FLAG = Integer.MIN_VALUE;
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private final int patternCount;
+    private final char[] characterClasses;
+    private final char[] windows1252Classes;
+    private final int classCount;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final char[][] caseSensitivePatterns;
+    private final int carryLength;
+    private final int historyLength;
+    private final boolean foldsCodePoints;
+    private final StreamingRegex[] regexes;
+    private final int[] regexPatternIndices;
+    private final StartByteFilter utf8StartByteFilter;
+    private final StartByteFilter windows1252StartByteFilter;
+
+    private ContentMatcher(final int patternCount, final char[] characterClasses, final int classCount,
+                           final int[] transitions, final int[][] outputs, final char[][] caseSensitivePatterns,
+                           final int maximumCaseSensitiveLength, final boolean foldsCodePoints,
+                           final StreamingRegex[] regexes, final char[] singleFoldedPattern) {
+        this.patternCount = patternCount;
+        this.characterClasses = characterClasses;
+        this.windows1252Classes = new char[256];
+        for (int value = 0; value < windows1252Classes.length; value++) {
+            windows1252Classes[value] = characterClasses[TextEncoding.decodeWindows1252((byte) value)];
+        }
+        this.classCount = classCount;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.caseSensitivePatterns = caseSensitivePatterns;
+        this.carryLength = Math.max(0, maximumCaseSensitiveLength - 1);
+        this.historyLength = maximumCaseSensitiveLength == 0 ? 0 : Integer.highestOneBit(maximumCaseSensitiveLength * 2 - 1);
+        this.foldsCodePoints = foldsCodePoints;
+        this.regexes = regexes;
+        this.regexPatternIndices = indicesOf(regexes);
+        this.utf8StartByteFilter = buildStartByteFilter(TextEncoding.UTF_8, singleFoldedPattern);
+        this.windows1252StartByteFilter = buildStartByteFilter(TextEncoding.WINDOWS_1252, singleFoldedPattern);
+    }
+
+    /**
+     * Baut den Automaten für die übergebenen Muster. Der Index eines Musters in der Liste ist
+     * zugleich sein Index in {@link Scan#isMatched(int)}.
+     *
+     * @param foldDiacritics {@code true}, wenn Textmuster nach {@link DiacriticFolding} verglichen werden;
+     *                       Groß-/Kleinschreibung wird dann nicht beachtet
+     */
+    public static ContentMatcher compile(final List<FilterPlan.TextPattern> patterns, final boolean foldDiacritics) {
+        final char[] characterClasses = new char[Character.MAX_VALUE + 1];
+        int classCount = 1;
+        final char[][] foldedPatterns = new char[patterns.size()][];
+        final char[][] accentFoldedPatterns = new char[patterns.size()][];
+        final char[][] caseSensitivePatterns = new char[patterns.size()][];
+        int maximumCaseSensitiveLength = 0;
+        boolean foldsCodePoints = false;
+
+        final StreamingRegex[] regexes = new StreamingRegex[patterns.size()];
+        for (int i = 0; i < patterns.size(); i++) {
+            final FilterPlan.TextPattern pattern = patterns.get(i);
+            if (pattern.syntax() != Syntax.TEXT) {
+                regexes[i] = compileRegex(pattern);
+                continue;
+            }
+
+            final char[] folded = (foldDiacritics ? DiacriticFolding.fold(pattern.pattern()) : CaseFolding.fold(pattern.pattern())).toCharArray();
+            foldsCodePoints |= CaseFolding.hasFoldableSupplementaryCharacters(pattern.pattern());
+            for (int j = 0; j < folded.length; j++) {
+                if (characterClasses[folded[j]] == 0) {
+                    characterClasses[folded[j]] = (char) classCount++;
+                }
+            }
+            foldedPatterns[i] = folded;
+            if (foldDiacritics) {
+                accentFoldedPatterns[i] = DiacriticFolding.foldAccents(pattern.pattern()).toCharArray();
+                for (final char character : accentFoldedPatterns[i]) {
+                    if (characterClasses[character] == 0) {
+                        characterClasses[character] = (char) classCount++;
+                    }
+                }
+            }
+            if (pattern.caseSensitive() && !foldDiacritics) {
+                caseSensitivePatterns[i] = pattern.pattern().toCharArray();
+                maximumCaseSensitiveLength = Math.max(maximumCaseSensitiveLength, folded.length);
+            }
+        }
+
+        final char[][] contextPatterns = foldDiacritics && Arrays.stream(foldedPatterns).anyMatch(Objects::nonNull)
+                ? umlautContexts() : new char[0][];
+        for (final char[] contextPattern : contextPatterns) {
+            for (final char character : contextPattern) {
+                if (characterClasses[character] == 0) {
+                    characterClasses[character] = (char) classCount++;
+                }
+            }
+        }
+
+        // Großbuchstaben teilen sich die Klasse ihres Kleinbuchstabens
+        for (int character = 0; character <= Character.MAX_VALUE; character++) {
+            final char folded = CaseFolding.fold((char) character);
+            if (folded != character && characterClasses[folded] != 0) {
+                characterClasses[character] = characterClasses[folded];
+            }
+        }
+
+        if (foldDiacritics) {
+            classCount = assignDiacriticClasses(characterClasses, classCount);
+        }
+
+        final Automaton automaton;
+        if (foldDiacritics) {
+            // Wie DiacriticFolding.containsFolded: gefaltete Form oder Form ohne Umschreibungen
+            automaton = combine(buildAutomaton(foldedPatterns, contextPatterns, true, true, classCount, characterClasses),
+                    buildAutomaton(accentFoldedPatterns, new char[0][], true, false, classCount, characterClasses), classCount);
+        } else {
+            automaton = buildAutomaton(foldedPatterns, new char[0][], false, false, classCount, characterClasses);
+        }
+        final int[] transitions = automaton.transitions();
+        final int[][] outputs = automaton.outputs();
+
+        // Mit Faltung ist ein Treffer nicht immer so lang wie das Muster, der Filter auf das letzte Byte entfällt
+        return new ContentMatcher(patterns.size(), characterClasses, classCount, transitions, outputs,
+                caseSensitivePatterns, maximumCaseSensitiveLength, foldsCodePoints, regexes,
+                foldedPatterns.length == 1 && !foldDiacritics ? foldedPatterns[0] : null);
+    }
+
+    /**
+     * Ordnet Zeichen mit diakritischen Zeichen der Klasse ihres Grundbuchstabens zu. {@code ß} bekommt eine eigene
+     * Klasse für den Doppelschritt über {@code s}, {@code e} eine für das Überspringen nach {@code a}, {@code o}
+     * und {@code u}.
+     *
+     * @return die neue Anzahl der Klassen
+     */
+    private static int assignDiacriticClasses(final char[] characterClasses, final int classCount) {
+        int count = classCount;
+        if (characterClasses['s'] != 0) {
+            characterClasses[DiacriticFolding.SHARP_S] = (char) count++;
+        }
+        if ((characterClasses['a'] | characterClasses['o'] | characterClasses['u']) != 0 && characterClasses['e'] == 0) {
+            characterClasses['e'] = (char) count++;
+        }
+        for (int character = 0; character <= Character.MAX_VALUE; character++) {
+            final char base = DiacriticFolding.base((char) character);
+            if (base != character && characterClasses[base] != 0) {
+                characterClasses[character] = characterClasses[base];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Zeichenpaare aus einem Vokal (oder {@code q}) und {@code a}, {@code o} oder {@code u}, die ohne Ausgabe in den
+     * Baum kommen. Dadurch kennt jeder Zustand, dessen letztes Zeichen ein {@code e} aufnehmen könnte, auch das
+     * Zeichen davor, und der Automat entscheidet wie {@link DiacriticFolding#absorbsFollowingE(char, char)}.
+     */
+    private static char[][] umlautContexts() {
+        final List<char[]> contexts = new ArrayList<>();
+        for (final char vowel : DiacriticFolding.VOWELS.toCharArray()) {
+            for (final char absorbing : new char[]{'a', 'o', 'u'}) {
+                contexts.add(new char[]{vowel, absorbing});
+            }
+        }
+        contexts.add(new char[]{'q', 'u'});
+        return contexts.toArray(char[][]::new);
+    }
+
+    private record Automaton(int[] transitions, int[][] outputs) {
+    }
+
+    /**
+     * @param foldDiacritics {@code true}, wenn der Text nach {@link DiacriticFolding} gelesen wird
+     * @param umlauts        {@code true} für die gefaltete Form, {@code false} für die Form ohne Umschreibungen
+     */
+    private static Automaton buildAutomaton(final char[][] patterns, final char[][] contextPatterns, final boolean foldDiacritics,
+                                            final boolean umlauts, final int classCount, final char[] characterClasses) {
+        final Trie trie = buildTrie(patterns, contextPatterns, classCount, characterClasses);
+        final int[][] outputs = linkFailures(trie, classCount);
+        encodeTransitions(trie.transitions, outputs, classCount);
+        return foldDiacritics
+                ? addDiacriticTransitions(trie, outputs, umlauts, classCount, characterClasses)
+                : new Automaton(trie.transitions, outputs);
+    }
+
+    /**
+     * Verbindet zwei Automaten über denselben Zeichenklassen zu einem, der beide gleichzeitig durchläuft und die
+     * Treffer beider meldet. Erzeugt werden nur die erreichbaren Zustandspaare; da beide Automaten denselben Text bis
+     * auf einzelne {@code e} verfolgen, sind das etwa so viele wie die Zustände beider zusammen.
+     */
+    private static Automaton combine(final Automaton first, final Automaton second, final int classCount) {
+        final Map<Long, Integer> stateIndices = new HashMap<>();
+        long[] pairs = new long[64];
+        int[][] outputs = new int[pairs.length][];
+        int[] transitions = new int[pairs.length * classCount];
+        stateIndices.put(0L, 0);
+        outputs[0] = mergeOutputs(first.outputs[0], second.outputs[0]);
+        int stateCount = 1;
+
+        for (int state = 0; state < stateCount; state++) {
+            final int firstOffset = (int) (pairs[state] >>> 32);
+            final int secondOffset = (int) pairs[state];
+            for (int characterClass = 0; characterClass < classCount; characterClass++) {
+                final int firstNext = first.transitions[firstOffset + characterClass] & ~OUTPUT_FLAG;
+                final int secondNext = second.transitions[secondOffset + characterClass] & ~OUTPUT_FLAG;
+                final long pair = (long) firstNext << 32 | secondNext;
+                Integer next = stateIndices.get(pair);
+                if (next == null) {
+                    next = stateCount++;
+                    if (next == pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                        outputs = Arrays.copyOf(outputs, pairs.length);
+                        transitions = Arrays.copyOf(transitions, pairs.length * classCount);
+                    }
+                    pairs[next] = pair;
+                    outputs[next] = mergeOutputs(first.outputs[firstNext / classCount], second.outputs[secondNext / classCount]);
+                    stateIndices.put(pair, next);
+                }
+                transitions[state * classCount + characterClass] = next * classCount | (outputs[next].length > 0 ? OUTPUT_FLAG : 0);
+            }
+        }
+        return new Automaton(Arrays.copyOf(transitions, stateCount * classCount), Arrays.copyOf(outputs, stateCount));
+    }
+
+    /**
+     * Ergänzt den fertigen Automaten um die Faltungen, die nicht Zeichen auf Zeichen abbilden. Mit {@code umlauts}
+     * führt ein {@code e} nach einem Zustand, dessen Endung nach
+     * {@link DiacriticFolding#absorbsFollowingE(char, char)} ein {@code e} aufnimmt, in eine Kopie des Zustands, die
+     * kein weiteres {@code e} aufnimmt. {@code ß} geht zwei Schritte über
+     * {@code s}; meldet schon der Zwischenzustand nach dem ersten {@code s} Treffer, führt es in eine Kopie des
+     * Ziels, die die Treffer beider Zustände meldet.
+     */
+    private static Automaton addDiacriticTransitions(final Trie trie, final int[][] outputs, final boolean umlauts,
+                                                     final int classCount, final char[] characterClasses) {
+        final int stateCount = trie.stateCount;
+        final int eClass = umlauts ? characterClasses['e'] : 0;
+        final int[] absorbingStates = new int[stateCount];
+        int absorbingCount = 0;
+        for (int state = 1; state < stateCount && eClass != 0; state++) {
+            if (absorbsFollowingE(trie.lastClasses[trie.parents[state]], trie.lastClasses[state], characterClasses)) {
+                absorbingStates[absorbingCount++] = state;
+            }
+        }
+
+        int[] transitions = Arrays.copyOf(trie.transitions, (stateCount + absorbingCount) * classCount);
+        int[][] extendedOutputs = Arrays.copyOf(outputs, stateCount + absorbingCount);
+        for (int i = 0; i < absorbingCount; i++) {
+            final int state = absorbingStates[i];
+            final int copy = stateCount + i;
+            System.arraycopy(transitions, state * classCount, transitions, copy * classCount, classCount);
+            extendedOutputs[copy] = outputs[state];
+            transitions[state * classCount + eClass] = copy * classCount | (outputs[state].length > 0 ? OUTPUT_FLAG : 0);
+        }
+
+        final int sClass = characterClasses['s'];
+        if (sClass == 0) {
+            return new Automaton(transitions, extendedOutputs);
+        }
+
+        // Ein s führt nie in eine der Kopien oben, die Zustände nach ß sind also alle Zustände des Baums
+        final int sharpSClass = characterClasses[DiacriticFolding.SHARP_S];
+        final int extendedCount = extendedOutputs.length;
+        final Map<Long, Integer> mergedStates = new HashMap<>();
+        int totalCount = extendedCount;
+        for (int state = 0; state < extendedCount; state++) {
+            final int afterFirstS = transitions[state * classCount + sClass] & ~OUTPUT_FLAG;
+            int next = transitions[afterFirstS + sClass];
+            if (extendedOutputs[afterFirstS / classCount].length > 0) {
+                final int target = (next & ~OUTPUT_FLAG) / classCount;
+                Integer merged = mergedStates.get((long) afterFirstS << 32 | target);
+                if (merged == null) {
+                    merged = totalCount++;
+                    mergedStates.put((long) afterFirstS << 32 | target, merged);
+                    if (merged * classCount >= transitions.length) {
+                        transitions = Arrays.copyOf(transitions, transitions.length * 2);
+                        extendedOutputs = Arrays.copyOf(extendedOutputs, extendedOutputs.length * 2);
+                    }
+                    System.arraycopy(transitions, target * classCount, transitions, merged * classCount, classCount);
+                    extendedOutputs[merged] = mergeOutputs(extendedOutputs[target], extendedOutputs[afterFirstS / classCount]);
+                }
+                next = merged * classCount | OUTPUT_FLAG;
+            }
+            transitions[state * classCount + sharpSClass] = next;
+        }
+        // Die Kopien wurden teils vor den ß-Übergängen ihres Ziels angelegt
+        for (final Map.Entry<Long, Integer> merged : mergedStates.entrySet()) {
+            final int target = (int) (long) merged.getKey();
+            transitions[merged.getValue() * classCount + sharpSClass] = transitions[target * classCount + sharpSClass];
+        }
+        return new Automaton(Arrays.copyOf(transitions, totalCount * classCount), Arrays.copyOf(extendedOutputs, totalCount));
+    }
+
+    /**
+     * Gegenstück zu {@link DiacriticFolding#absorbsFollowingE(char, char)} auf Zeichenklassen. Ein Zustand der Tiefe
+     * eins hat die Klasse {@code 0} davor: Wäre das Zeichen davor ein Vokal oder {@code q}, stünde der Automat durch
+     * {@link #umlautContexts()} in einem tieferen Zustand.
+     */
+    private static boolean absorbsFollowingE(final int beforePreviousClass, final int previousClass, final char[] characterClasses) {
+        if (previousClass == 0 || previousClass != characterClasses['a'] && previousClass != characterClasses['o']
+                && previousClass != characterClasses['u']) {
+            return false;
+        }
+        if (beforePreviousClass == 0) {
+            return true;
+        }
+        for (final char vowel : DiacriticFolding.VOWELS.toCharArray()) {
+            if (beforePreviousClass == characterClasses[vowel]) {
+                return false;
+            }
+        }
+        return !(previousClass == characterClasses['u'] && beforePreviousClass == characterClasses['q']);
+    }
+
+    /**
+     * Übersetzt reguläre Ausdrücke und die Operatoren aus {@link ContentOperators}. Ungültige oder nicht unterstützte
+     * Ausdrücke werden protokolliert und treffen nie zu.
+     */
+    private static StreamingRegex compileRegex(final FilterPlan.TextPattern pattern) {
+        try {
+            return StreamingRegex.compile(ContentOperators.toRegex(pattern.syntax(), pattern.pattern()), pattern.caseSensitive());
+        } catch (final PatternSyntaxException patternSyntaxException) {
+            log.warn("Ungültiger Inhaltsfilter {}: {}", pattern.syntax().format(pattern.pattern()), patternSyntaxException.getDescription());
+            return null;
+        }
+    }
+
+    private static int[] indicesOf(final StreamingRegex[] regexes) {
+        int count = 0;
+        final int[] indices = new int[regexes.length];
+        for (int i = 0; i < regexes.length; i++) {
+            if (regexes[i] != null) {
+                indices[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    public boolean hasRegexes() {
+        return regexPatternIndices.length > 0;
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    public int getStateCount() {
+        return outputs.length;
+    }
+
+    /**
+     * Liefert den Startbyte-Filter für eine ASCII-kompatible Kodierung oder {@code null}, wenn zu viele
+     * verschiedene Bytes einen Treffer beginnen können.
+     */
+    public StartByteFilter getStartByteFilter(final TextEncoding encoding) {
+        return switch (encoding) {
+            case UTF_8 -> utf8StartByteFilter;
+            case WINDOWS_1252 -> windows1252StartByteFilter;
+            case UTF_16LE, UTF_16BE -> null;
+        };
+    }
+
+    private StartByteFilter buildStartByteFilter(final TextEncoding encoding, final char[] singleFoldedPattern) {
+        if (patternCount == 0 || hasRegexes()) {
+            return null;
+        }
+
+        final boolean utf8 = encoding == TextEncoding.UTF_8;
+        final char[] byteClasses = utf8 ? characterClasses : windows1252Classes;
+        final byte[] firstBytes = bytesLeavingStartState(byteClasses, utf8 ? 128 : 256);
+        if (firstBytes == null) {
+            return null;
+        }
+
+        boolean matchesNonAscii = false;
+        if (utf8) {
+            for (int character = 128; character <= Character.MAX_VALUE && !matchesNonAscii; character++) {
+                matchesNonAscii = transitions[characterClasses[character]] != 0;
+            }
+        }
+
+        // Erster und letzter Byte-Filter nur, wenn jeder Treffer genau so viele Bytes wie Zeichen hat
+        if (singleFoldedPattern != null && !foldsCodePoints && !matchesNonAscii
+                && hasSingleByteClasses(singleFoldedPattern, encoding)) {
+            final byte[] lastBytes = bytesOfClass(byteClasses, characterClasses[singleFoldedPattern[singleFoldedPattern.length - 1]], utf8 ? 128 : 256);
+            if (lastBytes.length <= StartByteFilter.MAX_START_BYTES) {
+                return new StartByteFilter(firstBytes, false, lastBytes, singleFoldedPattern.length - 1);
+            }
+        }
+        return new StartByteFilter(firstBytes, matchesNonAscii, null, 0);
+    }
+
+    private byte[] bytesLeavingStartState(final char[] byteClasses, final int byteCount) {
+        final byte[] bytes = new byte[StartByteFilter.MAX_START_BYTES];
+        int count = 0;
+        for (int value = 0; value < byteCount; value++) {
+            if (transitions[byteClasses[value]] != 0) {
+                if (count == bytes.length) {
+                    return null;
+                }
+                bytes[count++] = (byte) value;
+            }
+        }
+        return Arrays.copyOf(bytes, count);
+    }
+
+    private static byte[] bytesOfClass(final char[] byteClasses, final char characterClass, final int byteCount) {
+        final byte[] bytes = new byte[byteCount];
+        int count = 0;
+        for (int value = 0; value < byteCount; value++) {
+            if (byteClasses[value] == characterClass) {
+                bytes[count++] = (byte) value;
+            }
+        }
+        return Arrays.copyOf(bytes, count);
+    }
+
+    /**
+     * Prüft, ob alle Zeichen, die mit einem Zeichen des Musters übereinstimmen, in UTF-8 genau ein Byte belegen.
+     * In CP1252 belegt jedes Zeichen ein Byte.
+     */
+    private boolean hasSingleByteClasses(final char[] foldedPattern, final TextEncoding encoding) {
+        if (encoding != TextEncoding.UTF_8) {
+            return true;
+        }
+
+        final boolean[] multiByteClass = new boolean[classCount];
+        for (int character = 128; character <= Character.MAX_VALUE; character++) {
+            multiByteClass[characterClasses[character]] = true;
+        }
+        for (final char character : foldedPattern) {
+            if (multiByteClass[characterClasses[character]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Weitere Bedingung über die Treffer eines Durchlaufs, z. B. die Inhaltsterme einer Suchabfrage.
+     */
+    @FunctionalInterface
+    public interface Condition {
+
+        /**
+         * @param scan     Durchlauf mit den bisherigen Treffern
+         * @param finished {@code true}, wenn die Eingabe vollständig gelesen wurde
+         * @return das Ergebnis oder {@code null}, solange es noch offen ist
+         */
+        Boolean evaluate(Scan scan, boolean finished);
+    }
+
+    /**
+     * Startet einen neuen Durchlauf, z. B. für eine Datei. Die ersten {@code includeCount} Muster sind
+     * Einschlussmuster, die folgenden {@code excludeCount} Ausschlussmuster; alle übrigen Muster werden nur für die
+     * {@code condition} gesucht. Alle Muster teilen sich denselben Durchlauf.
+     *
+     * @param includeCount Anzahl der Einschlussmuster am Anfang der Musterliste
+     * @param excludeCount Anzahl der Ausschlussmuster nach den Einschlussmustern
+     * @param requireAll   {@code true}, wenn alle Einschlussmuster vorkommen müssen
+     * @param condition    zusätzliche Bedingung oder {@code null}
+     */
+    public Scan newScan(final int includeCount, final int excludeCount, final boolean requireAll, final Condition condition) {
+        return new Scan(includeCount, excludeCount, requireAll, condition);
+    }
+
+    private record Trie(int[] transitions, List<int[]> stateOutputs, int stateCount, int[] parents, int[] lastClasses) {
+    }
+
+    /**
+     * Baut den Baum aus den Mustern und den Kontextzeichenfolgen, die ohne Ausgabe eingefügt werden. Zu jedem Zustand
+     * werden Elternzustand und die Klasse des Zeichens, das in ihn führt, festgehalten.
+     */
+    private static Trie buildTrie(final char[][] foldedPatterns, final char[][] contextPatterns, final int classCount,
+                                  final char[] characterClasses) {
+        final List<int[]> rows = new ArrayList<>();
+        final List<int[]> stateOutputs = new ArrayList<>();
+        rows.add(newRow(classCount));
+        stateOutputs.add(NO_OUTPUTS);
+
+        for (int patternIndex = 0; patternIndex < foldedPatterns.length + contextPatterns.length; patternIndex++) {
+            final boolean contextPattern = patternIndex >= foldedPatterns.length;
+            final char[] pattern = contextPattern ? contextPatterns[patternIndex - foldedPatterns.length] : foldedPatterns[patternIndex];
+            if (pattern == null) {
+                continue;
+            }
+
+            int state = 0;
+            for (final char character : pattern) {
+                final int characterClass = characterClasses[character];
+                int next = rows.get(state)[characterClass];
+                if (next < 0) {
+                    next = rows.size();
+                    rows.get(state)[characterClass] = next;
+                    rows.add(newRow(classCount));
+                    stateOutputs.add(NO_OUTPUTS);
+                }
+                state = next;
+            }
+            if (!contextPattern) {
+                stateOutputs.set(state, appendOutput(stateOutputs.get(state), patternIndex));
+            }
+        }
+
+        final int[] transitions = new int[rows.size() * classCount];
+        final int[] parents = new int[rows.size()];
+        final int[] lastClasses = new int[rows.size()];
+        for (int state = 0; state < rows.size(); state++) {
+            final int[] row = rows.get(state);
+            System.arraycopy(row, 0, transitions, state * classCount, classCount);
+            for (int characterClass = 0; characterClass < classCount; characterClass++) {
+                if (row[characterClass] >= 0) {
+                    parents[row[characterClass]] = state;
+                    lastClasses[row[characterClass]] = characterClass;
+                }
+            }
+        }
+        return new Trie(transitions, stateOutputs, rows.size(), parents, lastClasses);
+    }
+
+    /**
+     * Berechnet die Fehlerverweise per Breitensuche und ersetzt fehlende Übergänge durch die des
+     * Fehlerzustands, sodass ein vollständiger deterministischer Automat entsteht.
+     */
+    private static int[][] linkFailures(final Trie trie, final int classCount) {
+        final int[] transitions = trie.transitions;
+        final int[] failure = new int[trie.stateCount];
+        final int[][] outputs = trie.stateOutputs.toArray(int[][]::new);
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        for (int characterClass = 0; characterClass < classCount; characterClass++) {
+            final int next = transitions[characterClass];
+            if (next < 0) {
+                transitions[characterClass] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            final int rowOffset = state * classCount;
+            final int failureOffset = failure[state] * classCount;
+            for (int characterClass = 0; characterClass < classCount; characterClass++) {
+                final int next = transitions[rowOffset + characterClass];
+                if (next < 0) {
+                    transitions[rowOffset + characterClass] = transitions[failureOffset + characterClass];
+                } else {
+                    failure[next] = transitions[failureOffset + characterClass];
+                    outputs[next] = mergeOutputs(outputs[next], outputs[failure[next]]);
+                    queue.add(next);
+                }
+            }
+        }
+        return outputs;
+    }
+
+    private static void encodeTransitions(final int[] transitions, final int[][] outputs, final int classCount) {
+        for (int i = 0; i < transitions.length; i++) {
+            final int next = transitions[i];
+            transitions[i] = next * classCount | (outputs[next].length > 0 ? OUTPUT_FLAG : 0);
+        }
+    }
+
+    private static int[] newRow(final int classCount) {
+        final int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] appendOutput(final int[] outputs, final int patternIndex) {
+        final int[] merged = Arrays.copyOf(outputs, outputs.length + 1);
+        merged[outputs.length] = patternIndex;
+        return merged;
+    }
+
+    private static int[] mergeOutputs(final int[] own, final int[] inherited) {
+        if (inherited.length == 0) {
+            return own;
+        }
+        if (own.length == 0) {
+            return inherited;
+        }
+
+        final int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+        return merged;
+    }
+
+    /**
+     * Veränderlicher Zustand eines einzelnen Durchlaufs. Nicht threadsicher. Ein Durchlauf wird entweder
+     * nur mit Zeichen oder nur mit Bytes gefüttert. Melden die {@code feed}-Methoden, dass das Ergebnis feststeht,
+     * liefert {@link #isAccepted()} es ohne weiteres Lesen.
+     */
+    public final class Scan {
+
+        private final boolean requireAll;
+        private final int includeCount;
+        private final int excludeCount;
+        private final Condition condition;
+        private Boolean conditionResult;
+        private final boolean[] matched;
+        private final char[] carry;
+        private int matchedIncludes;
+        private int matchedExcludes;
+        private int stateOffset;
+        private long position;
+        private char[] currentArray;
+        private CharSequence currentText;
+        private int currentOffset;
+        private long currentStart;
+        private char pendingHighSurrogate;
+        private char[] history;
+        private int pendingByte = -1;
+        private int utf8CodePoint;
+        private int utf8Remaining;
+        private final StreamingRegex.Cursor[] regexCursors;
+
+        private Scan(final int includeCount, final int excludeCount, final boolean requireAll, final Condition condition) {
+            this.requireAll = requireAll;
+            this.includeCount = includeCount;
+            this.excludeCount = excludeCount;
+            this.condition = condition;
+            this.matched = new boolean[patternCount];
+            this.carry = carryLength == 0 ? null : new char[carryLength];
+            if (regexPatternIndices.length == 0) {
+                this.regexCursors = null;
+            } else {
+                this.regexCursors = new StreamingRegex.Cursor[regexPatternIndices.length];
+                for (int i = 0; i < regexCursors.length; i++) {
+                    regexCursors[i] = regexes[regexPatternIndices[i]].newCursor();
+                }
+            }
+            this.conditionResult = condition == null ? Boolean.TRUE : condition.evaluate(this, false);
+        }
+
+        /**
+         * Verarbeitet einen Ausschnitt eines Puffers.
+         *
+         * @return {@code true}, sobald das Ergebnis feststeht und nicht weitergelesen werden muss
+         */
+        public boolean feed(final char[] buffer, final int offset, final int length) {
+            if (regexCursors != null) {
+                return feedCharacters(buffer, offset, offset + length);
+            }
+
+            currentArray = buffer;
+            currentText = null;
+            currentOffset = offset;
+            currentStart = position;
+            if (foldsCodePoints) {
+                return feedFoldingCodePoints(length);
+            }
+
+            final int[] transitionTable = transitions;
+            final char[] classes = characterClasses;
+            final int end = offset + length;
+            int state = stateOffset;
+            for (int i = offset; i < end; i++) {
+                final int next = transitionTable[(state & ~OUTPUT_FLAG) + classes[buffer[i]]];
+                state = next;
+                if (next < 0 && collectOutputs(next & ~OUTPUT_FLAG, currentStart + (i - offset) + 1)) {
+                    finishFeed(next & ~OUTPUT_FLAG, length);
+                    return true;
+                }
+            }
+            finishFeed(state & ~OUTPUT_FLAG, length);
+            return isDecided();
+        }
+
+        /**
+         * Verarbeitet einen Text, ohne ihn zu kopieren.
+         *
+         * @return {@code true}, sobald das Ergebnis feststeht und nicht weitergelesen werden muss
+         */
+        public boolean feed(final CharSequence text) {
+            return feed(text, 0, text.length());
+        }
+
+        /**
+         * Verarbeitet den Bereich {@code [start, end)} eines Textes, ohne ihn zu kopieren.
+         *
+         * @return {@code true}, sobald das Ergebnis feststeht und nicht weitergelesen werden muss
+         */
+        public boolean feed(final CharSequence text, final int start, final int end) {
+            if (regexCursors != null) {
+                return feedCharacters(text, start, end);
+            }
+
+            currentArray = null;
+            currentText = text;
+            currentOffset = start;
+            currentStart = position;
+            final int length = end - start;
+            if (foldsCodePoints) {
+                return feedFoldingCodePoints(length);
+            }
+
+            int state = stateOffset;
+            for (int i = start; i < end; i++) {
+                final int next = transitions[(state & ~OUTPUT_FLAG) + characterClasses[text.charAt(i)]];
+                state = next;
+                if (next < 0 && collectOutputs(next & ~OUTPUT_FLAG, currentStart + (i - start) + 1)) {
+                    finishFeed(next & ~OUTPUT_FLAG, length);
+                    return true;
+                }
+            }
+            finishFeed(state & ~OUTPUT_FLAG, length);
+            return isDecided();
+        }
+
+        /**
+         * Liefert {@code true}, sobald weitere Eingabe das Ergebnis nicht mehr ändern kann: ein Ausschlussmuster
+         * wurde gefunden, die Bedingung ist verletzt, oder Einschlussmuster und Bedingung sind erfüllt und es gibt
+         * keine Ausschlussmuster.
+         */
+        public boolean isDecided() {
+            return matchedExcludes > 0 || Boolean.FALSE.equals(conditionResult)
+                    || excludeCount == 0 && includesSatisfied() && Boolean.TRUE.equals(conditionResult);
+        }
+
+        /**
+         * Ergebnis nach der bisherigen Eingabe: Einschlussmuster und Bedingung erfüllt, kein Ausschlussmuster gefunden.
+         */
+        public boolean isAccepted() {
+            return matchedExcludes == 0 && includesSatisfied() && Boolean.TRUE.equals(conditionResult);
+        }
+
+        private boolean includesSatisfied() {
+            return includeCount == 0 || (requireAll ? matchedIncludes == includeCount : matchedIncludes > 0);
+        }
+
+        /**
+         * Schließt die Eingabe ab. Reguläre Ausdrücke mit {@code $} oder {@code \b} können erst am Ende zutreffen.
+         *
+         * @return das Ergebnis des Durchlaufs
+         */
+        public boolean finish() {
+            if (regexCursors != null) {
+                for (int i = 0; i < regexCursors.length; i++) {
+                    if (!matched[regexPatternIndices[i]] && regexCursors[i].finish()) {
+                        markMatched(regexPatternIndices[i]);
+                    }
+                }
+            }
+            if (conditionResult == null) {
+                conditionResult = condition.evaluate(this, true);
+            }
+            return isAccepted();
+        }
+
+        public boolean isMatched(final int patternIndex) {
+            return matched[patternIndex];
+        }
+
+        /**
+         * Liefert {@code true}, wenn der Automat im Startzustand ist und keine Mehrbytesequenz offen ist.
+         * Bis zum nächsten Kandidaten eines {@link StartByteFilter} können die Bytes dann übersprungen werden.
+         */
+        public boolean isIdle() {
+            return stateOffset == 0 && utf8Remaining == 0 && pendingByte < 0 && pendingHighSurrogate == 0;
+        }
+
+        /**
+         * Überspringt Bytes, die keinen Treffer beginnen können.
+         */
+        public void skip(final int byteCount) {
+            position += byteCount;
+        }
+
+        public StartByteFilter getStartByteFilter(final TextEncoding encoding) {
+            return ContentMatcher.this.getStartByteFilter(encoding);
+        }
+
+        /**
+         * Verarbeitet Bytes einer ASCII-kompatiblen Kodierung, bis der Automat wieder im Startzustand ist.
+         *
+         * @return die Position hinter dem zuletzt verarbeiteten Byte
+         */
+        public int feedUntilIdle(final byte[] buffer, final int offset, final int end, final TextEncoding encoding) {
+            if (historyLength > 0 && history == null) {
+                history = new char[historyLength];
+            }
+
+            final boolean singleByte = encoding == TextEncoding.WINDOWS_1252;
+            final boolean direct = history == null && !foldsCodePoints && regexCursors == null;
+            final char[] classes = singleByte ? windows1252Classes : characterClasses;
+            int index = offset;
+            do {
+                final byte value = buffer[index++];
+                if (direct && (singleByte || value >= 0 && utf8Remaining == 0)) {
+                    final int next = transitions[stateOffset + classes[value & 0xFF]];
+                    stateOffset = next & ~OUTPUT_FLAG;
+                    position++;
+                    if (next < 0 && collectOutputs(stateOffset, position)) {
+                        return index;
+                    }
+                } else if (singleByte ? step(TextEncoding.decodeWindows1252(value)) : acceptUtf8Byte(value & 0xFF)) {
+                    return index;
+                }
+            } while (index < end && !isIdle());
+            return index;
+        }
+
+        /**
+         * Verarbeitet einen Ausschnitt eines Bytepuffers in der angegebenen Kodierung, ohne ihn zu dekodieren.
+         * Die Position zählt dabei weiterhin Zeichen; für die Prüfung case-sensitiver Muster werden die
+         * zuletzt gelesenen Zeichen in einem Ringpuffer gehalten.
+         *
+         * @return {@code true}, sobald das Ergebnis feststeht und nicht weitergelesen werden muss
+         */
+        public boolean feed(final byte[] buffer, final int offset, final int length, final TextEncoding encoding) {
+            currentArray = null;
+            currentText = null;
+            if (historyLength > 0 && history == null) {
+                history = new char[historyLength];
+            }
+
+            return switch (encoding) {
+                case WINDOWS_1252 -> feedWindows1252(buffer, offset, offset + length);
+                case UTF_8 -> feedUtf8(buffer, offset, offset + length);
+                case UTF_16LE -> feedUtf16(buffer, offset, offset + length, false);
+                case UTF_16BE -> feedUtf16(buffer, offset, offset + length, true);
+            };
+        }
+
+        private boolean feedWindows1252(final byte[] buffer, final int start, final int end) {
+            if (history != null || regexCursors != null) {
+                for (int i = start; i < end; i++) {
+                    if (step(TextEncoding.decodeWindows1252(buffer[i]))) {
+                        return true;
+                    }
+                }
+                return isDecided();
+            }
+
+            final int[] transitionTable = transitions;
+            final char[] classes = windows1252Classes;
+            int state = stateOffset;
+            long endPosition = position;
+            for (int i = start; i < end; i++) {
+                final int next = transitionTable[(state & ~OUTPUT_FLAG) + classes[buffer[i] & 0xFF]];
+                state = next;
+                endPosition++;
+                if (next < 0 && collectOutputs(next & ~OUTPUT_FLAG, endPosition)) {
+                    stateOffset = next & ~OUTPUT_FLAG;
+                    position = endPosition;
+                    return true;
+                }
+            }
+            stateOffset = state & ~OUTPUT_FLAG;
+            position = endPosition;
+            return isDecided();
+        }
+
+        private boolean feedUtf8(final byte[] buffer, final int start, final int end) {
+            final boolean directAscii = history == null && !foldsCodePoints && regexCursors == null;
+            final int[] transitionTable = transitions;
+            final char[] classes = characterClasses;
+            int index = start;
+            while (index < end) {
+                if (directAscii && utf8Remaining == 0) {
+                    // ASCII-Bytes laufen ohne Umweg direkt durch die Klassentabelle
+                    int state = stateOffset;
+                    long endPosition = position;
+                    for (; index < end; index++) {
+                        final byte value = buffer[index];
+                        if (value < 0) {
+                            break;
+                        }
+
+                        final int next = transitionTable[(state & ~OUTPUT_FLAG) + classes[value]];
+                        state = next;
+                        endPosition++;
+                        if (next < 0 && collectOutputs(next & ~OUTPUT_FLAG, endPosition)) {
+                            stateOffset = next & ~OUTPUT_FLAG;
+                            position = endPosition;
+                            return true;
+                        }
+                    }
+                    stateOffset = state & ~OUTPUT_FLAG;
+                    position = endPosition;
+                    if (index == end) {
+                        break;
+                    }
+                }
+
+                if (acceptUtf8Byte(buffer[index++] & 0xFF)) {
+                    return true;
+                }
+            }
+            return isDecided();
+        }
+
+        private boolean acceptUtf8Byte(final int value) {
+            if (utf8Remaining > 0) {
+                if ((value & 0xC0) == 0x80) {
+                    utf8CodePoint = utf8CodePoint << 6 | value & 0x3F;
+                    return --utf8Remaining == 0 && stepCodePoint(utf8CodePoint);
+                }
+
+                // Abgebrochene Sequenz: Ersatzzeichen, danach das Byte neu bewerten
+                utf8Remaining = 0;
+                if (step(REPLACEMENT_CHARACTER)) {
+                    return true;
+                }
+            }
+
+            if (value < 0x80) {
+                return step((char) value);
+            } else if (value >= 0xC2 && value <= 0xDF) {
+                utf8CodePoint = value & 0x1F;
+                utf8Remaining = 1;
+            } else if (value >= 0xE0 && value <= 0xEF) {
+                utf8CodePoint = value & 0x0F;
+                utf8Remaining = 2;
+            } else if (value >= 0xF0 && value <= 0xF4) {
+                utf8CodePoint = value & 0x07;
+                utf8Remaining = 3;
+            } else {
+                return step(REPLACEMENT_CHARACTER);
+            }
+            return false;
+        }
+
+        private boolean stepCodePoint(final int codePoint) {
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                return step((char) codePoint);
+            }
+            return step(Character.highSurrogate(codePoint)) || step(Character.lowSurrogate(codePoint));
+        }
+
+        private boolean feedUtf16(final byte[] buffer, final int start, final int end, final boolean bigEndian) {
+            for (int i = start; i < end; i++) {
+                final int value = buffer[i] & 0xFF;
+                if (pendingByte < 0) {
+                    pendingByte = value;
+                    continue;
+                }
+
+                final char character = (char) (bigEndian ? pendingByte << 8 | value : value << 8 | pendingByte);
+                pendingByte = -1;
+                if (step(character)) {
+                    return true;
+                }
+            }
+            return isDecided();
+        }
+
+        /**
+         * Verarbeitet ein einzelnes Zeichen aus einem Bytepuffer.
+         */
+        private boolean step(final char character) {
+            if (regexCursors != null && feedRegexes(character)) {
+                return true;
+            }
+
+            final long endPosition = ++position;
+            if (history != null) {
+                history[(int) (endPosition - 1) & history.length - 1] = character;
+            }
+            if (!foldsCodePoints) {
+                return advance(character, endPosition);
+            }
+
+            if (pendingHighSurrogate != 0) {
+                final char highSurrogate = pendingHighSurrogate;
+                pendingHighSurrogate = 0;
+                if (Character.isLowSurrogate(character)) {
+                    final int folded = CaseFolding.foldCodePoint(Character.toCodePoint(highSurrogate, character));
+                    return advance(Character.highSurrogate(folded), endPosition - 1)
+                            | advance(Character.lowSurrogate(folded), endPosition);
+                }
+                if (advance(highSurrogate, endPosition - 1)) {
+                    return true;
+                }
+            }
+
+            if (Character.isHighSurrogate(character)) {
+                pendingHighSurrogate = character;
+                return false;
+            }
+            return advance(character, endPosition);
+        }
+
+        /**
+         * Pfad mit regulären Ausdrücken: jedes Zeichen läuft einzeln durch {@link #step(char)}. Die Prüfung
+         * case-sensitiver Muster liest dann wie bei Bytes aus dem Ringpuffer.
+         */
+        private boolean feedCharacters(final CharSequence text, final int start, final int end) {
+            currentArray = null;
+            currentText = null;
+            if (historyLength > 0 && history == null) {
+                history = new char[historyLength];
+            }
+
+            for (int i = start; i < end; i++) {
+                if (step(text.charAt(i))) {
+                    return true;
+                }
+            }
+            return isDecided();
+        }
+
+        private boolean feedCharacters(final char[] buffer, final int start, final int end) {
+            currentArray = null;
+            currentText = null;
+            if (historyLength > 0 && history == null) {
+                history = new char[historyLength];
+            }
+
+            for (int i = start; i < end; i++) {
+                if (step(buffer[i])) {
+                    return true;
+                }
+            }
+            return isDecided();
+        }
+
+        private boolean feedRegexes(final char character) {
+            for (int i = 0; i < regexCursors.length; i++) {
+                final int patternIndex = regexPatternIndices[i];
+                if (!matched[patternIndex] && regexCursors[i].feed(character)) {
+                    markMatched(patternIndex);
+                    if (isDecided()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void markMatched(final int patternIndex) {
+            matched[patternIndex] = true;
+            if (patternIndex < includeCount) {
+                matchedIncludes++;
+            } else if (patternIndex < includeCount + excludeCount) {
+                matchedExcludes++;
+            } else if (conditionResult == null) {
+                conditionResult = condition.evaluate(this, false);
+            }
+        }
+
+        /**
+         * Langsamer Pfad: Surrogatpaare werden zu Codepoints zusammengesetzt und gefaltet. Ein hohes
+         * Surrogat am Pufferende wird bis zum nächsten Aufruf zurückgehalten.
+         */
+        private boolean feedFoldingCodePoints(final int length) {
+            for (int i = 0; i < length; i++) {
+                final char character = currentArray != null ? currentArray[currentOffset + i] : currentText.charAt(currentOffset + i);
+                final long endPosition = currentStart + i + 1;
+
+                if (pendingHighSurrogate != 0) {
+                    final char highSurrogate = pendingHighSurrogate;
+                    pendingHighSurrogate = 0;
+                    if (Character.isLowSurrogate(character)) {
+                        final int folded = CaseFolding.foldCodePoint(Character.toCodePoint(highSurrogate, character));
+                        if (advance(Character.highSurrogate(folded), endPosition - 1)
+                                | advance(Character.lowSurrogate(folded), endPosition)) {
+                            finishFeed(stateOffset, length);
+                            return true;
+                        }
+                        continue;
+                    }
+                    if (advance(highSurrogate, endPosition - 1)) {
+                        finishFeed(stateOffset, length);
+                        return true;
+                    }
+                }
+
+                if (Character.isHighSurrogate(character)) {
+                    pendingHighSurrogate = character;
+                } else if (advance(character, endPosition)) {
+                    finishFeed(stateOffset, length);
+                    return true;
+                }
+            }
+            finishFeed(stateOffset, length);
+            return isDecided();
+        }
+
+        private boolean advance(final char character, final long endPosition) {
+            final int next = transitions[stateOffset + characterClasses[character]];
+            stateOffset = next & ~OUTPUT_FLAG;
+            return next < 0 && collectOutputs(stateOffset, endPosition);
+        }
+
+        private boolean collectOutputs(final int nextStateOffset, final long endPosition) {
+            for (final int patternIndex : outputs[nextStateOffset / classCount]) {
+                if (!matched[patternIndex] && verifyCase(patternIndex, endPosition)) {
+                    markMatched(patternIndex);
+                }
+            }
+            return isDecided();
+        }
+
+        private boolean verifyCase(final int patternIndex, final long endPosition) {
+            final char[] exactPattern = caseSensitivePatterns[patternIndex];
+            if (exactPattern == null) {
+                return true;
+            }
+
+            final long start = endPosition - exactPattern.length;
+            for (int i = 0; i < exactPattern.length; i++) {
+                if (originalCharAt(start + i) != exactPattern[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private char originalCharAt(final long globalPosition) {
+            if (history != null) {
+                return history[(int) globalPosition & history.length - 1];
+            }
+            if (globalPosition < currentStart) {
+                // Zeichen stammt aus dem vorherigen Puffer
+                return carry[(int) (carry.length - (currentStart - globalPosition))];
+            }
+
+            final int index = currentOffset + (int) (globalPosition - currentStart);
+            return currentArray != null ? currentArray[index] : currentText.charAt(index);
+        }
+
+        /**
+         * Merkt sich Zustand, Position und die letzten Zeichen für die Prüfung über die Puffergrenze.
+         */
+        private void finishFeed(final int state, final int length) {
+            stateOffset = state;
+            position = currentStart + length;
+            if (carry == null) {
+                return;
+            }
+
+            final int keep = Math.min(carry.length, length);
+            System.arraycopy(carry, keep, carry, 0, carry.length - keep);
+            for (int i = 0; i < keep; i++) {
+                final int index = currentOffset + length - keep + i;
+                carry[carry.length - keep + i] = currentArray != null ? currentArray[index] : currentText.charAt(index);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.mlprograms.searchmax;
+
+import com.mlprograms.searchmax.model.TextFiltersTableModel.Syntax;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Übersetzt die Inhaltsoperatoren „ganzes Wort“, „Phrase“ und „NEAR“ in Ausdrücke für {@link StreamingRegex}, damit sie
+ * im selben Durchlauf wie alle übrigen Inhaltsfilter ausgewertet werden. Wortgrenzen gelten für alle Buchstaben und
+ * Ziffern ({@code (?U)}), „müller“ ist also in „Müllerin“ kein ganzes Wort. Eine Grenze wird nur an einem Ende verlangt,
+ * das ein Wortzeichen ist, damit auch Begriffe wie {@code C++} oder {@code .NET} als ganzes Wort gesucht werden können.
+ * <ul>
+ *     <li>{@code word:art} – der Begriff wörtlich, aber nicht als Teil eines längeren Wortes</li>
+ *     <li>{@code phrase:quick brown fox} – die Wörter in dieser Reihenfolge, getrennt durch beliebigen Leerraum
+ *     einschließlich Zeilenumbrüchen</li>
+ *     <li>{@code near:invoice NEAR/5 paid} – beide Seiten (jeweils eine Phrase) in beliebiger Reihenfolge mit höchstens
+ *     fünf Wörtern dazwischen; ohne Angabe zehn</li>
+ * </ul>
+ */
+final class ContentOperators {
+
+    static final int DEFAULT_NEAR_DISTANCE = 10;
+    static final int MAX_NEAR_DISTANCE = 100;
+
+    private static final Pattern NEAR_OPERATOR = Pattern.compile("\\s+NEAR(?:/(\\d+))?\\s+", Pattern.CASE_INSENSITIVE);
+    private static final String UNICODE_CLASSES = "(?U)";
+
+    private ContentOperators() {
+    }
+
+    /**
+     * @param syntax  {@link Syntax#WORD}, {@link Syntax#PHRASE}, {@link Syntax#NEAR} oder {@link Syntax#REGEX}
+     * @param pattern Muster ohne Präfix
+     * @return der Ausdruck für {@link StreamingRegex}
+     * @throws PatternSyntaxException bei leeren Begriffen oder einem ungültigen NEAR-Ausdruck
+     */
+    static String toRegex(final Syntax syntax, final String pattern) {
+        return switch (syntax) {
+            case WORD -> UNICODE_CLASSES + bounded(pattern.trim(), quote(pattern.trim()), pattern);
+            case PHRASE -> UNICODE_CLASSES + phrase(pattern.trim(), pattern);
+            case NEAR -> UNICODE_CLASSES + near(pattern);
+            case REGEX -> pattern;
+            default -> throw new IllegalArgumentException("Kein Inhaltsoperator: " + syntax);
+        };
+    }
+
+    private static String near(final String pattern) {
+        final Matcher operator = NEAR_OPERATOR.matcher(pattern);
+        if (!operator.find()) {
+            throw new PatternSyntaxException("Erwartet: <Begriff> NEAR/<n> <Begriff>", pattern, -1);
+        }
+
+        final int distance = operator.group(1) == null ? DEFAULT_NEAR_DISTANCE : parseDistance(operator.group(1), pattern);
+        final String left = phrase(pattern.substring(0, operator.start()).trim(), pattern);
+        final String right = phrase(pattern.substring(operator.end()).trim(), pattern);
+        if (operator.find()) {
+            throw new PatternSyntaxException("Nur ein NEAR pro Filter", pattern, operator.start());
+        }
+
+        final String gap = "(?:\\W+\\w+){0," + distance + "}\\W+";
+        return "(?:" + left + gap + right + "|" + right + gap + left + ")";
+    }
+
+    private static int parseDistance(final String digits, final String pattern) {
+        try {
+            final int distance = Integer.parseInt(digits);
+            if (distance <= MAX_NEAR_DISTANCE) {
+                return distance;
+            }
+        } catch (final NumberFormatException ignored) {
+            // Zu große Zahl, siehe unten
+        }
+        throw new PatternSyntaxException("NEAR-Abstand größer als " + MAX_NEAR_DISTANCE, pattern, -1);
+    }
+
+    private static String phrase(final String words, final String pattern) {
+        if (words.isEmpty()) {
+            throw new PatternSyntaxException("Leerer Begriff", pattern, -1);
+        }
+
+        final StringBuilder regex = new StringBuilder();
+        for (final String word : words.split("\\s+")) {
+            if (!regex.isEmpty()) {
+                regex.append("\\s+");
+            }
+            regex.append(quote(word));
+        }
+        return bounded(words, regex.toString(), pattern);
+    }
+
+    private static String bounded(final String term, final String regex, final String pattern) {
+        if (term.isEmpty()) {
+            throw new PatternSyntaxException("Leerer Begriff", pattern, -1);
+        }
+        final String start = isWordCharacter(term.charAt(0)) ? "\\b" : "";
+        final String end = isWordCharacter(term.charAt(term.length() - 1)) ? "\\b" : "";
+        return start + regex + end;
+    }
+
+    private static String quote(final String term) {
+        final StringBuilder quoted = new StringBuilder(term.length() * 2);
+        for (int i = 0; i < term.length(); i++) {
+            final char character = term.charAt(i);
+            if (!Character.isLetterOrDigit(character)) {
+                quoted.append('\\');
+            }
+            quoted.append(character);
+        }
+        return quoted.toString();
+    }
+
+    private static boolean isWordCharacter(final char character) {
+        return Character.isLetterOrDigit(character) || character == '_';
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zweite Stufe der Suche: nimmt Kandidaten, die Name-, Endungs- und Zeitfilter bereits bestanden haben,
+ * über eine begrenzte Warteschlange entgegen und prüft deren Inhalt in einem eigenen Thread-Pool.
+ * Ist die Warteschlange voll, blockieren die Verzeichnis-Aufgaben beim Einreihen (Backpressure).
+ */
+@Slf4j
+public final class ContentPipeline {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    private final BlockingQueue<Runnable> queue;
+    private final ExecutorService executor;
+    private final AtomicInteger pendingCandidates = new AtomicInteger();
+    @Getter
+    private final AtomicLong submittedCandidates = new AtomicLong();
+    @Getter
+    private final AtomicLong evaluatedCandidates = new AtomicLong();
+    @Getter
+    private final int capacity;
+    @Getter
+    private final int workerCount;
+    private volatile boolean closed = false;
+
+    public ContentPipeline(final int workerCount, final int capacity) {
+        this.workerCount = Math.max(1, workerCount);
+        this.capacity = Math.max(1, capacity);
+        this.queue = new ArrayBlockingQueue<>(this.capacity);
+
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.workerCount, runnable -> {
+            final Thread thread = new Thread(runnable, "content-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < this.workerCount; i++) {
+            executor.execute(this::drainQueue);
+        }
+    }
+
+    /**
+     * Reiht einen Kandidaten ein und blockiert, solange die Warteschlange voll ist.
+     */
+    public void submit(final Runnable candidate) {
+        pendingCandidates.incrementAndGet();
+        submittedCandidates.incrementAndGet();
+        try {
+            queue.put(candidate);
+        } catch (final InterruptedException interruptedException) {
+            pendingCandidates.decrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Liefert {@code true}, wenn keine eingereihten oder laufenden Inhaltsprüfungen mehr ausstehen.
+     */
+    public boolean isIdle() {
+        return pendingCandidates.get() == 0;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public void shutdown() {
+        closed = true;
+        executor.shutdownNow();
+    }
+
+    private void drainQueue() {
+        while (!closed) {
+            final Runnable candidate;
+            try {
+                candidate = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (candidate == null) {
+                continue;
+            }
+
+            try {
+                candidate.run();
+            } catch (final Exception exception) {
+                log.debug("Content evaluation failed: {}", exception.getMessage());
+            } finally {
+                evaluatedCandidates.incrementAndGet();
+                pendingCandidates.decrementAndGet();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Einstellungen für das Durchsuchen von Textdateien.
+ *
+ * @param memoryMapThresholdMegabytes Dateien ab dieser Größe werden per {@code FileChannel.map} eingeblendet (0 = nie)
+ * @param vectorizedPrefilter         {@code true}, wenn Trefferkandidaten mit der Vector API gesucht werden;
+ *                                    ohne {@code --add-modules jdk.incubator.vector} wird skalar gesucht
+ * @param scanBinaryFiles             {@code true}, wenn auch Binärdateien (Archive, Abbilder, Medien) als Text
+ *                                    durchsucht werden; sonst werden sie am Dateianfang erkannt und übersprungen
+ */
+public record ContentScanSettings(int memoryMapThresholdMegabytes, boolean vectorizedPrefilter, boolean scanBinaryFiles) {
+
+    public static final ContentScanSettings DEFAULT = new ContentScanSettings(64, true, false);
+
+    public ContentScanSettings {
+        memoryMapThresholdMegabytes = Math.max(0, memoryMapThresholdMegabytes);
+    }
+
+    public long memoryMapThresholdBytes() {
+        return memoryMapThresholdMegabytes == 0 ? Long.MAX_VALUE : memoryMapThresholdMegabytes * 1024L * 1024L;
+    }
+
+}
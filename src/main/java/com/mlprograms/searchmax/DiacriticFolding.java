@@ -0,0 +1,262 @@
+package com.mlprograms.searchmax;
+
+import java.text.Normalizer;
+
+/**
+ * Faltung für die Suche ohne Beachtung von Akzenten und Umlauten. Zusätzlich zur Groß-/Kleinschreibung werden
+ * diakritische Zeichen lateinischer Buchstaben entfernt ({@code é → e}, {@code ü → u}), {@code ß} steht für
+ * {@code ss}, {@code æ} und {@code œ} für {@code ae} und {@code oe}, und ein {@code e} direkt nach {@code a},
+ * {@code o} oder {@code u} entfällt, wenn es als Umschreibung eines Umlauts in Frage kommt. „Müller“, „Mueller“ und
+ * „Muller“ haben damit dieselbe Form {@code muller}.
+ * <p>
+ * Als Umschreibung gilt nur ein einzelnes {@code e} hinter einem Vokal, der selbst nicht auf einen Vokal oder
+ * (bei {@code u}) auf {@code q} folgt: „Queen“, „Feuer“ und „blaue“ bleiben unverändert, aus „Mueeller“ wird
+ * {@code mueller}. Die Entscheidung hängt nur von den zwei vorangehenden Zeichen ab, ein entfallenes {@code e}
+ * zählt dabei mit; Text und Muster werden auf dieselbe Weise gefaltet.
+ * <p>
+ * Weil ein Muster ohne die Zeichen davor gefaltet wird, kann die Umschreibung Teilwörter verdecken: „uer“ wird zu
+ * {@code ur}, in „Feuer“ bleibt das {@code e} aber stehen. Ein Muster trifft deshalb auch zu, wenn es in der Form
+ * ohne Umschreibungen ({@link #foldAccents(String)}) vorkommt; was ohne Beachtung der Groß-/Kleinschreibung
+ * gefunden wird, wird so auch hier gefunden.
+ * <p>
+ * Die Grundbuchstaben liegen in einer beim Laden berechneten Tabelle; beim Vergleich wird weder normalisiert noch
+ * allokiert. Die gefaltete Form kann kürzer oder (durch {@code ß}) länger als der Text sein.
+ */
+public final class DiacriticFolding {
+
+    /**
+     * Steht in der Tabelle für {@code ß} und {@code ẞ}, die als zwei Zeichen {@code ss} gelten.
+     */
+    static final char SHARP_S = 'ß';
+
+    /**
+     * Grundbuchstaben, nach denen ein {@code e} keine Umlaut-Umschreibung ist, wenn sie vor {@code a}, {@code o}
+     * oder {@code u} stehen.
+     */
+    static final String VOWELS = "aeiouy";
+
+    private static final char[] BASE_TABLE = buildBaseTable();
+
+    private DiacriticFolding() {
+    }
+
+    /**
+     * Kleingeschriebener Grundbuchstabe eines Zeichens; {@link #SHARP_S} für beide Formen des scharfen s.
+     */
+    public static char base(final char character) {
+        return BASE_TABLE[character];
+    }
+
+    /**
+     * @param beforePrevious vorletzter Grundbuchstabe oder {@code 0}
+     * @param previous       letzter Grundbuchstabe oder {@code 0}; ein entfallenes {@code e} zählt als {@code e}
+     * @return {@code true}, wenn ein folgendes {@code e} entfällt
+     */
+    static boolean absorbsFollowingE(final char beforePrevious, final char previous) {
+        if (previous != 'a' && previous != 'o' && previous != 'u') {
+            return false;
+        }
+        return !isVowel(beforePrevious) && !(previous == 'u' && beforePrevious == 'q');
+    }
+
+    static boolean isVowel(final char baseCharacter) {
+        return baseCharacter != 0 && VOWELS.indexOf(baseCharacter) >= 0;
+    }
+
+    /**
+     * Bringt ein Muster in die gefaltete Form.
+     */
+    public static String fold(final String text) {
+        return fold(text, true);
+    }
+
+    /**
+     * Bringt ein Muster in die Form ohne Umschreibungen: Akzente und Groß-/Kleinschreibung werden entfernt,
+     * {@code ß} wird zu {@code ss}, jedes {@code e} bleibt erhalten. Auf dieser Form arbeitet
+     * {@link #containsFolded(CharSequence, int, String)}.
+     */
+    public static String foldAccents(final String text) {
+        return fold(text, false);
+    }
+
+    private static String fold(final String text, final boolean umlauts) {
+        final StringBuilder folded = new StringBuilder(text.length());
+        char beforePrevious = 0;
+        char previous = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char character = base(text.charAt(i));
+            if (umlauts && character == 'e' && absorbsFollowingE(beforePrevious, previous)) {
+                beforePrevious = previous;
+                previous = 'e';
+                continue;
+            }
+            if (character == SHARP_S) {
+                folded.append("ss");
+                beforePrevious = 's';
+                previous = 's';
+            } else {
+                folded.append(character);
+                beforePrevious = previous;
+                previous = character;
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Sucht ein mit {@link #foldAccents(String)} gefaltetes Muster im Bereich {@code [0, end)} eines Textes, ohne den
+     * Text zu kopieren. Das Muster trifft zu, wenn es in der Form ohne Umschreibungen vorkommt oder wenn Text und
+     * Muster nach {@link #fold(String)} gefaltet übereinstimmen. Damit findet die Suche alles, was sie ohne Beachtung
+     * der Groß-/Kleinschreibung findet, auch Teilwörter wie „eller“ in „Mueller“ oder „uer“ in „Feuer“.
+     */
+    public static boolean containsFolded(final CharSequence text, final int end, final String accentFoldedPattern) {
+        if (accentFoldedPattern.isEmpty()) {
+            return true;
+        }
+        return contains(text, end, accentFoldedPattern, false) || contains(text, end, accentFoldedPattern, true);
+    }
+
+    private static boolean contains(final CharSequence text, final int end, final String accentFoldedPattern, final boolean umlauts) {
+        char beforePrevious = 0;
+        char previous = 0;
+        for (int i = 0; i < end; i++) {
+            final char character = base(text.charAt(i));
+            if (umlauts && character == 'e' && absorbsFollowingE(beforePrevious, previous)) {
+                beforePrevious = previous;
+                previous = 'e';
+                continue;
+            }
+            if (matchesAt(text, i, end, accentFoldedPattern, false, umlauts, beforePrevious, previous)
+                    || character == SHARP_S && matchesAt(text, i, end, accentFoldedPattern, true, umlauts, beforePrevious, previous)) {
+                return true;
+            }
+            if (character == SHARP_S) {
+                beforePrevious = 's';
+                previous = 's';
+            } else {
+                beforePrevious = previous;
+                previous = character;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Vergleicht ab {@code start}; mit {@code umlauts} werden Text und Muster dabei nach {@link #fold(String)}
+     * gefaltet, das Muster wie ein eigenständiger Text ohne vorangehende Zeichen.
+     *
+     * @param secondHalf {@code true}, wenn der Vergleich beim zweiten {@code s} eines {@code ß} an {@code start} beginnt
+     */
+    private static boolean matchesAt(final CharSequence text, final int start, final int end, final String accentFoldedPattern,
+                                     final boolean secondHalf, final boolean umlauts,
+                                     final char beforePreviousCharacter, final char previousCharacter) {
+        int patternIndex = 0;
+        int index = start;
+        char beforePrevious = beforePreviousCharacter;
+        char previous = previousCharacter;
+        char patternBeforePrevious = 0;
+        char patternPrevious = 0;
+        if (secondHalf) {
+            if (accentFoldedPattern.charAt(0) != 's') {
+                return false;
+            }
+            patternIndex = 1;
+            index++;
+            beforePrevious = 's';
+            previous = 's';
+            patternPrevious = 's';
+        }
+
+        while (true) {
+            if (umlauts && patternIndex < accentFoldedPattern.length() && accentFoldedPattern.charAt(patternIndex) == 'e'
+                    && absorbsFollowingE(patternBeforePrevious, patternPrevious)) {
+                patternBeforePrevious = patternPrevious;
+                patternPrevious = 'e';
+                patternIndex++;
+                continue;
+            }
+            if (patternIndex >= accentFoldedPattern.length()) {
+                return true;
+            }
+            if (index >= end) {
+                return false;
+            }
+
+            final char character = base(text.charAt(index++));
+            if (umlauts && character == 'e' && absorbsFollowingE(beforePrevious, previous)) {
+                beforePrevious = previous;
+                previous = 'e';
+                continue;
+            }
+            if (character == SHARP_S) {
+                if (accentFoldedPattern.charAt(patternIndex++) != 's') {
+                    return false;
+                }
+                patternBeforePrevious = patternPrevious;
+                patternPrevious = 's';
+                if (patternIndex < accentFoldedPattern.length() && accentFoldedPattern.charAt(patternIndex++) != 's') {
+                    return false;
+                }
+                patternBeforePrevious = patternPrevious;
+                patternPrevious = 's';
+                beforePrevious = 's';
+                previous = 's';
+                continue;
+            }
+            final char patternCharacter = accentFoldedPattern.charAt(patternIndex++);
+            if (character != patternCharacter) {
+                return false;
+            }
+            patternBeforePrevious = patternPrevious;
+            patternPrevious = patternCharacter;
+            beforePrevious = previous;
+            previous = character;
+        }
+    }
+
+    private static char[] buildBaseTable() {
+        final char[] table = new char[Character.MAX_VALUE + 1];
+        for (int character = 0; character <= Character.MAX_VALUE; character++) {
+            table[character] = CaseFolding.fold((char) character);
+        }
+
+        // Lateinische Buchstaben mit diakritischen Zeichen: Latin-1, Erweitert-A/B und Erweitert-Zusätzlich
+        for (int character = 0x00C0; character <= 0x024F; character++) {
+            table[character] = stripDiacritics(table[character]);
+        }
+        for (int character = 0x1E00; character <= 0x1EFF; character++) {
+            table[character] = stripDiacritics(table[character]);
+        }
+
+        // Buchstaben ohne Zerlegung, die in Namen wie Ligaturen oder Varianten des Grundbuchstabens geschrieben werden
+        table['æ'] = 'a';
+        table['Æ'] = 'a';
+        table['œ'] = 'o';
+        table['Œ'] = 'o';
+        table['ø'] = 'o';
+        table['Ø'] = 'o';
+        table['đ'] = 'd';
+        table['Đ'] = 'd';
+        table['ł'] = 'l';
+        table['Ł'] = 'l';
+        table['ı'] = 'i';
+        table['ß'] = SHARP_S;
+        table['ẞ'] = SHARP_S;
+        return table;
+    }
+
+    private static char stripDiacritics(final char caseFolded) {
+        final String decomposed = Normalizer.normalize(String.valueOf(caseFolded), Normalizer.Form.NFD);
+        final char first = decomposed.charAt(0);
+        if (first >= 128) {
+            return caseFolded;
+        }
+        for (int i = 1; i < decomposed.length(); i++) {
+            if (Character.getType(decomposed.charAt(i)) != Character.NON_SPACING_MARK) {
+                return caseFolded;
+            }
+        }
+        return CaseFolding.fold(first);
+    }
+
+}
@@ -0,0 +1,510 @@
+package com.mlprograms.searchmax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Einmal pro Suche kompilierte Ausschlussregeln. Exakte Namen und Pfadpräfixe werden über Hash-Tabellen
+ * geprüft, alle Glob-Regeln sind zu je einem Automaten für Namen und Pfade zusammengefasst. Reguläre Ausdrücke
+ * werden einzeln kompiliert, damit Rückverweise und eigene benannte Gruppen ihre Bedeutung behalten.
+ * Namensregeln gelten für jeden Eintrag; Pfadregeln (Präfixe, Globs mit '/', reguläre Ausdrücke) nur für
+ * Verzeichnisse, da alles darunter mit dem Verzeichnis übersprungen wird. Groß-/Kleinschreibung wird bei allen
+ * Regelarten wie vom Dateisystem des Betriebssystems behandelt: unter Windows und macOS nicht beachtet, sonst beachtet.
+ * Für jede Regel wird gezählt, wie viele Verzeichnisse und sonstige Einträge sie ausgeschlossen hat.
+ */
+@Slf4j
+public final class DirectoryExclusionRules {
+
+    /**
+     * Standardregeln: Systemverzeichnisse, die bisher fest ausgeschlossen waren. Das Windows-Verzeichnis ist nur
+     * unter Windows als Präfix enthalten.
+     */
+    public static final List<String> DEFAULT_RULES = defaultRules();
+
+    /**
+     * Vorlage für typische Build- und Cache-Verzeichnisse.
+     */
+    public static final List<String> BUILD_AND_CACHE_RULES = List.of(
+            "name:node_modules",
+            "name:.git",
+            "name:target",
+            "name:.m2",
+            "name:.gradle",
+            "name:__pycache__",
+            "name:.cache"
+    );
+
+    public static final DirectoryExclusionRules NONE = compile(List.of());
+
+    private static final int NO_RULE = -1;
+    private static final String GROUP_PREFIX = "r";
+    private static final boolean CASE_INSENSITIVE_FILE_SYSTEM = isCaseInsensitiveByDefault();
+    private static final int PATTERN_FLAGS = CASE_INSENSITIVE_FILE_SYSTEM ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+
+    private final List<ExclusionRule> rules;
+    private final String[] exactNames;
+    private final int[] exactNameHashes;
+    private final int[] exactNameRules;
+    private final int exactNameMask;
+    private int exactNameCount;
+    private final Map<String, Integer> prefixes;
+    private final Pattern namePattern;
+    private final List<Integer> namePatternRules;
+    private final Pattern pathPattern;
+    private final List<Integer> pathPatternRules;
+    private final List<Pattern> separateNamePatterns;
+    private final List<Integer> separateNameRules;
+    private final List<Pattern> separatePathPatterns;
+    private final List<Integer> separatePathRules;
+    private final AtomicLongArray prunedDirectories;
+    private final AtomicLongArray prunedEntries;
+
+    private DirectoryExclusionRules(final List<ExclusionRule> rules) {
+        this.rules = Collections.unmodifiableList(rules);
+        int nameRuleCount = 0;
+        for (final ExclusionRule rule : rules) {
+            if (rule.type() == ExclusionRule.Type.NAME) {
+                nameRuleCount++;
+            }
+        }
+        final int capacity = Integer.highestOneBit(Math.max(2, nameRuleCount) * 2 - 1) * 2;
+        this.exactNames = new String[capacity];
+        this.exactNameHashes = new int[capacity];
+        this.exactNameRules = new int[capacity];
+        this.exactNameMask = capacity - 1;
+        this.prefixes = new HashMap<>();
+        this.namePatternRules = new ArrayList<>();
+        this.pathPatternRules = new ArrayList<>();
+        this.separateNamePatterns = new ArrayList<>();
+        this.separateNameRules = new ArrayList<>();
+        this.separatePathPatterns = new ArrayList<>();
+        this.separatePathRules = new ArrayList<>();
+
+        final List<String> nameRegexes = new ArrayList<>();
+        final List<String> pathRegexes = new ArrayList<>();
+
+        for (int index = 0; index < rules.size(); index++) {
+            final ExclusionRule rule = rules.get(index);
+            switch (rule.type()) {
+                case NAME -> addExactName(rule.pattern(), index);
+                case PREFIX -> addPrefix(rule.pattern(), index);
+                case GLOB -> {
+                    if (rule.pattern().indexOf('/') >= 0) {
+                        pathRegexes.add(globToRegex(rule.pattern()));
+                        pathPatternRules.add(index);
+                    } else {
+                        nameRegexes.add(globToRegex(rule.pattern()));
+                        namePatternRules.add(index);
+                    }
+                }
+                case REGEX -> {
+                    separatePathPatterns.add(Pattern.compile(rule.pattern(), PATTERN_FLAGS));
+                    separatePathRules.add(index);
+                }
+            }
+        }
+
+        this.namePattern = compileAlternation(nameRegexes, namePatternRules, separateNamePatterns, separateNameRules);
+        this.pathPattern = compileAlternation(pathRegexes, pathPatternRules, separatePathPatterns, separatePathRules);
+        this.prunedDirectories = new AtomicLongArray(rules.size());
+        this.prunedEntries = new AtomicLongArray(rules.size());
+    }
+
+    /**
+     * Kompiliert die Regeln aus ihrer Textform. Ungültige Regeln (z. B. fehlerhafte reguläre Ausdrücke)
+     * werden protokolliert und übersprungen.
+     */
+    public static DirectoryExclusionRules compile(final List<String> ruleLines) {
+        final List<ExclusionRule> validRules = new ArrayList<>();
+        if (ruleLines != null) {
+            for (final String line : ruleLines) {
+                final ExclusionRule rule = ExclusionRule.parse(line);
+                if (rule == null || rule.pattern().isEmpty()) {
+                    continue;
+                }
+
+                if (isValid(rule)) {
+                    validRules.add(rule);
+                }
+            }
+        }
+        return new DirectoryExclusionRules(validRules);
+    }
+
+    /**
+     * Prüft, ob ein Eintrag ausgeschlossen ist, und zählt den Treffer bei der zuständigen Regel.
+     */
+    public boolean isExcluded(final FileEntry entry) {
+        if (rules.isEmpty()) {
+            return false;
+        }
+
+        final int ruleIndex = findMatchingRule(entry);
+        if (ruleIndex == NO_RULE) {
+            return false;
+        }
+
+        if (entry.directory()) {
+            prunedDirectories.incrementAndGet(ruleIndex);
+        } else {
+            prunedEntries.incrementAndGet(ruleIndex);
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    public List<ExclusionRule> getRules() {
+        return rules;
+    }
+
+    public long getPrunedDirectories() {
+        long total = 0;
+        for (int i = 0; i < prunedDirectories.length(); i++) {
+            total += prunedDirectories.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Formatiert die Anzahl ausgeschlossener Verzeichnisse und Einträge pro Regel, z. B.
+     * {@code "name:node_modules 120 dirs, glob:*.pyc 35 entries"}. Regeln ohne Treffer werden weggelassen.
+     */
+    public String formatPruneCounts() {
+        final StringBuilder counts = new StringBuilder();
+        for (int i = 0; i < rules.size(); i++) {
+            final long directories = prunedDirectories.get(i);
+            final long entries = prunedEntries.get(i);
+            if (directories == 0 && entries == 0) {
+                continue;
+            }
+
+            if (!counts.isEmpty()) {
+                counts.append(", ");
+            }
+            counts.append(rules.get(i).format());
+            if (directories > 0) {
+                counts.append(' ').append(directories).append(" dirs");
+            }
+            if (entries > 0) {
+                counts.append(' ').append(entries).append(" entries");
+            }
+        }
+        return counts.toString();
+    }
+
+    private static List<String> defaultRules() {
+        final List<String> rules = new ArrayList<>(List.of(
+                "name:System Volume Information",
+                "name:$Recycle.Bin",
+                "name:found.000",
+                "name:RECYCLER"
+        ));
+        if (System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows")) {
+            final String systemRoot = System.getenv("SystemRoot");
+            rules.add("prefix:" + (systemRoot == null || systemRoot.isBlank() ? "C:\\Windows" : systemRoot));
+        }
+        return List.copyOf(rules);
+    }
+
+    private int findMatchingRule(final FileEntry entry) {
+        final String fileName = entry.fileName();
+        if (exactNameCount > 0) {
+            final int exactRule = findExactNameRule(fileName);
+            if (exactRule != NO_RULE) {
+                return exactRule;
+            }
+        }
+
+        if (namePattern != null) {
+            final int nameRule = matchAlternation(namePattern, namePatternRules, fileName);
+            if (nameRule != NO_RULE) {
+                return nameRule;
+            }
+        }
+        if (!separateNamePatterns.isEmpty()) {
+            final int nameRule = matchSeparately(separateNamePatterns, separateNameRules, fileName);
+            if (nameRule != NO_RULE) {
+                return nameRule;
+            }
+        }
+
+        if (!entry.directory() || prefixes.isEmpty() && pathPattern == null && separatePathPatterns.isEmpty()) {
+            return NO_RULE;
+        }
+
+        final String normalizedPath = normalizePath(entry.path().toAbsolutePath().toString());
+        final int prefixRule = findPrefixRule(normalizedPath);
+        if (prefixRule != NO_RULE) {
+            return prefixRule;
+        }
+
+        if (pathPattern != null) {
+            final int pathRule = matchAlternation(pathPattern, pathPatternRules, normalizedPath);
+            if (pathRule != NO_RULE) {
+                return pathRule;
+            }
+        }
+        return separatePathPatterns.isEmpty() ? NO_RULE : matchSeparately(separatePathPatterns, separatePathRules, normalizedPath);
+    }
+
+    /**
+     * Schlägt den Namen nach, ohne ihn zu kopieren.
+     */
+    private int findExactNameRule(final String fileName) {
+        final int hash = foldedHash(fileName);
+        for (int slot = mix(hash) & exactNameMask; exactNames[slot] != null; slot = slot + 1 & exactNameMask) {
+            if (exactNameHashes[slot] == hash && equalsFolded(exactNames[slot], fileName)) {
+                return exactNameRules[slot];
+            }
+        }
+        return NO_RULE;
+    }
+
+    private void addExactName(final String name, final int ruleIndex) {
+        final int hash = foldedHash(name);
+        int slot = mix(hash) & exactNameMask;
+        while (exactNames[slot] != null) {
+            if (exactNameHashes[slot] == hash && equalsFolded(exactNames[slot], name)) {
+                return;
+            }
+            slot = slot + 1 & exactNameMask;
+        }
+        exactNames[slot] = name;
+        exactNameHashes[slot] = hash;
+        exactNameRules[slot] = ruleIndex;
+        exactNameCount++;
+    }
+
+    private static int foldedHash(final String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = hash * 31 + fold(name.charAt(i));
+        }
+        return hash;
+    }
+
+    private static boolean equalsFolded(final String first, final String second) {
+        if (first.length() != second.length()) {
+            return false;
+        }
+        for (int i = 0; i < first.length(); i++) {
+            if (fold(first.charAt(i)) != fold(second.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char fold(final char character) {
+        return CASE_INSENSITIVE_FILE_SYSTEM ? CaseFolding.fold(character) : character;
+    }
+
+    private static int mix(final int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    /**
+     * Schlägt den Pfad selbst und jeden seiner Vorfahren an den Segmentgrenzen nach, sodass {@code prefix:/proc}
+     * auch {@code /proc/sys} ausschließt, {@code /process} aber nicht. Die Regel mit dem kürzesten Präfix gewinnt.
+     */
+    private int findPrefixRule(final String normalizedPath) {
+        if (prefixes.isEmpty()) {
+            return NO_RULE;
+        }
+
+        final String foldedPath = CASE_INSENSITIVE_FILE_SYSTEM ? normalizedPath.toLowerCase(Locale.ROOT) : normalizedPath;
+        for (int end = 0; end <= foldedPath.length(); end++) {
+            if (end < foldedPath.length() && foldedPath.charAt(end) != '/') {
+                continue;
+            }
+
+            // Für das Wurzelverzeichnis bleibt der Schrägstrich Teil des Präfixes
+            final int prefixLength = end == 0 ? 1 : end;
+            if (prefixLength > foldedPath.length()) {
+                break;
+            }
+            final Integer rule = prefixes.get(foldedPath.substring(0, prefixLength));
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return NO_RULE;
+    }
+
+    private void addPrefix(final String prefix, final int ruleIndex) {
+        final String normalized = normalizePrefix(prefix);
+        prefixes.putIfAbsent(CASE_INSENSITIVE_FILE_SYSTEM ? normalized.toLowerCase(Locale.ROOT) : normalized, ruleIndex);
+    }
+
+    private static boolean isCaseInsensitiveByDefault() {
+        final String osName = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        return osName.startsWith("windows") || osName.startsWith("mac");
+    }
+
+    /**
+     * Kompiliert die zusammengefasste Alternative. Scheitert das, werden die Regeln einzeln kompiliert und
+     * ungültige übersprungen, statt die ganze Suche abzubrechen.
+     */
+    private static Pattern compileAlternation(final List<String> regexes, final List<Integer> ruleIndices,
+                                              final List<Pattern> separatePatterns, final List<Integer> separateRules) {
+        if (regexes.isEmpty()) {
+            return null;
+        }
+
+        final StringBuilder alternation = new StringBuilder();
+        for (int i = 0; i < regexes.size(); i++) {
+            if (i > 0) {
+                alternation.append('|');
+            }
+            alternation.append("(?<").append(GROUP_PREFIX).append(ruleIndices.get(i)).append('>').append(regexes.get(i)).append(')');
+        }
+
+        try {
+            return Pattern.compile(alternation.toString(), PATTERN_FLAGS);
+        } catch (final PatternSyntaxException patternSyntaxException) {
+            log.debug("Ausschlussregeln werden einzeln geprüft: {}", patternSyntaxException.getDescription());
+        }
+
+        for (int i = 0; i < regexes.size(); i++) {
+            try {
+                separatePatterns.add(Pattern.compile(regexes.get(i), PATTERN_FLAGS));
+                separateRules.add(ruleIndices.get(i));
+            } catch (final PatternSyntaxException patternSyntaxException) {
+                log.warn("Ungültige Ausschlussregel {}: {}", regexes.get(i), patternSyntaxException.getDescription());
+            }
+        }
+        return null;
+    }
+
+    private static int matchAlternation(final Pattern pattern, final List<Integer> ruleIndices, final String input) {
+        final Matcher matcher = pattern.matcher(input);
+        if (!matcher.matches()) {
+            return NO_RULE;
+        }
+
+        for (final int ruleIndex : ruleIndices) {
+            if (matcher.group(GROUP_PREFIX + ruleIndex) != null) {
+                return ruleIndex;
+            }
+        }
+        return NO_RULE;
+    }
+
+    private static int matchSeparately(final List<Pattern> patterns, final List<Integer> ruleIndices, final String input) {
+        for (int i = 0; i < patterns.size(); i++) {
+            if (patterns.get(i).matcher(input).matches()) {
+                return ruleIndices.get(i);
+            }
+        }
+        return NO_RULE;
+    }
+
+    private static boolean isValid(final ExclusionRule rule) {
+        if (rule.type() != ExclusionRule.Type.REGEX && rule.type() != ExclusionRule.Type.GLOB) {
+            return true;
+        }
+
+        try {
+            Pattern.compile(rule.type() == ExclusionRule.Type.GLOB ? globToRegex(rule.pattern()) : rule.pattern());
+            return true;
+        } catch (final PatternSyntaxException patternSyntaxException) {
+            log.warn("Ungültige Ausschlussregel {}: {}", rule.format(), patternSyntaxException.getDescription());
+            return false;
+        }
+    }
+
+    /**
+     * Übersetzt einen Glob in einen regulären Ausdruck: {@code *} und {@code ?} passen nicht über '/',
+     * {@code **} passt über Verzeichnisgrenzen hinweg. In {@code [...]} verneint ein führendes {@code !} die Klasse,
+     * ein {@code ]} direkt am Anfang gehört zur Klasse, Bereiche wie {@code a-z} bleiben erhalten und alle übrigen
+     * Zeichen gelten wörtlich.
+     */
+    static String globToRegex(final String glob) {
+        final StringBuilder regex = new StringBuilder(glob.length() + 8);
+        for (int i = 0; i < glob.length(); i++) {
+            final char character = glob.charAt(i);
+            switch (character) {
+                case '*' -> {
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                        regex.append(".*");
+                        i++;
+                    } else {
+                        regex.append("[^/]*");
+                    }
+                }
+                case '?' -> regex.append("[^/]");
+                case '[' -> {
+                    final int closingIndex = globClassEnd(glob, i);
+                    if (closingIndex < 0) {
+                        regex.append("\\[");
+                    } else {
+                        appendGlobClass(glob, i, closingIndex, regex);
+                        i = closingIndex;
+                    }
+                }
+                default -> {
+                    if ("\\.^$+{}()|".indexOf(character) >= 0) {
+                        regex.append('\\');
+                    }
+                    regex.append(character);
+                }
+            }
+        }
+        return regex.toString();
+    }
+
+    /**
+     * @return Index der schließenden Klammer der Zeichenklasse, die bei {@code openingIndex} beginnt, oder {@code -1}
+     */
+    static int globClassEnd(final String glob, final int openingIndex) {
+        int contentStart = openingIndex + 1;
+        if (contentStart < glob.length() && glob.charAt(contentStart) == '!') {
+            contentStart++;
+        }
+        return glob.indexOf(']', contentStart < glob.length() && glob.charAt(contentStart) == ']' ? contentStart + 1 : contentStart);
+    }
+
+    private static void appendGlobClass(final String glob, final int openingIndex, final int closingIndex, final StringBuilder regex) {
+        int index = openingIndex + 1;
+        regex.append('[');
+        if (glob.charAt(index) == '!') {
+            // Wie ? passt auch eine verneinte Klasse nicht auf '/'
+            regex.append("^/");
+            index++;
+        }
+        for (; index < closingIndex; index++) {
+            final char character = glob.charAt(index);
+            if ("\\[]&^".indexOf(character) >= 0) {
+                regex.append('\\');
+            }
+            regex.append(character);
+        }
+        regex.append(']');
+    }
+
+    private static String normalizePath(final String path) {
+        return path.replace('\\', '/');
+    }
+
+    private static String normalizePrefix(final String prefix) {
+        String normalized = normalizePath(prefix.trim());
+        while (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+}
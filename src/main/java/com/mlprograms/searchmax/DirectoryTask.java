@@ -1,6 +1,5 @@
 package com.mlprograms.searchmax;
 
-import com.mlprograms.searchmax.model.TimeRangeTableModel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -12,20 +11,15 @@ import org.apache.poi.extractor.ExtractorFactory;
 import org.apache.poi.extractor.POITextExtractor;
 
 import java.io.IOException;
-import java.io.Reader;
+import java.io.InputStream;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.RecursiveAction;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.logging.Level;
@@ -36,102 +30,79 @@ import java.util.logging.Logger;
 @RequiredArgsConstructor
 public final class DirectoryTask extends RecursiveAction {
 
-    private record FilterEntity(String pattern, boolean caseSensitive, String patternKey) {
-    }
-
-    private static final Set<String> SYSTEM_DIRECTORY_NAMES = Set.of(
-            "system volume information", "$recycle.bin", "found.000", "recycler"
-    );
     private static final int DIRECTORY_CHUNK_SIZE = 64;
     private static final int TEXT_BUFFER_SIZE = 8 * 1024;
+    private static final int BYTE_BUFFER_SIZE = 64 * 1024;
     private static final long NANOSECONDS_PER_CENTISECOND = 10_000_000L;
 
     private final Path directoryPath;
     private final Collection<String> searchResults;
     private final AtomicInteger matchCount;
-    private final String searchQuery;
-    private final int searchQueryLength;
     private final long searchStartTimeNano;
-    private final AtomicBoolean searchCancelled;
+    private final SearchBudget searchBudget;
     private final Consumer<String> resultEmitter;
-    private final boolean caseSensitiveSearch;
-    private final List<String> allowedFileExtensions;
-    private final List<String> deniedFileExtensions;
-    private final List<String> filenameIncludeFilters;
-    private final Map<String, Boolean> filenameIncludeCaseMap;
-    private final List<String> filenameExcludeFilters;
-    private final Map<String, Boolean> filenameExcludeCaseMap;
-    private final boolean filenameIncludeAllMode;
-    private final List<String> contentIncludeFilters;
-    private final Map<String, Boolean> contentIncludeCaseMap;
-    private final List<String> contentExcludeFilters;
-    private final Map<String, Boolean> contentExcludeCaseMap;
-    private final boolean contentIncludeAllMode;
+    private final FilterPlan filterPlan;
     private final ExtractionMode extractionMode;
-    private final List<TimeRangeTableModel.Entry> timeIncludeRanges;
-    private final List<TimeRangeTableModel.Entry> timeExcludeRanges;
-    private final boolean timeIncludeAllMode;
     private final AtomicInteger remainingTasks;
+    private final SearchStatistics statistics;
+    private final ContentPipeline contentPipeline;
+    private final VirtualThreadEngine virtualThreadEngine;
+    private final int depth;
+    private final PriorityTraversal traversal;
+    private final DirectoryExclusionRules exclusionRules;
+    private final VisitedSet visitedSet;
+    private final TraversalBoundary traversalBoundary;
+    private final LargeFileScanner largeFileScanner;
+    private final BinaryFileDetector binaryFileDetector;
 
     public DirectoryTask(
             final Path directoryPath,
             final Collection<String> searchResults,
             final AtomicInteger matchCount,
             final AtomicInteger remainingTasks,
-            final String searchQuery,
             final long searchStartTimeNano,
             final Consumer<String> resultEmitter,
-            final AtomicBoolean searchCancelled,
-            final boolean caseSensitiveSearch,
-            final List<String> allowedFileExtensions,
-            final List<String> deniedFileExtensions,
-            final List<String> filenameIncludeFilters,
-            final Map<String, Boolean> filenameIncludeCaseMap,
-            final List<String> filenameExcludeFilters,
-            final Map<String, Boolean> filenameExcludeCaseMap,
-            final boolean filenameIncludeAllMode,
-            final List<String> contentIncludeFilters,
-            final Map<String, Boolean> contentIncludeCaseMap,
-            final List<String> contentExcludeFilters,
-            final Map<String, Boolean> contentExcludeCaseMap,
-            final boolean contentIncludeAllMode,
-            final List<TimeRangeTableModel.Entry> timeIncludeRanges,
-            final List<TimeRangeTableModel.Entry> timeExcludeRanges,
-            final boolean timeIncludeAllMode,
-            final ExtractionMode extractionMode
+            final SearchBudget searchBudget,
+            final FilterPlan filterPlan,
+            final ExtractionMode extractionMode,
+            final SearchStatistics statistics,
+            final ContentPipeline contentPipeline,
+            final VirtualThreadEngine virtualThreadEngine,
+            final int depth,
+            final PriorityTraversal traversal,
+            final DirectoryExclusionRules exclusionRules,
+            final VisitedSet visitedSet,
+            final TraversalBoundary traversalBoundary,
+            final LargeFileScanner largeFileScanner,
+            final BinaryFileDetector binaryFileDetector
     ) {
+        // Nur Referenzen übernehmen: das Anlegen einer Unteraufgabe soll ausschließlich das Aufgabenobjekt erzeugen
         this.directoryPath = directoryPath;
-        this.searchResults = Optional.ofNullable(searchResults).orElseGet(ConcurrentLinkedQueue::new);
+        this.searchResults = searchResults != null ? searchResults : new ConcurrentLinkedQueue<>();
         this.matchCount = matchCount;
-        this.searchQuery = Optional.ofNullable(searchQuery).orElse("");
-        this.searchQueryLength = this.searchQuery.length();
         this.searchStartTimeNano = searchStartTimeNano;
         this.resultEmitter = resultEmitter;
-        this.searchCancelled = Optional.ofNullable(searchCancelled).orElseGet(() -> new AtomicBoolean(false));
-        this.caseSensitiveSearch = caseSensitiveSearch;
-        this.allowedFileExtensions = copyListIfNotEmpty(allowedFileExtensions);
-        this.deniedFileExtensions = copyListIfNotEmpty(deniedFileExtensions);
-        this.filenameIncludeFilters = copyListIfNotEmpty(filenameIncludeFilters);
-        this.filenameIncludeCaseMap = copyMapIfNotEmpty(filenameIncludeCaseMap);
-        this.filenameExcludeFilters = copyListIfNotEmpty(filenameExcludeFilters);
-        this.filenameExcludeCaseMap = copyMapIfNotEmpty(filenameExcludeCaseMap);
-        this.filenameIncludeAllMode = filenameIncludeAllMode;
-        this.contentIncludeFilters = copyListIfNotEmpty(contentIncludeFilters);
-        this.contentIncludeCaseMap = copyMapIfNotEmpty(contentIncludeCaseMap);
-        this.contentExcludeFilters = copyListIfNotEmpty(contentExcludeFilters);
-        this.contentExcludeCaseMap = copyMapIfNotEmpty(contentExcludeCaseMap);
-        this.contentIncludeAllMode = contentIncludeAllMode;
-        this.timeIncludeRanges = copyListIfNotEmpty(timeIncludeRanges);
-        this.timeExcludeRanges = copyListIfNotEmpty(timeExcludeRanges);
-        this.timeIncludeAllMode = timeIncludeAllMode;
-        this.extractionMode = Optional.ofNullable(extractionMode).orElse(ExtractionMode.POI_THEN_TIKA);
+        this.searchBudget = searchBudget != null ? searchBudget : new SearchBudget(SearchLimits.UNLIMITED, searchStartTimeNano);
+        this.filterPlan = filterPlan != null ? filterPlan : FilterPlan.EMPTY;
+        this.extractionMode = extractionMode != null ? extractionMode : ExtractionMode.POI_THEN_TIKA;
         this.remainingTasks = remainingTasks;
+        this.statistics = statistics != null ? statistics : new SearchStatistics();
+        this.contentPipeline = contentPipeline;
+        this.virtualThreadEngine = virtualThreadEngine;
+        this.depth = depth;
+        this.traversal = traversal;
+        this.exclusionRules = exclusionRules != null ? exclusionRules : DirectoryExclusionRules.NONE;
+        this.visitedSet = visitedSet != null ? visitedSet : new VisitedSet(false);
+        this.traversalBoundary = traversalBoundary != null ? traversalBoundary : TraversalBoundary.NONE;
+        this.largeFileScanner = largeFileScanner != null ? largeFileScanner : LargeFileScanner.NONE;
+        this.binaryFileDetector = binaryFileDetector != null ? binaryFileDetector : BinaryFileDetector.NONE;
     }
 
     @Override
     protected void compute() {
+        final long allocatedBytesAtStart = statistics.beginAllocationMeasurement();
         try {
-            if (isSearchCancelledOrInvalidDirectory()) {
+            if (isSearchStopped()) {
                 return;
             }
 
@@ -142,6 +113,7 @@ public final class DirectoryTask extends RecursiveAction {
                 invokeAll(subtasks);
             }
         } finally {
+            statistics.endAllocationMeasurement(allocatedBytesAtStart);
             decrementRemainingTasks();
         }
     }
@@ -149,208 +121,175 @@ public final class DirectoryTask extends RecursiveAction {
     private void processDirectoryContents(final List<DirectoryTask> subtasks) {
         try (final DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directoryPath)) {
             for (final Path fileOrFolderPath : directoryStream) {
-                if (isSearchCancelledOrInvalidDirectory()) {
+                if (isSearchStopped()) {
                     return;
                 }
-                processFileSystemEntry(fileOrFolderPath, subtasks);
+
+                final FileEntry fileEntry = readFileEntry(fileOrFolderPath);
+                if (fileEntry != null) {
+                    processFileSystemEntry(fileEntry, subtasks);
+                }
             }
         } catch (final IOException ioException) {
             log.debug("Cannot read directory: {} - {}", directoryPath, ioException.getMessage());
         }
     }
 
-    private void processFileSystemEntry(final Path fileOrFolderPath, final List<DirectoryTask> subtasks) {
+    private FileEntry readFileEntry(final Path fileOrFolderPath) {
         try {
-            if (isSystemDirectory(fileOrFolderPath)) {
-                return;
-            }
-
-            if (Files.isRegularFile(fileOrFolderPath, LinkOption.NOFOLLOW_LINKS)) {
-                processFile(fileOrFolderPath);
-            } else {
-                addSubtaskForDirectory(fileOrFolderPath, subtasks);
-            }
-        } catch (final SecurityException securityException) {
-            log.debug("Access denied for entry: {}", fileOrFolderPath, securityException);
-        }
-    }
-
-    private void addSubtaskForDirectory(final Path subdirectoryPath, final List<DirectoryTask> subtasks) {
-        subtasks.add(createSubtask(subdirectoryPath));
-        if (subtasks.size() >= DIRECTORY_CHUNK_SIZE) {
-            invokeAll(new ArrayList<>(subtasks));
-            subtasks.clear();
+            statistics.recordStatCall();
+            final BasicFileAttributes attributes = Files.readAttributes(fileOrFolderPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            final FileEntry fileEntry = FileEntry.of(fileOrFolderPath, attributes);
+            statistics.recordEntry(fileEntry);
+            return fileEntry;
+        } catch (final IOException | SecurityException exception) {
+            log.debug("Cannot read attributes of entry: {} - {}", fileOrFolderPath, exception.getMessage());
+            return null;
         }
     }
 
-    private void processFile(final Path filePath) {
-        if (isSearchCancelledOrInvalidDirectory()) {
+    private void processFileSystemEntry(final FileEntry fileEntry, final List<DirectoryTask> subtasks) {
+        if (exclusionRules.isExcluded(fileEntry)) {
             return;
         }
 
-        final String fileName = filePath.getFileName().toString();
-
-        if (!passesAllFileFilters(fileName, filePath)) {
+        final FileEntry targetEntry = fileEntry.symbolicLink() ? resolveSymbolicLink(fileEntry) : fileEntry;
+        if (targetEntry == null) {
             return;
         }
 
-        addFileToResults(filePath);
-    }
-
-    private boolean passesAllFileFilters(final String fileName, final Path filePath) {
-        return hasSufficientLength(fileName) &&
-                matchesSearchQuery(fileName) &&
-                matchesFilenameIncludeFilters(fileName) &&
-                !matchesFilenameExcludeFilters(fileName) &&
-                matchesFileExtensionFilters(fileName) &&
-                matchesContentFilters(filePath) &&
-                matchesTimeFilters(filePath);
-    }
-
-    private boolean hasSufficientLength(final String fileName) {
-        return searchQueryLength == 0 || fileName.length() >= searchQueryLength;
-    }
-
-    private boolean matchesSearchQuery(final String fileName) {
-        if (searchQuery.isEmpty()) {
-            return true;
+        if (targetEntry.regularFile()) {
+            processFile(targetEntry);
+        } else if (targetEntry.directory()
+                && traversalBoundary.allowsDirectory(targetEntry, depth + 1, fileEntry.symbolicLink())
+                && visitedSet.markDirectory(targetEntry)) {
+            addSubtaskForDirectory(targetEntry, subtasks);
         }
-
-        if (caseSensitiveSearch) {
-            return fileName.contains(searchQuery);
-        }
-
-        return fileName.toLowerCase(Locale.ROOT).contains(searchQuery.toLowerCase(Locale.ROOT));
     }
 
-    private boolean matchesFilenameIncludeFilters(final String fileName) {
-        if (filenameIncludeFilters == null || filenameIncludeFilters.isEmpty()) {
-            return true;
+    private FileEntry resolveSymbolicLink(final FileEntry linkEntry) {
+        if (!visitedSet.isFollowLinks()) {
+            return null;
         }
 
-        final String filenameWithoutExtension = removeFileExtension(fileName);
-        return matchesFilters(filenameWithoutExtension, filenameIncludeFilters, filenameIncludeCaseMap, filenameIncludeAllMode);
-    }
-
-    private boolean matchesFilenameExcludeFilters(final String fileName) {
-        if (filenameExcludeFilters == null || filenameExcludeFilters.isEmpty()) {
-            return false;
+        try {
+            statistics.recordStatCall();
+            final BasicFileAttributes targetAttributes = Files.readAttributes(linkEntry.path(), BasicFileAttributes.class);
+            return FileEntry.of(linkEntry.path(), targetAttributes);
+        } catch (final IOException | SecurityException exception) {
+            log.debug("Cannot follow link: {} - {}", linkEntry.path(), exception.getMessage());
+            return null;
         }
-
-        final String filenameWithoutExtension = removeFileExtension(fileName);
-        return matchesFilters(filenameWithoutExtension, filenameExcludeFilters, filenameExcludeCaseMap, false);
     }
 
-    private String removeFileExtension(final String fileName) {
-        if (fileName == null) {
-            return "";
+    private void addSubtaskForDirectory(final FileEntry directoryEntry, final List<DirectoryTask> subtasks) {
+        final Path subdirectoryPath = directoryEntry.path();
+        if (virtualThreadEngine != null) {
+            virtualThreadEngine.submitDirectory(createSubtask(subdirectoryPath)::compute);
+            return;
         }
 
-        final int lastDotIndex = fileName.lastIndexOf('.');
-        if (lastDotIndex <= 0) {
-            return fileName;
+        if (traversal != null) {
+            traversal.submit(createSubtask(subdirectoryPath), directoryEntry, depth + 1);
+            return;
         }
 
-        return fileName.substring(0, lastDotIndex);
+        subtasks.add(createSubtask(subdirectoryPath));
+        if (subtasks.size() >= DIRECTORY_CHUNK_SIZE) {
+            invokeAll(new ArrayList<>(subtasks));
+            subtasks.clear();
+        }
     }
 
-    private boolean matchesFilters(final String textToCheck, final List<String> filters,
-                                   final Map<String, Boolean> caseSensitivityMap, final boolean requireAllMatches) {
-        if (filters == null || filters.isEmpty()) {
-            return false;
+    private void processFile(final FileEntry fileEntry) {
+        if (isSearchStopped() || !searchBudget.tryAcquireFile()) {
+            return;
         }
 
-        if (requireAllMatches) {
-            return filters.stream()
-                    .filter(Objects::nonNull)
-                    .filter(filter -> !filter.isEmpty())
-                    .allMatch(filter -> containsText(textToCheck, filter, caseSensitivityMap));
-        } else {
-            return filters.stream()
-                    .filter(Objects::nonNull)
-                    .filter(filter -> !filter.isEmpty())
-                    .anyMatch(filter -> containsText(textToCheck, filter, caseSensitivityMap));
+        if (!filterPlan.passesMetadataFilters(fileEntry)) {
+            return;
         }
-    }
-
-    private boolean containsText(final String text, final String searchText, final Map<String, Boolean> caseSensitivityMap) {
-        final boolean caseSensitive = caseSensitivityMap != null && Boolean.TRUE.equals(caseSensitivityMap.get(searchText));
 
-        if (caseSensitive) {
-            return text.contains(searchText);
+        if (!filterPlan.needsContent(fileEntry)) {
+            addFileEntryToResults(fileEntry);
+        } else if (virtualThreadEngine != null) {
+            virtualThreadEngine.submitContentCheck(() -> evaluateContentCandidate(fileEntry));
+        } else if (contentPipeline != null) {
+            contentPipeline.submit(() -> evaluateContentCandidate(fileEntry));
         } else {
-            return text.toLowerCase(Locale.ROOT).contains(searchText.toLowerCase(Locale.ROOT));
+            evaluateContentCandidate(fileEntry);
         }
     }
 
-    private boolean matchesFileExtensionFilters(final String fileName) {
-        final String fileNameLowercase = fileName.toLowerCase(Locale.ROOT);
+    private void evaluateContentCandidate(final FileEntry fileEntry) {
+        if (isSearchStopped()) {
+            return;
+        }
 
-        if (deniedFileExtensions != null) {
-            final boolean hasDeniedExtension = deniedFileExtensions.stream()
-                    .filter(Objects::nonNull)
-                    .anyMatch(fileNameLowercase::endsWith);
-            if (hasDeniedExtension) {
-                return false;
+        final long allocatedBytesAtStart = statistics.beginAllocationMeasurement();
+        try {
+            final FilterPlanner.ContentFormat format = contentFormatOf(fileEntry.fileName().toLowerCase(Locale.ROOT));
+            if (visitedSet.evaluateContentOnce(fileEntry, filterPlan.hasPathIndependentContentVerdict(), format,
+                    () -> matchesContentFilters(fileEntry, format))) {
+                addFileEntryToResults(fileEntry);
             }
+        } finally {
+            statistics.endAllocationMeasurement(allocatedBytesAtStart);
         }
+    }
 
-        if (allowedFileExtensions != null) {
-            return allowedFileExtensions.stream()
-                    .filter(Objects::nonNull)
-                    .anyMatch(fileNameLowercase::endsWith);
+    private void addFileEntryToResults(final FileEntry fileEntry) {
+        if (visitedSet.markReportedFile(fileEntry)) {
+            addFileToResults(fileEntry.path());
         }
-
-        return true;
     }
 
-    private boolean matchesContentFilters(final Path filePath) {
-        if (hasNoContentFilters()) {
+    private boolean matchesContentFilters(final FileEntry fileEntry, final FilterPlanner.ContentFormat format) {
+        if (!filterPlan.needsContent(fileEntry)) {
             return true;
         }
 
-        try {
-            if (hasContentExcludeFilters() && matchesFileContent(filePath, contentExcludeFilters, contentExcludeCaseMap, false)) {
-                return false;
-            }
-
-            if (hasContentIncludeFilters()) {
-                return matchesFileContent(filePath, contentIncludeFilters, contentIncludeCaseMap, contentIncludeAllMode);
-            }
+        final long startNano = System.nanoTime();
+        final boolean passed = evaluateContentFilters(fileEntry, format);
+        filterPlan.recordContentCheck(format, passed, System.nanoTime() - startNano);
+        return passed;
+    }
 
-            return true;
+    /**
+     * Prüft Einschluss- und Ausschlussfilter sowie die Inhaltsterme der Suchabfrage in einem einzigen Durchlauf über
+     * den Inhalt. Kann der Inhalt nicht gelesen werden, wird die Datei wie eine leere Datei bewertet.
+     */
+    private boolean evaluateContentFilters(final FileEntry fileEntry, final FilterPlanner.ContentFormat format) {
+        final FilterPlan.ContentFilterSet contentFilters = filterPlan.contentFiltersFor(fileEntry);
+        try {
+            return matchesFileContent(fileEntry, format, contentFilters);
         } catch (final Exception exception) {
-            log.debug("Content filter check failed for {}: {}", filePath, exception.getMessage());
-            return true;
+            log.debug("Content filter check failed for {}: {}", fileEntry.path(), exception.getMessage());
+            return contentFilters.acceptsUnreadContent();
         }
     }
 
-    private boolean hasNoContentFilters() {
-        return (contentIncludeFilters == null || contentIncludeFilters.isEmpty()) &&
-                (contentExcludeFilters == null || contentExcludeFilters.isEmpty());
-    }
-
-    private boolean hasContentIncludeFilters() {
-        return contentIncludeFilters != null && !contentIncludeFilters.isEmpty();
-    }
-
-    private boolean hasContentExcludeFilters() {
-        return contentExcludeFilters != null && !contentExcludeFilters.isEmpty();
-    }
-
-    private boolean matchesFileContent(final Path filePath, final List<String> filters,
-                                       final Map<String, Boolean> caseMap, final boolean requireAll) {
-        final String fileName = filePath.getFileName().toString().toLowerCase(Locale.ROOT);
-
-        if (fileName.endsWith(".pdf")) {
-            return matchesPdfContent(filePath, filters, caseMap, requireAll);
-        }
-
-        if (isOfficeDocument(fileName)) {
-            return searchOfficeDocumentContent(filePath, filters, caseMap, requireAll);
+    private FilterPlanner.ContentFormat contentFormatOf(final String fileNameLowercase) {
+        if (fileNameLowercase.endsWith(".pdf")) {
+            return FilterPlanner.ContentFormat.PDF;
         }
+        return isOfficeDocument(fileNameLowercase) ? FilterPlanner.ContentFormat.OFFICE : FilterPlanner.ContentFormat.TEXT;
+    }
 
-        return searchTextFileContent(filePath, filters, caseMap, requireAll);
+    private boolean matchesFileContent(final FileEntry fileEntry, final FilterPlanner.ContentFormat format,
+                                       final FilterPlan.ContentFilterSet contentFilters) {
+        final Path filePath = fileEntry.path();
+        return switch (format) {
+            case PDF -> {
+                recordBytesScanned(fileEntry.size());
+                yield matchesPdfContent(filePath, contentFilters);
+            }
+            case OFFICE -> {
+                recordBytesScanned(fileEntry.size());
+                yield searchOfficeDocumentContent(filePath, contentFilters);
+            }
+            case TEXT -> searchTextFileContent(filePath, fileEntry.size(), contentFilters);
+        };
     }
 
     private boolean isOfficeDocument(final String fileNameLowercase) {
@@ -361,62 +300,85 @@ public final class DirectoryTask extends RecursiveAction {
                 fileNameLowercase.endsWith(".odp");
     }
 
-    private boolean searchTextFileContent(final Path filePath, final List<String> filters,
-                                          final Map<String, Boolean> caseMap, final boolean requireAll) {
-        final List<FilterEntity> filterEntities = buildFilterEntities(filters, caseMap);
-        if (filterEntities.isEmpty()) {
-            return false;
-        }
-
-        final int maximumPatternLength = filterEntities.stream()
-                .mapToInt(filterEntity -> filterEntity.patternKey.length())
-                .max()
-                .orElse(0);
-
-        final boolean[] matchedFilters = new boolean[filterEntities.size()];
-
-        try (final Reader fileReader = Files.newBufferedReader(filePath)) {
-            return searchTextContent(fileReader, filterEntities, matchedFilters, maximumPatternLength, requireAll);
+    /**
+     * Durchsucht eine Datei mit Textendung. Der Dateianfang wird vorab eingeordnet: Binärdateien werden
+     * übersprungen, PDF- und Office-Dateien mit falscher Endung an die Dokument-Extraktoren weitergegeben.
+     */
+    private boolean searchTextFileContent(final Path filePath, final long fileSize, final FilterPlan.ContentFilterSet contentFilters) {
+        final BinaryFileDetector.FileKind fileKind;
+        try (final InputStream inputStream = Files.newInputStream(filePath)) {
+            // Kleine Dateien bekommen einen passenden Puffer; ein Byte mehr erkennt das Dateiende im ersten Lesevorgang
+            final byte[] buffer = new byte[(int) Math.min(BYTE_BUFFER_SIZE, Math.max(0, fileSize) + 1)];
+            final int headerLength = inputStream.readNBytes(buffer, 0, Math.min(buffer.length, BinaryFileDetector.SNIFF_LENGTH));
+
+            fileKind = BinaryFileDetector.classify(buffer, headerLength);
+            if (fileKind == BinaryFileDetector.FileKind.BINARY && binaryFileDetector.skipsBinaryFiles()) {
+                binaryFileDetector.recordSkippedFile(fileSize);
+                return contentFilters.acceptsUnreadContent();
+            }
+            if (fileKind == BinaryFileDetector.FileKind.TEXT || fileKind == BinaryFileDetector.FileKind.BINARY) {
+                if (largeFileScanner.accepts(fileSize)) {
+                    try {
+                        return largeFileScanner.search(filePath, contentFilters.newScan(), this::isSearchStopped, this::recordBytesScanned);
+                    } catch (final IOException ioException) {
+                        // Nicht einblendbare Dateien (z. B. auf Pseudo-Dateisystemen) werden als Stream gelesen
+                        log.debug("Memory mapping failed for {}: {}", filePath, ioException.getMessage());
+                    }
+                }
+                return searchTextContent(inputStream, buffer, headerLength, contentFilters.newScan());
+            }
         } catch (final Exception exception) {
             log.debug("Text file content search failed for {}: {}", filePath, exception.getMessage());
-            return false;
+            return contentFilters.acceptsUnreadContent();
         }
+
+        binaryFileDetector.recordDetectedDocument();
+        recordBytesScanned(fileSize);
+        return fileKind == BinaryFileDetector.FileKind.PDF
+                ? matchesPdfContent(filePath, contentFilters)
+                : searchOfficeDocumentContent(filePath, contentFilters);
     }
 
-    private boolean searchTextContent(final Reader reader, final List<FilterEntity> filterEntities,
-                                      final boolean[] matchedFilters, final int maximumPatternLength,
-                                      final boolean requireAll) throws IOException {
-        final char[] buffer = new char[TEXT_BUFFER_SIZE];
-        final StringBuilder slidingWindow = new StringBuilder(Math.max(TEXT_BUFFER_SIZE, maximumPatternLength * 2));
-        int bytesRead;
+    /**
+     * Durchsucht die Rohbytes einer Textdatei. Die Kodierung wird aus einer Byte-Order-Mark oder dem ersten
+     * Puffer bestimmt; solange nur ASCII gelesen wurde, ist UTF-8 gleichwertig mit CP1252.
+     *
+     * @param headerLength Anzahl der bereits an den Pufferanfang gelesenen Bytes
+     */
+    private boolean searchTextContent(final InputStream inputStream, final byte[] buffer, final int headerLength,
+                                      final ContentMatcher.Scan scan) throws IOException {
+        int bytesRead = headerLength + inputStream.readNBytes(buffer, headerLength, buffer.length - headerLength);
+
+        TextEncoding encoding = TextEncoding.detectByteOrderMark(buffer, bytesRead);
+        int offset = encoding == null ? 0 : encoding.byteOrderMarkLength();
+        if (encoding == null) {
+            encoding = TextEncoding.sniffUtf16(buffer, bytesRead);
+        }
 
-        while ((bytesRead = reader.read(buffer)) != -1) {
-            if (isSearchCancelledOrInvalidDirectory()) {
+        while (bytesRead > 0) {
+            if (isSearchStopped()) {
                 return false;
             }
 
-            slidingWindow.append(buffer, 0, bytesRead);
-            updateMatchedFilters(slidingWindow, filterEntities, matchedFilters);
-
-            if (!requireAll && anyFilterMatched(matchedFilters)) {
-                return true;
+            recordBytesScanned(bytesRead);
+            if (encoding == null) {
+                encoding = TextEncoding.sniffAsciiCompatible(buffer, offset, bytesRead - offset);
+            }
+            // Der Automat behält seinen Zustand über Puffergrenzen hinweg
+            if (scan.feed(buffer, offset, bytesRead - offset, encoding == null ? TextEncoding.UTF_8 : encoding)) {
+                return scan.isAccepted();
             }
 
-            trimSlidingWindow(slidingWindow, maximumPatternLength);
+            offset = 0;
+            bytesRead = inputStream.read(buffer);
         }
 
-        return requireAll ? allFiltersMatched(matchedFilters) : anyFilterMatched(matchedFilters);
+        return scan.finish();
     }
 
     @SneakyThrows
-    private boolean matchesPdfContent(final Path filePath, final List<String> filters,
-                                      final Map<String, Boolean> caseMap, final boolean requireAll) {
-        final List<FilterEntity> filterEntities = buildFilterEntities(filters, caseMap);
-        if (filterEntities.isEmpty()) {
-            return false;
-        }
-
-        final boolean[] matchedFilters = new boolean[filterEntities.size()];
+    private boolean matchesPdfContent(final Path filePath, final FilterPlan.ContentFilterSet contentFilters) {
+        final ContentMatcher.Scan scan = contentFilters.newScan();
         final PDFTextStripper textStripper = new PDFTextStripper();
 
         final Logger pdfRootLogger = Logger.getLogger("org.apache.pdfbox");
@@ -433,7 +395,7 @@ public final class DirectoryTask extends RecursiveAction {
             try (final PDDocument document = Loader.loadPDF(filePath.toFile())) {
                 final int totalPages = document.getNumberOfPages();
                 for (int currentPage = 1; currentPage <= totalPages; currentPage++) {
-                    if (isSearchCancelledOrInvalidDirectory()) {
+                    if (isSearchStopped()) {
                         return false;
                     }
 
@@ -441,21 +403,16 @@ public final class DirectoryTask extends RecursiveAction {
                     textStripper.setEndPage(currentPage);
                     final String pageText = textStripper.getText(document);
 
-                    if (pageText != null && !pageText.isEmpty()) {
-                        final StringBuilder textWindow = new StringBuilder(pageText);
-                        updateMatchedFilters(textWindow, filterEntities, matchedFilters);
-
-                        if (!requireAll && anyFilterMatched(matchedFilters)) {
-                            return true;
-                        }
+                    if (pageText != null && !pageText.isEmpty() && scan.feed(pageText)) {
+                        return scan.isAccepted();
                     }
                 }
 
-                return requireAll ? allFiltersMatched(matchedFilters) : anyFilterMatched(matchedFilters);
+                return scan.finish();
             }
         } catch (final Exception exception) {
             log.debug("PDF content extraction failed for {}: {}", filePath, exception.getMessage());
-            return false;
+            return contentFilters.acceptsUnreadContent();
         } finally {
             restorePdfLoggingLevels(pdfRootLogger, fontLogger, parserLogger,
                     originalRootLevel, originalFontLevel, originalParserLevel);
@@ -476,56 +433,52 @@ public final class DirectoryTask extends RecursiveAction {
         parserLogger.setLevel(originalParserLevel);
     }
 
-    private boolean searchOfficeDocumentContent(final Path filePath, final List<String> filters,
-                                                final Map<String, Boolean> caseMap, final boolean requireAll) {
-        final List<FilterEntity> filterEntities = buildFilterEntities(filters, caseMap);
-        if (filterEntities.isEmpty()) {
-            return false;
-        }
-
+    private boolean searchOfficeDocumentContent(final Path filePath, final FilterPlan.ContentFilterSet contentFilters) {
         return switch (extractionMode) {
-            case TIKA_ONLY -> extractWithTikaAndSearch(filePath, filterEntities, requireAll);
-            case POI_ONLY -> extractWithPoiAndSearch(filePath, filterEntities, requireAll);
-            default -> extractWithPoiThenTika(filePath, filterEntities, requireAll);
+            case TIKA_ONLY -> extractWithTikaAndSearch(filePath, contentFilters);
+            case POI_ONLY -> extractWithPoiAndSearch(filePath, contentFilters);
+            default -> extractWithPoiThenTika(filePath, contentFilters);
         };
     }
 
-    private boolean extractWithTikaAndSearch(final Path filePath, final List<FilterEntity> filterEntities,
-                                             final boolean requireAll) {
+    private boolean extractWithTikaAndSearch(final Path filePath, final FilterPlan.ContentFilterSet contentFilters) {
         try {
             final String extractedText = extractTextWithTika(filePath);
-            return searchInExtractedText(extractedText, filterEntities, requireAll);
+            return searchInExtractedText(extractedText, contentFilters);
         } catch (final Exception exception) {
             log.debug("Tika extraction failed for {}: {}", filePath, exception.getMessage());
-            return false;
+            return contentFilters.acceptsUnreadContent();
         }
     }
 
-    private boolean extractWithPoiAndSearch(final Path filePath, final List<FilterEntity> filterEntities,
-                                            final boolean requireAll) {
+    private boolean extractWithPoiAndSearch(final Path filePath, final FilterPlan.ContentFilterSet contentFilters) {
         try (final POITextExtractor textExtractor = ExtractorFactory.createExtractor(filePath.toFile())) {
             final String extractedText = textExtractor.getText();
-            return searchInExtractedText(extractedText, filterEntities, requireAll);
+            return searchInExtractedText(extractedText, contentFilters);
         } catch (final Exception exception) {
             log.debug("POI extraction failed for {}: {}", filePath, exception.getMessage());
-            return false;
+            return contentFilters.acceptsUnreadContent();
         }
     }
 
-    private boolean extractWithPoiThenTika(final Path filePath, final List<FilterEntity> filterEntities,
-                                           final boolean requireAll) {
+    /**
+     * Tika wird nur gefragt, wenn POI keinen Text liefert oder die Einschlussfilter darin nicht erfüllt sind.
+     * Ein gefundenes Ausschlussmuster entscheidet bereits nach der ersten Extraktion.
+     */
+    private boolean extractWithPoiThenTika(final Path filePath, final FilterPlan.ContentFilterSet contentFilters) {
         try (final POITextExtractor textExtractor = ExtractorFactory.createExtractor(filePath.toFile())) {
             final String extractedText = textExtractor.getText();
             if (extractedText != null && !extractedText.isEmpty()) {
-                if (searchInExtractedText(extractedText, filterEntities, requireAll)) {
-                    return true;
+                final ContentMatcher.Scan scan = scanExtractedText(extractedText, contentFilters);
+                if (isSearchStopped() || scan.isAccepted() || scan.isDecided()) {
+                    return !isSearchStopped() && scan.isAccepted();
                 }
             }
         } catch (final Exception exception) {
             log.debug("POI extraction failed for {}: {}", filePath, exception.getMessage());
         }
 
-        return extractWithTikaAndSearch(filePath, filterEntities, requireAll);
+        return extractWithTikaAndSearch(filePath, contentFilters);
     }
 
     private String extractTextWithTika(final Path filePath) throws Exception {
@@ -533,169 +486,37 @@ public final class DirectoryTask extends RecursiveAction {
         return tika.parseToString(filePath.toFile());
     }
 
-    private boolean searchInExtractedText(final String textContent, final List<FilterEntity> filterEntities,
-                                          final boolean requireAll) {
+    private boolean searchInExtractedText(final String textContent, final FilterPlan.ContentFilterSet contentFilters) {
         if (textContent == null || textContent.isEmpty()) {
-            return false;
-        }
-
-        final boolean[] matchedFilters = new boolean[filterEntities.size()];
-        final int maximumPatternLength = filterEntities.stream()
-                .mapToInt(filterEntity -> filterEntity.patternKey.length())
-                .max()
-                .orElse(0);
-        final int windowSize = Math.max(TEXT_BUFFER_SIZE, maximumPatternLength * 2);
-
-        int currentPosition = 0;
-        while (currentPosition < textContent.length()) {
-            if (isSearchCancelledOrInvalidDirectory()) {
-                return false;
-            }
-
-            final int endPosition = Math.min(textContent.length(), currentPosition + windowSize);
-            final String textWindow = textContent.substring(currentPosition, endPosition);
-            final StringBuilder stringBuilder = new StringBuilder(textWindow);
-
-            updateMatchedFilters(stringBuilder, filterEntities, matchedFilters);
-
-            if (!requireAll && anyFilterMatched(matchedFilters)) {
-                return true;
-            }
-
-            currentPosition += Math.max(1, windowSize - maximumPatternLength);
+            return contentFilters.acceptsUnreadContent();
         }
 
-        return requireAll ? allFiltersMatched(matchedFilters) : anyFilterMatched(matchedFilters);
+        final ContentMatcher.Scan scan = scanExtractedText(textContent, contentFilters);
+        return !isSearchStopped() && scan.isAccepted();
     }
 
-    private boolean matchesTimeFilters(final Path filePath) {
-        if (hasNoTimeFilters()) {
-            return true;
-        }
-
-        try {
-            final long lastModifiedTimeMillis = Files.getLastModifiedTime(filePath).toMillis();
-            final Long creationTimeMillis = getFileCreationTime(filePath);
-
-            if (matchesTimeExcludeFilters(lastModifiedTimeMillis, creationTimeMillis)) {
-                return false;
+    /**
+     * Durchläuft extrahierten Text in Abschnitten, bis das Ergebnis feststeht oder der Text zu Ende ist.
+     */
+    private ContentMatcher.Scan scanExtractedText(final String textContent, final FilterPlan.ContentFilterSet contentFilters) {
+        final ContentMatcher.Scan scan = contentFilters.newScan();
+        for (int currentPosition = 0; currentPosition < textContent.length(); currentPosition += TEXT_BUFFER_SIZE) {
+            final int endPosition = Math.min(textContent.length(), currentPosition + TEXT_BUFFER_SIZE);
+            if (isSearchStopped() || scan.feed(textContent, currentPosition, endPosition)) {
+                return scan;
             }
-
-            return matchesTimeIncludeFilters(lastModifiedTimeMillis, creationTimeMillis);
-        } catch (final Exception exception) {
-            log.debug("Time filter check failed for {}: {}", filePath, exception.getMessage());
-            return true;
         }
-    }
 
-    private boolean hasNoTimeFilters() {
-        return (timeIncludeRanges == null || timeIncludeRanges.isEmpty()) &&
-                (timeExcludeRanges == null || timeExcludeRanges.isEmpty());
-    }
-
-    private Long getFileCreationTime(final Path filePath) {
-        try {
-            return Files.readAttributes(filePath, BasicFileAttributes.class).creationTime().toMillis();
-        } catch (final Exception exception) {
-            return null;
-        }
+        scan.finish();
+        return scan;
     }
 
-    private boolean matchesTimeExcludeFilters(final long lastModifiedTimeMillis, final Long creationTimeMillis) {
-        if (timeExcludeRanges == null || timeExcludeRanges.isEmpty()) {
-            return false;
-        }
-
-        logTimeFilterDebug("Exclude", lastModifiedTimeMillis, creationTimeMillis, timeExcludeRanges.size());
-
-        return timeExcludeRanges.stream()
-                .filter(Objects::nonNull)
-                .filter(TimeRangeTableModel.Entry::isEnabled)
-                .anyMatch(entry -> matchesTimeRange(entry, lastModifiedTimeMillis, creationTimeMillis));
-    }
-
-    private boolean matchesTimeIncludeFilters(final long lastModifiedTimeMillis, final Long creationTimeMillis) {
-        if (timeIncludeRanges == null || timeIncludeRanges.isEmpty()) {
-            return true;
-        }
-
-        logTimeFilterDebug("Include", lastModifiedTimeMillis, creationTimeMillis, timeIncludeRanges.size());
-
-        if (timeIncludeAllMode) {
-            return timeIncludeRanges.stream()
-                    .filter(Objects::nonNull)
-                    .filter(TimeRangeTableModel.Entry::isEnabled)
-                    .allMatch(entry -> matchesTimeRange(entry, lastModifiedTimeMillis, creationTimeMillis));
-        } else {
-            return timeIncludeRanges.stream()
-                    .filter(Objects::nonNull)
-                    .filter(TimeRangeTableModel.Entry::isEnabled)
-                    .anyMatch(entry -> matchesTimeRange(entry, lastModifiedTimeMillis, creationTimeMillis));
-        }
-    }
-
-    private boolean matchesTimeRange(final TimeRangeTableModel.Entry timeRange,
-                                     final long lastModifiedTimeMillis, final Long creationTimeMillis) {
-        final boolean lastModifiedMatches = matchesSingleTimeRange(timeRange, lastModifiedTimeMillis);
-        final boolean creationTimeMatches = creationTimeMillis != null && matchesSingleTimeRange(timeRange, creationTimeMillis);
-
-        log.debug("Time range match - mode: {}, start: {}, end: {} -> lastModified: {}, creation: {}",
-                timeRange.getMode(), timeRange.getStart(), timeRange.getEnd(),
-                lastModifiedMatches, creationTimeMatches);
-
-        return lastModifiedMatches || creationTimeMatches;
-    }
-
-    private boolean matchesSingleTimeRange(final TimeRangeTableModel.Entry timeRange, final long timestamp) {
-        if (timeRange == null || timeRange.getStart() == null || timeRange.getEnd() == null) {
-            return false;
-        }
-
-        final ZoneId systemZone = ZoneId.systemDefault();
-        final TimeRangeTableModel.Mode rangeMode = Optional.ofNullable(timeRange.getMode())
-                .orElse(TimeRangeTableModel.Mode.DATETIME);
-
-        return switch (rangeMode) {
-            case DATE -> matchesDateRange(timeRange, timestamp, systemZone);
-            case TIME -> matchesTimeRange(timeRange, timestamp, systemZone);
-            default -> matchesDateTimeRange(timeRange, timestamp);
-        };
-    }
-
-    private boolean matchesDateRange(final TimeRangeTableModel.Entry timeRange, final long timestamp, final ZoneId zone) {
-        final LocalDate fileDate = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
-        final LocalDate startDate = timeRange.getStart().toInstant().atZone(zone).toLocalDate();
-        final LocalDate endDate = timeRange.getEnd().toInstant().atZone(zone).toLocalDate();
-        return !fileDate.isBefore(startDate) && !fileDate.isAfter(endDate);
-    }
-
-    private boolean matchesTimeRange(final TimeRangeTableModel.Entry timeRange, final long timestamp, final ZoneId zone) {
-        final LocalTime fileTime = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalTime();
-        final LocalTime startTime = timeRange.getStart().toInstant().atZone(zone).toLocalTime();
-        final LocalTime endTime = timeRange.getEnd().toInstant().atZone(zone).toLocalTime();
-
-        if (!startTime.isAfter(endTime)) {
-            return !fileTime.isBefore(startTime) && !fileTime.isAfter(endTime);
-        } else {
-            return !fileTime.isBefore(startTime) || !fileTime.isAfter(endTime);
-        }
-    }
-
-    private boolean matchesDateTimeRange(final TimeRangeTableModel.Entry timeRange, final long timestamp) {
-        final long startTime = timeRange.getStart().getTime();
-        final long endTime = timeRange.getEnd().getTime();
-        return timestamp >= startTime && timestamp <= endTime;
-    }
-
-    private void logTimeFilterDebug(final String filterType, final long lastModifiedTimeMillis,
-                                    final Long creationTimeMillis, final int rangeCount) {
-        if (log.isDebugEnabled()) {
-            log.debug("Time filter check - type: {}, lastModified: {}, creation: {}, ranges: {}",
-                    filterType, lastModifiedTimeMillis, creationTimeMillis, rangeCount);
+    private void addFileToResults(final Path filePath) {
+        if (!searchBudget.tryAcquireResult()) {
+            return;
         }
-    }
 
-    private void addFileToResults(final Path filePath) {
+        statistics.recordResult();
         final String formattedResult = formatFileResult(filePath);
         searchResults.add(formattedResult);
 
@@ -722,24 +543,13 @@ public final class DirectoryTask extends RecursiveAction {
         return String.format("[%d.%02ds] %s", seconds, centiseconds, absolutePath);
     }
 
-    private boolean isSystemDirectory(final Path path) {
-        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
-            return false;
-        }
-
-        final Path fileName = path.getFileName();
-        if (fileName == null) {
-            return false;
-        }
-
-        final String directoryName = fileName.toString().toLowerCase(Locale.ROOT);
-        return SYSTEM_DIRECTORY_NAMES.contains(directoryName) || directoryName.startsWith("windows");
+    private void recordBytesScanned(final long byteCount) {
+        statistics.recordBytesScanned(byteCount);
+        searchBudget.recordBytesScanned(byteCount);
     }
 
-    private boolean isSearchCancelledOrInvalidDirectory() {
-        return Thread.currentThread().isInterrupted() ||
-                (searchCancelled != null && searchCancelled.get()) ||
-                !Files.isDirectory(directoryPath);
+    private boolean isSearchStopped() {
+        return searchBudget.isExhausted() || Thread.currentThread().isInterrupted();
     }
 
     private DirectoryTask createSubtask(final Path subdirectory) {
@@ -748,27 +558,21 @@ public final class DirectoryTask extends RecursiveAction {
                 searchResults,
                 matchCount,
                 null,
-                searchQuery,
                 searchStartTimeNano,
                 resultEmitter,
-                searchCancelled,
-                caseSensitiveSearch,
-                allowedFileExtensions,
-                deniedFileExtensions,
-                filenameIncludeFilters,
-                filenameIncludeCaseMap,
-                filenameExcludeFilters,
-                filenameExcludeCaseMap,
-                filenameIncludeAllMode,
-                contentIncludeFilters,
-                contentIncludeCaseMap,
-                contentExcludeFilters,
-                contentExcludeCaseMap,
-                contentIncludeAllMode,
-                timeIncludeRanges,
-                timeExcludeRanges,
-                timeIncludeAllMode,
-                extractionMode
+                searchBudget,
+                filterPlan,
+                extractionMode,
+                statistics,
+                contentPipeline,
+                virtualThreadEngine,
+                depth + 1,
+                traversal,
+                exclusionRules,
+                visitedSet,
+                traversalBoundary,
+                largeFileScanner,
+                binaryFileDetector
         );
     }
 
@@ -778,85 +582,4 @@ public final class DirectoryTask extends RecursiveAction {
         }
     }
 
-    private static <T> List<T> copyListIfNotEmpty(final List<T> originalList) {
-        return (originalList == null || originalList.isEmpty()) ? null : new ArrayList<>(originalList);
-    }
-
-    private static <K, V> Map<K, V> copyMapIfNotEmpty(final Map<K, V> originalMap) {
-        return (originalMap == null || originalMap.isEmpty()) ? null : new HashMap<>(originalMap);
-    }
-
-    private List<FilterEntity> buildFilterEntities(final List<String> filters, final Map<String, Boolean> caseSensitivityMap) {
-        if (filters == null || filters.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        final List<FilterEntity> filterEntities = new ArrayList<>();
-        for (final String filter : filters) {
-            if (filter == null || filter.trim().isEmpty()) {
-                continue;
-            }
-
-            final String trimmedFilter = filter.trim();
-            final boolean caseSensitive = caseSensitivityMap != null && Boolean.TRUE.equals(caseSensitivityMap.get(trimmedFilter));
-            final String patternKey = caseSensitive ? trimmedFilter : trimmedFilter.toLowerCase(Locale.ROOT);
-
-            filterEntities.add(new FilterEntity(trimmedFilter, caseSensitive, patternKey));
-        }
-        return filterEntities;
-    }
-
-    private void updateMatchedFilters(final StringBuilder textWindow, final List<FilterEntity> filterEntities,
-                                      final boolean[] matchedFilters) {
-        String lowercaseWindow = null;
-        String normalWindow = null;
-
-        for (int i = 0; i < filterEntities.size(); i++) {
-            if (matchedFilters[i]) {
-                continue;
-            }
-
-            final FilterEntity filterEntity = filterEntities.get(i);
-            if (filterEntity.caseSensitive) {
-                if (normalWindow == null) {
-                    normalWindow = textWindow.toString();
-                }
-                if (normalWindow.contains(filterEntity.patternKey)) {
-                    matchedFilters[i] = true;
-                }
-            } else {
-                if (lowercaseWindow == null) {
-                    lowercaseWindow = textWindow.toString().toLowerCase(Locale.ROOT);
-                }
-                if (lowercaseWindow.contains(filterEntity.patternKey)) {
-                    matchedFilters[i] = true;
-                }
-            }
-        }
-    }
-
-    private void trimSlidingWindow(final StringBuilder slidingWindow, final int maximumPatternLength) {
-        if (slidingWindow.length() > maximumPatternLength) {
-            slidingWindow.delete(0, slidingWindow.length() - maximumPatternLength);
-        }
-    }
-
-    private boolean anyFilterMatched(final boolean[] matchedFilters) {
-        for (final boolean matched : matchedFilters) {
-            if (matched) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean allFiltersMatched(final boolean[] matchedFilters) {
-        for (final boolean matched : matchedFilters) {
-            if (!matched) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Auswahl und Grenzen des Ausführungsmodells einer Suche.
+ *
+ * @param engine             gewähltes Ausführungsmodell
+ * @param maxOpenDirectories maximale Anzahl gleichzeitig geöffneter Verzeichnisse (nur virtuelle Threads)
+ * @param maxOpenFiles       maximale Anzahl gleichzeitig geöffneter Dateien bei Inhaltsprüfungen (nur virtuelle Threads)
+ * @param adaptiveParallelism {@code true}, wenn die Parallelität des ForkJoinPools während der Suche geregelt wird
+ * @param maxParallelism     Obergrenze der Parallelität im Leistungsmodus
+ */
+public record EngineSettings(ExecutionEngine engine, int maxOpenDirectories, int maxOpenFiles,
+                             boolean adaptiveParallelism, int maxParallelism) {
+
+    public static final int DEFAULT_MAX_OPEN_DIRECTORIES = 64;
+    public static final int DEFAULT_MAX_OPEN_FILES = 32;
+    public static final int DEFAULT_MAX_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    public static final EngineSettings DEFAULT = new EngineSettings(
+            ExecutionEngine.FORK_JOIN, DEFAULT_MAX_OPEN_DIRECTORIES, DEFAULT_MAX_OPEN_FILES, true, DEFAULT_MAX_PARALLELISM);
+
+    public EngineSettings {
+        engine = engine == null ? ExecutionEngine.FORK_JOIN : engine;
+        maxOpenDirectories = Math.max(1, maxOpenDirectories);
+        maxOpenFiles = Math.max(1, maxOpenFiles);
+        maxParallelism = Math.max(1, maxParallelism);
+    }
+
+    public boolean usesVirtualThreads() {
+        return engine == ExecutionEngine.VIRTUAL_THREADS;
+    }
+
+}
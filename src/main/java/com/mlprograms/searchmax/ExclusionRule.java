@@ -0,0 +1,64 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Eine einzelne Ausschlussregel für den Verzeichnis-Durchlauf.
+ * Textform: {@code <typ>:<muster>}, z. B. {@code name:node_modules}, {@code glob:*.egg-info},
+ * {@code prefix:/proc} oder {@code regex:(?i)^[a-z]:/windows$}. Ohne Typangabe wird ein Muster mit
+ * Platzhaltern als Glob, sonst als exakter Name behandelt. Groß-/Kleinschreibung behandeln alle Regelarten gleich,
+ * siehe {@link DirectoryExclusionRules}.
+ *
+ * @param type    Art der Regel
+ * @param pattern Muster der Regel
+ */
+public record ExclusionRule(Type type, String pattern) {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Type {
+        NAME("name"),     // Exakter Eintragsname
+        GLOB("glob"),     // Glob auf den Eintragsnamen, mit '/' auf den vollständigen Pfad eines Verzeichnisses
+        PREFIX("prefix"), // Absoluter Pfad, unterhalb dessen nichts durchsucht wird
+        REGEX("regex");   // Regulärer Ausdruck auf den vollständigen Pfad eines Verzeichnisses (mit '/' als Trenner)
+
+        private final String keyword;
+    }
+
+    /**
+     * Liest eine Regel aus ihrer Textform.
+     *
+     * @return die Regel oder {@code null} bei leeren Zeilen und Kommentaren ({@code #})
+     */
+    public static ExclusionRule parse(final String line) {
+        if (line == null) {
+            return null;
+        }
+
+        final String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+
+        final int separatorIndex = trimmed.indexOf(':');
+        if (separatorIndex > 0) {
+            final String keyword = trimmed.substring(0, separatorIndex).toLowerCase(Locale.ROOT);
+            for (final Type type : Type.values()) {
+                if (type.getKeyword().equals(keyword)) {
+                    return new ExclusionRule(type, trimmed.substring(separatorIndex + 1).trim());
+                }
+            }
+        }
+
+        final boolean hasWildcard = trimmed.indexOf('*') >= 0 || trimmed.indexOf('?') >= 0 || trimmed.indexOf('[') >= 0;
+        return new ExclusionRule(hasWildcard ? Type.GLOB : Type.NAME, trimmed);
+    }
+
+    public String format() {
+        return type.getKeyword() + ":" + pattern;
+    }
+
+}
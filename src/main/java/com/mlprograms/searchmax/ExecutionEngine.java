@@ -0,0 +1,11 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Ausführungsmodell der Suche.
+ */
+public enum ExecutionEngine {
+
+    FORK_JOIN,       // ForkJoinPool mit begrenzter Anzahl an Plattform-Threads
+    VIRTUAL_THREADS  // Ein virtueller Thread pro Verzeichnis und pro Inhaltsprüfung
+
+}
@@ -0,0 +1,60 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Vordefinierte Gruppen von Dateiendungen. Im Endungsfilter steht eine Gruppe als {@code category:<schlüssel>} und
+ * wird beim Kompilieren des Filterplans durch ihre Endungen ersetzt.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExtensionCategory {
+    DOCUMENTS("documents", List.of(
+            "txt", "md", "rtf", "pdf", "doc", "docx", "dot", "dotx", "odt", "ott", "xls", "xlsx", "xlsm", "ods", "csv",
+            "ppt", "pptx", "odp", "pages", "numbers", "key", "epub", "tex", "log")),
+    SOURCE_CODE("source", List.of(
+            "java", "kt", "kts", "scala", "groovy", "gradle", "c", "h", "cc", "cpp", "cxx", "hpp", "cs", "go", "rs", "swift",
+            "m", "py", "rb", "php", "pl", "js", "mjs", "cjs", "ts", "tsx", "jsx", "vue", "html", "htm", "css", "scss",
+            "sql", "sh", "bash", "ps1", "bat", "cmd", "xml", "json", "yaml", "yml", "toml", "properties", "ini")),
+    IMAGES("images", List.of(
+            "jpg", "jpeg", "png", "gif", "bmp", "tif", "tiff", "webp", "heic", "heif", "svg", "ico", "psd", "raw", "cr2",
+            "nef", "arw", "dng")),
+    ARCHIVES("archives", List.of(
+            "zip", "7z", "rar", "tar", "gz", "tgz", "bz2", "tbz2", "xz", "txz", "zst", "tar.gz", "tar.bz2", "tar.xz",
+            "tar.zst", "jar", "war", "iso", "cab"));
+
+    /**
+     * Präfix einer Gruppe im Endungsfilter.
+     */
+    public static final String PREFIX = "category:";
+
+    private final String key;
+    private final List<String> extensions;
+
+    /**
+     * Eintrag, unter dem die Gruppe im Endungsfilter gespeichert wird.
+     */
+    public String filterKey() {
+        return PREFIX + key;
+    }
+
+    /**
+     * @return die Gruppe zu einem Eintrag {@code category:<schlüssel>} oder {@code null}
+     */
+    public static ExtensionCategory fromFilterKey(final String filterKey) {
+        if (filterKey == null || !filterKey.startsWith(PREFIX)) {
+            return null;
+        }
+        final String categoryKey = filterKey.substring(PREFIX.length()).trim();
+        for (final ExtensionCategory category : values()) {
+            if (category.key.equalsIgnoreCase(categoryKey)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.mlprograms.searchmax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+
+/**
+ * Vorkompilierte Endungsfilter für Zulassen und Ausschließen in einer gemeinsamen Hashtabelle. Endungen werden ohne
+ * Punkt und ohne Beachtung der Groß-/Kleinschreibung gespeichert; mehrteilige Endungen wie {@code tar.gz} sind
+ * möglich. Ein Dateiname wird einmal von hinten gelesen: An jedem Punkt wird die Endung dahinter nachgeschlagen,
+ * höchstens so viele Teile, wie die längste konfigurierte Endung hat. Die Kosten pro Datei hängen damit nicht von
+ * der Anzahl der Endungen ab, und {@code gz} trifft nur auf {@code .gz}, nicht auf {@code .targz} zu.
+ */
+@Slf4j
+final class ExtensionSet {
+
+    private static final int ALLOWED = 1;
+    private static final int DENIED = 2;
+
+    private String[] extensions = new String[16];
+    private int[] hashes = new int[16];
+    private int[] flags = new int[16];
+    private int size;
+    private int maximumParts;
+    private boolean allowListConfigured;
+    private boolean denyListConfigured;
+
+    private ExtensionSet() {
+    }
+
+    /**
+     * Kompiliert Zulassungs- und Ausschlussliste. Einträge dürfen mit oder ohne Punkt angegeben sein; Einträge
+     * {@code category:<schlüssel>} stehen für die Endungen einer {@link ExtensionCategory}.
+     *
+     * @param allowed zugelassene Endungen oder {@code null}, wenn nicht nach Endung eingeschränkt wird
+     * @param denied  ausgeschlossene Endungen oder {@code null}
+     */
+    static ExtensionSet compile(final Collection<String> allowed, final Collection<String> denied) {
+        final ExtensionSet set = new ExtensionSet();
+        set.allowListConfigured = allowed != null && !allowed.isEmpty();
+        set.denyListConfigured = denied != null && !denied.isEmpty();
+        if (set.allowListConfigured) {
+            set.addAll(allowed, ALLOWED);
+        }
+        if (set.denyListConfigured) {
+            set.addAll(denied, DENIED);
+        }
+        return set;
+    }
+
+    boolean isConfigured() {
+        return allowListConfigured || denyListConfigured;
+    }
+
+    /**
+     * Eine ausgeschlossene Endung hat Vorrang; ist eine Zulassungsliste konfiguriert, muss eine ihrer Endungen passen.
+     */
+    boolean accepts(final String fileName) {
+        final int matchedFlags = lookup(fileName);
+        if ((matchedFlags & DENIED) != 0) {
+            return false;
+        }
+        return !allowListConfigured || (matchedFlags & ALLOWED) != 0;
+    }
+
+    /**
+     * Vereinigt die Markierungen aller Endungen des Namens, von der kürzesten bis zur längsten mehrteiligen.
+     */
+    private int lookup(final String fileName) {
+        if (size == 0) {
+            return 0;
+        }
+
+        int result = 0;
+        int hash = 0;
+        int parts = 0;
+        for (int i = fileName.length() - 1; i >= 0 && parts < maximumParts; i--) {
+            final char character = fileName.charAt(i);
+            if (character == '.') {
+                parts++;
+                result |= flagsOf(hash, fileName, i + 1);
+            }
+            hash = hash * 31 + CaseFolding.fold(character);
+        }
+        return result;
+    }
+
+    private int flagsOf(final int hash, final String fileName, final int start) {
+        final int length = fileName.length() - start;
+        if (length == 0) {
+            return 0;
+        }
+        for (int slot = mix(hash) & extensions.length - 1; extensions[slot] != null; slot = slot + 1 & extensions.length - 1) {
+            final String extension = extensions[slot];
+            if (hashes[slot] == hash && extension.length() == length && fileName.regionMatches(true, start, extension, 0, length)) {
+                return flags[slot];
+            }
+        }
+        return 0;
+    }
+
+    private void addAll(final Collection<String> entries, final int flag) {
+        for (final String entry : entries) {
+            if (entry == null || entry.isBlank()) {
+                continue;
+            }
+
+            final String trimmedEntry = entry.trim();
+            if (trimmedEntry.startsWith(ExtensionCategory.PREFIX)) {
+                final ExtensionCategory category = ExtensionCategory.fromFilterKey(trimmedEntry);
+                if (category == null) {
+                    log.warn("Unbekannte Endungsgruppe {} wird ignoriert", trimmedEntry);
+                    continue;
+                }
+                for (final String extension : category.getExtensions()) {
+                    add(extension, flag);
+                }
+            } else {
+                add(trimmedEntry.startsWith(".") ? trimmedEntry.substring(1) : trimmedEntry, flag);
+            }
+        }
+    }
+
+    private void add(final String extension, final int flag) {
+        if (extension.isEmpty()) {
+            return;
+        }
+        if ((size + 1) * 2 > extensions.length) {
+            grow();
+        }
+
+        final char[] folded = extension.toCharArray();
+        int hash = 0;
+        int parts = 1;
+        for (int i = folded.length - 1; i >= 0; i--) {
+            folded[i] = CaseFolding.fold(folded[i]);
+            hash = hash * 31 + folded[i];
+            if (folded[i] == '.') {
+                parts++;
+            }
+        }
+        insert(new String(folded), hash, flag);
+        maximumParts = Math.max(maximumParts, parts);
+    }
+
+    private void insert(final String extension, final int hash, final int flag) {
+        int slot = mix(hash) & extensions.length - 1;
+        while (extensions[slot] != null) {
+            if (hashes[slot] == hash && extensions[slot].equals(extension)) {
+                flags[slot] |= flag;
+                return;
+            }
+            slot = slot + 1 & extensions.length - 1;
+        }
+        extensions[slot] = extension;
+        hashes[slot] = hash;
+        flags[slot] = flag;
+        size++;
+    }
+
+    private void grow() {
+        final String[] oldExtensions = extensions;
+        final int[] oldHashes = hashes;
+        final int[] oldFlags = flags;
+        extensions = new String[oldExtensions.length * 2];
+        hashes = new int[extensions.length];
+        flags = new int[extensions.length];
+        size = 0;
+        for (int i = 0; i < oldExtensions.length; i++) {
+            if (oldExtensions[i] != null) {
+                insert(oldExtensions[i], oldHashes[i], oldFlags[i]);
+            }
+        }
+    }
+
+    private static int mix(final int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.mlprograms.searchmax;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Unveränderlicher Schnappschuss eines Verzeichniseintrags.
+ * Die Attribute werden beim Auflisten genau einmal gelesen und anschließend
+ * an alle Filterstufen (Typ, Systemordner, Zeit, Größe) weitergereicht.
+ *
+ * @param path                 Pfad des Eintrags
+ * @param fileName             Dateiname ohne Pfad
+ * @param directory            {@code true}, wenn es sich um ein Verzeichnis handelt
+ * @param regularFile          {@code true}, wenn es sich um eine reguläre Datei handelt
+ * @param symbolicLink         {@code true}, wenn es sich um einen symbolischen Link handelt
+ * @param size                 Größe in Bytes
+ * @param lastModifiedMillis   Zeitpunkt der letzten Änderung in Millisekunden
+ * @param creationTimeMillis   Erstellungszeitpunkt in Millisekunden oder {@link #UNKNOWN_TIME}
+ * @param fileKey              Dateisystem-Schlüssel des Eintrags (kann {@code null} sein)
+ */
+public record FileEntry(Path path, String fileName, boolean directory, boolean regularFile, boolean symbolicLink,
+                        long size, long lastModifiedMillis, long creationTimeMillis, Object fileKey) {
+
+    /**
+     * Zeitpunkt, den das Dateisystem nicht liefert. Ohne Erstellungszeit melden manche Dateisysteme die Epoche.
+     */
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    public static FileEntry of(final Path path, final BasicFileAttributes attributes) {
+        final Path fileName = path.getFileName();
+        final long creationTimeMillis = attributes.creationTime().toMillis();
+        return new FileEntry(
+                path,
+                fileName == null ? path.toString() : fileName.toString(),
+                attributes.isDirectory(),
+                attributes.isRegularFile(),
+                attributes.isSymbolicLink(),
+                attributes.size(),
+                attributes.lastModifiedTime().toMillis(),
+                creationTimeMillis == 0 ? UNKNOWN_TIME : creationTimeMillis,
+                attributes.fileKey()
+        );
+    }
+
+}
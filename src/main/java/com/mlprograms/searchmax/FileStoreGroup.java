@@ -0,0 +1,106 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Alle Startverzeichnisse einer Suche, die auf demselben {@link java.nio.file.FileStore} liegen.
+ * Jede Gruppe hat ein eigenes Parallelitätsbudget, damit ein langsames Laufwerk keine Threads
+ * anderer Laufwerke blockiert und Startverzeichnisse auf derselben Festplatte nicht gegeneinander suchen.
+ */
+@Getter
+public final class FileStoreGroup {
+
+    /**
+     * Anzeigename des Laufwerks (Gerät bzw. Name des FileStores).
+     */
+    private final String name;
+
+    /**
+     * {@code true} für rotierende Festplatten, {@code false} für SSDs, {@code null} wenn unbekannt.
+     */
+    private final Boolean rotational;
+
+    /**
+     * Parallelität, die dieser Gruppe zugeteilt wird.
+     */
+    private final int parallelism;
+
+    /**
+     * Eigener Pool der Gruppe oder {@code null}, wenn der gemeinsame Pool verwendet wird.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Kennzahlen dieses Laufwerks, die zusätzlich in die Gesamtstatistik einfließen.
+     */
+    private final SearchStatistics statistics;
+
+    private final List<Path> roots = new ArrayList<>();
+
+    /**
+     * Priorisierte Warteschlange für den Verzeichnis-Durchlauf oder {@code null} bei rekursivem Durchlauf.
+     */
+    @Setter
+    private volatile PriorityTraversal traversal;
+
+    public FileStoreGroup(final String name, final Boolean rotational, final int parallelism,
+                          final boolean dedicatedPool, final SearchStatistics parentStatistics) {
+        this.name = name;
+        this.rotational = rotational;
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = dedicatedPool ? new ForkJoinPool(this.parallelism) : null;
+        this.statistics = new SearchStatistics(parentStatistics);
+    }
+
+    public void addRoot(final Path root) {
+        roots.add(root);
+    }
+
+    public List<Path> getRoots() {
+        return Collections.unmodifiableList(roots);
+    }
+
+    public String getDeviceType() {
+        if (rotational == null) {
+            return "unknown";
+        }
+        return rotational ? "HDD" : "SSD";
+    }
+
+    /**
+     * Formatiert den Durchsatz dieses Laufwerks seit dem Start der Suche bis zur letzten Aktivität.
+     */
+    public String formatThroughput(final long startNano) {
+        final long files = statistics.getVisitedFiles().get();
+        final long bytes = statistics.getBytesScanned().get();
+        final long endNano = statistics.getLastActivityNano();
+        final double seconds = endNano == 0L ? 0.0 : Math.max(1e-3, (endNano - startNano) / 1e9);
+        final double filesPerSecond = seconds == 0.0 ? 0.0 : files / seconds;
+        final double megabytesPerSecond = seconds == 0.0 ? 0.0 : bytes / seconds / (1024.0 * 1024.0);
+        return String.format("%s [%s, p%d]: %d files in %.1fs (%.0f files/s, %.1f MB/s)",
+                name, getDeviceType(), parallelism, files, seconds, filesPerSecond, megabytesPerSecond);
+    }
+
+    public boolean isTraversalIdle() {
+        final PriorityTraversal currentTraversal = traversal;
+        return currentTraversal == null || currentTraversal.isIdle();
+    }
+
+    public void shutdown() {
+        final PriorityTraversal currentTraversal = traversal;
+        if (currentTraversal != null) {
+            currentTraversal.shutdown();
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+}
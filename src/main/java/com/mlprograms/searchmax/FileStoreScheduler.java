@@ -0,0 +1,117 @@
+package com.mlprograms.searchmax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordnet die Startverzeichnisse einer Suche ihren Laufwerken zu und legt pro Laufwerk ein Parallelitätsbudget fest.
+ * Unter Linux wird über {@code /sys/block/<gerät>/queue/rotational} erkannt, ob es sich um eine rotierende
+ * Festplatte handelt; solche Laufwerke werden mit geringer Parallelität durchsucht, um Kopfbewegungen zu vermeiden.
+ */
+@Slf4j
+public final class FileStoreScheduler {
+
+    private static final int ROTATIONAL_PARALLELISM = 1;
+    private static final Path SYS_CLASS_BLOCK = Paths.get("/sys/class/block");
+
+    private FileStoreScheduler() {
+    }
+
+    /**
+     * Gruppiert die Startverzeichnisse nach FileStore.
+     * Eigene Pools werden nur angelegt, wenn mehrere Laufwerke beteiligt sind oder das Laufwerk rotierend ist;
+     * andernfalls nutzt die Gruppe den gemeinsamen Pool (und damit auch die adaptive Parallelität).
+     * Schlüssel ist der FileStore selbst, nicht sein Name: Unter Windows ist {@link FileStore#name()} die
+     * Datenträgerbezeichnung, die mehrere Laufwerke gemeinsam haben können.
+     *
+     * @param roots              existierende Startverzeichnisse
+     * @param defaultParallelism Parallelität für SSDs und unbekannte Laufwerke
+     * @param parentStatistics   Gesamtstatistik der Suche
+     */
+    public static List<FileStoreGroup> groupByFileStore(final List<Path> roots, final int defaultParallelism,
+                                                        final SearchStatistics parentStatistics) {
+        final Map<Object, StoreRoots> rootsByStore = new LinkedHashMap<>();
+
+        for (final Path root : roots) {
+            Object storeKey = root;
+            String storeName = root.toString();
+            Boolean rotational = null;
+            try {
+                final FileStore fileStore = Files.getFileStore(root);
+                storeKey = fileStore;
+                storeName = fileStore.name() == null || fileStore.name().isEmpty() ? fileStore.toString() : fileStore.name();
+                rotational = detectRotational(fileStore.name());
+            } catch (final IOException | SecurityException exception) {
+                log.debug("Cannot determine file store of {}: {}", root, exception.getMessage());
+            }
+
+            final String name = storeName;
+            final Boolean isRotational = rotational;
+            rootsByStore.computeIfAbsent(storeKey, key -> new StoreRoots(name, isRotational, new ArrayList<>())).roots().add(root);
+        }
+
+        final boolean multipleStores = rootsByStore.size() > 1;
+        final List<FileStoreGroup> groups = new ArrayList<>(rootsByStore.size());
+        for (final StoreRoots store : rootsByStore.values()) {
+            final boolean isRotational = Boolean.TRUE.equals(store.rotational());
+            final int parallelism = isRotational ? ROTATIONAL_PARALLELISM : defaultParallelism;
+
+            final FileStoreGroup group = new FileStoreGroup(store.name(), store.rotational(), parallelism,
+                    multipleStores || isRotational, parentStatistics);
+            store.roots().forEach(group::addRoot);
+            groups.add(group);
+
+            log.debug("Laufwerk {} ({}): {} Startverzeichnisse, Parallelität {}",
+                    group.getName(), group.getDeviceType(), group.getRoots().size(), parallelism);
+        }
+        return groups;
+    }
+
+    /**
+     * Startverzeichnisse eines FileStores mit Anzeigename und Gerätetyp.
+     */
+    private record StoreRoots(String name, Boolean rotational, List<Path> roots) {
+    }
+
+    /**
+     * Ermittelt über sysfs, ob das Gerät eines FileStores rotierend ist.
+     *
+     * @param deviceName Name des FileStores, unter Linux z. B. {@code /dev/sda1}
+     * @return {@code true}/{@code false} oder {@code null}, wenn es nicht ermittelt werden kann
+     */
+    static Boolean detectRotational(final String deviceName) {
+        if (deviceName == null || !deviceName.startsWith("/dev/") || !Files.isDirectory(SYS_CLASS_BLOCK)) {
+            return null;
+        }
+
+        try {
+            final Path devicePath = Paths.get(deviceName).toRealPath();
+            final Path blockDevice = SYS_CLASS_BLOCK.resolve(devicePath.getFileName().toString()).toRealPath();
+
+            // Partitionen haben keine eigene queue, der Wert steht beim übergeordneten Gerät
+            for (Path candidate = blockDevice; candidate != null; candidate = candidate.getParent()) {
+                final Path rotationalFile = candidate.resolve("queue").resolve("rotational");
+                if (Files.isReadable(rotationalFile)) {
+                    return "1".equals(Files.readString(rotationalFile, StandardCharsets.US_ASCII).trim());
+                }
+                if (candidate.getNameCount() <= 3) {
+                    break;
+                }
+            }
+        } catch (final IOException | SecurityException exception) {
+            log.debug("Cannot detect device type of {}: {}", deviceName, exception.getMessage());
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,477 @@
+package com.mlprograms.searchmax;
+
+import com.mlprograms.searchmax.model.TextFiltersTableModel.Syntax;
+import com.mlprograms.searchmax.model.TimeRangeTableModel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Einmal pro Suche kompilierter Filterplan. Alle Muster liegen bereits in der
+ * benötigten Schreibweise vor (mit {@link CaseFolding} gefaltet, sofern nicht case-sensitiv), die Groß-/Kleinschreibung
+ * ist pro Muster aufgelöst und Zeitbereiche sind in Millisekunden-Grenzen umgerechnet. Verzeichnis-Aufgaben
+ * halten nur eine Referenz auf den Plan; die Prüfung eines Dateinamens erzeugt keine Zwischen-Strings.
+ * Veränderlich ist nur die Reihenfolge der Metadatenprüfungen, die der {@link FilterPlanner} während der Suche lernt.
+ */
+@Slf4j
+public final class FilterPlan {
+
+    private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+
+    public static final FilterPlan EMPTY = compile("", false, null, null, null, null, null, null, false,
+            null, null, null, null, false, null, null, false, false);
+
+    /**
+     * Ein Textmuster mit aufgelöster Groß-/Kleinschreibung.
+     *
+     * @param pattern       Muster wie vom Benutzer eingegeben
+     * @param caseSensitive {@code true}, wenn Groß-/Kleinschreibung beachtet wird
+     * @param patternKey    Muster in der Schreibweise, in der verglichen wird
+     * @param syntax        {@link Syntax#TEXT}, ein Operator aus {@link ContentOperators} oder {@link Syntax#REGEX}
+     */
+    public record TextPattern(String pattern, boolean caseSensitive, String patternKey, Syntax syntax) {
+    }
+
+    /**
+     * Kompilierte Einschluss- und Ausschlussfilter für den Inhalt. Beide teilen sich mit den Inhaltstermen der
+     * Suchabfrage einen Automaten, damit jede Datei nur einmal gelesen bzw. extrahiert wird; der Durchlauf endet,
+     * sobald das Ergebnis feststeht.
+     *
+     * @param includes   Einschlussmuster in Eingabereihenfolge
+     * @param excludes   Ausschlussmuster in Eingabereihenfolge
+     * @param requireAll {@code true}, wenn alle Einschlussmuster vorkommen müssen
+     * @param matcher    Automat über Einschlussmuster, Ausschlussmuster und Inhaltsterme der Suchabfrage
+     * @param condition  an eine Datei gebundene Suchabfrage oder {@code null}
+     */
+    public record ContentFilterSet(List<TextPattern> includes, List<TextPattern> excludes, boolean requireAll,
+                                   ContentMatcher matcher, ContentMatcher.Condition condition) {
+
+        public boolean isEmpty() {
+            return includes.isEmpty() && excludes.isEmpty();
+        }
+
+        public ContentMatcher.Scan newScan() {
+            return matcher.newScan(includes.size(), excludes.size(), requireAll, condition);
+        }
+
+        /**
+         * Ergebnis für eine Datei, deren Inhalt nicht gelesen werden kann oder übersprungen wird: Sie wird behandelt
+         * wie eine leere Datei.
+         */
+        public boolean acceptsUnreadContent() {
+            return newScan().finish();
+        }
+
+        private ContentFilterSet withCondition(final ContentMatcher.Condition fileCondition) {
+            return new ContentFilterSet(includes, excludes, requireAll, matcher, fileCondition);
+        }
+    }
+
+    private record TimeRange(TimeRangeTableModel.Mode mode, long start, long end) {
+    }
+
+    private final SearchQuery searchQuery;
+    private final ExtensionSet extensions;
+    private final boolean filenameIncludesConfigured;
+    private final NamePattern[] filenameIncludes;
+    private final boolean filenameIncludeAllMode;
+    private final boolean filenameExcludesConfigured;
+    private final NamePattern[] filenameExcludes;
+    @Getter
+    private final ContentFilterSet contentFilters;
+    private final boolean timeIncludesConfigured;
+    private final TimeRange[] timeIncludes;
+    private final boolean timeIncludeAllMode;
+    private final boolean timeExcludesConfigured;
+    private final TimeRange[] timeExcludes;
+    private final ZoneRules zoneRules;
+    private final long fixedOffsetMillis;
+    private final FilterPlanner planner;
+
+    private FilterPlan(final SearchQuery searchQuery,
+                       final ExtensionSet extensions,
+                       final boolean filenameIncludesConfigured, final NamePattern[] filenameIncludes, final boolean filenameIncludeAllMode,
+                       final boolean filenameExcludesConfigured, final NamePattern[] filenameExcludes,
+                       final ContentFilterSet contentFilters,
+                       final boolean timeIncludesConfigured, final TimeRange[] timeIncludes, final boolean timeIncludeAllMode,
+                       final boolean timeExcludesConfigured, final TimeRange[] timeExcludes, final ZoneId zone) {
+        this.searchQuery = searchQuery;
+        this.extensions = extensions;
+        this.filenameIncludesConfigured = filenameIncludesConfigured;
+        this.filenameIncludes = filenameIncludes;
+        this.filenameIncludeAllMode = filenameIncludeAllMode;
+        this.filenameExcludesConfigured = filenameExcludesConfigured;
+        this.filenameExcludes = filenameExcludes;
+        this.contentFilters = contentFilters;
+        this.timeIncludesConfigured = timeIncludesConfigured;
+        this.timeIncludes = timeIncludes;
+        this.timeIncludeAllMode = timeIncludeAllMode;
+        this.timeExcludesConfigured = timeExcludesConfigured;
+        this.timeExcludes = timeExcludes;
+        this.zoneRules = zone.getRules();
+        this.fixedOffsetMillis = zoneRules.isFixedOffset() ? zoneRules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L : 0L;
+        this.planner = new FilterPlanner(estimateStageCosts());
+    }
+
+    /**
+     * Schätzt die Kosten der konfigurierten Metadatenprüfungen in Nanosekunden pro Datei. Die Zeitstempel liegen
+     * bereits im {@link FileEntry}, eine Zeitprüfung kostet also keinen weiteren Dateisystemzugriff.
+     */
+    private Map<FilterPlanner.Stage, Double> estimateStageCosts() {
+        final Map<FilterPlanner.Stage, Double> costs = new EnumMap<>(FilterPlanner.Stage.class);
+        if (!searchQuery.isEmpty()) {
+            costs.put(FilterPlanner.Stage.QUERY, searchQuery.estimatedCost());
+        }
+        if (filenameIncludesConfigured || filenameExcludesConfigured) {
+            double nameCost = 5.0;
+            for (final NamePattern pattern : filenameIncludes) {
+                nameCost += pattern.estimatedCost();
+            }
+            for (final NamePattern pattern : filenameExcludes) {
+                nameCost += pattern.estimatedCost();
+            }
+            costs.put(FilterPlanner.Stage.NAME, nameCost);
+        }
+        if (extensions.isConfigured()) {
+            costs.put(FilterPlanner.Stage.EXTENSION, 10.0);
+        }
+        if (timeIncludesConfigured || timeExcludesConfigured) {
+            costs.put(FilterPlanner.Stage.TIME, 5.0 + 10.0 * (timeIncludes.length + timeExcludes.length));
+        }
+        return costs;
+    }
+
+    /**
+     * Kompiliert die Filtereinstellungen einer Suche. Die übergebenen Listen und Tabellen werden
+     * kopiert, spätere Änderungen in der Oberfläche wirken sich nicht auf eine laufende Suche aus.
+     */
+    public static FilterPlan compile(final String searchQuery, final boolean caseSensitiveSearch,
+                                     final List<String> allowedExtensions, final List<String> deniedExtensions,
+                                     final List<String> filenameIncludes, final Map<String, Boolean> filenameIncludesCase,
+                                     final List<String> filenameExcludes, final Map<String, Boolean> filenameExcludesCase,
+                                     final boolean filenameIncludeAllMode,
+                                     final List<String> contentIncludes, final Map<String, Boolean> contentIncludesCase,
+                                     final List<String> contentExcludes, final Map<String, Boolean> contentExcludesCase,
+                                     final boolean contentIncludeAllMode,
+                                     final List<TimeRangeTableModel.Entry> timeIncludes,
+                                     final List<TimeRangeTableModel.Entry> timeExcludes,
+                                     final boolean timeIncludeAllMode,
+                                     final boolean foldDiacritics) {
+        final ZoneId zone = ZoneId.systemDefault();
+        final SearchQuery query = SearchQuery.compile(searchQuery, caseSensitiveSearch, foldDiacritics, zone);
+        return new FilterPlan(
+                query,
+                ExtensionSet.compile(allowedExtensions, deniedExtensions),
+                isConfigured(filenameIncludes),
+                compileNamePatterns(filenameIncludes, filenameIncludesCase, foldDiacritics),
+                filenameIncludeAllMode,
+                isConfigured(filenameExcludes),
+                compileNamePatterns(filenameExcludes, filenameExcludesCase, foldDiacritics),
+                compileContentFilters(contentIncludes, contentIncludesCase, contentIncludeAllMode, contentExcludes, contentExcludesCase,
+                        query.contentPatterns(), foldDiacritics),
+                isConfigured(timeIncludes),
+                compileTimeRanges(timeIncludes, zone),
+                timeIncludeAllMode,
+                isConfigured(timeExcludes),
+                compileTimeRanges(timeExcludes, zone),
+                zone
+        );
+    }
+
+    /**
+     * Prüft Suchbegriff, Namensfilter, Dateiendungen und Zeitbereiche einer Datei in der vom
+     * {@link FilterPlanner} bestimmten Reihenfolge. Nicht konfigurierte Prüfungen entfallen.
+     */
+    public boolean passesMetadataFilters(final FileEntry fileEntry) {
+        final String fileName = fileEntry.fileName();
+        for (final FilterPlanner.Stage stage : planner.currentOrder()) {
+            final boolean passed = switch (stage) {
+                case QUERY -> searchQuery.mayMatch(fileEntry);
+                case NAME -> matchesFilenameFilters(fileName);
+                case EXTENSION -> extensions.accepts(fileName);
+                case TIME -> matchesTimeFilters(fileEntry);
+            };
+            if (!planner.record(stage, passed)) {
+                planner.afterEvaluation();
+                return false;
+            }
+        }
+        planner.afterEvaluation();
+        return true;
+    }
+
+    /**
+     * Zählt das Ergebnis einer Inhaltsprüfung für die Zusammenfassung.
+     */
+    void recordContentCheck(final FilterPlanner.ContentFormat format, final boolean passed, final long elapsedNanos) {
+        planner.recordContent(format, passed, elapsedNanos);
+    }
+
+    /**
+     * Reihenfolge der Prüfungen mit der Anzahl verworfener und geprüfter Dateien je Stufe.
+     *
+     * @return leere Zeichenkette, wenn keine Prüfung ausgeführt wurde
+     */
+    public String formatExplain() {
+        return planner.formatExplain();
+    }
+
+    /**
+     * @return {@code true}, wenn für die Datei nach bestandener Metadatenprüfung noch der Inhalt geprüft werden muss
+     */
+    public boolean needsContent(final FileEntry fileEntry) {
+        return !contentFilters.isEmpty() || searchQuery.needsContent(fileEntry);
+    }
+
+    /**
+     * @return {@code true}, wenn das Ergebnis der Inhaltsprüfung nur vom Inhalt abhängt, nicht von Name, Größe oder
+     * Datum der Datei; gilt, solange die Suchabfrage keine Inhaltsterme enthält
+     */
+    public boolean hasPathIndependentContentVerdict() {
+        return searchQuery.contentPatterns().isEmpty();
+    }
+
+    /**
+     * Inhaltsfilter für eine Datei; enthält die Suchabfrage Inhaltsterme, ist sie an die Datei gebunden.
+     */
+    public ContentFilterSet contentFiltersFor(final FileEntry fileEntry) {
+        if (searchQuery.contentPatterns().isEmpty()) {
+            return contentFilters;
+        }
+        final int patternOffset = contentFilters.includes().size() + contentFilters.excludes().size();
+        return contentFilters.withCondition(searchQuery.conditionFor(fileEntry, patternOffset));
+    }
+
+    /**
+     * Begriff aus der Suchabfrage, nach dem Verzeichnisnamen bevorzugt werden, oder {@code null}.
+     */
+    public String getQueryBoostTerm() {
+        return searchQuery.boostTerm();
+    }
+
+    private boolean matchesFilenameFilters(final String fileName) {
+        if (!filenameIncludesConfigured && !filenameExcludesConfigured) {
+            return true;
+        }
+
+        // Textfilter gelten für den Dateinamen ohne Endung, Glob und Regex für den vollständigen Namen
+        final int lastDotIndex = fileName.lastIndexOf('.');
+        final int nameEnd = lastDotIndex <= 0 ? fileName.length() : lastDotIndex;
+
+        if (filenameIncludesConfigured && !matchesNamePatterns(fileName, nameEnd, filenameIncludes, filenameIncludeAllMode)) {
+            return false;
+        }
+
+        return !filenameExcludesConfigured || !matchesNamePatterns(fileName, nameEnd, filenameExcludes, false);
+    }
+
+    private static boolean matchesNamePatterns(final String fileName, final int nameEnd,
+                                               final NamePattern[] patterns, final boolean requireAll) {
+        for (final NamePattern pattern : patterns) {
+            final boolean matches = pattern.matches(fileName, nameEnd);
+            if (requireAll && !matches) {
+                return false;
+            }
+            if (!requireAll && matches) {
+                return true;
+            }
+        }
+        return requireAll;
+    }
+
+    private boolean matchesTimeFilters(final FileEntry fileEntry) {
+        if (!timeIncludesConfigured && !timeExcludesConfigured) {
+            return true;
+        }
+
+        final long lastModifiedMillis = fileEntry.lastModifiedMillis();
+        final long creationTimeMillis = fileEntry.creationTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug("Time filter check - lastModified: {}, creation: {}, include ranges: {}, exclude ranges: {}",
+                    lastModifiedMillis, creationTimeMillis, timeIncludes.length, timeExcludes.length);
+        }
+
+        if (timeExcludesConfigured) {
+            for (final TimeRange timeRange : timeExcludes) {
+                if (matchesTimeRange(timeRange, lastModifiedMillis, creationTimeMillis)) {
+                    return false;
+                }
+            }
+        }
+
+        if (!timeIncludesConfigured) {
+            return true;
+        }
+
+        for (final TimeRange timeRange : timeIncludes) {
+            final boolean matches = matchesTimeRange(timeRange, lastModifiedMillis, creationTimeMillis);
+            if (timeIncludeAllMode && !matches) {
+                return false;
+            }
+            if (!timeIncludeAllMode && matches) {
+                return true;
+            }
+        }
+        return timeIncludeAllMode;
+    }
+
+    private boolean matchesTimeRange(final TimeRange timeRange, final long lastModifiedMillis, final long creationTimeMillis) {
+        // Ohne eigene Erstellungszeit liefern viele Dateisysteme die Änderungszeit, die schon geprüft ist
+        return matchesSingleTimeRange(timeRange, lastModifiedMillis)
+                || (creationTimeMillis != FileEntry.UNKNOWN_TIME && creationTimeMillis != lastModifiedMillis
+                && matchesSingleTimeRange(timeRange, creationTimeMillis));
+    }
+
+    private boolean matchesSingleTimeRange(final TimeRange timeRange, final long timestamp) {
+        if (timeRange.mode() == null) {
+            return false;
+        }
+
+        return switch (timeRange.mode()) {
+            // Datumsgrenzen sind bereits in Tagesanfang und Folgetag umgerechnet
+            case DATE -> timestamp >= timeRange.start() && timestamp < timeRange.end();
+            case TIME -> matchesTimeOfDay(timeRange, timestamp);
+            default -> timestamp >= timeRange.start() && timestamp <= timeRange.end();
+        };
+    }
+
+    private boolean matchesTimeOfDay(final TimeRange timeRange, final long timestamp) {
+        final long offsetMillis = zoneRules.isFixedOffset()
+                ? fixedOffsetMillis
+                : zoneRules.getOffset(Instant.ofEpochMilli(timestamp)).getTotalSeconds() * 1000L;
+        final long millisOfDay = Math.floorMod(timestamp + offsetMillis, MILLIS_PER_DAY);
+
+        if (timeRange.start() <= timeRange.end()) {
+            return millisOfDay >= timeRange.start() && millisOfDay <= timeRange.end();
+        }
+        // Bereich über Mitternacht
+        return millisOfDay >= timeRange.start() || millisOfDay <= timeRange.end();
+    }
+
+    private static boolean isConfigured(final List<?> entries) {
+        return entries != null && !entries.isEmpty();
+    }
+
+    private static NamePattern[] compileNamePatterns(final List<String> filters, final Map<String, Boolean> caseSensitivityMap,
+                                                     final boolean foldDiacritics) {
+        if (!isConfigured(filters)) {
+            return new NamePattern[0];
+        }
+
+        final List<NamePattern> patterns = new ArrayList<>(filters.size());
+        for (final String filter : filters) {
+            if (filter == null || filter.isEmpty()) {
+                continue;
+            }
+
+            final boolean caseSensitive = caseSensitivityMap != null && Boolean.TRUE.equals(caseSensitivityMap.get(filter));
+            patterns.add(NamePattern.compile(filter, caseSensitive, foldDiacritics));
+        }
+        return patterns.toArray(NamePattern[]::new);
+    }
+
+    private static ContentFilterSet compileContentFilters(final List<String> includes, final Map<String, Boolean> includesCase,
+                                                          final boolean requireAll,
+                                                          final List<String> excludes, final Map<String, Boolean> excludesCase,
+                                                          final List<TextPattern> queryPatterns, final boolean foldDiacritics) {
+        final List<TextPattern> includePatterns = compileTextPatterns(includes, includesCase, foldDiacritics);
+        final List<TextPattern> excludePatterns = compileTextPatterns(excludes, excludesCase, foldDiacritics);
+        final List<TextPattern> patterns = new ArrayList<>(includePatterns.size() + excludePatterns.size() + queryPatterns.size());
+        patterns.addAll(includePatterns);
+        patterns.addAll(excludePatterns);
+        patterns.addAll(queryPatterns);
+        return new ContentFilterSet(includePatterns, excludePatterns, requireAll, ContentMatcher.compile(patterns, foldDiacritics), null);
+    }
+
+    private static List<TextPattern> compileTextPatterns(final List<String> filters, final Map<String, Boolean> caseSensitivityMap,
+                                                         final boolean foldDiacritics) {
+        if (!isConfigured(filters)) {
+            return List.of();
+        }
+
+        final List<TextPattern> patterns = new ArrayList<>(filters.size());
+        for (final String filter : filters) {
+            if (filter == null || filter.trim().isEmpty()) {
+                continue;
+            }
+
+            final String trimmedFilter = filter.trim();
+            final boolean caseSensitive = caseSensitivityMap != null && Boolean.TRUE.equals(caseSensitivityMap.get(trimmedFilter));
+            patterns.add(compileTextPattern(trimmedFilter, caseSensitive, foldDiacritics));
+        }
+        return Collections.unmodifiableList(patterns);
+    }
+
+    /**
+     * Kompiliert einen Inhaltsfilter in seiner gespeicherten Form ({@code word:art}, {@code regex:...} oder Text).
+     * Mit {@code foldDiacritics} wird Text ohne Beachtung von Akzenten und Groß-/Kleinschreibung verglichen.
+     */
+    static TextPattern compileTextPattern(final String filter, final boolean caseSensitive, final boolean foldDiacritics) {
+        // Inhaltsfilter kennen weder Glob noch Musterlisten; das Präfix bleibt Teil des Textes
+        final Syntax syntax = switch (Syntax.of(filter)) {
+            case GLOB, LIST -> Syntax.TEXT;
+            default -> Syntax.of(filter);
+        };
+        final String pattern = syntax == Syntax.TEXT ? filter : Syntax.patternOf(filter);
+        if (syntax == Syntax.TEXT && foldDiacritics) {
+            return new TextPattern(pattern, false, DiacriticFolding.fold(pattern), syntax);
+        }
+        final String patternKey = caseSensitive ? pattern : CaseFolding.fold(pattern);
+        return new TextPattern(pattern, caseSensitive, patternKey, syntax);
+    }
+
+    private static TimeRange[] compileTimeRanges(final List<TimeRangeTableModel.Entry> entries, final ZoneId zone) {
+        if (!isConfigured(entries)) {
+            return new TimeRange[0];
+        }
+
+        final List<TimeRange> timeRanges = new ArrayList<>(entries.size());
+        for (final TimeRangeTableModel.Entry entry : entries) {
+            if (entry == null || !entry.isEnabled()) {
+                continue;
+            }
+            timeRanges.add(compileTimeRange(entry, zone));
+        }
+        return timeRanges.toArray(TimeRange[]::new);
+    }
+
+    private static TimeRange compileTimeRange(final TimeRangeTableModel.Entry entry, final ZoneId zone) {
+        if (entry.getStart() == null || entry.getEnd() == null) {
+            // Unvollständige Bereiche treffen nie zu
+            return new TimeRange(null, 0L, 0L);
+        }
+
+        final TimeRangeTableModel.Mode mode = Optional.ofNullable(entry.getMode()).orElse(TimeRangeTableModel.Mode.DATETIME);
+        final long startMillis = entry.getStart().getTime();
+        final long endMillis = entry.getEnd().getTime();
+
+        return switch (mode) {
+            case DATE -> {
+                final LocalDate startDate = Instant.ofEpochMilli(startMillis).atZone(zone).toLocalDate();
+                final LocalDate endDate = Instant.ofEpochMilli(endMillis).atZone(zone).toLocalDate();
+                yield new TimeRange(mode,
+                        startDate.atStartOfDay(zone).toInstant().toEpochMilli(),
+                        endDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            }
+            case TIME -> new TimeRange(mode, millisOfDay(startMillis, zone), millisOfDay(endMillis, zone));
+            default -> new TimeRange(mode, startMillis, endMillis);
+        };
+    }
+
+    private static long millisOfDay(final long timestamp, final ZoneId zone) {
+        final ZoneOffset offset = zone.getRules().getOffset(Instant.ofEpochMilli(timestamp));
+        return Math.floorMod(timestamp + offset.getTotalSeconds() * 1000L, MILLIS_PER_DAY);
+    }
+
+}
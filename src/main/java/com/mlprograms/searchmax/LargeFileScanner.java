@@ -0,0 +1,152 @@
+package com.mlprograms.searchmax;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Durchsucht große Textdateien über eingeblendete Dateibereiche ({@link FileChannel#map}) statt über einen Stream.
+ * Die Fenster werden blockweise in einen wiederverwendeten Puffer kopiert. Ist die Vector API verfügbar, überspringt
+ * der {@link StartByteFilter} alle Bytes, die keinen Treffer beginnen können, und der Automat läuft nur ab den
+ * Kandidaten. Skalar lohnt sich der Filter nicht, dann läuft der Automat über den ganzen Block.
+ * Liegen die Kandidaten so dicht, dass kaum etwas übersprungen wird, wird für den Rest der Datei ohne Filter gesucht.
+ */
+public final class LargeFileScanner {
+
+    private static final long MAPPING_WINDOW_SIZE = 256L * 1024 * 1024;
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    public static final LargeFileScanner NONE = new LargeFileScanner(Long.MAX_VALUE, false);
+
+    private final long thresholdBytes;
+    private final boolean vectorized;
+    private final AtomicLong mappedFiles = new AtomicLong();
+    private final AtomicLong mappedBytes = new AtomicLong();
+    private final AtomicLong skippedBytes = new AtomicLong();
+
+    private LargeFileScanner(final long thresholdBytes, final boolean vectorized) {
+        this.thresholdBytes = thresholdBytes;
+        this.vectorized = vectorized && StartByteFilter.isVectorSearchAvailable();
+    }
+
+    public static LargeFileScanner create(final ContentScanSettings settings) {
+        final ContentScanSettings effectiveSettings = settings == null ? ContentScanSettings.DEFAULT : settings;
+        return new LargeFileScanner(effectiveSettings.memoryMapThresholdBytes(), effectiveSettings.vectorizedPrefilter());
+    }
+
+    public boolean accepts(final long fileSize) {
+        return fileSize >= thresholdBytes;
+    }
+
+    /**
+     * Durchsucht eine Datei. Die Kodierung wird wie beim Lesen über einen Stream aus dem ersten Block bestimmt.
+     *
+     * @param searchStopped wird vor jedem Block abgefragt
+     * @param bytesScanned  erhält die Anzahl der Bytes jedes Blocks
+     */
+    public boolean search(final Path filePath, final ContentMatcher.Scan scan, final BooleanSupplier searchStopped,
+                          final LongConsumer bytesScanned) throws IOException {
+        try (final FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            mappedFiles.incrementAndGet();
+            mappedBytes.addAndGet(fileSize);
+
+            final byte[] block = new byte[(int) Math.max(1, Math.min(BLOCK_SIZE, fileSize))];
+            TextEncoding encoding = null;
+            boolean prefilter = vectorized;
+
+            for (long windowStart = 0; windowStart < fileSize; windowStart += MAPPING_WINDOW_SIZE) {
+                final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(MAPPING_WINDOW_SIZE, fileSize - windowStart));
+
+                for (int blockStart = 0; blockStart < window.limit(); blockStart += block.length) {
+                    if (searchStopped.getAsBoolean()) {
+                        return false;
+                    }
+
+                    final int length = Math.min(block.length, window.limit() - blockStart);
+                    window.get(blockStart, block, 0, length);
+                    bytesScanned.accept(length);
+
+                    int offset = 0;
+                    if (windowStart == 0 && blockStart == 0) {
+                        encoding = TextEncoding.detectByteOrderMark(block, length);
+                        offset = encoding == null ? 0 : encoding.byteOrderMarkLength();
+                        if (encoding == null) {
+                            encoding = TextEncoding.sniffUtf16(block, length);
+                        }
+                    }
+                    if (encoding == null) {
+                        encoding = TextEncoding.sniffAsciiCompatible(block, offset, length - offset);
+                    }
+
+                    final TextEncoding blockEncoding = encoding == null ? TextEncoding.UTF_8 : encoding;
+                    final StartByteFilter filter = prefilter ? scan.getStartByteFilter(blockEncoding) : null;
+                    if (filter == null) {
+                        if (scan.feed(block, offset, length - offset, blockEncoding)) {
+                            return scan.isAccepted();
+                        }
+                        continue;
+                    }
+
+                    final long skipped = scanWithFilter(scan, filter, block, offset, length, blockEncoding);
+                    if (skipped < 0) {
+                        return scan.isAccepted();
+                    }
+                    skippedBytes.addAndGet(skipped);
+                    prefilter = skipped * 2 >= length - offset;
+                }
+            }
+            return scan.finish();
+        }
+    }
+
+    /**
+     * @return die Anzahl der übersprungenen Bytes oder {@code -1}, sobald das Ergebnis feststeht
+     */
+    private long scanWithFilter(final ContentMatcher.Scan scan, final StartByteFilter filter, final byte[] block,
+                                final int offset, final int end, final TextEncoding encoding) {
+        long skipped = 0;
+        int index = offset;
+        while (index < end) {
+            if (scan.isIdle()) {
+                final int candidate = filter.nextCandidate(block, index, end, true);
+                scan.skip(candidate - index);
+                skipped += candidate - index;
+                index = candidate;
+                if (index == end) {
+                    break;
+                }
+            }
+
+            index = scan.feedUntilIdle(block, index, end, encoding);
+            if (scan.isDecided()) {
+                return -1;
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Liefert eine Zusammenfassung für die Statusmeldung am Ende der Suche oder einen leeren Text.
+     */
+    public String formatSummary() {
+        final long files = mappedFiles.get();
+        if (files == 0) {
+            return "";
+        }
+
+        final long bytes = mappedBytes.get();
+        final String summary = String.format("%d large files memory-mapped (%d MB)", files, bytes / (1024 * 1024));
+        if (!vectorized) {
+            return summary;
+        }
+        return summary + String.format(", %d%% skipped by vector prefilter", bytes == 0 ? 0 : skippedBytes.get() * 100 / bytes);
+    }
+
+}
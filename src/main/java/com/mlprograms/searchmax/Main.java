@@ -12,6 +12,11 @@ import lombok.extern.slf4j.Slf4j;
 public class Main {
 
     public static void main(String[] args) {
+        if (!StartByteFilter.isVectorSearchAvailable()) {
+            log.info("Modul jdk.incubator.vector nicht geladen, die vektorisierte Kandidatensuche ist inaktiv "
+                    + "(zum Aktivieren mit --add-modules jdk.incubator.vector starten)");
+        }
+
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
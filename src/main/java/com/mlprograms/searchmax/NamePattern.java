@@ -0,0 +1,446 @@
+package com.mlprograms.searchmax;
+
+import com.mlprograms.searchmax.model.TextFiltersTableModel.Syntax;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Ein einmal pro Suche kompilierter Namensfilter. Text wird als Teilzeichenkette im Namen ohne Endung gesucht,
+ * Glob und Regex gelten für den vollständigen Dateinamen. Für Glob und Regex werden beim Kompilieren die Literale
+ * bestimmt, die in jedem Treffer vorkommen müssen; fehlt eines davon, wird der Name ohne den Regex-Automaten
+ * verworfen. Textfilter können Akzente und Umlaute nach {@link DiacriticFolding} ignorieren. Eine Musterliste
+ * ({@code list:<pfad>}) wird beim Kompilieren als {@link NamePatternList} geladen und gilt für den vollständigen
+ * Dateinamen.
+ */
+@Slf4j
+final class NamePattern {
+
+    private static final String[] NO_LITERALS = new String[0];
+
+    private final Syntax syntax;
+    private final boolean caseSensitive;
+    private final boolean foldDiacritics;
+    private final String patternKey;
+    private final Pattern regex;
+    private final String requiredPrefix;
+    private final String requiredSuffix;
+    private final String[] requiredLiterals;
+    private final int minimumLength;
+    private final NamePatternList patternList;
+
+    private NamePattern(final Syntax syntax, final boolean caseSensitive, final boolean foldDiacritics, final String patternKey,
+                        final Pattern regex,
+                        final String requiredPrefix, final String requiredSuffix, final String[] requiredLiterals,
+                        final int minimumLength) {
+        this.syntax = syntax;
+        this.caseSensitive = caseSensitive;
+        this.foldDiacritics = foldDiacritics;
+        this.patternKey = patternKey;
+        this.regex = regex;
+        this.requiredPrefix = requiredPrefix;
+        this.requiredSuffix = requiredSuffix;
+        this.requiredLiterals = requiredLiterals;
+        this.minimumLength = minimumLength;
+        this.patternList = null;
+    }
+
+    private NamePattern(final boolean caseSensitive, final String patternKey, final NamePatternList patternList) {
+        this.syntax = Syntax.LIST;
+        this.caseSensitive = caseSensitive;
+        this.foldDiacritics = false;
+        this.patternKey = patternKey;
+        this.regex = null;
+        this.requiredPrefix = null;
+        this.requiredSuffix = null;
+        this.requiredLiterals = NO_LITERALS;
+        this.minimumLength = 0;
+        this.patternList = patternList;
+    }
+
+    /**
+     * Kompiliert einen Filter in seiner gespeicherten Form ({@code glob:*.log}, {@code regex:^report} oder Text).
+     * Ungültige reguläre Ausdrücke und nicht lesbare Musterlisten werden protokolliert und treffen nie zu.
+     *
+     * @param foldDiacritics {@code true}, wenn ein Textfilter Akzente, Umlaute und Groß-/Kleinschreibung ignoriert
+     */
+    static NamePattern compile(final String filterKey, final boolean caseSensitive, final boolean foldDiacritics) {
+        // Namensfilter kennen nur Text, Glob, Regex und Musterlisten; andere Präfixe bleiben Teil des Textes
+        final Syntax syntax = switch (Syntax.of(filterKey)) {
+            case GLOB, REGEX, LIST -> Syntax.of(filterKey);
+            default -> Syntax.TEXT;
+        };
+        final String pattern = syntax == Syntax.TEXT ? filterKey : Syntax.patternOf(filterKey);
+
+        if (syntax == Syntax.LIST) {
+            return compileList(pattern, caseSensitive, foldDiacritics);
+        }
+
+        if (syntax == Syntax.TEXT && foldDiacritics) {
+            return new NamePattern(syntax, false, true, DiacriticFolding.foldAccents(pattern), null, null, null, NO_LITERALS, 0);
+        }
+        if (syntax == Syntax.TEXT) {
+            return new NamePattern(syntax, caseSensitive, false, caseSensitive ? pattern : CaseFolding.fold(pattern), null,
+                    null, null, NO_LITERALS, 0);
+        }
+
+        final int flags = caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        final LiteralCollector literals = new LiteralCollector(caseSensitive);
+        final String regex;
+        if (syntax == Syntax.GLOB) {
+            collectGlobLiterals(pattern, literals);
+            regex = DirectoryExclusionRules.globToRegex(pattern);
+        } else {
+            if (!collectRegexLiterals(pattern, literals)) {
+                literals.clear();
+            }
+            regex = pattern;
+        }
+
+        try {
+            final Pattern compiled = Pattern.compile(regex, flags);
+            return new NamePattern(syntax, caseSensitive, false, pattern, compiled, literals.prefix, literals.suffix,
+                    literals.innerLiterals(), literals.minimumLength);
+        } catch (final PatternSyntaxException patternSyntaxException) {
+            log.warn("Ungültiger Namensfilter {}: {}", filterKey, patternSyntaxException.getDescription());
+            return new NamePattern(syntax, caseSensitive, false, pattern, null, null, null, NO_LITERALS, Integer.MAX_VALUE);
+        }
+    }
+
+    private static NamePattern compileList(final String path, final boolean caseSensitive, final boolean foldDiacritics) {
+        try {
+            return new NamePattern(caseSensitive, path, NamePatternList.load(Path.of(path.trim()), caseSensitive, foldDiacritics));
+        } catch (final IOException | InvalidPathException exception) {
+            log.warn("Musterliste {} kann nicht gelesen werden: {}", path, exception.getMessage());
+            return new NamePattern(caseSensitive, path, null);
+        }
+    }
+
+    /**
+     * @param nameEnd Ende des Namens ohne Endung, nur für Textfilter von Bedeutung
+     */
+    boolean matches(final String fileName, final int nameEnd) {
+        if (syntax == Syntax.LIST) {
+            return patternList != null && patternList.matches(fileName);
+        }
+        if (syntax == Syntax.TEXT) {
+            if (foldDiacritics) {
+                return DiacriticFolding.containsFolded(fileName, nameEnd, patternKey);
+            }
+            if (!caseSensitive) {
+                return CaseFolding.containsFolded(fileName, nameEnd, patternKey);
+            }
+            final int index = fileName.indexOf(patternKey);
+            return index >= 0 && index + patternKey.length() <= nameEnd;
+        }
+
+        if (regex == null || fileName.length() < minimumLength) {
+            return false;
+        }
+        // regionMatches vergleicht ohne Beachtung der Groß-/Kleinschreibung wie Pattern.UNICODE_CASE
+        if (requiredPrefix != null && !fileName.regionMatches(!caseSensitive, 0, requiredPrefix, 0, requiredPrefix.length())) {
+            return false;
+        }
+        if (requiredSuffix != null && !fileName.regionMatches(!caseSensitive, fileName.length() - requiredSuffix.length(),
+                requiredSuffix, 0, requiredSuffix.length())) {
+            return false;
+        }
+        for (final String literal : requiredLiterals) {
+            final boolean contained = caseSensitive
+                    ? fileName.contains(literal)
+                    : CaseFolding.containsFolded(fileName, fileName.length(), literal);
+            if (!contained) {
+                return false;
+            }
+        }
+
+        return syntax == Syntax.GLOB ? regex.matcher(fileName).matches() : regex.matcher(fileName).find();
+    }
+
+    /**
+     * Geschätzte Kosten einer Prüfung in Nanosekunden. Glob und Regex mit Literalen werden meist schon von der
+     * Vorprüfung entschieden, ohne Literale läuft für jeden Namen der Regex-Automat.
+     */
+    int estimatedCost() {
+        if (syntax == Syntax.TEXT) {
+            return 15;
+        }
+        if (syntax == Syntax.LIST) {
+            return 40;
+        }
+        final boolean prefiltered = requiredPrefix != null || requiredSuffix != null || requiredLiterals.length > 0;
+        return prefiltered ? 30 : 80;
+    }
+
+    /**
+     * Sammelt die Literale zwischen den Platzhaltern eines Globs. Da ein Glob den ganzen Namen beschreibt, sind das
+     * erste und letzte Literal ohne Platzhalter davor bzw. danach Präfix und Suffix.
+     */
+    private static void collectGlobLiterals(final String glob, final LiteralCollector literals) {
+        for (int i = 0; i < glob.length(); i++) {
+            final char character = glob.charAt(i);
+            if (character == '*') {
+                literals.endRun();
+            } else if (character == '?') {
+                literals.endRun();
+                literals.minimumLength++;
+            } else if (character == '[' && DirectoryExclusionRules.globClassEnd(glob, i) >= 0) {
+                literals.endRun();
+                literals.minimumLength++;
+                i = DirectoryExclusionRules.globClassEnd(glob, i);
+            } else if (literals.append(character, i)) {
+                literals.minimumLength++;
+            }
+        }
+        if (literals.hasRun()) {
+            literals.suffix = literals.run.toString();
+        }
+        literals.endRun();
+        if (literals.firstRunStart == 0) {
+            literals.prefix = literals.literals.get(0);
+        }
+    }
+
+    /**
+     * Sammelt die Literale eines regulären Ausdrucks, die in jedem Treffer vorkommen. Gruppen, Zeichenklassen und
+     * optionale Zeichen unterbrechen ein Literal. Alternativen auf oberster Ebene, Flag-Gruppen und Escapes, deren
+     * Bedeutung hier nicht nachgebildet wird, führen zu keinem Literal.
+     *
+     * @return {@code false}, wenn keine sicheren Literale bestimmt werden können
+     */
+    private static boolean collectRegexLiterals(final String regex, final LiteralCollector literals) {
+        if (regex.contains("\\Q")) {
+            return false;
+        }
+
+        boolean lastAtomInRun = false;
+        int i = 0;
+        while (i < regex.length()) {
+            final char character = regex.charAt(i);
+            switch (character) {
+                case '\\' -> {
+                    if (i + 1 >= regex.length()) {
+                        return false;
+                    }
+                    final char escaped = regex.charAt(i + 1);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        if ("dDsSwWbBAzZGhHvVRXntrfea".indexOf(escaped) < 0) {
+                            return false;
+                        }
+                        literals.endRun();
+                        lastAtomInRun = false;
+                    } else {
+                        lastAtomInRun = literals.append(escaped, i);
+                    }
+                    i += 2;
+                    continue;
+                }
+                case '|' -> {
+                    return false;
+                }
+                case '(' -> {
+                    if (i + 2 < regex.length() && regex.charAt(i + 1) == '?'
+                            && (Character.isLetter(regex.charAt(i + 2)) || regex.charAt(i + 2) == '-')) {
+                        return false;
+                    }
+                    i = skipGroup(regex, i);
+                    if (i < 0) {
+                        return false;
+                    }
+                    literals.endRun();
+                    lastAtomInRun = false;
+                    continue;
+                }
+                case '[' -> {
+                    i = skipCharacterClass(regex, i);
+                    if (i < 0) {
+                        return false;
+                    }
+                    literals.endRun();
+                    lastAtomInRun = false;
+                    continue;
+                }
+                case '?', '*', '{' -> {
+                    // Das vorangehende Zeichen ist optional
+                    if (lastAtomInRun) {
+                        literals.dropLast();
+                    }
+                    literals.endRun();
+                    lastAtomInRun = false;
+                    if (character == '{') {
+                        final int closingIndex = regex.indexOf('}', i);
+                        if (closingIndex < 0) {
+                            return false;
+                        }
+                        i = closingIndex;
+                    }
+                    i = skipQuantifierSuffix(regex, i + 1);
+                    continue;
+                }
+                case '+' -> {
+                    literals.endRun();
+                    lastAtomInRun = false;
+                    i = skipQuantifierSuffix(regex, i + 1);
+                    continue;
+                }
+                case '.', '^', '$' -> {
+                    literals.endRun();
+                    lastAtomInRun = false;
+                }
+                default -> {
+                    lastAtomInRun = literals.append(character, i);
+                }
+            }
+            i++;
+        }
+        literals.endRun();
+        // Ohne MULTILINE passt '^' nur am Anfang des Namens
+        if (regex.startsWith("^") && literals.firstRunStart == 1) {
+            literals.prefix = literals.literals.get(0);
+        }
+        return true;
+    }
+
+    private static int skipGroup(final String regex, final int start) {
+        int depth = 0;
+        for (int i = start; i < regex.length(); i++) {
+            final char character = regex.charAt(i);
+            if (character == '\\') {
+                i++;
+            } else if (character == '[') {
+                i = skipCharacterClass(regex, i) - 1;
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (character == '(') {
+                depth++;
+            } else if (character == ')' && --depth == 0) {
+                return skipQuantifierAfterGroup(regex, i + 1);
+            }
+        }
+        return -1;
+    }
+
+    private static int skipQuantifierAfterGroup(final String regex, final int index) {
+        if (index >= regex.length()) {
+            return index;
+        }
+        final char character = regex.charAt(index);
+        if (character == '{') {
+            final int closingIndex = regex.indexOf('}', index);
+            return closingIndex < 0 ? -1 : skipQuantifierSuffix(regex, closingIndex + 1);
+        }
+        if (character == '?' || character == '*' || character == '+') {
+            return skipQuantifierSuffix(regex, index + 1);
+        }
+        return index;
+    }
+
+    private static int skipCharacterClass(final String regex, final int start) {
+        int depth = 0;
+        for (int i = start; i < regex.length(); i++) {
+            final char character = regex.charAt(i);
+            if (character == '\\') {
+                i++;
+            } else if (character == '[') {
+                depth++;
+                // Eine schließende Klammer direkt nach '[' oder '[^' gehört zur Klasse
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (character == ']' && --depth == 0) {
+                return skipQuantifierAfterGroup(regex, i + 1);
+            }
+        }
+        return -1;
+    }
+
+    private static int skipQuantifierSuffix(final String regex, final int index) {
+        return index < regex.length() && (regex.charAt(index) == '?' || regex.charAt(index) == '+') ? index + 1 : index;
+    }
+
+    /**
+     * Sammelt zusammenhängende Literale. Ohne Beachtung der Groß-/Kleinschreibung werden nur ASCII-Zeichen
+     * verwendet, deren Vergleich mit dem von {@link Pattern#UNICODE_CASE} sicher übereinstimmt. Surrogate werden
+     * nie verwendet, da ein nachfolgender Quantor für das ganze Zeichen gilt.
+     */
+    private static final class LiteralCollector {
+
+        private final boolean caseSensitive;
+        private final StringBuilder run = new StringBuilder();
+        private final List<String> literals = new ArrayList<>();
+        private int runStart = -1;
+        private int firstRunStart = -1;
+        private int minimumLength;
+        private String prefix;
+        private String suffix;
+
+        private LiteralCollector(final boolean caseSensitive) {
+            this.caseSensitive = caseSensitive;
+        }
+
+        /**
+         * @return {@code false}, wenn das Zeichen kein Literal ist und das laufende Literal beendet wurde
+         */
+        private boolean append(final char character, final int index) {
+            if (caseSensitive ? Character.isSurrogate(character) : character >= 0x80) {
+                endRun();
+                return false;
+            }
+            if (run.isEmpty()) {
+                runStart = index;
+            }
+            run.append(character);
+            return true;
+        }
+
+        private boolean hasRun() {
+            return !run.isEmpty();
+        }
+
+        private void dropLast() {
+            run.setLength(run.length() - 1);
+        }
+
+        private void endRun() {
+            if (!run.isEmpty()) {
+                if (literals.isEmpty()) {
+                    firstRunStart = runStart;
+                }
+                literals.add(run.toString());
+                run.setLength(0);
+            }
+        }
+
+        private void clear() {
+            run.setLength(0);
+            literals.clear();
+            firstRunStart = -1;
+            prefix = null;
+            suffix = null;
+        }
+
+        /**
+         * Liefert die übrigen Literale, längste zuerst, in der Schreibweise, in der verglichen wird.
+         */
+        private String[] innerLiterals() {
+            return literals.stream()
+                    .filter(literal -> !literal.equals(prefix) && !literal.equals(suffix))
+                    .sorted(Comparator.comparingInt(String::length).reversed())
+                    .map(literal -> caseSensitive ? literal : CaseFolding.fold(literal))
+                    .distinct()
+                    .toArray(String[]::new);
+        }
+    }
+
+}
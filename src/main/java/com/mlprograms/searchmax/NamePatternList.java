@@ -0,0 +1,344 @@
+package com.mlprograms.searchmax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Eine aus einer Datei geladene Liste von Dateinamen und Namensfragmenten, wie sie z. B. bei der Untersuchung eines
+ * Sicherheitsvorfalls mit zehntausenden Einträgen vorliegt. Jede Zeile ist ein vollständiger Dateiname; eine Zeile
+ * der Form {@code *fragment*} trifft auf jeden Namen zu, der das Fragment enthält. Leere Zeilen und Zeilen mit
+ * {@code #} am Anfang werden übergangen.
+ * <p>
+ * Vollständige Namen liegen in einer Hashtabelle, Fragmente in einem Aho-Corasick-Automaten mit sortierten
+ * Kantenlisten. Ein Dateiname wird in einem Durchlauf durch den Automaten geführt und dabei gehasht; die Kosten
+ * pro Datei hängen also von der Länge des Namens ab, nicht von der Länge der Liste. Die dichte Übergangstabelle
+ * von {@link ContentMatcher} wäre bei so vielen Mustern zu groß. Werden Akzente und Umlaute ignoriert, liegen die
+ * Fragmente in beiden Formen von {@link DiacriticFolding} im Automaten, und der Name wird ein zweites Mal ohne
+ * Umschreibungen durchlaufen.
+ */
+@Slf4j
+final class NamePatternList {
+
+    private static final long HASH_SEED = 0xCBF29CE484222325L;
+    private static final long HASH_PRIME = 0x100000001B3L;
+
+    /**
+     * Vergleichsform von Liste und Dateiname.
+     */
+    private enum Folding {
+        NONE,
+        CASE,
+        DIACRITICS
+    }
+
+    private final Folding folding;
+    private final long[] nameHashes;
+    private final String[] names;
+    private final int nameMask;
+    private final int[] edgeStart;
+    private final char[] edgeCharacters;
+    private final int[] edgeTargets;
+    private final int[] failures;
+    private final boolean[] accepting;
+
+    private NamePatternList(final Folding folding, final List<String> exactNames, final List<String> fragments) {
+        this.folding = folding;
+
+        final int capacity = Integer.highestOneBit(Math.max(2, exactNames.size()) * 2 - 1) * 2;
+        this.nameHashes = new long[capacity];
+        this.names = new String[capacity];
+        this.nameMask = capacity - 1;
+        for (final String name : exactNames) {
+            addName(name);
+        }
+
+        final Trie trie = buildTrie(fragments);
+        this.edgeStart = trie.edgeStart;
+        this.edgeCharacters = trie.edgeCharacters;
+        this.edgeTargets = trie.edgeTargets;
+        this.accepting = trie.accepting;
+        this.failures = new int[accepting.length];
+        linkFailures();
+    }
+
+    /**
+     * Lädt eine Liste im UTF-8-Format.
+     *
+     * @param foldDiacritics {@code true}, wenn Akzente, Umlaute und Groß-/Kleinschreibung ignoriert werden
+     */
+    static NamePatternList load(final Path file, final boolean caseSensitive, final boolean foldDiacritics) throws IOException {
+        final Folding folding = foldDiacritics ? Folding.DIACRITICS : caseSensitive ? Folding.NONE : Folding.CASE;
+        final List<String> exactNames = new ArrayList<>();
+        final List<String> fragments = new ArrayList<>();
+        int skippedLines = 0;
+
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String entry = stripByteOrderMark(line).trim();
+                if (entry.isEmpty() || entry.charAt(0) == '#') {
+                    continue;
+                }
+
+                if (entry.length() > 2 && entry.charAt(0) == '*' && entry.charAt(entry.length() - 1) == '*'
+                        && entry.indexOf('*', 1) == entry.length() - 1) {
+                    final String fragment = entry.substring(1, entry.length() - 1);
+                    fragments.add(normalize(fragment, folding));
+                    if (folding == Folding.DIACRITICS) {
+                        fragments.add(DiacriticFolding.foldAccents(fragment));
+                    }
+                } else if (entry.indexOf('*') >= 0 || entry.indexOf('?') >= 0) {
+                    skippedLines++;
+                } else {
+                    exactNames.add(normalize(entry, folding));
+                }
+            }
+        }
+
+        final NamePatternList list = new NamePatternList(folding, exactNames, fragments);
+        log.info("Musterliste {}: {} Namen, {} Fragmente ({} Zustände)", file, exactNames.size(), fragments.size(), list.accepting.length);
+        if (skippedLines > 0) {
+            log.warn("Musterliste {}: {} Zeilen mit Platzhaltern außer *fragment* übergangen", file, skippedLines);
+        }
+        return list;
+    }
+
+    /**
+     * Prüft den vollständigen Dateinamen gegen alle Namen und Fragmente der Liste, ohne ihn zu kopieren.
+     */
+    boolean matches(final String fileName) {
+        int state = 0;
+        long hash = HASH_SEED;
+        char beforePrevious = 0;
+        char previous = 0;
+        for (int i = 0; i < fileName.length(); i++) {
+            char character = fileName.charAt(i);
+            if (folding == Folding.CASE) {
+                character = CaseFolding.fold(character);
+            } else if (folding == Folding.DIACRITICS) {
+                character = DiacriticFolding.base(character);
+                if (character == 'e' && DiacriticFolding.absorbsFollowingE(beforePrevious, previous)) {
+                    beforePrevious = previous;
+                    previous = 'e';
+                    continue;
+                }
+                if (character == DiacriticFolding.SHARP_S) {
+                    state = step(state, 's');
+                    if (accepting[state]) {
+                        return true;
+                    }
+                    hash = (hash ^ 's') * HASH_PRIME;
+                    character = 's';
+                    previous = 's';
+                }
+                beforePrevious = previous;
+                previous = character;
+            }
+
+            state = step(state, character);
+            if (accepting[state]) {
+                return true;
+            }
+            hash = (hash ^ character) * HASH_PRIME;
+        }
+        return folding == Folding.DIACRITICS && matchesFragmentsWithoutUmlauts(fileName) || containsName(hash, fileName);
+    }
+
+    /**
+     * Zweiter Durchlauf für {@link Folding#DIACRITICS}, in dem jedes {@code e} erhalten bleibt. Er findet Fragmente
+     * wie „eller“ in „Mueller“, die in der gefalteten Form des Namens fehlen.
+     */
+    private boolean matchesFragmentsWithoutUmlauts(final String fileName) {
+        if (accepting.length == 1) {
+            return false;
+        }
+
+        int state = 0;
+        for (int i = 0; i < fileName.length(); i++) {
+            final char character = DiacriticFolding.base(fileName.charAt(i));
+            if (character == DiacriticFolding.SHARP_S) {
+                state = step(state, 's');
+                if (accepting[state]) {
+                    return true;
+                }
+                state = step(state, 's');
+            } else {
+                state = step(state, character);
+            }
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsName(final long hash, final String fileName) {
+        for (int slot = (int) mix(hash) & nameMask; names[slot] != null; slot = slot + 1 & nameMask) {
+            // Nur bei gleichem Hash wird die Vergleichsform des Namens gebildet
+            if (nameHashes[slot] == hash && names[slot].equals(normalize(fileName, folding))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addName(final String name) {
+        final long hash = hash(name);
+        int slot = (int) mix(hash) & nameMask;
+        while (names[slot] != null) {
+            if (nameHashes[slot] == hash && names[slot].equals(name)) {
+                return;
+            }
+            slot = slot + 1 & nameMask;
+        }
+        nameHashes[slot] = hash;
+        names[slot] = name;
+    }
+
+    private int step(final int fromState, final char character) {
+        int state = fromState;
+        while (true) {
+            final int target = child(state, character);
+            if (target >= 0) {
+                return target;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failures[state];
+        }
+    }
+
+    private int child(final int state, final char character) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            final int middle = low + high >>> 1;
+            final char edgeCharacter = edgeCharacters[middle];
+            if (edgeCharacter < character) {
+                low = middle + 1;
+            } else if (edgeCharacter > character) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Breitensuche über den Baum; ein Zustand akzeptiert auch, wenn sein Fehlerzustand akzeptiert.
+     */
+    private void linkFailures() {
+        final int[] queue = new int[accepting.length];
+        int head = 0;
+        int tail = 0;
+        for (int edge = edgeStart[0]; edge < edgeStart[1]; edge++) {
+            queue[tail++] = edgeTargets[edge];
+        }
+
+        while (head < tail) {
+            final int state = queue[head++];
+            for (int edge = edgeStart[state]; edge < edgeStart[state + 1]; edge++) {
+                final int target = edgeTargets[edge];
+                failures[target] = step(failures[state], edgeCharacters[edge]);
+                accepting[target] |= accepting[failures[target]];
+                queue[tail++] = target;
+            }
+        }
+    }
+
+    private record Trie(int[] edgeStart, char[] edgeCharacters, int[] edgeTargets, boolean[] accepting) {
+    }
+
+    /**
+     * Baut den Baum aus den sortierten Fragmenten. Kinder entstehen so in Zeichenreihenfolge und landen nach einer
+     * stabilen Sortierung nach Elternzustand direkt in sortierten Kantenlisten.
+     */
+    private static Trie buildTrie(final List<String> fragments) {
+        final String[] sorted = fragments.stream().filter(fragment -> !fragment.isEmpty()).sorted().distinct().toArray(String[]::new);
+        int maximumStates = 1;
+        for (final String fragment : sorted) {
+            maximumStates += fragment.length();
+        }
+
+        final int[] parents = new int[maximumStates];
+        final char[] characters = new char[maximumStates];
+        final boolean[] terminal = new boolean[maximumStates];
+        final int[] path = new int[sorted.length == 0 ? 1 : Arrays.stream(sorted).mapToInt(String::length).max().orElse(0) + 1];
+        int stateCount = 1;
+        String previousFragment = "";
+        for (final String fragment : sorted) {
+            int depth = 0;
+            final int sharedLength = Math.min(previousFragment.length(), fragment.length());
+            while (depth < sharedLength && previousFragment.charAt(depth) == fragment.charAt(depth)) {
+                depth++;
+            }
+            for (int i = depth; i < fragment.length(); i++) {
+                parents[stateCount] = path[i];
+                characters[stateCount] = fragment.charAt(i);
+                path[i + 1] = stateCount++;
+            }
+            terminal[path[fragment.length()]] = true;
+            previousFragment = fragment;
+        }
+
+        // Zählsortierung der Kanten nach Elternzustand
+        final int[] edgeStart = new int[stateCount + 1];
+        for (int state = 1; state < stateCount; state++) {
+            edgeStart[parents[state] + 1]++;
+        }
+        for (int state = 0; state < stateCount; state++) {
+            edgeStart[state + 1] += edgeStart[state];
+        }
+        final int[] next = Arrays.copyOf(edgeStart, stateCount);
+        final char[] edgeCharacters = new char[Math.max(0, stateCount - 1)];
+        final int[] edgeTargets = new int[Math.max(0, stateCount - 1)];
+        for (int state = 1; state < stateCount; state++) {
+            final int edge = next[parents[state]]++;
+            edgeCharacters[edge] = characters[state];
+            edgeTargets[edge] = state;
+        }
+        return new Trie(edgeStart, edgeCharacters, edgeTargets, Arrays.copyOf(terminal, stateCount));
+    }
+
+    private static String normalize(final String text, final Folding folding) {
+        return switch (folding) {
+            case NONE -> text;
+            case DIACRITICS -> DiacriticFolding.fold(text);
+            case CASE -> {
+                final char[] folded = text.toCharArray();
+                for (int i = 0; i < folded.length; i++) {
+                    folded[i] = CaseFolding.fold(folded[i]);
+                }
+                yield new String(folded);
+            }
+        };
+    }
+
+    private static long hash(final String normalized) {
+        long hash = HASH_SEED;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash = (hash ^ normalized.charAt(i)) * HASH_PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(final long hash) {
+        return hash ^ hash >>> 29 ^ hash >>> 47;
+    }
+
+    private static String stripByteOrderMark(final String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Passt die Parallelität einer laufenden Suche per Hill-Climbing an den gemessenen Durchsatz an.
+ * In festen Abständen werden Dateien/s und Bytes/s gemessen. Solange sich der Durchsatz verbessert,
+ * wird die Parallelität weiter in dieselbe Richtung verändert. Verschlechtert er sich, kehrt der Regler
+ * die Richtung um, bleibt er gleich, verharrt der Regler und tastet später erneut nach oben.
+ */
+@Slf4j
+public final class ParallelismController {
+
+    /**
+     * Ein Messpunkt der Durchsatzkurve.
+     *
+     * @param elapsedMillis  Zeit seit Suchbeginn in Millisekunden
+     * @param parallelism    Parallelität während des Messintervalls
+     * @param filesPerSecond besuchte Dateien pro Sekunde im Messintervall
+     * @param bytesPerSecond gelesene Bytes pro Sekunde im Messintervall
+     */
+    public record ThroughputSample(long elapsedMillis, int parallelism, double filesPerSecond, double bytesPerSecond) {
+    }
+
+    private static final long SAMPLE_INTERVAL_NANOS = 500_000_000L;
+    private static final double SIGNIFICANT_CHANGE = 0.05;
+    private static final int SAMPLES_BEFORE_REPROBE = 10;
+    private static final int MAX_RECORDED_SAMPLES = 240;
+
+    private final IntConsumer parallelismApplier;
+    private final int initialParallelism;
+    @Getter
+    private final int maxParallelism;
+    private final long startNano;
+    private final List<ThroughputSample> samples = new ArrayList<>();
+
+    @Getter
+    private volatile int currentParallelism;
+    private int direction = 1;
+    private int samplesSinceSettled = -1;
+    private long lastSampleNano;
+    private long lastFiles;
+    private long lastBytes;
+    private double lastFilesPerSecond = -1;
+    private double lastBytesPerSecond = -1;
+    private boolean restored;
+
+    public ParallelismController(final int initialParallelism, final int maxParallelism,
+                                 final long startNano, final IntConsumer parallelismApplier) {
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.initialParallelism = initialParallelism;
+        this.currentParallelism = Math.min(this.maxParallelism, Math.max(1, initialParallelism));
+        this.startNano = startNano;
+        this.lastSampleNano = startNano;
+        this.parallelismApplier = parallelismApplier;
+    }
+
+    /**
+     * Nimmt einen Messpunkt auf, sofern das Messintervall verstrichen ist, und passt die Parallelität an.
+     *
+     * @param totalFiles bisher besuchte Dateien
+     * @param totalBytes bisher gelesene Bytes
+     */
+    public synchronized void sample(final long totalFiles, final long totalBytes) {
+        if (restored) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        final long intervalNanos = now - lastSampleNano;
+        if (intervalNanos < SAMPLE_INTERVAL_NANOS) {
+            return;
+        }
+
+        final double seconds = intervalNanos / 1e9;
+        final double filesPerSecond = (totalFiles - lastFiles) / seconds;
+        final double bytesPerSecond = (totalBytes - lastBytes) / seconds;
+        recordSample(now, filesPerSecond, bytesPerSecond);
+
+        lastSampleNano = now;
+        lastFiles = totalFiles;
+        lastBytes = totalBytes;
+
+        adjust(filesPerSecond, bytesPerSecond);
+        lastFilesPerSecond = filesPerSecond;
+        lastBytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Setzt den Pool auf die Parallelität vor Suchbeginn zurück, damit die nächste Suche nicht mit dem zuletzt
+     * eingeregelten Wert startet. Danach nimmt der Regler keine Messpunkte mehr an; weitere Aufrufe sind wirkungslos.
+     */
+    public synchronized void restore() {
+        if (restored) {
+            return;
+        }
+
+        restored = true;
+        if (currentParallelism == initialParallelism) {
+            return;
+        }
+
+        log.debug("Parallelität {} -> {} (Suchende)", currentParallelism, initialParallelism);
+        try {
+            parallelismApplier.accept(initialParallelism);
+        } catch (final RuntimeException runtimeException) {
+            log.debug("Parallelität konnte nicht zurückgesetzt werden: {}", runtimeException.getMessage());
+        }
+    }
+
+    public synchronized List<ThroughputSample> getSamples() {
+        return Collections.unmodifiableList(new ArrayList<>(samples));
+    }
+
+    /**
+     * Liefert die Durchsatzkurve als kompakte Zeichenkette, z. B. {@code "p2: 1200 f/s, 3.1 MB/s -> p3: ..."}.
+     */
+    public synchronized String formatCurve() {
+        final StringBuilder curve = new StringBuilder();
+        for (final ThroughputSample sample : samples) {
+            if (!curve.isEmpty()) {
+                curve.append(" -> ");
+            }
+            curve.append(String.format("p%d: %.0f f/s, %.1f MB/s",
+                    sample.parallelism(), sample.filesPerSecond(), sample.bytesPerSecond() / (1024.0 * 1024.0)));
+        }
+        return curve.toString();
+    }
+
+    private void recordSample(final long now, final double filesPerSecond, final double bytesPerSecond) {
+        if (samples.size() >= MAX_RECORDED_SAMPLES) {
+            samples.remove(0);
+        }
+        samples.add(new ThroughputSample((now - startNano) / 1_000_000L, currentParallelism, filesPerSecond, bytesPerSecond));
+    }
+
+    private void adjust(final double filesPerSecond, final double bytesPerSecond) {
+        if (lastFilesPerSecond < 0) {
+            step();
+            return;
+        }
+
+        final boolean improved = isBetter(filesPerSecond, lastFilesPerSecond) || isBetter(bytesPerSecond, lastBytesPerSecond);
+        final boolean degraded = isWorse(filesPerSecond, lastFilesPerSecond) && !isBetter(bytesPerSecond, lastBytesPerSecond);
+
+        if (improved) {
+            samplesSinceSettled = -1;
+            step();
+        } else if (degraded) {
+            samplesSinceSettled = -1;
+            direction = -direction;
+            step();
+        } else if (samplesSinceSettled < 0) {
+            samplesSinceSettled = 0;
+        } else if (++samplesSinceSettled >= SAMPLES_BEFORE_REPROBE) {
+            samplesSinceSettled = -1;
+            direction = 1;
+            step();
+        }
+    }
+
+    private void step() {
+        int next = currentParallelism + direction;
+        if (next < 1 || next > maxParallelism) {
+            direction = -direction;
+            next = currentParallelism + direction;
+        }
+
+        next = Math.min(maxParallelism, Math.max(1, next));
+        if (next == currentParallelism) {
+            return;
+        }
+
+        log.debug("Parallelität {} -> {}", currentParallelism, next);
+        currentParallelism = next;
+        try {
+            parallelismApplier.accept(next);
+        } catch (final RuntimeException runtimeException) {
+            log.debug("Parallelität konnte nicht angepasst werden: {}", runtimeException.getMessage());
+        }
+    }
+
+    private static boolean isBetter(final double current, final double previous) {
+        return current > previous * (1.0 + SIGNIFICANT_CHANGE) && current > 0;
+    }
+
+    private static boolean isWorse(final double current, final double previous) {
+        return current < previous * (1.0 - SIGNIFICANT_CHANGE);
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Einstellungen der zweistufigen Suche (Verzeichnis-Durchlauf und Inhaltsprüfung).
+ *
+ * @param enabled         {@code true}, wenn Inhaltsprüfungen in einen eigenen Pool ausgelagert werden
+ * @param walkerThreads   Anzahl der Threads für den Verzeichnis-Durchlauf (0 = automatisch)
+ * @param contentThreads  Anzahl der Threads für die Inhaltsprüfung
+ * @param queueCapacity   Kapazität der Warteschlange zwischen beiden Stufen
+ */
+public record PipelineSettings(boolean enabled, int walkerThreads, int contentThreads, int queueCapacity) {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    public static final PipelineSettings DISABLED = new PipelineSettings(
+            false, 0, Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_QUEUE_CAPACITY);
+
+    public PipelineSettings {
+        walkerThreads = Math.max(0, walkerThreads);
+        contentThreads = Math.max(1, contentThreads);
+        queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Fest eingestellte Anzahl der Durchlauf-Threads; ohne Pipeline gibt es keine eigene Durchlaufstufe und
+     * die Einstellung entfällt.
+     *
+     * @return die Anzahl oder 0, wenn sie automatisch bestimmt wird
+     */
+    public int effectiveWalkerThreads() {
+        return enabled ? walkerThreads : 0;
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durchläuft Verzeichnisse über eine priorisierte Warteschlange statt über Rekursion.
+ * Jede {@link DirectoryTask} verarbeitet nur ihr eigenes Verzeichnis und reiht gefundene
+ * Unterverzeichnisse hier ein; eine feste Anzahl an Workern entnimmt jeweils das Verzeichnis
+ * mit der höchsten Priorität gemäß {@link TraversalOrder}.
+ */
+@Slf4j
+public final class PriorityTraversal {
+
+    private record WorkItem(DirectoryTask task, boolean boosted, long rank, long sequence) {
+    }
+
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+    private static final Comparator<WorkItem> WORK_ITEM_ORDER = Comparator
+            .comparing((WorkItem item) -> !item.boosted())
+            .thenComparingLong(WorkItem::rank)
+            .thenComparingLong(WorkItem::sequence);
+
+    private final PriorityBlockingQueue<WorkItem> queue = new PriorityBlockingQueue<>(64, WORK_ITEM_ORDER);
+    private final ExecutorService executor;
+    private final AtomicInteger pendingDirectories = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final TraversalOrder order;
+    private final String boostTerm;
+    @Getter
+    private final int workerCount;
+    private volatile boolean closed = false;
+
+    /**
+     * @param settings    Reihenfolge und Bevorzugung von Treffer-Verzeichnissen
+     * @param searchQuery Suchbegriff, nach dem Verzeichnisnamen bevorzugt werden (darf leer sein)
+     * @param workerCount Anzahl paralleler Worker
+     */
+    public PriorityTraversal(final TraversalSettings settings, final String searchQuery, final int workerCount) {
+        this.order = settings.order();
+        this.boostTerm = settings.boostQueryMatches() && searchQuery != null && !searchQuery.isBlank()
+                ? searchQuery.toLowerCase(Locale.ROOT)
+                : null;
+        this.workerCount = Math.max(1, workerCount);
+
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.workerCount, runnable -> {
+            final Thread thread = new Thread(runnable, "traversal-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < this.workerCount; i++) {
+            executor.execute(this::drainQueue);
+        }
+    }
+
+    /**
+     * Reiht ein Startverzeichnis mit höchster Priorität ein.
+     */
+    public void submitRoot(final DirectoryTask rootTask) {
+        enqueue(new WorkItem(rootTask, true, Long.MIN_VALUE, sequence.getAndIncrement()));
+    }
+
+    /**
+     * Reiht ein Unterverzeichnis entsprechend der konfigurierten Reihenfolge ein.
+     *
+     * @param task           Aufgabe für das Unterverzeichnis
+     * @param directoryEntry Attribute des Unterverzeichnisses
+     * @param depth          Tiefe des Unterverzeichnisses relativ zum Startverzeichnis
+     */
+    public void submit(final DirectoryTask task, final FileEntry directoryEntry, final int depth) {
+        final long currentSequence = sequence.getAndIncrement();
+        final long rank = switch (order) {
+            case SHALLOW_FIRST -> depth;
+            case RECENTLY_MODIFIED_FIRST -> -directoryEntry.lastModifiedMillis();
+            default -> currentSequence;
+        };
+        enqueue(new WorkItem(task, isBoosted(directoryEntry), rank, currentSequence));
+    }
+
+    /**
+     * Liefert {@code true}, wenn keine wartenden oder laufenden Verzeichnisse mehr ausstehen.
+     */
+    public boolean isIdle() {
+        return pendingDirectories.get() == 0;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public void shutdown() {
+        closed = true;
+        executor.shutdownNow();
+    }
+
+    private boolean isBoosted(final FileEntry directoryEntry) {
+        return boostTerm != null && directoryEntry.fileName().toLowerCase(Locale.ROOT).contains(boostTerm);
+    }
+
+    private void enqueue(final WorkItem workItem) {
+        pendingDirectories.incrementAndGet();
+        queue.add(workItem);
+    }
+
+    private void drainQueue() {
+        while (!closed) {
+            final WorkItem workItem;
+            try {
+                workItem = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (workItem == null) {
+                continue;
+            }
+
+            try {
+                workItem.task().compute();
+            } catch (final Exception exception) {
+                log.debug("Directory traversal failed: {}", exception.getMessage());
+            } finally {
+                pendingDirectories.decrementAndGet();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Gemeinsames Abbruch- und Budget-Token eines Suchvorgangs.
+ * Alle Aufgaben prüfen nur Speicher-Flags und Zähler, es werden keine Dateisystem-Abfragen
+ * ausgelöst. Sobald ein Limit erreicht oder die Suche abgebrochen wird, merkt sich das Budget
+ * den ersten Grund und meldet ab dann {@link #isExhausted()}.
+ */
+public final class SearchBudget {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum StopReason {
+        CANCELLED("cancelled"),
+        DEADLINE("time limit reached"),
+        MAX_RESULTS("result limit reached"),
+        MAX_BYTES("byte limit reached"),
+        MAX_FILES("file limit reached");
+
+        private final String description;
+    }
+
+    private final AtomicReference<StopReason> stopReason = new AtomicReference<>();
+    @Getter
+    private final SearchLimits limits;
+    private final long deadlineNano;
+    private final AtomicLong acceptedResults = new AtomicLong();
+    private final AtomicLong bytesScanned = new AtomicLong();
+    private final AtomicLong filesExamined = new AtomicLong();
+
+    public SearchBudget(final SearchLimits limits, final long startNano) {
+        this.limits = limits == null ? SearchLimits.UNLIMITED : limits;
+        this.deadlineNano = this.limits.maxDurationMillis() > 0
+                ? startNano + this.limits.maxDurationMillis() * 1_000_000L
+                : 0L;
+    }
+
+    /**
+     * Liefert {@code true}, sobald die Suche abgebrochen wurde oder ein Limit erreicht ist.
+     */
+    public boolean isExhausted() {
+        if (stopReason.get() != null) {
+            return true;
+        }
+
+        if (deadlineNano != 0L && System.nanoTime() - deadlineNano >= 0) {
+            stop(StopReason.DEADLINE);
+            return true;
+        }
+
+        return false;
+    }
+
+    public void cancel() {
+        stop(StopReason.CANCELLED);
+    }
+
+    /**
+     * Reserviert einen Platz für einen weiteren Treffer.
+     *
+     * @return {@code false}, wenn das Trefferlimit bereits ausgeschöpft ist
+     */
+    public boolean tryAcquireResult() {
+        return tryAcquire(acceptedResults, limits.maxResults(), StopReason.MAX_RESULTS);
+    }
+
+    /**
+     * Reserviert die Prüfung einer weiteren Datei. Anders als beim Trefferlimit wird die Suche erst beendet, wenn
+     * eine Datei über das Limit hinaus ansteht: Die letzte zugelassene Datei muss noch vollständig geprüft werden,
+     * auch ihr Inhalt.
+     *
+     * @return {@code false}, wenn das Dateilimit bereits ausgeschöpft ist
+     */
+    public boolean tryAcquireFile() {
+        final long current = filesExamined.incrementAndGet();
+        final long limit = limits.maxFilesExamined();
+        if (limit > 0 && current > limit) {
+            stop(StopReason.MAX_FILES);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Verbucht gelesene Bytes der Inhaltssuche und beendet die Suche, sobald das Byte-Limit überschritten ist.
+     */
+    public void recordBytesScanned(final long byteCount) {
+        final long total = bytesScanned.addAndGet(byteCount);
+        if (limits.maxBytesScanned() > 0 && total >= limits.maxBytesScanned()) {
+            stop(StopReason.MAX_BYTES);
+        }
+    }
+
+    public StopReason getStopReason() {
+        return stopReason.get();
+    }
+
+    public long getBytesScanned() {
+        return bytesScanned.get();
+    }
+
+    public long getFilesExamined() {
+        // Abgewiesene Dateien über dem Limit zählen nicht mit
+        final long limit = limits.maxFilesExamined();
+        return limit > 0 ? Math.min(filesExamined.get(), limit) : filesExamined.get();
+    }
+
+    private boolean tryAcquire(final AtomicLong counter, final long limit, final StopReason reasonWhenExceeded) {
+        final long current = counter.incrementAndGet();
+        if (limit <= 0) {
+            return true;
+        }
+
+        if (current >= limit) {
+            stop(reasonWhenExceeded);
+        }
+        return current <= limit;
+    }
+
+    private void stop(final StopReason reason) {
+        stopReason.compareAndSet(null, reason);
+    }
+
+}
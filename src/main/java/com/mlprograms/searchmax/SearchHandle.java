@@ -1,11 +1,12 @@
 package com.mlprograms.searchmax;
 
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ForkJoinTask;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -27,9 +28,9 @@ public final class SearchHandle {
     private final Collection<ForkJoinTask<?>> tasks = new ConcurrentLinkedQueue<>();
 
     /**
-     * Kennzeichnet, ob die Suche abgebrochen wurde.
+     * Abbruch-Token und Limits der Suche.
      */
-    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final SearchBudget budget;
 
     /**
      * Startzeitpunkt der Suche in Nanosekunden.
@@ -66,6 +67,71 @@ public final class SearchHandle {
      */
     private final AtomicInteger processedFiles = new AtomicInteger(0);
 
+    /**
+     * Laufzeitkennzahlen der Suche (stat-Aufrufe, besuchte Einträge).
+     */
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    /**
+     * Stufe für Inhaltsprüfungen im Pipeline-Modus, sonst {@code null}.
+     */
+    @Setter
+    private volatile ContentPipeline contentPipeline;
+
+    /**
+     * Ausführung über virtuelle Threads, sonst {@code null} (ForkJoinPool).
+     */
+    @Setter
+    private volatile VirtualThreadEngine virtualThreadEngine;
+
+    /**
+     * Regelt die Parallelität des Pools während der Suche, sonst {@code null}.
+     */
+    @Setter
+    private volatile ParallelismController parallelismController;
+
+    /**
+     * Startverzeichnisse der Suche, gruppiert nach Laufwerk.
+     */
+    @Setter
+    private volatile List<FileStoreGroup> fileStoreGroups = List.of();
+
+    /**
+     * Für diese Suche kompilierte Ausschlussregeln.
+     */
+    @Setter
+    private volatile DirectoryExclusionRules exclusionRules = DirectoryExclusionRules.NONE;
+
+    /**
+     * Bereits besuchte physische Verzeichnisse und geprüfte Dateien.
+     */
+    @Setter
+    private volatile VisitedSet visitedSet = new VisitedSet(false);
+
+    /**
+     * Tiefen- und Dateisystem-Grenzen des Durchlaufs.
+     */
+    @Setter
+    private volatile TraversalBoundary traversalBoundary = TraversalBoundary.NONE;
+
+    /**
+     * Durchsucht große Textdateien über eingeblendete Dateibereiche.
+     */
+    @Setter
+    private volatile LargeFileScanner largeFileScanner = LargeFileScanner.NONE;
+
+    /**
+     * Erkennt Binärdateien, deren Inhalt nicht durchsucht wird.
+     */
+    @Setter
+    private volatile BinaryFileDetector binaryFileDetector = BinaryFileDetector.NONE;
+
+    /**
+     * Für diese Suche kompilierter Filterplan mit gelernter Prüfreihenfolge.
+     */
+    @Setter
+    private volatile FilterPlan filterPlan = FilterPlan.EMPTY;
+
     /**
      * Erstellt ein neues SearchHandle mit den gegebenen Parametern.
      *
@@ -75,13 +141,15 @@ public final class SearchHandle {
      * @param matchCount     Zähler für Treffer
      * @param results        Sammlung der Suchergebnisse
      * @param initialTasks   Anzahl der anfänglichen Aufgaben
+     * @param budget         Abbruch-Token und Limits der Suche
      */
-    public SearchHandle(final ForkJoinTask<?> task, final long startTimeNano, final AtomicInteger remainingTasks, final AtomicInteger matchCount, final Collection<String> results, final int initialTasks) {
+    public SearchHandle(final ForkJoinTask<?> task, final long startTimeNano, final AtomicInteger remainingTasks, final AtomicInteger matchCount, final Collection<String> results, final int initialTasks, final SearchBudget budget) {
         this.startNano = startTimeNano;
         this.remainingTasks = remainingTasks;
         this.matchCount = matchCount;
         this.results = results;
         this.initialTasks = initialTasks;
+        this.budget = budget;
         setTask(task);
     }
 
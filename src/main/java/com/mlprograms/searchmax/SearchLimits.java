@@ -0,0 +1,19 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Konfigurierbare Obergrenzen eines Suchvorgangs. Ein Wert kleiner oder gleich 0 bedeutet "unbegrenzt".
+ *
+ * @param maxDurationMillis maximale Laufzeit der Suche in Millisekunden
+ * @param maxResults        maximale Anzahl an Treffern
+ * @param maxBytesScanned   maximale Anzahl an Bytes, die bei der Inhaltssuche gelesen werden
+ * @param maxFilesExamined  maximale Anzahl an Dateien, die geprüft werden
+ */
+public record SearchLimits(long maxDurationMillis, long maxResults, long maxBytesScanned, long maxFilesExamined) {
+
+    public static final SearchLimits UNLIMITED = new SearchLimits(0, 0, 0, 0);
+
+    public boolean isUnlimited() {
+        return maxDurationMillis <= 0 && maxResults <= 0 && maxBytesScanned <= 0 && maxFilesExamined <= 0;
+    }
+
+}
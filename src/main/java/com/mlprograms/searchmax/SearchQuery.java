@@ -0,0 +1,632 @@
+package com.mlprograms.searchmax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Kompilierte Suchabfrage aus dem Suchfeld. Enthält die Eingabe weder Feldnamen noch {@code AND}, {@code OR} oder
+ * {@code NOT}, wird sie wie bisher als Teilzeichenkette des Dateinamens gesucht. Andernfalls wird sie in einen
+ * Ausdrucksbaum übersetzt:
+ * <ul>
+ *     <li>{@code report}, {@code name:report} – Teil des Dateinamens; {@code name:*.log} als Glob auf den ganzen
+ *     Namen, {@code name:glob:...} und {@code name:regex:...} wie in den Namensfiltern</li>
+ *     <li>{@code ext:pdf,docx} – Dateiendung</li>
+ *     <li>{@code content:"fristlose kündigung"}, {@code content:word:art} – Dateiinhalt mit den Operatoren der
+ *     Inhaltsfilter</li>
+ *     <li>{@code size:>10MB}, {@code size:1MB..5MB} – Dateigröße, Einheiten zur Basis 1024</li>
+ *     <li>{@code modified:2024-01..2024-03}, {@code modified:>=2024-06-01} – letzte Änderung, Grenzen als ganze
+ *     Jahre, Monate oder Tage</li>
+ * </ul>
+ * Terme werden mit {@code AND} (auch ohne Operator), {@code OR} und {@code NOT} verknüpft und mit Klammern
+ * gruppiert; Werte mit Leerzeichen stehen in Anführungszeichen.
+ * <p>
+ * Die Operanden jeder Verknüpfung werden beim Kompilieren nach geschätzten Kosten sortiert, Inhaltsterme stehen
+ * immer zuletzt. Bei der Metadatenprüfung gelten Inhaltsterme als unbekannt; eine Datei wird nur geöffnet, wenn Name,
+ * Endung, Größe und Datum das Ergebnis nicht bereits festlegen. Die Inhaltsterme laufen im Automaten der
+ * Inhaltsfilter mit, der Durchlauf endet, sobald der Ausdruck entschieden ist.
+ */
+@Slf4j
+final class SearchQuery {
+
+    static final SearchQuery EMPTY = new SearchQuery(null, List.of(), null);
+
+    private static final Pattern SIZE = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*([kmgt]?)(?:i?b)?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE = Pattern.compile("(\\d{4})(?:-(\\d{1,2})(?:-(\\d{1,2}))?)?");
+    private static final String RANGE = "..";
+    private static final List<String> FIELDS = List.of("name", "ext", "content", "size", "modified");
+    private static final double CONTENT_COST = 1e6;
+
+    /**
+     * Dreiwertiges Ergebnis: Inhaltsterme sind {@link #UNKNOWN}, solange der Inhalt nicht gelesen wurde.
+     */
+    private enum Truth {
+        FALSE,
+        UNKNOWN,
+        TRUE;
+
+        Truth not() {
+            return this == TRUE ? FALSE : this == FALSE ? TRUE : UNKNOWN;
+        }
+
+        static Truth of(final boolean value) {
+            return value ? TRUE : FALSE;
+        }
+    }
+
+    private final Node root;
+    private final List<FilterPlan.TextPattern> contentPatterns;
+    private final String boostTerm;
+
+    private SearchQuery(final Node root, final List<FilterPlan.TextPattern> contentPatterns, final String boostTerm) {
+        this.root = root;
+        this.contentPatterns = contentPatterns;
+        this.boostTerm = boostTerm;
+    }
+
+    /**
+     * Kompiliert eine Eingabe des Suchfelds. Fehlerhafte Abfragen werden protokolliert und als Text gesucht.
+     *
+     * @param caseSensitive  gilt für Namens- und Inhaltsterme
+     * @param foldDiacritics {@code true}, wenn Namens- und Inhaltsterme Akzente, Umlaute und Groß-/Kleinschreibung
+     *                       ignorieren
+     */
+    static SearchQuery compile(final String text, final boolean caseSensitive, final boolean foldDiacritics, final ZoneId zone) {
+        if (text == null || text.isEmpty()) {
+            return EMPTY;
+        }
+
+        try {
+            final List<Token> tokens = tokenize(text);
+            if (tokens.stream().anyMatch(Token::isStructured)) {
+                final Parser parser = new Parser(tokens, caseSensitive, foldDiacritics, zone);
+                final Node root = parser.parse();
+                return new SearchQuery(root, List.copyOf(parser.contentPatterns), parser.boostTerm);
+            }
+        } catch (final IllegalArgumentException illegalArgumentException) {
+            log.warn("Ungültige Suchabfrage \"{}\": {} – wird als Text gesucht", text, illegalArgumentException.getMessage());
+        }
+        return new SearchQuery(NameTerm.of(text, caseSensitive, foldDiacritics), List.of(), text);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * @return {@code false}, wenn die Datei schon nach ihren Metadaten nicht passen kann
+     */
+    boolean mayMatch(final FileEntry fileEntry) {
+        return root == null || root.evaluate(fileEntry, null, 0, false) != Truth.FALSE;
+    }
+
+    /**
+     * @return {@code true}, wenn das Ergebnis für diese Datei von Inhaltstermen abhängt
+     */
+    boolean needsContent(final FileEntry fileEntry) {
+        return !contentPatterns.isEmpty() && root.evaluate(fileEntry, null, 0, false) == Truth.UNKNOWN;
+    }
+
+    /**
+     * Inhaltsterme in der Reihenfolge ihrer Indizes; sie werden an die Muster der Inhaltsfilter angehängt.
+     */
+    List<FilterPlan.TextPattern> contentPatterns() {
+        return contentPatterns;
+    }
+
+    /**
+     * Bindet den Ausdruck an eine Datei, damit ein Inhaltsdurchlauf ihn auswerten kann.
+     *
+     * @param patternOffset Index des ersten Inhaltsterms im Automaten
+     */
+    ContentMatcher.Condition conditionFor(final FileEntry fileEntry, final int patternOffset) {
+        return (scan, finished) -> {
+            final Truth truth = root.evaluate(fileEntry, scan, patternOffset, finished);
+            return truth == Truth.UNKNOWN ? null : truth == Truth.TRUE;
+        };
+    }
+
+    /**
+     * Geschätzte Kosten der Metadatenprüfung in Nanosekunden pro Datei.
+     */
+    double estimatedCost() {
+        return root == null ? 0 : Math.min(CONTENT_COST, root.cost());
+    }
+
+    /**
+     * Erster Namensbegriff außerhalb von {@code NOT}, nach dem Verzeichnisse bevorzugt werden, oder {@code null}.
+     */
+    String boostTerm() {
+        return boostTerm;
+    }
+
+    // ---- Ausdrucksbaum ----
+
+    private interface Node {
+
+        /**
+         * @param scan     Inhaltsdurchlauf oder {@code null} bei der Metadatenprüfung
+         * @param finished {@code true}, wenn der Inhalt vollständig gelesen wurde
+         */
+        Truth evaluate(FileEntry fileEntry, ContentMatcher.Scan scan, int patternOffset, boolean finished);
+
+        double cost();
+    }
+
+    private record NameTerm(String key, boolean caseSensitive, boolean foldDiacritics) implements Node {
+
+        static NameTerm of(final String value, final boolean caseSensitive, final boolean foldDiacritics) {
+            if (foldDiacritics) {
+                return new NameTerm(DiacriticFolding.foldAccents(value), false, true);
+            }
+            return new NameTerm(caseSensitive ? value : CaseFolding.fold(value), caseSensitive, false);
+        }
+
+        @Override
+        public Truth evaluate(final FileEntry fileEntry, final ContentMatcher.Scan scan, final int patternOffset, final boolean finished) {
+            final String fileName = fileEntry.fileName();
+            if (foldDiacritics) {
+                // Die gefaltete Form kann länger als der Name sein (ß), die Längenprüfung entfällt
+                return Truth.of(DiacriticFolding.containsFolded(fileName, fileName.length(), key));
+            }
+            if (fileName.length() < key.length()) {
+                return Truth.FALSE;
+            }
+            return Truth.of(caseSensitive
+                    ? fileName.contains(key)
+                    : CaseFolding.containsFolded(fileName, fileName.length(), key));
+        }
+
+        @Override
+        public double cost() {
+            return 15;
+        }
+    }
+
+    private record NamePatternTerm(NamePattern pattern) implements Node {
+
+        @Override
+        public Truth evaluate(final FileEntry fileEntry, final ContentMatcher.Scan scan, final int patternOffset, final boolean finished) {
+            return Truth.of(pattern.matches(fileEntry.fileName(), fileEntry.fileName().length()));
+        }
+
+        @Override
+        public double cost() {
+            return pattern.estimatedCost();
+        }
+    }
+
+    private record ExtensionTerm(ExtensionSet extensions) implements Node {
+
+        @Override
+        public Truth evaluate(final FileEntry fileEntry, final ContentMatcher.Scan scan, final int patternOffset, final boolean finished) {
+            return Truth.of(extensions.accepts(fileEntry.fileName()));
+        }
+
+        @Override
+        public double cost() {
+            return 10.0;
+        }
+    }
+
+    /**
+     * Größe in Bytes, beide Grenzen eingeschlossen.
+     */
+    private record SizeTerm(long minimum, long maximum) implements Node {
+
+        @Override
+        public Truth evaluate(final FileEntry fileEntry, final ContentMatcher.Scan scan, final int patternOffset, final boolean finished) {
+            return Truth.of(fileEntry.size() >= minimum && fileEntry.size() <= maximum);
+        }
+
+        @Override
+        public double cost() {
+            return 2;
+        }
+    }
+
+    /**
+     * Letzte Änderung im Bereich {@code [start, end)} in Millisekunden.
+     */
+    private record ModifiedTerm(long start, long end) implements Node {
+
+        @Override
+        public Truth evaluate(final FileEntry fileEntry, final ContentMatcher.Scan scan, final int patternOffset, final boolean finished) {
+            return Truth.of(fileEntry.lastModifiedMillis() >= start && fileEntry.lastModifiedMillis() < end);
+        }
+
+        @Override
+        public double cost() {
+            return 3;
+        }
+    }
+
+    private record ContentTerm(int patternIndex) implements Node {
+
+        @Override
+        public Truth evaluate(final FileEntry fileEntry, final ContentMatcher.Scan scan, final int patternOffset, final boolean finished) {
+            if (scan == null) {
+                return Truth.UNKNOWN;
+            }
+            if (scan.isMatched(patternOffset + patternIndex)) {
+                return Truth.TRUE;
+            }
+            return finished ? Truth.FALSE : Truth.UNKNOWN;
+        }
+
+        @Override
+        public double cost() {
+            return CONTENT_COST;
+        }
+    }
+
+    private record Not(Node operand) implements Node {
+
+        @Override
+        public Truth evaluate(final FileEntry fileEntry, final ContentMatcher.Scan scan, final int patternOffset, final boolean finished) {
+            return operand.evaluate(fileEntry, scan, patternOffset, finished).not();
+        }
+
+        @Override
+        public double cost() {
+            return operand.cost();
+        }
+    }
+
+    /**
+     * {@code AND} bzw. {@code OR}; die Operanden sind aufsteigend nach Kosten sortiert und die Auswertung endet beim
+     * ersten entscheidenden Operanden.
+     */
+    private record Junction(boolean conjunction, Node[] operands, double cost) implements Node {
+
+        @Override
+        public Truth evaluate(final FileEntry fileEntry, final ContentMatcher.Scan scan, final int patternOffset, final boolean finished) {
+            final Truth decisive = conjunction ? Truth.FALSE : Truth.TRUE;
+            Truth result = decisive.not();
+            for (final Node operand : operands) {
+                final Truth truth = operand.evaluate(fileEntry, scan, patternOffset, finished);
+                if (truth == decisive) {
+                    return decisive;
+                }
+                if (truth == Truth.UNKNOWN) {
+                    result = Truth.UNKNOWN;
+                }
+            }
+            return result;
+        }
+
+        static Node of(final boolean conjunction, final List<Node> operands) {
+            final List<Node> flattened = new ArrayList<>(operands.size());
+            for (final Node operand : operands) {
+                if (operand instanceof Junction junction && junction.conjunction == conjunction) {
+                    flattened.addAll(Arrays.asList(junction.operands));
+                } else {
+                    flattened.add(operand);
+                }
+            }
+            if (flattened.size() == 1) {
+                return flattened.get(0);
+            }
+
+            flattened.sort(Comparator.comparingDouble(Node::cost));
+            final double cost = flattened.stream().mapToDouble(Node::cost).sum();
+            return new Junction(conjunction, flattened.toArray(Node[]::new), cost);
+        }
+    }
+
+    // ---- Zerlegung ----
+
+    private enum TokenType {
+        OPEN,
+        CLOSE,
+        AND,
+        OR,
+        NOT,
+        TERM
+    }
+
+    /**
+     * @param field Feldname in Kleinbuchstaben oder {@code null} für einen Namensbegriff
+     */
+    private record Token(TokenType type, String field, String value) {
+
+        boolean isStructured() {
+            return type == TokenType.AND || type == TokenType.OR || type == TokenType.NOT || field != null;
+        }
+    }
+
+    private static List<Token> tokenize(final String text) {
+        final List<Token> tokens = new ArrayList<>();
+        int index = 0;
+        while (index < text.length()) {
+            final char character = text.charAt(index);
+            if (Character.isWhitespace(character)) {
+                index++;
+            } else if (character == '(' || character == ')') {
+                tokens.add(new Token(character == '(' ? TokenType.OPEN : TokenType.CLOSE, null, null));
+                index++;
+            } else {
+                final StringBuilder word = new StringBuilder();
+                int firstQuote = -1;
+                while (index < text.length() && !Character.isWhitespace(text.charAt(index))
+                        && text.charAt(index) != '(' && text.charAt(index) != ')') {
+                    if (text.charAt(index) == '"') {
+                        final int closingQuote = text.indexOf('"', index + 1);
+                        if (closingQuote < 0) {
+                            throw new IllegalArgumentException("schließendes Anführungszeichen fehlt");
+                        }
+                        firstQuote = firstQuote < 0 ? word.length() : firstQuote;
+                        word.append(text, index + 1, closingQuote);
+                        index = closingQuote + 1;
+                    } else {
+                        word.append(text.charAt(index++));
+                    }
+                }
+                tokens.add(toToken(word.toString(), firstQuote));
+            }
+        }
+        return tokens;
+    }
+
+    private static Token toToken(final String word, final int firstQuote) {
+        if (firstQuote < 0) {
+            switch (word) {
+                case "AND" -> {
+                    return new Token(TokenType.AND, null, null);
+                }
+                case "OR" -> {
+                    return new Token(TokenType.OR, null, null);
+                }
+                case "NOT" -> {
+                    return new Token(TokenType.NOT, null, null);
+                }
+                default -> {
+                }
+            }
+        }
+
+        final int colon = word.indexOf(':');
+        if (colon > 0 && (firstQuote < 0 || colon < firstQuote)) {
+            final String field = word.substring(0, colon).toLowerCase(Locale.ROOT);
+            if (FIELDS.contains(field)) {
+                return new Token(TokenType.TERM, field, word.substring(colon + 1));
+            }
+        }
+        return new Token(TokenType.TERM, null, word);
+    }
+
+    /**
+     * Rekursiver Abstieg: {@code OR} bindet schwächer als {@code AND}, {@code NOT} am stärksten.
+     */
+    private static final class Parser {
+
+        private final List<Token> tokens;
+        private final boolean caseSensitive;
+        private final boolean foldDiacritics;
+        private final ZoneId zone;
+        private final List<FilterPlan.TextPattern> contentPatterns = new ArrayList<>();
+        private String boostTerm;
+        private int position;
+        private int negationDepth;
+
+        private Parser(final List<Token> tokens, final boolean caseSensitive, final boolean foldDiacritics, final ZoneId zone) {
+            this.tokens = tokens;
+            this.caseSensitive = caseSensitive;
+            this.foldDiacritics = foldDiacritics;
+            this.zone = zone;
+        }
+
+        Node parse() {
+            final Node root = parseOr();
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException("unerwartete schließende Klammer");
+            }
+            return root;
+        }
+
+        private Node parseOr() {
+            final List<Node> operands = new ArrayList<>();
+            operands.add(parseAnd());
+            while (accept(TokenType.OR)) {
+                operands.add(parseAnd());
+            }
+            return Junction.of(false, operands);
+        }
+
+        private Node parseAnd() {
+            final List<Node> operands = new ArrayList<>();
+            operands.add(parseUnary());
+            while (position < tokens.size() && peek() != TokenType.OR && peek() != TokenType.CLOSE) {
+                accept(TokenType.AND);
+                operands.add(parseUnary());
+            }
+            return Junction.of(true, operands);
+        }
+
+        private Node parseUnary() {
+            if (accept(TokenType.NOT)) {
+                negationDepth++;
+                final Node operand = parseUnary();
+                negationDepth--;
+                return new Not(operand);
+            }
+            if (accept(TokenType.OPEN)) {
+                final Node inner = parseOr();
+                if (!accept(TokenType.CLOSE)) {
+                    throw new IllegalArgumentException("schließende Klammer fehlt");
+                }
+                return inner;
+            }
+            if (position >= tokens.size() || peek() != TokenType.TERM) {
+                throw new IllegalArgumentException("Begriff erwartet");
+            }
+
+            final Token token = tokens.get(position++);
+            return token.field() == null ? nameTerm(token.value()) : switch (token.field()) {
+                case "name" -> nameTerm(token.value());
+                case "ext" -> extensionTerm(token.value());
+                case "content" -> contentTerm(token.value());
+                case "size" -> sizeTerm(token.value());
+                default -> modifiedTerm(token.value());
+            };
+        }
+
+        private TokenType peek() {
+            return tokens.get(position).type();
+        }
+
+        private boolean accept(final TokenType type) {
+            if (position < tokens.size() && peek() == type) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private Node nameTerm(final String value) {
+            requireValue(value, "name");
+            final boolean prefixed = value.startsWith("glob:") || value.startsWith("regex:");
+            if (prefixed || value.indexOf('*') >= 0 || value.indexOf('?') >= 0) {
+                return new NamePatternTerm(NamePattern.compile(prefixed ? value : "glob:" + value, caseSensitive, foldDiacritics));
+            }
+            if (boostTerm == null && negationDepth == 0) {
+                boostTerm = value;
+            }
+            return NameTerm.of(value, caseSensitive, foldDiacritics);
+        }
+
+        private Node extensionTerm(final String value) {
+            requireValue(value, "ext");
+            // ext:pdf,docx oder eine Gruppe wie ext:category:images
+            final List<String> entries = Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .filter(extension -> !extension.isEmpty() && !extension.equals("."))
+                    .toList();
+            if (entries.isEmpty()) {
+                throw new IllegalArgumentException("keine Endung in ext:" + value);
+            }
+            for (final String entry : entries) {
+                if (entry.startsWith(ExtensionCategory.PREFIX) && ExtensionCategory.fromFilterKey(entry) == null) {
+                    throw new IllegalArgumentException("unbekannte Endungsgruppe " + entry);
+                }
+            }
+            return new ExtensionTerm(ExtensionSet.compile(entries, null));
+        }
+
+        private Node contentTerm(final String value) {
+            requireValue(value, "content");
+            contentPatterns.add(FilterPlan.compileTextPattern(value, caseSensitive, foldDiacritics));
+            return new ContentTerm(contentPatterns.size() - 1);
+        }
+
+        private Node sizeTerm(final String value) {
+            requireValue(value, "size");
+            final long[] range = parseRange(value, this::parseSize);
+            // Größen sind eingeschlossene Grenzen, die Bereichsgrenzen davor ausschließend
+            return new SizeTerm(range[0], range[1] == Long.MAX_VALUE ? Long.MAX_VALUE : range[1] - 1);
+        }
+
+        private Node modifiedTerm(final String value) {
+            requireValue(value, "modified");
+            final long[] range = parseRange(value, this::parseDate);
+            return new ModifiedTerm(range[0], range[1]);
+        }
+
+        /**
+         * Zerlegt {@code a..b}, {@code >a}, {@code >=a}, {@code <a}, {@code <=a} oder {@code a} in einen Bereich
+         * {@code [start, end)}. Ein Wert steht selbst für einen Bereich, z. B. einen Monat.
+         */
+        private static long[] parseRange(final String value, final BoundParser boundParser) {
+            final long unbounded = Long.MAX_VALUE;
+            final int rangeIndex = value.indexOf(RANGE);
+            if (rangeIndex >= 0) {
+                final String from = value.substring(0, rangeIndex);
+                final String to = value.substring(rangeIndex + RANGE.length());
+                return new long[]{
+                        from.isEmpty() ? Long.MIN_VALUE : boundParser.parse(from)[0],
+                        to.isEmpty() ? unbounded : boundParser.parse(to)[1]};
+            }
+            if (value.startsWith(">=")) {
+                return new long[]{boundParser.parse(value.substring(2))[0], unbounded};
+            }
+            if (value.startsWith("<=")) {
+                return new long[]{Long.MIN_VALUE, boundParser.parse(value.substring(2))[1]};
+            }
+            if (value.startsWith(">")) {
+                return new long[]{boundParser.parse(value.substring(1))[1], unbounded};
+            }
+            if (value.startsWith("<")) {
+                return new long[]{Long.MIN_VALUE, boundParser.parse(value.substring(1))[0]};
+            }
+            return boundParser.parse(value.startsWith("=") ? value.substring(1) : value);
+        }
+
+        /**
+         * Eine Größe steht für genau diese Anzahl Bytes.
+         */
+        private long[] parseSize(final String value) {
+            final Matcher matcher = SIZE.matcher(value.trim());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("ungültige Größe: " + value);
+            }
+            final int exponent = switch (matcher.group(2).toLowerCase(Locale.ROOT)) {
+                case "k" -> 1;
+                case "m" -> 2;
+                case "g" -> 3;
+                case "t" -> 4;
+                default -> 0;
+            };
+            final long bytes = Math.min(Long.MAX_VALUE - 1, (long) (Double.parseDouble(matcher.group(1)) * Math.pow(1024, exponent)));
+            return new long[]{bytes, bytes + 1};
+        }
+
+        /**
+         * Ein Datum steht für das ganze Jahr, den ganzen Monat oder den ganzen Tag in der lokalen Zeitzone.
+         */
+        private long[] parseDate(final String value) {
+            final Matcher matcher = DATE.matcher(value.trim());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("ungültiges Datum: " + value);
+            }
+            try {
+                final int year = Integer.parseInt(matcher.group(1));
+                final LocalDate start;
+                final LocalDate end;
+                if (matcher.group(2) == null) {
+                    start = LocalDate.of(year, 1, 1);
+                    end = start.plusYears(1);
+                } else if (matcher.group(3) == null) {
+                    start = LocalDate.of(year, Integer.parseInt(matcher.group(2)), 1);
+                    end = start.plusMonths(1);
+                } else {
+                    start = LocalDate.of(year, Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+                    end = start.plusDays(1);
+                }
+                return new long[]{start.atStartOfDay(zone).toInstant().toEpochMilli(), end.atStartOfDay(zone).toInstant().toEpochMilli()};
+            } catch (final DateTimeException dateTimeException) {
+                throw new IllegalArgumentException("ungültiges Datum: " + value);
+            }
+        }
+
+        private static void requireValue(final String value, final String field) {
+            if (value.isBlank()) {
+                throw new IllegalArgumentException("Wert fehlt bei " + field + ":");
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface BoundParser {
+        long[] parse(String value);
+    }
+
+}
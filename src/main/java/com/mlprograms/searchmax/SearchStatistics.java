@@ -0,0 +1,266 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sammelt Laufzeitkennzahlen eines Suchvorgangs, die von allen Aufgaben gemeinsam befüllt
+ * und am Ende der Suche in der Zusammenfassung ausgegeben werden. Statistiken können einer
+ * übergeordneten Statistik zugeordnet werden (z. B. pro Laufwerk), an die alle Werte weitergereicht werden.
+ */
+@Getter
+public final class SearchStatistics {
+
+    /**
+     * Trefferanzahlen, bei deren Erreichen die Zeit seit Suchbeginn festgehalten wird.
+     */
+    private static final long[] RESULT_MILESTONES = {1, 10, 100, 1000};
+
+    /**
+     * Verschachtelungstiefe der Allokationsmessung pro Thread. Ein Fork-Join-Thread führt beim Warten auf
+     * Teilaufgaben weitere Aufgaben aus; gemessen wird nur die äußerste, damit nichts doppelt zählt.
+     */
+    private static final ThreadLocal<int[]> MEASUREMENT_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final SearchStatistics parent;
+
+    /**
+     * Anzahl der Dateisystem-Abfragen (stat), die während der Suche ausgeführt wurden.
+     */
+    private final AtomicLong statCalls = new AtomicLong();
+
+    /**
+     * Anzahl aller besuchten Verzeichniseinträge (Dateien, Ordner und sonstige Einträge).
+     */
+    private final AtomicLong visitedEntries = new AtomicLong();
+
+    /**
+     * Anzahl der besuchten regulären Dateien.
+     */
+    private final AtomicLong visitedFiles = new AtomicLong();
+
+    /**
+     * Anzahl der besuchten Verzeichnisse.
+     */
+    private final AtomicLong visitedDirectories = new AtomicLong();
+
+    /**
+     * Anzahl der bei der Inhaltssuche gelesenen Bytes.
+     */
+    private final AtomicLong bytesScanned = new AtomicLong();
+
+    /**
+     * Zeitpunkt der letzten Aktivität in Nanosekunden, 0 wenn noch nichts verarbeitet wurde.
+     */
+    private volatile long lastActivityNano;
+
+    /**
+     * Anzahl der gemeldeten Treffer.
+     */
+    private final AtomicLong results = new AtomicLong();
+
+    /**
+     * Zeitpunkte (System.nanoTime), zu denen die Trefferanzahlen aus {@link #RESULT_MILESTONES} erreicht wurden.
+     */
+    private final AtomicLongArray resultMilestoneNanos = new AtomicLongArray(RESULT_MILESTONES.length);
+
+    /**
+     * Von den Threads der Suche selbst belegter Heap-Speicher, gemessen pro Aufgabe.
+     */
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * {@code true}, sobald eine Aufgabe auf einem Thread ohne Allokationszähler lief (z. B. einem virtuellen Thread).
+     * Die Zusammenfassung greift dann auf den JVM-weiten Wert zurück und kennzeichnet ihn.
+     */
+    private volatile boolean allocationProcessWide;
+
+    /**
+     * Bisher von allen Threads der JVM belegter Heap-Speicher bei Suchbeginn, -1 wenn nicht messbar.
+     */
+    private final long allocatedBytesAtStart;
+
+    public SearchStatistics() {
+        this(null);
+    }
+
+    public SearchStatistics(final SearchStatistics parent) {
+        this.parent = parent;
+        this.allocatedBytesAtStart = parent == null ? readTotalAllocatedBytes() : -1L;
+    }
+
+    public void recordStatCall() {
+        statCalls.incrementAndGet();
+        if (parent != null) {
+            parent.recordStatCall();
+        }
+    }
+
+    public void recordEntry(final FileEntry entry) {
+        visitedEntries.incrementAndGet();
+        if (entry.regularFile()) {
+            visitedFiles.incrementAndGet();
+        } else if (entry.directory()) {
+            visitedDirectories.incrementAndGet();
+        }
+        lastActivityNano = System.nanoTime();
+        if (parent != null) {
+            parent.recordEntry(entry);
+        }
+    }
+
+    public void recordResult() {
+        final long count = results.incrementAndGet();
+        for (int i = 0; i < RESULT_MILESTONES.length; i++) {
+            if (count == RESULT_MILESTONES[i]) {
+                resultMilestoneNanos.set(i, System.nanoTime());
+            }
+        }
+        if (parent != null) {
+            parent.recordResult();
+        }
+    }
+
+    public void recordBytesScanned(final long byteCount) {
+        bytesScanned.addAndGet(byteCount);
+        lastActivityNano = System.nanoTime();
+        if (parent != null) {
+            parent.recordBytesScanned(byteCount);
+        }
+    }
+
+    /**
+     * Beginnt die Allokationsmessung einer Aufgabe auf dem aktuellen Thread. Jeder Aufruf muss mit
+     * {@link #endAllocationMeasurement(long)} abgeschlossen werden, auch wenn die Aufgabe scheitert.
+     *
+     * @return Zählerstand des Threads, -1 bei verschachtelten Aufgaben oder ohne Allokationszähler
+     */
+    public long beginAllocationMeasurement() {
+        if (MEASUREMENT_DEPTH.get()[0]++ > 0) {
+            return -1L;
+        }
+
+        final long bytes = readCurrentThreadAllocatedBytes();
+        if (bytes < 0) {
+            markAllocationProcessWide();
+        }
+        return bytes;
+    }
+
+    public void endAllocationMeasurement(final long startBytes) {
+        if (--MEASUREMENT_DEPTH.get()[0] > 0 || startBytes < 0) {
+            return;
+        }
+
+        final long bytes = readCurrentThreadAllocatedBytes();
+        if (bytes >= startBytes) {
+            recordAllocatedBytes(bytes - startBytes);
+        }
+    }
+
+    private void recordAllocatedBytes(final long byteCount) {
+        allocatedBytes.addAndGet(byteCount);
+        if (parent != null) {
+            parent.recordAllocatedBytes(byteCount);
+        }
+    }
+
+    private void markAllocationProcessWide() {
+        allocationProcessWide = true;
+        if (parent != null) {
+            parent.markAllocationProcessWide();
+        }
+    }
+
+    /**
+     * Liefert die durchschnittliche Anzahl an stat-Aufrufen pro besuchtem Eintrag.
+     */
+    public double getStatCallsPerEntry() {
+        final long entries = visitedEntries.get();
+        return entries == 0 ? 0.0 : (double) statCalls.get() / entries;
+    }
+
+    /**
+     * Liefert die von den Threads der Suche pro besuchtem Eintrag belegten Bytes. Liefen Aufgaben auf Threads
+     * ohne Allokationszähler, wird stattdessen JVM-weit seit Suchbeginn gemessen, einschließlich Oberfläche und
+     * Überwachung (siehe {@link #isAllocationProcessWide()}).
+     *
+     * @return -1, wenn die JVM keine Allokationszähler anbietet
+     */
+    public long getAllocatedBytesPerEntry() {
+        final long entries = visitedEntries.get();
+        if (entries == 0) {
+            return -1L;
+        }
+        if (!allocationProcessWide) {
+            return allocationCounter() == null ? -1L : allocatedBytes.get() / entries;
+        }
+
+        final long allocatedBytesNow = readTotalAllocatedBytes();
+        if (allocatedBytesAtStart < 0 || allocatedBytesNow < 0) {
+            return -1L;
+        }
+        return (allocatedBytesNow - allocatedBytesAtStart) / entries;
+    }
+
+
+    /**
+     * Formatiert die Zeit bis zum ersten, 10., 100. und 1000. Treffer, z. B. {@code "1st 0.12s, 10th 0.40s"}.
+     *
+     * @return leere Zeichenkette, wenn kein Treffer gefunden wurde
+     */
+    public String formatResultLatency(final long startNano) {
+        final StringBuilder latency = new StringBuilder();
+        for (int i = 0; i < RESULT_MILESTONES.length; i++) {
+            final long milestoneNano = resultMilestoneNanos.get(i);
+            if (milestoneNano == 0L) {
+                break;
+            }
+            if (!latency.isEmpty()) {
+                latency.append(", ");
+            }
+            final String ordinal = RESULT_MILESTONES[i] == 1 ? "1st" : RESULT_MILESTONES[i] + "th";
+            latency.append(String.format("%s %.2fs", ordinal, (milestoneNano - startNano) / 1e9));
+        }
+        return latency.toString();
+    }
+
+    public String formatSummary() {
+        final String summary = String.format("%d entries, %.2f stat calls/entry", visitedEntries.get(), getStatCallsPerEntry());
+        final long allocatedBytesPerEntry = getAllocatedBytesPerEntry();
+        if (allocatedBytesPerEntry < 0) {
+            return summary;
+        }
+        return summary + String.format(isAllocationProcessWide() ? ", %d B allocated/entry (process-wide)" : ", %d B allocated/entry",
+                allocatedBytesPerEntry);
+    }
+
+    private static long readTotalAllocatedBytes() {
+        final com.sun.management.ThreadMXBean threadBean = allocationCounter();
+        return threadBean == null ? -1L : threadBean.getTotalThreadAllocatedBytes();
+    }
+
+    /**
+     * @return -1 ohne Allokationszähler und auf virtuellen Threads
+     */
+    private static long readCurrentThreadAllocatedBytes() {
+        final com.sun.management.ThreadMXBean threadBean = allocationCounter();
+        return threadBean == null ? -1L : threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                    && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+                return threadBean;
+            }
+        } catch (final UnsupportedOperationException | SecurityException ignored) {
+            // Allokationszähler sind optional
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Sucht in einem Bytepuffer die nächste Stelle, an der ein Treffer beginnen kann. Solange der Automat im
+ * Startzustand ist, können alle Bytes davor übersprungen werden. Es werden nur wenige Startbytes
+ * unterstützt, damit der Vergleich je Block aus einer Handvoll Vektoroperationen besteht. Bei einem
+ * einzelnen Muster fester Bytelänge wird zusätzlich das letzte Byte geprüft (First/Last-Byte-Filter).
+ */
+public final class StartByteFilter {
+
+    public static final int MAX_START_BYTES = 4;
+
+    private final byte[] firstBytes;
+    private final boolean matchesNonAscii;
+    private final byte[] lastBytes;
+    private final int lastByteOffset;
+
+    StartByteFilter(final byte[] firstBytes, final boolean matchesNonAscii, final byte[] lastBytes, final int lastByteOffset) {
+        this.firstBytes = firstBytes;
+        this.matchesNonAscii = matchesNonAscii;
+        this.lastBytes = lastBytes;
+        this.lastByteOffset = lastByteOffset;
+    }
+
+    /**
+     * Liefert die Position des nächsten Kandidaten im Bereich {@code [from, to)} oder {@code to}.
+     * Kandidaten, deren letztes Byte hinter {@code to} liegt, werden nicht verworfen.
+     *
+     * @param vectorized {@code true}, wenn die Vector API verwendet werden soll, sofern sie verfügbar ist
+     */
+    public int nextCandidate(final byte[] buffer, final int from, final int to, final boolean vectorized) {
+        int index = from;
+        if (vectorized && VectorByteSearch.isAvailable()) {
+            index = VectorByteSearch.nextCandidate(buffer, from, to - lastByteOffset, firstBytes, matchesNonAscii, lastBytes, lastByteOffset);
+        }
+        return nextCandidateScalar(buffer, index, to);
+    }
+
+    private int nextCandidateScalar(final byte[] buffer, final int from, final int to) {
+        for (int index = from; index < to; index++) {
+            if (isStartByte(buffer[index])
+                    && (lastBytes == null || index + lastByteOffset >= to || contains(lastBytes, buffer[index + lastByteOffset]))) {
+                return index;
+            }
+        }
+        return to;
+    }
+
+    private boolean isStartByte(final byte value) {
+        return contains(firstBytes, value) || value < 0 && matchesNonAscii;
+    }
+
+    private static boolean contains(final byte[] values, final byte value) {
+        for (final byte candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isVectorSearchAvailable() {
+        return VectorByteSearch.isAvailable();
+    }
+
+}
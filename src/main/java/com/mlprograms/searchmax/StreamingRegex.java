@@ -0,0 +1,938 @@
+package com.mlprograms.searchmax;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Regulärer Ausdruck für Inhaltsfilter mit linearer Laufzeit. Der Ausdruck wird in einen NFA nach Thompson
+ * übersetzt, der während des Durchlaufs schrittweise zu einem DFA erweitert wird: jeder DFA-Zustand ist die
+ * Menge der aktiven NFA-Zustände, ein Übergang wird beim ersten Bedarf berechnet und zwischengespeichert.
+ * Jedes Zeichen wird genau einmal betrachtet, es gibt kein Backtracking. Der Zustand eines Durchlaufs ist ein
+ * einzelner Verweis und bleibt über Puffergrenzen hinweg erhalten.
+ * <p>
+ * Der Zustandscache wird von allen Durchläufen einer Suche geteilt und ist begrenzt. Ist er voll, werden
+ * weitere Zustände nur für den jeweiligen Schritt berechnet; ein Zeichen kostet dann höchstens einen Durchgang
+ * über den NFA.
+ * <p>
+ * Unterstützt werden Literale, {@code .}, Zeichenklassen mit Bereichen und Negation, {@code \d \w \s} samt
+ * Negation, {@code \t \n \r \f \e \a \xhh \x{h...} \cX} und vierstellige Unicode-Escapes, {@code \Q...\E}, Gruppen
+ * {@code ( ) (?: ) (?<name> )}, Alternativen, die Quantoren {@code * + ? {n} {n,} {n,m}} (genügsame Varianten
+ * wirken wie gierige), {@code ^} und {@code $} als Zeilenanker, {@code \b \B} sowie die Flags {@code (?i)} und
+ * {@code (?U)} am Anfang. Mit {@code (?U)} gelten {@code \w \d \s} und damit {@code \b} wie bei
+ * {@code Pattern.UNICODE_CHARACTER_CLASS} für alle Buchstaben und Ziffern, sonst nur für ASCII.
+ * Rückverweise, Lookarounds und possessive Quantoren lassen sich nicht in linearer Zeit auswerten und werden wie
+ * andere nicht unterstützte Konstrukte mit einer {@link PatternSyntaxException} abgelehnt.
+ * Zeichen außerhalb der Basisebene werden als Surrogatpaar verglichen; {@code .} und negierte Klassen
+ * überspringen ein Paar als ein Zeichen.
+ */
+public final class StreamingRegex {
+
+    private static final int MAX_NFA_STATES = 10_000;
+    private static final int MAX_CACHED_TRANSITIONS = 256 * 1024;
+    private static final int MAX_REPETITION = 1_000;
+
+    // Art des Zeichens für die Auswertung von Ankern; Anfang und Ende der Eingabe gelten als Zeilenwechsel
+    private static final int TYPE_LINE_BREAK = 0;
+    private static final int TYPE_WORD = 1;
+    private static final int TYPE_OTHER = 2;
+
+    private static final int NODE_CHARACTER = 0;
+    private static final int NODE_SPLIT = 1;
+    private static final int NODE_ASSERTION = 2;
+    private static final int NODE_MATCH = 3;
+
+    private static final int ASSERT_LINE_START = 0;
+    private static final int ASSERT_LINE_END = 1;
+    private static final int ASSERT_WORD_BOUNDARY = 2;
+    private static final int ASSERT_NOT_WORD_BOUNDARY = 3;
+
+    private static final State MATCHED = new State(new int[0], TYPE_LINE_BREAK, 0);
+
+    private final String pattern;
+    private final boolean caseSensitive;
+    private final boolean unicodeClasses;
+    private final int[] nodeTypes;
+    private final int[] nodeArguments;
+    private final int[] nodeOutputs;
+    private final int[] nodeAlternatives;
+    private final int startNode;
+    private final boolean hasAssertions;
+    private final char[] characterClasses;
+    private final int classCount;
+    private final int[] classTypes;
+    private final boolean[][] atomsByClass;
+    private final int maximumCachedStates;
+    private final Map<State, State> cachedStates = new ConcurrentHashMap<>();
+    private final State initialState;
+
+    private StreamingRegex(final String pattern, final boolean caseSensitive, final boolean unicodeClasses, final Compiler compiler) {
+        this.pattern = pattern;
+        this.caseSensitive = caseSensitive;
+        this.unicodeClasses = unicodeClasses;
+        this.nodeTypes = compiler.nodeTypes.toArray();
+        this.nodeArguments = compiler.nodeArguments.toArray();
+        this.nodeOutputs = compiler.nodeOutputs.toArray();
+        this.nodeAlternatives = compiler.nodeAlternatives.toArray();
+        this.startNode = compiler.startNode;
+        this.hasAssertions = compiler.hasAssertions;
+
+        final List<BitSet> atoms = compiler.atoms;
+        this.characterClasses = partition(atoms, unicodeClasses);
+        int count = 0;
+        for (final char characterClass : characterClasses) {
+            count = Math.max(count, characterClass + 1);
+        }
+        this.classCount = count;
+        this.classTypes = new int[classCount];
+        this.atomsByClass = new boolean[atoms.size()][classCount];
+        for (int character = Character.MAX_VALUE; character >= 0; character--) {
+            final int characterClass = characterClasses[character];
+            classTypes[characterClass] = typeOf((char) character, unicodeClasses);
+            for (int atom = 0; atom < atoms.size(); atom++) {
+                atomsByClass[atom][characterClass] = atoms.get(atom).get(character);
+            }
+        }
+        this.maximumCachedStates = Math.max(16, MAX_CACHED_TRANSITIONS / classCount);
+        this.initialState = intern(new int[0], TYPE_LINE_BREAK);
+    }
+
+    /**
+     * Übersetzt einen Ausdruck.
+     *
+     * @throws PatternSyntaxException bei ungültigen oder nicht unterstützten Ausdrücken
+     */
+    public static StreamingRegex compile(final String pattern, final boolean caseSensitive) {
+        boolean effectiveCaseSensitive = caseSensitive;
+        boolean unicodeClasses = false;
+        String body = pattern;
+        final int flagsEnd = body.indexOf(')');
+        if (body.startsWith("(?") && flagsEnd > 2 && body.substring(2, flagsEnd).chars().allMatch(flag -> flag == 'i' || flag == 'U')) {
+            effectiveCaseSensitive &= body.substring(2, flagsEnd).indexOf('i') < 0;
+            unicodeClasses = body.substring(2, flagsEnd).indexOf('U') >= 0;
+            body = body.substring(flagsEnd + 1);
+        }
+
+        final Compiler compiler = new Compiler(pattern, body, pattern.length() - body.length(), effectiveCaseSensitive, unicodeClasses);
+        compiler.compile();
+        return new StreamingRegex(pattern, effectiveCaseSensitive, unicodeClasses, compiler);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public boolean isCaseSensitive() {
+        return caseSensitive;
+    }
+
+    /**
+     * Startet einen Durchlauf. Ein Cursor ist nicht threadsicher, der Ausdruck selbst schon.
+     */
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Zustand eines Durchlaufs über eine einzelne Eingabe.
+     */
+    public final class Cursor {
+
+        private State state = initialState;
+        private int[] stack;
+        private boolean[] visited;
+        private int[] reached;
+
+        private Cursor() {
+        }
+
+        /**
+         * @return {@code true}, sobald der Ausdruck in der bisherigen Eingabe vorkommt
+         */
+        public boolean feed(final char character) {
+            if (state == MATCHED) {
+                return true;
+            }
+
+            final int characterClass = characterClasses[character];
+            State next = state.next[characterClass];
+            if (next == null) {
+                next = advance(state, characterClass);
+            }
+            state = next;
+            return next == MATCHED;
+        }
+
+        /**
+         * Schließt die Eingabe ab; ein {@code $} oder {@code \b} kann erst am Ende zutreffen.
+         *
+         * @return {@code true}, wenn der Ausdruck in der Eingabe vorkommt
+         */
+        public boolean finish() {
+            if (state == MATCHED) {
+                return true;
+            }
+            if (closure(state, TYPE_LINE_BREAK, -1) < 0) {
+                state = MATCHED;
+                return true;
+            }
+            return false;
+        }
+
+        private State advance(final State current, final int characterClass) {
+            final int count = closure(current, classTypes[characterClass], characterClass);
+            if (count < 0) {
+                current.next[characterClass] = MATCHED;
+                return MATCHED;
+            }
+
+            final int[] states = Arrays.copyOf(reached, count);
+            Arrays.sort(states);
+            final State next = intern(states, hasAssertions ? classTypes[characterClass] : TYPE_LINE_BREAK);
+            if (next.cached || !current.cached) {
+                current.next[characterClass] = next;
+            }
+            return next;
+        }
+
+        /**
+         * Folgt allen Leerübergängen ab den Zuständen von {@code current} und dem Startknoten und sammelt die
+         * Knoten, die nach einem Zeichen der Klasse erreicht werden, in {@link #reached}.
+         *
+         * @param characterClass Klasse des nächsten Zeichens oder {@code -1} am Ende der Eingabe
+         * @return die Anzahl der erreichten Knoten oder {@code -1}, wenn der Ausdruck bereits zutrifft
+         */
+        private int closure(final State current, final int nextType, final int characterClass) {
+            if (stack == null) {
+                stack = new int[nodeTypes.length];
+                visited = new boolean[nodeTypes.length];
+                reached = new int[nodeTypes.length];
+            } else {
+                Arrays.fill(visited, false);
+            }
+
+            int stackSize = 0;
+            for (final int node : current.nodes) {
+                stack[stackSize++] = node;
+                visited[node] = true;
+            }
+            if (!visited[startNode]) {
+                stack[stackSize++] = startNode;
+                visited[startNode] = true;
+            }
+
+            int reachedCount = 0;
+            while (stackSize > 0) {
+                final int node = stack[--stackSize];
+                switch (nodeTypes[node]) {
+                    case NODE_MATCH -> {
+                        return -1;
+                    }
+                    case NODE_CHARACTER -> {
+                        if (characterClass >= 0 && atomsByClass[nodeArguments[node]][characterClass]) {
+                            reached[reachedCount++] = nodeOutputs[node];
+                        }
+                        continue;
+                    }
+                    case NODE_ASSERTION -> {
+                        if (!holds(nodeArguments[node], current.previousType, nextType)) {
+                            continue;
+                        }
+                    }
+                    default -> {
+                        final int alternative = nodeAlternatives[node];
+                        if (!visited[alternative]) {
+                            visited[alternative] = true;
+                            stack[stackSize++] = alternative;
+                        }
+                    }
+                }
+
+                final int output = nodeOutputs[node];
+                if (!visited[output]) {
+                    visited[output] = true;
+                    stack[stackSize++] = output;
+                }
+            }
+            return deduplicate(reached, reachedCount);
+        }
+
+        private int deduplicate(final int[] nodes, final int count) {
+            // Mehrere Zeichenknoten können auf denselben Folgeknoten zeigen
+            Arrays.sort(nodes, 0, count);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || nodes[unique - 1] != nodes[i]) {
+                    nodes[unique++] = nodes[i];
+                }
+            }
+            return unique;
+        }
+    }
+
+    private State intern(final int[] nodes, final int previousType) {
+        final State candidate = new State(nodes, previousType, classCount);
+        final State existing = cachedStates.get(candidate);
+        if (existing != null) {
+            return existing;
+        }
+        if (cachedStates.size() >= maximumCachedStates) {
+            // Cache voll: der Zustand gilt nur für diesen Schritt
+            return candidate;
+        }
+
+        candidate.cached = true;
+        final State raced = cachedStates.putIfAbsent(candidate, candidate);
+        return raced == null ? candidate : raced;
+    }
+
+    public int getCachedStateCount() {
+        return cachedStates.size();
+    }
+
+    private static boolean holds(final int assertion, final int previousType, final int nextType) {
+        return switch (assertion) {
+            case ASSERT_LINE_START -> previousType == TYPE_LINE_BREAK;
+            case ASSERT_LINE_END -> nextType == TYPE_LINE_BREAK;
+            case ASSERT_WORD_BOUNDARY -> (previousType == TYPE_WORD) != (nextType == TYPE_WORD);
+            default -> (previousType == TYPE_WORD) == (nextType == TYPE_WORD);
+        };
+    }
+
+    private static int typeOf(final char character, final boolean unicodeClasses) {
+        if (isLineTerminator(character)) {
+            return TYPE_LINE_BREAK;
+        }
+        // Wie java.util.regex seit Java 19: Wortzeichen für \b sind die Zeichen von \w
+        return isWordCharacter(character, unicodeClasses) ? TYPE_WORD : TYPE_OTHER;
+    }
+
+    private static boolean isWordCharacter(final char character, final boolean unicodeClasses) {
+        if (!unicodeClasses) {
+            return character >= 'a' && character <= 'z' || character >= 'A' && character <= 'Z'
+                    || character >= '0' && character <= '9' || character == '_';
+        }
+        // \w bei UNICODE_CHARACTER_CLASS: Buchstaben, Markierungen, Dezimalziffern, Verbindungszeichen und Join-Control
+        return switch (Character.getType(character)) {
+            case Character.NON_SPACING_MARK, Character.ENCLOSING_MARK, Character.COMBINING_SPACING_MARK,
+                 Character.DECIMAL_DIGIT_NUMBER, Character.CONNECTOR_PUNCTUATION -> true;
+            default -> Character.isAlphabetic(character) || character == '\u200C' || character == '\u200D';
+        };
+    }
+
+    /**
+     * Leerraum bei UNICODE_CHARACTER_CLASS (Eigenschaft White_Space).
+     */
+    private static boolean isUnicodeWhitespace(final char character) {
+        return character >= '\t' && character <= '\r' || character == ' ' || character == '\u0085' || character == '\u00A0'
+                || character == '\u1680' || character >= '\u2000' && character <= '\u200A' || character == '\u2028'
+                || character == '\u2029' || character == '\u202F' || character == '\u205F' || character == '\u3000';
+    }
+
+    private static boolean isLineTerminator(final char character) {
+        return character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028' || character == '\u2029';
+    }
+
+    /**
+     * Teilt alle Zeichen in Klassen, deren Zeichen von jedem Atom und jedem Anker gleich behandelt werden.
+     */
+    private static char[] partition(final List<BitSet> atoms, final boolean unicodeClasses) {
+        final int[] classes = new int[Character.MAX_VALUE + 1];
+        int classCount = 3;
+        for (int character = 0; character <= Character.MAX_VALUE; character++) {
+            classes[character] = typeOf((char) character, unicodeClasses);
+        }
+
+        for (final BitSet atom : atoms) {
+            final int[] remap = new int[classCount * 2];
+            Arrays.fill(remap, -1);
+            int nextCount = 0;
+            for (int character = 0; character <= Character.MAX_VALUE; character++) {
+                final int key = classes[character] * 2 + (atom.get(character) ? 1 : 0);
+                if (remap[key] < 0) {
+                    remap[key] = nextCount++;
+                }
+                classes[character] = remap[key];
+            }
+            classCount = nextCount;
+        }
+
+        final char[] result = new char[classes.length];
+        for (int character = 0; character < classes.length; character++) {
+            result[character] = (char) classes[character];
+        }
+        return result;
+    }
+
+    /**
+     * DFA-Zustand: die nach dem letzten Zeichen erreichten NFA-Knoten (ohne Hülle) und die Art dieses Zeichens.
+     * Die Folgezustände werden ohne Synchronisation eingetragen; ein übersehener Eintrag wird nur neu berechnet.
+     */
+    private static final class State {
+
+        private final int[] nodes;
+        private final int previousType;
+        private final State[] next;
+        private final int hash;
+        private boolean cached;
+
+        private State(final int[] nodes, final int previousType, final int classCount) {
+            this.nodes = nodes;
+            this.previousType = previousType;
+            this.next = new State[classCount];
+            this.hash = Arrays.hashCode(nodes) * 31 + previousType;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof State state && state.previousType == previousType && Arrays.equals(state.nodes, nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Liest den Ausdruck und baut den NFA rückwärts auf: jeder Teilausdruck wird mit seinem Nachfolgeknoten übersetzt.
+     */
+    private static final class Compiler {
+
+        private final String pattern;
+        private final String body;
+        private final int bodyOffset;
+        private final boolean caseSensitive;
+        private final boolean unicodeClasses;
+        private final IntList nodeTypes = new IntList();
+        private final IntList nodeArguments = new IntList();
+        private final IntList nodeOutputs = new IntList();
+        private final IntList nodeAlternatives = new IntList();
+        private final List<BitSet> atoms = new ArrayList<>();
+        private final Map<BitSet, Integer> atomIndices = new HashMap<>();
+        private int position;
+        private int startNode;
+        private boolean hasAssertions;
+
+        private Compiler(final String pattern, final String body, final int bodyOffset, final boolean caseSensitive,
+                         final boolean unicodeClasses) {
+            this.pattern = pattern;
+            this.body = body;
+            this.bodyOffset = bodyOffset;
+            this.caseSensitive = caseSensitive;
+            this.unicodeClasses = unicodeClasses;
+        }
+
+        private void compile() {
+            final Node root = parseAlternation();
+            if (position < body.length()) {
+                throw error("Unerwartetes ')'");
+            }
+            final int match = addNode(NODE_MATCH, 0, -1, -1);
+            startNode = emit(root, match);
+        }
+
+        // --- Parser ---
+
+        private Node parseAlternation() {
+            final List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (position < body.length() && body.charAt(position) == '|') {
+                position++;
+                alternatives.add(parseConcatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+        }
+
+        private Node parseConcatenation() {
+            final List<Node> items = new ArrayList<>();
+            while (position < body.length() && body.charAt(position) != '|' && body.charAt(position) != ')') {
+                items.add(parseRepetition());
+            }
+            return items.size() == 1 ? items.get(0) : new Concatenation(items);
+        }
+
+        private Node parseRepetition() {
+            final Node node = parseAtom();
+            if (position < body.length()) {
+                final char character = body.charAt(position);
+                final int minimum;
+                final int maximum;
+                if (character == '*') {
+                    minimum = 0;
+                    maximum = -1;
+                    position++;
+                } else if (character == '+') {
+                    minimum = 1;
+                    maximum = -1;
+                    position++;
+                } else if (character == '?') {
+                    minimum = 0;
+                    maximum = 1;
+                    position++;
+                } else if (character == '{' && isCountedRepetition()) {
+                    final int closingIndex = body.indexOf('}', position);
+                    final String bounds = body.substring(position + 1, closingIndex);
+                    final int commaIndex = bounds.indexOf(',');
+                    minimum = parseBound(commaIndex < 0 ? bounds : bounds.substring(0, commaIndex));
+                    maximum = commaIndex < 0 ? minimum
+                            : commaIndex == bounds.length() - 1 ? -1 : parseBound(bounds.substring(commaIndex + 1));
+                    if (maximum >= 0 && maximum < minimum) {
+                        throw error("Ungültige Wiederholung");
+                    }
+                    position = closingIndex + 1;
+                } else {
+                    return node;
+                }
+
+                // Genügsam ändert nicht, ob ein Treffer existiert; possessiv schon
+                if (position < body.length() && body.charAt(position) == '?') {
+                    position++;
+                } else if (position < body.length() && body.charAt(position) == '+') {
+                    position++;
+                    throw error("Possessive Quantoren werden nicht unterstützt");
+                }
+                if (position < body.length() && isQuantifier(body.charAt(position))) {
+                    position++;
+                    throw error("Mehrfacher Quantor");
+                }
+                return new Repetition(node, minimum, maximum);
+            }
+            return node;
+        }
+
+        private boolean isQuantifier(final char character) {
+            return character == '*' || character == '+' || character == '?' || character == '{' && isCountedRepetition();
+        }
+
+        private boolean isCountedRepetition() {
+            final int closingIndex = body.indexOf('}', position);
+            return closingIndex > position + 1 && body.substring(position + 1, closingIndex).matches("\\d+(,\\d*)?");
+        }
+
+        private int parseBound(final String bound) {
+            try {
+                final int value = Integer.parseInt(bound);
+                if (value <= MAX_REPETITION) {
+                    return value;
+                }
+            } catch (final NumberFormatException ignored) {
+                // Zu große Zahl, siehe unten
+            }
+            throw error("Wiederholung größer als " + MAX_REPETITION);
+        }
+
+        private Node parseAtom() {
+            if (body.charAt(position) == '{' && isCountedRepetition()) {
+                position++;
+                throw error("Quantor ohne Ausdruck");
+            }
+            final char character = body.charAt(position++);
+            return switch (character) {
+                case '(' -> parseGroup();
+                case '[' -> characterSet(parseCharacterClass());
+                case '.' -> anyCharacter();
+                case '^' -> assertion(ASSERT_LINE_START);
+                case '$' -> assertion(ASSERT_LINE_END);
+                case '\\' -> parseEscape();
+                case '*', '+', '?' -> throw error("Quantor ohne Ausdruck");
+                default -> literal(character);
+            };
+        }
+
+        private Node parseGroup() {
+            if (position < body.length() && body.charAt(position) == '?') {
+                if (body.startsWith("?:", position)) {
+                    position += 2;
+                } else if (body.startsWith("?<", position) && position + 2 < body.length()
+                        && Character.isLetter(body.charAt(position + 2))) {
+                    final int closingIndex = body.indexOf('>', position);
+                    if (closingIndex < 0) {
+                        throw error("Unvollständiger Gruppenname");
+                    }
+                    position = closingIndex + 1;
+                } else {
+                    throw error("Lookarounds und eingebettete Flags werden nicht unterstützt");
+                }
+            }
+
+            final Node node = parseAlternation();
+            if (position >= body.length() || body.charAt(position) != ')') {
+                throw error("Nicht geschlossene Gruppe");
+            }
+            position++;
+            return node;
+        }
+
+        private Node parseEscape() {
+            if (position >= body.length()) {
+                throw error("Unvollständige Escape-Sequenz");
+            }
+
+            final char escaped = body.charAt(position++);
+            final BitSet predefined = predefinedClass(escaped);
+            if (predefined != null) {
+                return characterSet(predefined);
+            }
+            return switch (escaped) {
+                case 'b' -> assertion(ASSERT_WORD_BOUNDARY);
+                case 'B' -> assertion(ASSERT_NOT_WORD_BOUNDARY);
+                case 'Q' -> {
+                    final int endIndex = body.indexOf("\\E", position);
+                    final String quoted = body.substring(position, endIndex < 0 ? body.length() : endIndex);
+                    position = endIndex < 0 ? body.length() : endIndex + 2;
+                    final List<Node> items = new ArrayList<>();
+                    for (int i = 0; i < quoted.length(); i++) {
+                        items.add(literal(quoted.charAt(i)));
+                    }
+                    yield new Concatenation(items);
+                }
+                default -> literal(parseEscapedCharacter(escaped));
+            };
+        }
+
+        private BitSet predefinedClass(final char escaped) {
+            final char kind = Character.toLowerCase(escaped);
+            if (kind != 'd' && kind != 'w' && kind != 's') {
+                return null;
+            }
+
+            final BitSet set = new BitSet(Character.MAX_VALUE + 1);
+            if (unicodeClasses) {
+                for (int character = 0; character <= Character.MAX_VALUE; character++) {
+                    final char candidate = (char) character;
+                    set.set(character, switch (kind) {
+                        case 'd' -> Character.getType(candidate) == Character.DECIMAL_DIGIT_NUMBER;
+                        case 'w' -> isWordCharacter(candidate, true);
+                        default -> isUnicodeWhitespace(candidate);
+                    });
+                }
+            } else if (kind == 'd') {
+                set.set('0', '9' + 1);
+            } else if (kind == 'w') {
+                set.set('a', 'z' + 1);
+                set.set('A', 'Z' + 1);
+                set.set('0', '9' + 1);
+                set.set('_');
+            } else {
+                set.set(' ');
+                set.set('\t', '\r' + 1);
+            }
+            if (Character.isUpperCase(escaped)) {
+                set.flip(0, Character.MAX_VALUE + 1);
+            }
+            return set;
+        }
+
+        /**
+         * Liest das Zeichen einer Escape-Sequenz, deren erstes Zeichen bereits gelesen ist.
+         */
+        private char parseEscapedCharacter(final char escaped) {
+            switch (escaped) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'e':
+                    return '\u001B';
+                case 'a':
+                    return '\u0007';
+                case 'c':
+                    if (position >= body.length()) {
+                        throw error("Unvollständige Escape-Sequenz");
+                    }
+                    return (char) (body.charAt(position++) ^ 64);
+                case 'x':
+                    if (position < body.length() && body.charAt(position) == '{') {
+                        final int closingIndex = body.indexOf('}', position);
+                        if (closingIndex < 0) {
+                            throw error("Unvollständige Escape-Sequenz");
+                        }
+                        final int codePoint = parseHex(body.substring(position + 1, closingIndex));
+                        position = closingIndex + 1;
+                        if (codePoint > Character.MAX_VALUE) {
+                            throw error("Zeichen außerhalb der Basisebene werden nur als Literal unterstützt");
+                        }
+                        return (char) codePoint;
+                    }
+                    return (char) parseFixedHex(2);
+                case 'u':
+                    return (char) parseFixedHex(4);
+                default:
+                    if (Character.isLetterOrDigit(escaped)) {
+                        throw error("Nicht unterstützte Escape-Sequenz \\" + escaped);
+                    }
+                    return escaped;
+            }
+        }
+
+        private int parseFixedHex(final int digits) {
+            if (position + digits > body.length()) {
+                throw error("Unvollständige Escape-Sequenz");
+            }
+            final int value = parseHex(body.substring(position, position + digits));
+            position += digits;
+            return value;
+        }
+
+        private int parseHex(final String digits) {
+            try {
+                return Integer.parseInt(digits, 16);
+            } catch (final NumberFormatException numberFormatException) {
+                throw error("Ungültige Hexadezimalzahl");
+            }
+        }
+
+        private BitSet parseCharacterClass() {
+            final BitSet set = new BitSet(Character.MAX_VALUE + 1);
+            final BitSet predefinedMembers = new BitSet(Character.MAX_VALUE + 1);
+            final boolean negated = position < body.length() && body.charAt(position) == '^';
+            if (negated) {
+                position++;
+            }
+
+            boolean first = true;
+            while (true) {
+                if (position >= body.length()) {
+                    throw error("Nicht geschlossene Zeichenklasse");
+                }
+                final char character = body.charAt(position++);
+                if (character == ']' && !first) {
+                    break;
+                }
+                first = false;
+                if (character == '[' || character == '&' && position < body.length() && body.charAt(position) == '&') {
+                    throw error("Verschachtelte Zeichenklassen werden nicht unterstützt");
+                }
+
+                final char low;
+                if (character == '\\') {
+                    if (position >= body.length()) {
+                        throw error("Unvollständige Escape-Sequenz");
+                    }
+                    final char escaped = body.charAt(position++);
+                    final BitSet predefined = predefinedClass(escaped);
+                    if (predefined != null) {
+                        predefinedMembers.or(predefined);
+                        continue;
+                    }
+                    low = escaped == 'Q' || escaped == 'b' || escaped == 'B'
+                            ? unsupportedInClass(escaped) : parseEscapedCharacter(escaped);
+                } else {
+                    low = character;
+                }
+
+                char high = low;
+                if (position + 1 < body.length() && body.charAt(position) == '-' && body.charAt(position + 1) != ']') {
+                    position++;
+                    final char upper = body.charAt(position++);
+                    high = upper == '\\' ? parseEscapedCharacter(body.charAt(position++)) : upper;
+                    if (high < low) {
+                        throw error("Ungültiger Bereich in Zeichenklasse");
+                    }
+                }
+                if (Character.isSurrogate(low) || Character.isSurrogate(high)) {
+                    throw error("Zeichen außerhalb der Basisebene in Zeichenklassen werden nicht unterstützt");
+                }
+                set.set(low, high + 1);
+            }
+
+            // Die Faltung gilt wie bei java.util.regex nur für ausdrücklich genannte Zeichen und vor der Negation
+            final BitSet members = caseSensitive ? set : foldClosure(set);
+            members.or(predefinedMembers);
+            if (negated) {
+                members.flip(0, Character.MAX_VALUE + 1);
+            }
+            return members;
+        }
+
+        private char unsupportedInClass(final char escaped) {
+            throw error("\\" + escaped + " ist in Zeichenklassen nicht erlaubt");
+        }
+
+        private Node literal(final char character) {
+            final BitSet set = new BitSet(Character.MAX_VALUE + 1);
+            set.set(character);
+            return new Atom(atomIndex(caseSensitive ? set : foldClosure(set)));
+        }
+
+        /**
+         * Eine Menge ohne Surrogate; enthält sie alle Nicht-Surrogate oberhalb der Surrogate, passt sie wie
+         * {@code .} auch auf ein vollständiges Surrogatpaar.
+         */
+        private Node characterSet(final BitSet set) {
+            final boolean matchesSupplementary = set.get(0xFFFF) && set.get(0xE000);
+            set.clear(Character.MIN_SURROGATE, Character.MAX_SURROGATE + 1);
+            final Node basic = new Atom(atomIndex(set));
+            if (!matchesSupplementary) {
+                return basic;
+            }
+
+            final BitSet highSurrogates = new BitSet(Character.MAX_VALUE + 1);
+            highSurrogates.set(Character.MIN_HIGH_SURROGATE, Character.MAX_HIGH_SURROGATE + 1);
+            final BitSet lowSurrogates = new BitSet(Character.MAX_VALUE + 1);
+            lowSurrogates.set(Character.MIN_LOW_SURROGATE, Character.MAX_LOW_SURROGATE + 1);
+            return new Alternation(List.of(basic,
+                    new Concatenation(List.of(new Atom(atomIndex(highSurrogates)), new Atom(atomIndex(lowSurrogates))))));
+        }
+
+        private Node anyCharacter() {
+            final BitSet set = new BitSet(Character.MAX_VALUE + 1);
+            set.set(0, Character.MAX_VALUE + 1);
+            for (int character = 0; character <= Character.MAX_VALUE; character++) {
+                if (isLineTerminator((char) character)) {
+                    set.clear(character);
+                }
+            }
+            return characterSet(set);
+        }
+
+        private Node assertion(final int kind) {
+            hasAssertions = true;
+            return new Assertion(kind);
+        }
+
+        private int atomIndex(final BitSet set) {
+            return atomIndices.computeIfAbsent(set, key -> {
+                atoms.add(key);
+                return atoms.size() - 1;
+            });
+        }
+
+        /**
+         * Erweitert eine Menge um alle Zeichen mit gleicher Faltung; die Eingabe muss dann zur Laufzeit nicht
+         * gefaltet werden.
+         */
+        private static BitSet foldClosure(final BitSet set) {
+            final BitSet folded = new BitSet(Character.MAX_VALUE + 1);
+            for (int character = set.nextSetBit(0); character >= 0; character = set.nextSetBit(character + 1)) {
+                if (!Character.isSurrogate((char) character)) {
+                    folded.set(CaseFolding.fold((char) character));
+                }
+            }
+
+            final BitSet closure = (BitSet) set.clone();
+            for (int character = 0; character <= Character.MAX_VALUE; character++) {
+                if (!Character.isSurrogate((char) character) && folded.get(CaseFolding.fold((char) character))) {
+                    closure.set(character);
+                }
+            }
+            return closure;
+        }
+
+        private PatternSyntaxException error(final String description) {
+            return new PatternSyntaxException(description, pattern, bodyOffset + position - 1);
+        }
+
+        // --- NFA ---
+
+        private int emit(final Node node, final int next) {
+            if (node instanceof Atom atom) {
+                return addNode(NODE_CHARACTER, atom.index(), next, -1);
+            }
+            if (node instanceof Assertion assertion) {
+                return addNode(NODE_ASSERTION, assertion.kind(), next, -1);
+            }
+            if (node instanceof Concatenation concatenation) {
+                int start = next;
+                for (int i = concatenation.items().size() - 1; i >= 0; i--) {
+                    start = emit(concatenation.items().get(i), start);
+                }
+                return start;
+            }
+            if (node instanceof Alternation alternation) {
+                int start = emit(alternation.alternatives().get(alternation.alternatives().size() - 1), next);
+                for (int i = alternation.alternatives().size() - 2; i >= 0; i--) {
+                    start = addNode(NODE_SPLIT, 0, emit(alternation.alternatives().get(i), next), start);
+                }
+                return start;
+            }
+
+            final Repetition repetition = (Repetition) node;
+            int start = next;
+            if (repetition.maximum() < 0) {
+                // x* als Schleife: der Verzweigungsknoten führt in x, x zurück zum Verzweigungsknoten
+                final int loop = addNode(NODE_SPLIT, 0, -1, next);
+                setOutput(loop, emit(repetition.node(), loop));
+                start = loop;
+            } else {
+                // x{0,k}: k geschachtelte optionale Kopien
+                for (int i = repetition.minimum(); i < repetition.maximum(); i++) {
+                    start = addNode(NODE_SPLIT, 0, emit(repetition.node(), start), next);
+                }
+            }
+            for (int i = 0; i < repetition.minimum(); i++) {
+                start = emit(repetition.node(), start);
+            }
+            return start;
+        }
+
+        private int addNode(final int type, final int argument, final int output, final int alternative) {
+            if (nodeTypes.size() >= MAX_NFA_STATES) {
+                throw new PatternSyntaxException("Ausdruck ist zu groß", pattern, -1);
+            }
+            nodeTypes.add(type);
+            nodeArguments.add(argument);
+            nodeOutputs.add(output);
+            nodeAlternatives.add(alternative);
+            return nodeTypes.size() - 1;
+        }
+
+        private void setOutput(final int node, final int output) {
+            nodeOutputs.set(node, output);
+        }
+    }
+
+    private sealed interface Node permits Atom, Assertion, Concatenation, Alternation, Repetition {
+    }
+
+    private record Atom(int index) implements Node {
+    }
+
+    private record Assertion(int kind) implements Node {
+    }
+
+    private record Concatenation(List<Node> items) implements Node {
+    }
+
+    private record Alternation(List<Node> alternatives) implements Node {
+    }
+
+    private record Repetition(Node node, int minimum, int maximum) implements Node {
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void set(final int index, final int value) {
+            values[index] = value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+}
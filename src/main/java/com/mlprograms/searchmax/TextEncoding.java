@@ -0,0 +1,142 @@
+package com.mlprograms.searchmax;
+
+import java.nio.charset.Charset;
+
+/**
+ * Zeichenkodierungen, in denen einfache Textdateien direkt auf Byteebene durchsucht werden.
+ * Die Kodierung wird über eine Byte-Order-Mark oder durch Untersuchen des ersten Puffers bestimmt.
+ */
+public enum TextEncoding {
+
+    UTF_8,         // Auch reines ASCII, solange kein Nicht-ASCII-Byte aufgetaucht ist
+    WINDOWS_1252,  // ISO-8859-1 mit den Zusatzzeichen von CP1252 im Bereich 0x80-0x9F
+    UTF_16LE,
+    UTF_16BE;
+
+    private static final int UTF_16_SNIFF_LENGTH = 4096;
+    private static final char[] WINDOWS_1252_CHARACTERS = buildWindows1252Table();
+
+    /**
+     * Liefert das Zeichen eines Bytes in CP1252. In CP1252 unbelegte Bytes werden wie in ISO-8859-1 abgebildet.
+     */
+    public static char decodeWindows1252(final byte value) {
+        return WINDOWS_1252_CHARACTERS[value & 0xFF];
+    }
+
+    /**
+     * Erkennt eine Byte-Order-Mark am Anfang des Puffers.
+     *
+     * @return die Kodierung oder {@code null}, wenn keine Byte-Order-Mark vorhanden ist
+     */
+    public static TextEncoding detectByteOrderMark(final byte[] buffer, final int length) {
+        if (length >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF) {
+            return UTF_8;
+        }
+        if (length >= 2 && (buffer[0] & 0xFF) == 0xFF && (buffer[1] & 0xFF) == 0xFE) {
+            return UTF_16LE;
+        }
+        if (length >= 2 && (buffer[0] & 0xFF) == 0xFE && (buffer[1] & 0xFF) == 0xFF) {
+            return UTF_16BE;
+        }
+        return null;
+    }
+
+    public int byteOrderMarkLength() {
+        return switch (this) {
+            case UTF_8 -> 3;
+            case UTF_16LE, UTF_16BE -> 2;
+            case WINDOWS_1252 -> 0;
+        };
+    }
+
+    /**
+     * Erkennt UTF-16 ohne Byte-Order-Mark an Nullbytes, die überwiegend an geraden bzw. ungeraden Positionen stehen.
+     *
+     * @return {@link #UTF_16LE}, {@link #UTF_16BE} oder {@code null}
+     */
+    public static TextEncoding sniffUtf16(final byte[] buffer, final int length) {
+        final int sniffLength = Math.min(length, UTF_16_SNIFF_LENGTH) & ~1;
+        final int pairs = sniffLength / 2;
+        if (pairs < 2) {
+            return null;
+        }
+
+        int evenZeros = 0;
+        int oddZeros = 0;
+        for (int i = 0; i < sniffLength; i += 2) {
+            if (buffer[i] == 0) {
+                evenZeros++;
+            }
+            if (buffer[i + 1] == 0) {
+                oddZeros++;
+            }
+        }
+
+        // Text in UTF-16 besteht meist aus lateinischen Zeichen, deren höherwertiges Byte 0 ist
+        if (oddZeros * 10 >= pairs * 3 && evenZeros * 20 <= pairs) {
+            return UTF_16LE;
+        }
+        if (evenZeros * 10 >= pairs * 3 && oddZeros * 20 <= pairs) {
+            return UTF_16BE;
+        }
+        return null;
+    }
+
+    /**
+     * Unterscheidet bei ASCII-kompatiblen Dateien zwischen UTF-8 und CP1252 anhand der ersten Nicht-ASCII-Bytes.
+     * Eine am Pufferende abgeschnittene Sequenz gilt als gültig.
+     *
+     * @return {@code null}, solange der Ausschnitt nur ASCII enthält
+     */
+    public static TextEncoding sniffAsciiCompatible(final byte[] buffer, final int offset, final int length) {
+        final int end = offset + length;
+        int index = offset;
+        while (index < end && buffer[index] >= 0) {
+            index++;
+        }
+        if (index == end) {
+            return null;
+        }
+
+        while (index < end) {
+            final int value = buffer[index] & 0xFF;
+            final int continuationBytes;
+            if (value < 0x80) {
+                index++;
+                continue;
+            } else if (value >= 0xC2 && value <= 0xDF) {
+                continuationBytes = 1;
+            } else if (value >= 0xE0 && value <= 0xEF) {
+                continuationBytes = 2;
+            } else if (value >= 0xF0 && value <= 0xF4) {
+                continuationBytes = 3;
+            } else {
+                return WINDOWS_1252;
+            }
+
+            for (int i = 1; i <= continuationBytes && index + i < end; i++) {
+                if ((buffer[index + i] & 0xC0) != 0x80) {
+                    return WINDOWS_1252;
+                }
+            }
+            index += continuationBytes + 1;
+        }
+        return UTF_8;
+    }
+
+    private static char[] buildWindows1252Table() {
+        final byte[] allBytes = new byte[256];
+        for (int i = 0; i < allBytes.length; i++) {
+            allBytes[i] = (byte) i;
+        }
+
+        final char[] table = new String(allBytes, Charset.forName("windows-1252")).toCharArray();
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == '\uFFFD') {
+                table[i] = (char) i;
+            }
+        }
+        return table;
+    }
+
+}
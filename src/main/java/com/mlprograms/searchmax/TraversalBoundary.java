@@ -0,0 +1,241 @@
+package com.mlprograms.searchmax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Begrenzt den Verzeichnis-Durchlauf eines Startverzeichnisses: maximale Tiefe, Verbleib auf dem
+ * Dateisystem des Startverzeichnisses und Ausschluss von Pseudo-Dateisystemen (proc, sysfs, ...).
+ * Unter Linux wird die Mount-Tabelle einmal pro Suche aus {@code /proc/self/mounts} gelesen; ein
+ * Unterverzeichnis wechselt das Dateisystem genau dann, wenn es selbst ein Mount-Punkt ist. Auf
+ * anderen Systemen wird der {@link FileStore} jedes Verzeichnisses mit dem des Startverzeichnisses verglichen.
+ */
+@Slf4j
+public final class TraversalBoundary {
+
+    public static final Set<String> PSEUDO_FILE_SYSTEM_TYPES = Set.of(
+            "proc", "sysfs", "devtmpfs", "devpts", "cgroup", "cgroup2", "securityfs", "debugfs", "tracefs",
+            "pstore", "bpf", "configfs", "fusectl", "mqueue", "hugetlbfs", "binfmt_misc", "efivarfs",
+            "selinuxfs", "autofs", "devfs"
+    );
+
+    private static final Path PROC_MOUNTS = Path.of("/proc/self/mounts");
+
+    public static final TraversalBoundary NONE = new TraversalBoundary(0, false, false, Map.of(), new Counters(), null, null, null);
+
+    private final int maxDepth;
+    private final boolean stayOnFileSystem;
+    private final boolean skipPseudoFileSystems;
+    private final Map<Path, String> mountTypes;
+    private final Counters counters;
+    private final Path rootPath;
+    private final Path realRootPath;
+    private final FileStore rootFileStore;
+
+    private TraversalBoundary(final int maxDepth, final boolean stayOnFileSystem, final boolean skipPseudoFileSystems,
+                              final Map<Path, String> mountTypes, final Counters counters,
+                              final Path rootPath, final Path realRootPath, final FileStore rootFileStore) {
+        this.maxDepth = maxDepth;
+        this.stayOnFileSystem = stayOnFileSystem;
+        this.skipPseudoFileSystems = skipPseudoFileSystems;
+        this.mountTypes = mountTypes;
+        this.counters = counters;
+        this.rootPath = rootPath;
+        this.realRootPath = realRootPath;
+        this.rootFileStore = rootFileStore;
+    }
+
+    /**
+     * Erstellt die Grenzen einer Suche. Die Mount-Tabelle wird nur gelesen, wenn sie benötigt wird.
+     */
+    public static TraversalBoundary create(final TraversalSettings settings) {
+        if (settings == null || !settings.limitsTraversal()) {
+            return NONE;
+        }
+
+        final boolean needsMounts = settings.stayOnFileSystem() || settings.skipPseudoFileSystems();
+        return new TraversalBoundary(settings.maxDepth(), settings.stayOnFileSystem(), settings.skipPseudoFileSystems(),
+                needsMounts ? readMountTable() : Map.of(), new Counters(), null, null, null);
+    }
+
+    /**
+     * Liefert die Grenzen für ein einzelnes Startverzeichnis; die Zähler werden mit der Suche geteilt.
+     */
+    public TraversalBoundary forRoot(final Path root) {
+        if (this == NONE || !(stayOnFileSystem || skipPseudoFileSystems)) {
+            return this;
+        }
+
+        final Path absoluteRoot = root.toAbsolutePath().normalize();
+        Path realRoot = absoluteRoot;
+        FileStore fileStore = null;
+        try {
+            realRoot = root.toRealPath();
+            if (mountTypes.isEmpty()) {
+                fileStore = Files.getFileStore(root);
+            }
+        } catch (final IOException | SecurityException exception) {
+            log.debug("Cannot resolve root {}: {}", root, exception.getMessage());
+        }
+
+        return new TraversalBoundary(maxDepth, stayOnFileSystem, skipPseudoFileSystems, mountTypes, counters,
+                absoluteRoot, realRoot, fileStore);
+    }
+
+    /**
+     * Prüft, ob in ein Unterverzeichnis abgestiegen werden darf.
+     *
+     * @param directoryEntry Eintrag des Unterverzeichnisses
+     * @param childDepth     Tiefe des Unterverzeichnisses (Einträge des Startverzeichnisses haben Tiefe 1)
+     * @param reachedViaLink {@code true}, wenn das Verzeichnis über einen verfolgten Link erreicht wurde
+     */
+    public boolean allowsDirectory(final FileEntry directoryEntry, final int childDepth, final boolean reachedViaLink) {
+        if (maxDepth > 0 && childDepth >= maxDepth) {
+            counters.depth.incrementAndGet();
+            return false;
+        }
+
+        if (!stayOnFileSystem && !skipPseudoFileSystems) {
+            return true;
+        }
+
+        return mountTypes.isEmpty()
+                ? allowsByFileStore(directoryEntry.path())
+                : allowsByMountTable(directoryEntry.path(), reachedViaLink);
+    }
+
+    public String formatPruneCounts() {
+        final long depth = counters.depth.get();
+        final long mounts = counters.mountBoundary.get();
+        final long pseudo = counters.pseudoFileSystem.get();
+        if (depth == 0 && mounts == 0 && pseudo == 0) {
+            return "";
+        }
+        return String.format("%d by depth, %d at mount boundaries, %d pseudo filesystems", depth, mounts, pseudo);
+    }
+
+    private boolean allowsByMountTable(final Path directoryPath, final boolean reachedViaLink) {
+        final Path realPath;
+        final Path mountPoint;
+        if (reachedViaLink) {
+            try {
+                realPath = directoryPath.toRealPath();
+            } catch (final IOException | SecurityException exception) {
+                return false;
+            }
+            mountPoint = findMountPoint(realPath);
+            if (mountPoint == null || mountPoint.equals(findMountPoint(realRootPath))) {
+                return true;
+            }
+        } else {
+            realPath = toRealLocation(directoryPath);
+            if (!mountTypes.containsKey(realPath)) {
+                return true;
+            }
+            mountPoint = realPath;
+        }
+
+        return allowsMount(mountTypes.get(mountPoint));
+    }
+
+    private boolean allowsByFileStore(final Path directoryPath) {
+        try {
+            final FileStore fileStore = Files.getFileStore(directoryPath);
+            if (rootFileStore != null && rootFileStore.equals(fileStore)) {
+                return true;
+            }
+            return allowsMount(fileStore.type());
+        } catch (final IOException | SecurityException exception) {
+            log.debug("Cannot determine file store of {}: {}", directoryPath, exception.getMessage());
+            return true;
+        }
+    }
+
+    private boolean allowsMount(final String fileSystemType) {
+        if (skipPseudoFileSystems && fileSystemType != null && PSEUDO_FILE_SYSTEM_TYPES.contains(fileSystemType)) {
+            counters.pseudoFileSystem.incrementAndGet();
+            return false;
+        }
+
+        if (stayOnFileSystem) {
+            counters.mountBoundary.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private Path toRealLocation(final Path directoryPath) {
+        if (rootPath == null || rootPath.equals(realRootPath) || !directoryPath.startsWith(rootPath)) {
+            return directoryPath;
+        }
+        // Startverzeichnis liegt hinter einem Link: Pfad auf den realen Ort übertragen
+        return realRootPath.resolve(rootPath.relativize(directoryPath));
+    }
+
+    private Path findMountPoint(final Path realPath) {
+        for (Path current = realPath; current != null; current = current.getParent()) {
+            if (mountTypes.containsKey(current)) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    private static Map<Path, String> readMountTable() {
+        if (!Files.isReadable(PROC_MOUNTS)) {
+            return Map.of();
+        }
+
+        try {
+            final List<String> lines = Files.readAllLines(PROC_MOUNTS);
+            final Map<Path, String> mounts = new HashMap<>(lines.size() * 2);
+            for (final String line : lines) {
+                // Format: <Gerät> <Mount-Punkt> <Typ> <Optionen> <dump> <pass>
+                final String[] fields = line.split(" ");
+                if (fields.length >= 3) {
+                    mounts.put(Path.of(unescapeMountField(fields[1])), fields[2]);
+                }
+            }
+            return Collections.unmodifiableMap(mounts);
+        } catch (final IOException | RuntimeException exception) {
+            log.warn("Mount-Tabelle konnte nicht gelesen werden: {}", exception.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static String unescapeMountField(final String field) {
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+
+        final StringBuilder builder = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            final char character = field.charAt(i);
+            if (character == '\\' && i + 3 < field.length()) {
+                // Leerzeichen, Tabulatoren usw. werden oktal kodiert (z. B. \040)
+                builder.append((char) Integer.parseInt(field.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                builder.append(character);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class Counters {
+        private final AtomicLong depth = new AtomicLong();
+        private final AtomicLong mountBoundary = new AtomicLong();
+        private final AtomicLong pseudoFileSystem = new AtomicLong();
+    }
+
+}
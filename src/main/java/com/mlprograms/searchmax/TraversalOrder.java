@@ -0,0 +1,13 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Reihenfolge, in der Unterverzeichnisse durchsucht werden.
+ */
+public enum TraversalOrder {
+
+    DEPTH_FIRST,              // Rekursiv in der Reihenfolge des DirectoryStreams (bisheriges Verhalten)
+    BREADTH_FIRST,            // Verzeichnisse in der Reihenfolge ihrer Entdeckung (FIFO)
+    SHALLOW_FIRST,            // Immer das am wenigsten tief verschachtelte wartende Verzeichnis zuerst
+    RECENTLY_MODIFIED_FIRST   // Zuletzt geänderte Verzeichnisse zuerst
+
+}
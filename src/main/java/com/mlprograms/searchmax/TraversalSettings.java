@@ -0,0 +1,37 @@
+package com.mlprograms.searchmax;
+
+/**
+ * Einstellungen zur Durchlaufreihenfolge und zu den Grenzen des Verzeichnis-Durchlaufs.
+ *
+ * @param order                 Strategie, nach der wartende Verzeichnisse ausgewählt werden
+ * @param boostQueryMatches     {@code true}, wenn Verzeichnisse, deren Name den Suchbegriff enthält, vorgezogen werden
+ * @param followLinks           {@code true}, wenn symbolischen Links zu Dateien und Verzeichnissen gefolgt wird
+ * @param maxDepth              maximale Tiefe unterhalb des Startverzeichnisses (0 = unbegrenzt, 1 = nur dessen Einträge)
+ * @param stayOnFileSystem      {@code true}, wenn keine Mount-Grenzen überschritten werden
+ * @param skipPseudoFileSystems {@code true}, wenn Pseudo-Dateisysteme wie proc oder sysfs übersprungen werden
+ */
+public record TraversalSettings(TraversalOrder order, boolean boostQueryMatches, boolean followLinks,
+                                int maxDepth, boolean stayOnFileSystem, boolean skipPseudoFileSystems) {
+
+    public static final TraversalSettings DEFAULT = new TraversalSettings(TraversalOrder.DEPTH_FIRST, false, false, 0, false, true);
+
+    public TraversalSettings {
+        order = order == null ? TraversalOrder.DEPTH_FIRST : order;
+        maxDepth = Math.max(0, maxDepth);
+    }
+
+    /**
+     * Liefert {@code true}, wenn der Durchlauf durch Tiefe oder Dateisystem-Grenzen beschränkt ist.
+     */
+    public boolean limitsTraversal() {
+        return maxDepth > 0 || stayOnFileSystem || skipPseudoFileSystems;
+    }
+
+    /**
+     * Liefert {@code true}, wenn statt der Rekursion eine priorisierte Warteschlange verwendet wird.
+     */
+    public boolean usesPriorityQueue() {
+        return order != TraversalOrder.DEPTH_FIRST || boostQueryMatches;
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.mlprograms.searchmax;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vektorisierte Kandidatensuche für {@link StartByteFilter}. Die Klasse wird erst geladen, wenn das Modul
+ * {@code jdk.incubator.vector} zur Laufzeit vorhanden ist; andernfalls sucht der Filter skalar.
+ */
+final class VectorByteSearch {
+
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorByteSearch() {
+    }
+
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Liefert die erste Kandidatenposition eines vollständigen Vektorblocks oder die Position, ab der skalar
+     * weitergesucht werden muss. Blöcke werden nur geprüft, solange auch die letzten Bytes im Bereich liegen.
+     */
+    static int nextCandidate(final byte[] buffer, final int from, final int limit, final byte[] firstBytes,
+                             final boolean matchesNonAscii, final byte[] lastBytes, final int lastByteOffset) {
+        return Holder.nextCandidate(buffer, from, limit, firstBytes, matchesNonAscii, lastBytes, lastByteOffset);
+    }
+
+    /**
+     * Hält alle Verweise auf die Vector API, damit {@link #isAvailable()} ohne das Modul aufgerufen werden kann.
+     */
+    private static final class Holder {
+
+        private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+        private static int nextCandidate(final byte[] buffer, final int from, final int limit, final byte[] firstBytes,
+                                         final boolean matchesNonAscii, final byte[] lastBytes, final int lastByteOffset) {
+            final int step = SPECIES.length();
+            int index = from;
+            for (; index + step <= limit; index += step) {
+                final ByteVector block = ByteVector.fromArray(SPECIES, buffer, index);
+                VectorMask<Byte> candidates = firstBytes.length == 0 ? SPECIES.maskAll(false) : matchesAny(block, firstBytes);
+                if (matchesNonAscii) {
+                    candidates = candidates.or(block.compare(VectorOperators.LT, (byte) 0));
+                }
+                if (lastBytes != null && candidates.anyTrue()) {
+                    candidates = candidates.and(matchesAny(ByteVector.fromArray(SPECIES, buffer, index + lastByteOffset), lastBytes));
+                }
+                if (candidates.anyTrue()) {
+                    return index + candidates.firstTrue();
+                }
+            }
+            return index;
+        }
+
+        private static VectorMask<Byte> matchesAny(final ByteVector block, final byte[] values) {
+            VectorMask<Byte> mask = block.compare(VectorOperators.EQ, values[0]);
+            for (int i = 1; i < values.length; i++) {
+                mask = mask.or(block.compare(VectorOperators.EQ, values[i]));
+            }
+            return mask;
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.mlprograms.searchmax;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Führt Verzeichnis-Durchläufe und Inhaltsprüfungen in jeweils eigenen virtuellen Threads aus.
+ * Die Parallelität wird nicht über eine Thread-Anzahl begrenzt, sondern über zwei Semaphoren:
+ * eine für gleichzeitig geöffnete Verzeichnisse und eine für gleichzeitig geöffnete Dateien.
+ * Aufgaben warten nie auf andere Aufgaben, daher kann es beim Warten auf Genehmigungen nicht zu
+ * Verklemmungen kommen.
+ * <p>
+ * Ein virtueller Thread wird erst gestartet, wenn seine Genehmigung erteilt ist. Bis dahin liegt die Aufgabe nur
+ * als {@link Runnable} in einer Warteschlange; auf breiten Verzeichnisbäumen entstehen so nicht tausende geparkte
+ * Threads. Der Aufrufer selbst blockiert nicht, da Verzeichnisaufgaben beim Einreihen ihrer Unterverzeichnisse
+ * eine Genehmigung halten.
+ */
+@Slf4j
+public final class VirtualThreadEngine {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("search-vt-", 0).factory());
+    private final Lane directoryHandles;
+    private final Lane openFiles;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    @Getter
+    private final int maxOpenDirectories;
+    @Getter
+    private final int maxOpenFiles;
+
+    public VirtualThreadEngine(final int maxOpenDirectories, final int maxOpenFiles) {
+        this.maxOpenDirectories = Math.max(1, maxOpenDirectories);
+        this.maxOpenFiles = Math.max(1, maxOpenFiles);
+        this.directoryHandles = new Lane(this.maxOpenDirectories);
+        this.openFiles = new Lane(this.maxOpenFiles);
+    }
+
+    /**
+     * Reiht ein Verzeichnis ein; ein virtueller Thread verarbeitet es, sobald ein Verzeichnis-Handle frei ist.
+     */
+    public void submitDirectory(final Runnable directoryTask) {
+        submit(directoryTask, directoryHandles);
+    }
+
+    /**
+     * Reiht eine Inhaltsprüfung ein; sie startet in einem virtuellen Thread, sobald eine Datei geöffnet werden darf.
+     */
+    public void submitContentCheck(final Runnable contentCheck) {
+        submit(contentCheck, openFiles);
+    }
+
+    /**
+     * Liefert {@code true}, wenn keine gestarteten oder wartenden Aufgaben mehr ausstehen.
+     */
+    public boolean isIdle() {
+        return pendingTasks.get() == 0;
+    }
+
+    public int getPendingTasks() {
+        return pendingTasks.get();
+    }
+
+    public int getOpenDirectories() {
+        return maxOpenDirectories - directoryHandles.permits.availablePermits();
+    }
+
+    public int getOpenFileCount() {
+        return maxOpenFiles - openFiles.permits.availablePermits();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Genehmigungen und wartende Aufgaben einer Ressource.
+     */
+    private static final class Lane {
+
+        private final Semaphore permits;
+        private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+        private Lane(final int permitCount) {
+            this.permits = new Semaphore(permitCount);
+        }
+    }
+
+    private void submit(final Runnable task, final Lane lane) {
+        pendingTasks.incrementAndGet();
+        lane.waiting.offer(task);
+        startWaitingTasks(lane);
+    }
+
+    /**
+     * Startet wartende Aufgaben, solange Genehmigungen frei sind. Wird nach jedem Einreihen und nach jeder
+     * Freigabe aufgerufen, sodass keine Aufgabe liegen bleibt.
+     */
+    private void startWaitingTasks(final Lane lane) {
+        while (!lane.waiting.isEmpty() && lane.permits.tryAcquire()) {
+            final Runnable task = lane.waiting.poll();
+            if (task == null) {
+                lane.permits.release();
+                continue;
+            }
+
+            try {
+                executor.execute(() -> runWithPermit(task, lane));
+            } catch (final RejectedExecutionException rejectedExecutionException) {
+                lane.permits.release();
+                pendingTasks.decrementAndGet();
+                log.debug("Task rejected, engine already shut down");
+            }
+        }
+    }
+
+    private void runWithPermit(final Runnable task, final Lane lane) {
+        try {
+            task.run();
+        } catch (final Exception exception) {
+            log.debug("Virtual thread task failed: {}", exception.getMessage());
+        } finally {
+            lane.permits.release();
+            pendingTasks.decrementAndGet();
+            startWaitingTasks(lane);
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.mlprograms.searchmax;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Merkt sich, welche physischen Verzeichnisse und Dateien eine Suche bereits verarbeitet hat.
+ * Schlüssel ist {@link BasicFileAttributes#fileKey()} (Gerät und Inode), sodass Bind-Mounts,
+ * verfolgte symbolische Links und überlappende Startverzeichnisse nur einmal durchsucht
+ * werden und Zyklen über Links nicht zu endlosen Durchläufen führen. Liefert das Dateisystem keinen
+ * fileKey (z. B. NTFS), wird beim Verfolgen von Links der reale Pfad, bei mehreren Startverzeichnissen
+ * der normalisierte absolute Pfad als Schlüssel verwendet.
+ * <p>
+ * Dateien werden nur erfasst, wenn sie überhaupt über mehrere Pfade erreichbar sind, also beim Verfolgen von Links
+ * oder bei mehreren Startverzeichnissen; sonst bleibt der Speicherbedarf auf die Verzeichnisse beschränkt.
+ */
+@Slf4j
+public final class VisitedSet {
+
+    private final Set<Object> visitedDirectories = ConcurrentHashMap.newKeySet();
+    private final Set<Object> reportedFiles = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Object, CompletableFuture<Boolean>> contentVerdicts = new ConcurrentHashMap<>();
+    private final AtomicLong skippedDirectories = new AtomicLong();
+    private final AtomicLong skippedFiles = new AtomicLong();
+    private final AtomicLong reusedContentChecks = new AtomicLong();
+    private final boolean followLinks;
+    private final boolean multipleRoots;
+
+    public VisitedSet(final boolean followLinks) {
+        this(followLinks, false);
+    }
+
+    /**
+     * @param followLinks   {@code true}, wenn symbolische Links verfolgt werden
+     * @param multipleRoots {@code true}, wenn die Suche mehrere, womöglich überlappende Startverzeichnisse hat
+     */
+    public VisitedSet(final boolean followLinks, final boolean multipleRoots) {
+        this.followLinks = followLinks;
+        this.multipleRoots = multipleRoots;
+    }
+
+    public boolean isFollowLinks() {
+        return followLinks;
+    }
+
+    /**
+     * @return {@code true}, wenn eine Datei über mehrere Pfade erreicht werden kann und daher erfasst wird
+     */
+    public boolean tracksFiles() {
+        return followLinks || multipleRoots;
+    }
+
+    /**
+     * Markiert ein Startverzeichnis als besucht. Links im Startpfad werden immer aufgelöst.
+     *
+     * @return {@code false}, wenn das Verzeichnis bereits über ein anderes Startverzeichnis erfasst ist
+     */
+    public boolean markRoot(final Path rootPath) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(rootPath, BasicFileAttributes.class);
+            return markDirectory(FileEntry.of(rootPath, attributes));
+        } catch (final IOException | SecurityException exception) {
+            log.debug("Cannot read attributes of root {}: {}", rootPath, exception.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Markiert ein Verzeichnis als besucht.
+     *
+     * @return {@code true}, wenn das Verzeichnis zum ersten Mal gesehen wird und durchsucht werden soll
+     */
+    public boolean markDirectory(final FileEntry directoryEntry) {
+        final Object key = keyOf(directoryEntry);
+        if (key == null || visitedDirectories.add(key)) {
+            return true;
+        }
+
+        skippedDirectories.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Markiert eine Datei als Treffer.
+     *
+     * @return {@code true}, wenn die Datei nicht bereits über einen anderen Pfad gemeldet wurde
+     */
+    public boolean markReportedFile(final FileEntry fileEntry) {
+        if (!tracksFiles()) {
+            return true;
+        }
+
+        final Object key = keyOf(fileEntry);
+        if (key == null || reportedFiles.add(key)) {
+            return true;
+        }
+
+        skippedFiles.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Führt die Inhaltsprüfung für eine physische Datei nur einmal aus. Weitere Pfade zur selben Datei
+     * (Hardlinks, verfolgte Links) erhalten das bereits ermittelte Ergebnis. Das ist nur zulässig, wenn das Ergebnis
+     * allein vom Inhalt abhängt; hängt es auch von Name, Größe oder Datum ab, wird jede Datei einzeln geprüft.
+     *
+     * @param pathIndependent {@code true}, wenn das Ergebnis nicht vom Pfad der Datei abhängt
+     * @param variant         weitere Eigenschaft des Pfades, die die Prüfung beeinflusst, z. B. das Dateiformat
+     */
+    public boolean evaluateContentOnce(final FileEntry fileEntry, final boolean pathIndependent, final Object variant,
+                                       final BooleanSupplier contentCheck) {
+        final Object fileKey = pathIndependent && tracksFiles() ? keyOf(fileEntry) : null;
+        if (fileKey == null) {
+            return contentCheck.getAsBoolean();
+        }
+
+        final CompletableFuture<Boolean> ownVerdict = new CompletableFuture<>();
+        final CompletableFuture<Boolean> existingVerdict = contentVerdicts.putIfAbsent(new ContentKey(fileKey, variant), ownVerdict);
+        if (existingVerdict != null) {
+            reusedContentChecks.incrementAndGet();
+            return existingVerdict.join();
+        }
+
+        boolean matches = false;
+        try {
+            matches = contentCheck.getAsBoolean();
+            return matches;
+        } finally {
+            ownVerdict.complete(matches);
+        }
+    }
+
+    public long getSkippedDirectories() {
+        return skippedDirectories.get();
+    }
+
+    public long getSkippedFiles() {
+        return skippedFiles.get();
+    }
+
+    public long getReusedContentChecks() {
+        return reusedContentChecks.get();
+    }
+
+    private Object keyOf(final FileEntry entry) {
+        if (entry.fileKey() != null) {
+            return entry.fileKey();
+        }
+
+        if (!followLinks) {
+            // Ohne Links genügt der Pfad selbst, um überlappende Startverzeichnisse zu erkennen
+            return multipleRoots ? entry.path().toAbsolutePath().normalize() : null;
+        }
+
+        try {
+            return entry.path().toRealPath();
+        } catch (final IOException | SecurityException exception) {
+            log.debug("Cannot resolve real path of {}: {}", entry.path(), exception.getMessage());
+            return null;
+        }
+    }
+
+    private record ContentKey(Object fileKey, Object variant) {
+    }
+
+}
@@ -40,6 +40,7 @@ public class SearchController implements SearchEventListener {
     public void startSearch(final String folder, final String query, final List<String> drives, final boolean caseSensitive, final List<String> extensionsAllow, final List<String> extensionsDeny, final List<String> includes, final Map<String, Boolean> includesCase, final List<String> excludes, final Map<String, Boolean> excludesCase, final boolean includeAllMode, final List<String> contentIncludes, final Map<String, Boolean> contentIncludesCase, final List<String> contentExcludes, final Map<String, Boolean> contentExcludesCase, final boolean contentIncludeAllMode, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeIncludes, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeExcludes, final boolean timeIncludeAllMode) {
         pendingResults.clear();
         model.clearResults();
+        model.setProgressInfo("");
         model.setStatus(GuiConstants.SEARCH_RUNNING_TEXT);
 
         // Starte die eigentliche Suche asynchron, sonst blockiert ggf. die EDT und die UI wird nicht aktualisiert
@@ -122,6 +123,11 @@ public class SearchController implements SearchEventListener {
         }
     }
 
+    @Override
+    public void onProgress(String progress) {
+        SwingUtilities.invokeLater(() -> model.setProgressInfo(progress));
+    }
+
     @Override
     public void onError(String message) {
         SwingUtilities.invokeLater(() -> model.setStatus("Fehler: " + message));
@@ -136,6 +142,34 @@ public class SearchController implements SearchEventListener {
         service.setUseAllCores(useAll);
     }
 
+    public void setPipelineSettings(com.mlprograms.searchmax.PipelineSettings settings) {
+        service.setPipelineSettings(settings);
+    }
+
+    public void setEngineSettings(com.mlprograms.searchmax.EngineSettings settings) {
+        service.setEngineSettings(settings);
+    }
+
+    public void setTraversalSettings(com.mlprograms.searchmax.TraversalSettings settings) {
+        service.setTraversalSettings(settings == null ? com.mlprograms.searchmax.TraversalSettings.DEFAULT : settings);
+    }
+
+    public void setContentScanSettings(com.mlprograms.searchmax.ContentScanSettings settings) {
+        service.setContentScanSettings(settings == null ? com.mlprograms.searchmax.ContentScanSettings.DEFAULT : settings);
+    }
+
+    public void setFoldDiacritics(boolean foldDiacritics) {
+        service.setFoldDiacritics(foldDiacritics);
+    }
+
+    public void setExclusionRules(List<String> ruleLines) {
+        service.setExclusionRules(ruleLines);
+    }
+
+    public void setSearchLimits(com.mlprograms.searchmax.SearchLimits limits) {
+        service.setSearchLimits(limits == null ? com.mlprograms.searchmax.SearchLimits.UNLIMITED : limits);
+    }
+
     public void setExtractionMode(com.mlprograms.searchmax.ExtractionMode mode) {
         try {
             java.lang.reflect.Method m = service.getClass().getMethod("setExtractionMode", com.mlprograms.searchmax.ExtractionMode.class);
@@ -1,5 +1,6 @@
 package com.mlprograms.searchmax.model;
 
+import com.mlprograms.searchmax.ExtensionCategory;
 import com.mlprograms.searchmax.view.GuiConstants;
 
 import javax.swing.JOptionPane;
@@ -51,7 +52,7 @@ public abstract class ExtensionsTableModelBase extends AbstractTableModel {
     @Override public void setValueAt(Object val,int r,int c) {
         if (r<0||r>=entries.size()) return; Entry e = entries.get(r);
         if (c==0 && val instanceof Boolean) { e.enabled=(Boolean)val; fireTableCellUpdated(r,c); }
-        else if (c==1 && val instanceof String) { String v=((String)val).trim().toLowerCase(); if (v.isEmpty()) return; if (!v.startsWith(".")) v = "."+v; for (int i=0;i<entries.size();i++){ if (i==r) continue; if (entries.get(i).ext.equals(v)){ JOptionPane.showMessageDialog(null, GuiConstants.MSG_EXTENSION_EXISTS, GuiConstants.MSG_ERROR_TITLE, JOptionPane.WARNING_MESSAGE); return; } } e.ext=v; fireTableCellUpdated(r,c); }
+        else if (c==1 && val instanceof String) { String v=((String)val).trim().toLowerCase(); if (v.isEmpty()) return; if (!v.startsWith(".") && !v.startsWith(ExtensionCategory.PREFIX)) v = "."+v; for (int i=0;i<entries.size();i++){ if (i==r) continue; if (entries.get(i).ext.equals(v)){ JOptionPane.showMessageDialog(null, GuiConstants.MSG_EXTENSION_EXISTS, GuiConstants.MSG_ERROR_TITLE, JOptionPane.WARNING_MESSAGE); return; } } e.ext=v; fireTableCellUpdated(r,c); }
     }
 
     public int getRemoveColumnIndex() { return 2; }
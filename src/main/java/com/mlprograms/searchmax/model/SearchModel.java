@@ -16,12 +16,14 @@ public class SearchModel {
     public static final String PROP_PROGRESS = "progress";
     public static final String PROP_RESULT_ADDED = "resultAdded";
     public static final String PROP_RESULTS_BATCH = "resultsBatch";
+    public static final String PROP_PROGRESS_INFO = "progressInfo";
 
     private final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
     private final List<String> results = new ArrayList<>();
     private String status = "Bereit";
     private int progressDone = 0;
     private int progressTotal = 0;
+    private String progressInfo = "";
 
     public void addPropertyChangeListener(PropertyChangeListener l) {
         pcs.addPropertyChangeListener(l);
@@ -71,6 +73,12 @@ public class SearchModel {
         pcs.firePropertyChange(PROP_STATUS, old, status);
     }
 
+    public void setProgressInfo(String progressInfo) {
+        String old = this.progressInfo;
+        this.progressInfo = progressInfo;
+        pcs.firePropertyChange(PROP_PROGRESS_INFO, old, progressInfo);
+    }
+
     public void setProgress(int done, int total) {
         int oldDone = this.progressDone;
         int oldTotal = this.progressTotal;
@@ -1,6 +1,8 @@
 package com.mlprograms.searchmax.model;
 
 import com.mlprograms.searchmax.view.GuiConstants;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 
 import javax.swing.JOptionPane;
 import javax.swing.table.AbstractTableModel;
@@ -8,29 +10,118 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class TextFiltersTableModel extends AbstractTableModel {
+
+    /**
+     * Schreibweise eines Musters. Glob- und Regex-Muster werden als {@code <typ>:<muster>} gespeichert,
+     * einfacher Text ohne Präfix.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Syntax {
+        TEXT("", GuiConstants.SYNTAX_TEXT),           // Teilzeichenkette (bei Namen ohne Endung)
+        WORD("word:", GuiConstants.SYNTAX_WORD),      // Ganzes Wort im Inhalt
+        PHRASE("phrase:", GuiConstants.SYNTAX_PHRASE), // Wortfolge im Inhalt, Leerraum dazwischen beliebig
+        NEAR("near:", GuiConstants.SYNTAX_NEAR),      // Zwei Begriffe im Inhalt, höchstens n Wörter auseinander
+        GLOB("glob:", GuiConstants.SYNTAX_GLOB),      // Glob auf den vollständigen Dateinamen
+        REGEX("regex:", GuiConstants.SYNTAX_REGEX),   // Regulärer Ausdruck, irgendwo im Dateinamen bzw. Inhalt
+        LIST("list:", GuiConstants.SYNTAX_LIST);      // Pfad einer Datei mit Dateinamen und *Fragmenten*, eine Zeile je Eintrag
+
+        private final String prefix;
+        private final String displayName;
+
+        public static Syntax of(final String key) {
+            for (final Syntax syntax : values()) {
+                if (!syntax.prefix.isEmpty() && key.startsWith(syntax.prefix)) {
+                    return syntax;
+                }
+            }
+            return TEXT;
+        }
+
+        public static String patternOf(final String key) {
+            return key.substring(of(key).prefix.length());
+        }
+
+        public String format(final String pattern) {
+            return prefix + pattern;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
     public static class Entry {
         public boolean enabled;
         public String pattern;
         public boolean caseSensitive;
+        public Syntax syntax;
 
         public Entry(boolean enabled, String pattern) {
+            this(enabled, pattern, Syntax.TEXT);
+        }
+
+        public Entry(boolean enabled, String pattern, Syntax syntax) {
             this.enabled = enabled;
             this.pattern = pattern;
             this.caseSensitive = false;
+            this.syntax = syntax;
+        }
+
+        public String key() {
+            return syntax.format(pattern);
         }
     }
 
     private final List<Entry> entries = new ArrayList<>();
-    private final String[] cols = {GuiConstants.COLUMN_ACTIVE, GuiConstants.COLUMN_PATTERN, GuiConstants.COLUMN_CASE_SENSITIVE, GuiConstants.COLUMN_REMOVE};
+    private final Syntax[] syntaxes;
+    private final boolean syntaxSelectable;
+    private final String[] cols;
+
+    /**
+     * @param syntaxes die pro Zeile wählbaren Schreibweisen; ohne Angabe gibt es keine Spalte dafür
+     */
+    public TextFiltersTableModel(Syntax... syntaxes) {
+        this.syntaxes = syntaxes.length == 0 ? new Syntax[]{Syntax.TEXT} : syntaxes.clone();
+        this.syntaxSelectable = this.syntaxes.length > 1;
+        this.cols = syntaxSelectable
+                ? new String[]{GuiConstants.COLUMN_ACTIVE, GuiConstants.COLUMN_PATTERN, GuiConstants.COLUMN_SYNTAX, GuiConstants.COLUMN_CASE_SENSITIVE, GuiConstants.COLUMN_REMOVE}
+                : new String[]{GuiConstants.COLUMN_ACTIVE, GuiConstants.COLUMN_PATTERN, GuiConstants.COLUMN_CASE_SENSITIVE, GuiConstants.COLUMN_REMOVE};
+    }
+
+    public Syntax[] getSyntaxes() { return syntaxes.clone(); }
 
     public List<Entry> getEntries() { return entries; }
 
     public void addEntry(String p, boolean enabled) {
-        for (Entry e : entries) if (e.pattern.equals(p)) return;
-        entries.add(new Entry(enabled, p));
+        addEntry(p, enabled, Syntax.TEXT);
+    }
+
+    public void addEntry(String p, boolean enabled, Syntax syntax) {
+        for (Entry e : entries) if (e.pattern.equals(p) && e.syntax == syntax) return;
+        entries.add(new Entry(enabled, p, syntax));
         fireTableDataChanged();
     }
 
+    /**
+     * Fügt einen gespeicherten Eintrag in der Form {@code <typ>:<muster>} hinzu. Ein Präfix, das die Tabelle
+     * nicht anbietet, bleibt Teil des Musters.
+     */
+    public void addKey(String key, boolean enabled) {
+        Syntax syntax = Syntax.of(key);
+        if (isOffered(syntax)) {
+            addEntry(Syntax.patternOf(key), enabled, syntax);
+        } else {
+            addEntry(key, enabled);
+        }
+    }
+
+    public boolean isOffered(Syntax syntax) {
+        for (Syntax offered : syntaxes) if (offered == syntax) return true;
+        return false;
+    }
+
     public void removeAt(int idx) {
         if (idx >= 0 && idx < entries.size()) {
             entries.remove(idx);
@@ -43,21 +134,31 @@ public class TextFiltersTableModel extends AbstractTableModel {
         fireTableDataChanged();
     }
 
+    public int getSyntaxColumnIndex() { return syntaxSelectable ? 2 : -1; }
+    public int getCaseSensitiveColumnIndex() { return syntaxSelectable ? 3 : 2; }
+    public int getRemoveColumnIndex() { return syntaxSelectable ? 4 : 3; }
+
     @Override public int getRowCount() { return entries.size(); }
     @Override public int getColumnCount() { return cols.length; }
     @Override public String getColumnName(int column) { return cols[column]; }
-    @Override public Class<?> getColumnClass(int columnIndex) { return columnIndex == 0 || columnIndex == 2 ? Boolean.class : (columnIndex == 1 ? String.class : Object.class); }
-    @Override public boolean isCellEditable(int rowIndex, int columnIndex) { return columnIndex == 0 || columnIndex == 1 || columnIndex == 2 || columnIndex == 3; }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        if (columnIndex == 0 || columnIndex == getCaseSensitiveColumnIndex()) return Boolean.class;
+        if (columnIndex == 1) return String.class;
+        return columnIndex == getSyntaxColumnIndex() ? Syntax.class : Object.class;
+    }
+
+    @Override public boolean isCellEditable(int rowIndex, int columnIndex) { return columnIndex >= 0 && columnIndex < cols.length; }
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
         Entry e = entries.get(rowIndex);
-        switch (columnIndex) {
-            case 0: return e.enabled;
-            case 1: return e.pattern;
-            case 2: return e.caseSensitive;
-            default: return GuiConstants.COLUMN_REMOVE;
-        }
+        if (columnIndex == 0) return e.enabled;
+        if (columnIndex == 1) return e.pattern;
+        if (columnIndex == getSyntaxColumnIndex()) return e.syntax;
+        if (columnIndex == getCaseSensitiveColumnIndex()) return e.caseSensitive;
+        return GuiConstants.COLUMN_REMOVE;
     }
 
     @Override
@@ -69,21 +170,28 @@ public class TextFiltersTableModel extends AbstractTableModel {
             fireTableCellUpdated(rowIndex, columnIndex);
         } else if (columnIndex == 1 && aValue instanceof String) {
             String v = ((String) aValue).trim();
-            if (v.isEmpty()) return;
-            for (int i = 0; i < entries.size(); i++) {
-                if (i == rowIndex) continue;
-                if (entries.get(i).pattern.equals(v)) {
-                    JOptionPane.showMessageDialog(null, "Pattern already exists.", "Error", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-            }
+            if (v.isEmpty() || isDuplicate(rowIndex, v, e.syntax)) return;
             e.pattern = v;
             fireTableCellUpdated(rowIndex, columnIndex);
-        } else if (columnIndex == 2 && aValue instanceof Boolean) {
+        } else if (columnIndex == getSyntaxColumnIndex() && aValue instanceof Syntax) {
+            if (isDuplicate(rowIndex, e.pattern, (Syntax) aValue)) return;
+            e.syntax = (Syntax) aValue;
+            fireTableCellUpdated(rowIndex, columnIndex);
+        } else if (columnIndex == getCaseSensitiveColumnIndex() && aValue instanceof Boolean) {
             e.caseSensitive = (Boolean) aValue;
             fireTableCellUpdated(rowIndex, columnIndex);
         }
     }
 
-    public int getRemoveColumnIndex() { return 3; }
+    private boolean isDuplicate(int rowIndex, String pattern, Syntax syntax) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (i == rowIndex) continue;
+            if (entries.get(i).pattern.equals(pattern) && entries.get(i).syntax == syntax) {
+                JOptionPane.showMessageDialog(null, "Pattern already exists.", "Error", JOptionPane.WARNING_MESSAGE);
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -4,4 +4,7 @@ public interface SearchEventListener {
     void onMatch(String match);
     void onEnd(String summary);
     void onError(String message);
+
+    default void onProgress(String progress) {
+    }
 }
@@ -1,14 +1,35 @@
 package com.mlprograms.searchmax.service;
 
+import com.mlprograms.searchmax.BinaryFileDetector;
+import com.mlprograms.searchmax.ContentPipeline;
+import com.mlprograms.searchmax.ContentScanSettings;
+import com.mlprograms.searchmax.DirectoryExclusionRules;
 import com.mlprograms.searchmax.DirectoryTask;
+import com.mlprograms.searchmax.EngineSettings;
+import com.mlprograms.searchmax.FileStoreGroup;
+import com.mlprograms.searchmax.FilterPlan;
+import com.mlprograms.searchmax.FileStoreScheduler;
+import com.mlprograms.searchmax.LargeFileScanner;
+import com.mlprograms.searchmax.ParallelismController;
+import com.mlprograms.searchmax.PipelineSettings;
+import com.mlprograms.searchmax.SearchBudget;
 import com.mlprograms.searchmax.SearchHandle;
 import com.mlprograms.searchmax.ExtractionMode;
+import com.mlprograms.searchmax.SearchLimits;
+import com.mlprograms.searchmax.PriorityTraversal;
+import com.mlprograms.searchmax.TraversalSettings;
+import com.mlprograms.searchmax.TraversalBoundary;
+import com.mlprograms.searchmax.VirtualThreadEngine;
+import com.mlprograms.searchmax.VisitedSet;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.*;
@@ -20,18 +41,56 @@ public final class SearchService {
     private volatile ForkJoinPool pool;
     private final ConcurrentMap<String, SearchHandle> searches = new ConcurrentHashMap<>();
     private volatile ExtractionMode extractionMode = ExtractionMode.POI_THEN_TIKA;
+    @Getter
+    @Setter
+    private volatile SearchLimits searchLimits = SearchLimits.UNLIMITED;
+    @Getter
+    private volatile PipelineSettings pipelineSettings = PipelineSettings.DISABLED;
+    @Getter
+    private volatile EngineSettings engineSettings = EngineSettings.DEFAULT;
+    @Getter
+    @Setter
+    private volatile TraversalSettings traversalSettings = TraversalSettings.DEFAULT;
+    @Getter
+    @Setter
+    private volatile ContentScanSettings contentScanSettings = ContentScanSettings.DEFAULT;
+    /**
+     * Akzente und Umlaute bei Textvergleichen ignorieren, siehe {@link com.mlprograms.searchmax.DiacriticFolding}.
+     */
+    @Getter
+    @Setter
+    private volatile boolean foldDiacritics = false;
+    @Getter
+    private volatile List<String> exclusionRules = DirectoryExclusionRules.DEFAULT_RULES;
+    private boolean useAllCores = false;
+
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
 
     public SearchService() {
         this.pool = new ForkJoinPool(1);
     }
 
     public synchronized void setUseAllCores(boolean useAll) {
-        // Begrenze die maximale Parallelität, um zu verhindern, dass auf Systemen mit
-        // vielen Kernen zu viele Threads (und damit Stack/VM-Reservations) angelegt werden,
-        // was zu nativen Speicher-Allokationsfehlern führen kann.
-        final int available = Math.max(1, Runtime.getRuntime().availableProcessors());
-        final int MAX_PARALLEL = 4; // konservativer Grenzwert für typische Desktop-Systeme
-        int desired = useAll ? Math.max(1, Math.min(available, MAX_PARALLEL)) : available / 3;
+        this.useAllCores = useAll;
+        updatePoolParallelism();
+    }
+
+    public synchronized void setPipelineSettings(final PipelineSettings settings) {
+        this.pipelineSettings = settings == null ? PipelineSettings.DISABLED : settings;
+        updatePoolParallelism();
+    }
+
+    public void setExclusionRules(final List<String> ruleLines) {
+        this.exclusionRules = ruleLines == null ? List.of() : List.copyOf(ruleLines);
+    }
+
+    public synchronized void setEngineSettings(final EngineSettings settings) {
+        this.engineSettings = settings == null ? EngineSettings.DEFAULT : settings;
+        updatePoolParallelism();
+    }
+
+    private void updatePoolParallelism() {
+        final int desired = computeInitialParallelism();
         if (pool != null && pool.getParallelism() == desired) return;
         // replace pool for subsequent searches
         ForkJoinPool newPool = new ForkJoinPool(desired);
@@ -44,6 +103,31 @@ public final class SearchService {
         }
     }
 
+    /**
+     * Ermittelt die Start-Parallelität des Pools. Die Obergrenze im Leistungsmodus ist konfigurierbar,
+     * damit auf Systemen mit vielen Kernen nicht ungewollt zu viele Threads (und damit Stack/VM-Reservations)
+     * angelegt werden. Ohne Leistungsmodus wird ein Drittel der Kerne, mindestens aber ein Thread verwendet.
+     */
+    private int computeInitialParallelism() {
+        if (pipelineSettings.effectiveWalkerThreads() > 0) {
+            return pipelineSettings.effectiveWalkerThreads();
+        }
+
+        final int available = Math.max(1, Runtime.getRuntime().availableProcessors());
+        if (!useAllCores) {
+            return Math.max(1, available / 3);
+        }
+
+        return Math.min(engineSettings.maxParallelism(), available);
+    }
+
+    private boolean isAdaptiveParallelism() {
+        return useAllCores
+                && engineSettings.adaptiveParallelism()
+                && !engineSettings.usesVirtualThreads()
+                && pipelineSettings.effectiveWalkerThreads() <= 0;
+    }
+
     public boolean isUsingAllCores() {
         return pool != null && pool.getParallelism() > 1;
     }
@@ -58,30 +142,33 @@ public final class SearchService {
             throw new IllegalArgumentException("Listener darf nicht null sein");
         }
 
+        // Filter werden einmal pro Suche kompiliert, alle Verzeichnis-Aufgaben teilen sich den Plan
+        final FilterPlan filterPlan = FilterPlan.compile(queryText, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode, foldDiacritics);
+
         if (drives != null && !drives.isEmpty()) {
-            handleSearchSelectedDrives(drives, queryText, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+            handleSearchSelectedDrives(drives, queryText, listener, filterPlan);
             return;
         }
 
         if (folderPath != null) {
             final String trimmed = folderPath.trim();
             if (trimmed.length() == 1 && Character.isLetter(trimmed.charAt(0))) {
-                handleSearchSelectedDrives(trimmed, queryText, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+                handleSearchSelectedDrives(trimmed, queryText, listener, filterPlan);
                 return;
             }
         }
 
         if ("*".equals(folderPath)) {
-            handleSearchAllDrivesInternal(queryText, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+            handleSearchAllDrivesInternal(queryText, listener, filterPlan);
             return;
         }
 
         if (isDriveList(folderPath)) {
-            handleSearchSelectedDrives(folderPath, queryText, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+            handleSearchSelectedDrives(folderPath, queryText, listener, filterPlan);
             return;
         }
 
-        startSearch(folderPath, queryText, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+        startSearch(folderPath, queryText, listener, filterPlan);
     }
 
     public boolean cancel() {
@@ -91,7 +178,8 @@ public final class SearchService {
                 final SearchHandle handle = e.getValue();
                 if (handle == null) continue;
                 any = true;
-                handle.getCancelled().set(true);
+                handle.getBudget().cancel();
+                restoreParallelism(handle);
                 for (final ForkJoinTask<?> forkJoinTask : handle.getTasks()) {
                     if (forkJoinTask != null) {
                         forkJoinTask.cancel(true);
@@ -133,7 +221,7 @@ public final class SearchService {
         return true;
     }
 
-    private void handleSearchAllDrivesInternal(final String queryText, final SearchEventListener listener, final boolean caseSensitive, final List<String> extensionsAllow, final List<String> extensionsDeny, final List<String> includes, final java.util.Map<String, Boolean> includesCase, final List<String> excludes, final java.util.Map<String, Boolean> excludesCase, final boolean includeAllMode, final List<String> contentIncludes, final java.util.Map<String, Boolean> contentIncludesCase, final List<String> contentExcludes, final java.util.Map<String, Boolean> contentExcludesCase, final boolean contentIncludeAllMode, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeIncludes, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeExcludes, final boolean timeIncludeAllMode) {
+    private void handleSearchAllDrivesInternal(final String queryText, final SearchEventListener listener, final FilterPlan filterPlan) {
         final File[] roots = File.listRoots();
         if (roots == null || roots.length == 0) {
             listener.onError("Keine Laufwerke gefunden");
@@ -142,23 +230,30 @@ public final class SearchService {
 
         final long startNano = System.nanoTime();
         final String searchId = UUID.randomUUID().toString();
-        final SearchHandle handle = createSearchHandle(startNano, roots.length);
+        final SearchHandle handle = createSearchHandle(startNano, roots.length, filterPlan);
 
         searches.put(searchId, handle);
 
+        final List<Path> rootPaths = new ArrayList<>();
         for (File root : roots) {
             final Path rootPath = root.toPath();
             if (Files.exists(rootPath)) {
-                startSearchTask(searchId, rootPath, queryText, handle, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+                rootPaths.add(rootPath);
             } else {
                 handle.getRemainingTasks().decrementAndGet();
             }
         }
 
+        for (final FileStoreGroup storeGroup : assignFileStores(handle, rootPaths)) {
+            for (final Path rootPath : storeGroup.getRoots()) {
+                startSearchTask(searchId, rootPath, storeGroup, queryText, handle, listener, filterPlan);
+            }
+        }
+
         checkComplete(handle, listener);
     }
 
-    private void handleSearchSelectedDrives(final String folderPathList, final String queryText, final SearchEventListener listener, final boolean caseSensitive, final List<String> extensionsAllow, final List<String> extensionsDeny, final List<String> includes, final java.util.Map<String, Boolean> includesCase, final List<String> excludes, final java.util.Map<String, Boolean> excludesCase, final boolean includeAllMode, final List<String> contentIncludes, final java.util.Map<String, Boolean> contentIncludesCase, final List<String> contentExcludes, final java.util.Map<String, Boolean> contentExcludesCase, final boolean contentIncludeAllMode, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeIncludes, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeExcludes, final boolean timeIncludeAllMode) {
+    private void handleSearchSelectedDrives(final String folderPathList, final String queryText, final SearchEventListener listener, final FilterPlan filterPlan) {
         final String[] tokens = folderPathList.split(",");
         if (tokens.length == 0) {
             listener.onError("Keine Laufwerke angegeben");
@@ -167,10 +262,11 @@ public final class SearchService {
 
         final long startNano = System.nanoTime();
         final String searchId = UUID.randomUUID().toString();
-        final SearchHandle handle = createSearchHandle(startNano, tokens.length);
+        final SearchHandle handle = createSearchHandle(startNano, tokens.length, filterPlan);
 
         searches.put(searchId, handle);
 
+        final List<Path> rootPaths = new ArrayList<>();
         for (String raw : tokens) {
             final String t = raw == null ? "" : raw.trim();
             if (t.isEmpty()) {
@@ -181,16 +277,22 @@ public final class SearchService {
             String normalized = normalizeDrivePath(t);
             final Path rootPath = Paths.get(normalized);
             if (Files.exists(rootPath)) {
-                startSearchTask(searchId, rootPath, queryText, handle, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+                rootPaths.add(rootPath);
             } else {
                 handle.getRemainingTasks().decrementAndGet();
             }
         }
 
+        for (final FileStoreGroup storeGroup : assignFileStores(handle, rootPaths)) {
+            for (final Path rootPath : storeGroup.getRoots()) {
+                startSearchTask(searchId, rootPath, storeGroup, queryText, handle, listener, filterPlan);
+            }
+        }
+
         checkComplete(handle, listener);
     }
 
-    private void handleSearchSelectedDrives(final List<String> drives, final String queryText, final SearchEventListener listener, final boolean caseSensitive, final List<String> extensionsAllow, final List<String> extensionsDeny, final List<String> includes, final java.util.Map<String, Boolean> includesCase, final List<String> excludes, final java.util.Map<String, Boolean> excludesCase, final boolean includeAllMode, final List<String> contentIncludes, final java.util.Map<String, Boolean> contentIncludesCase, final List<String> contentExcludes, final java.util.Map<String, Boolean> contentExcludesCase, final boolean contentIncludeAllMode, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeIncludes, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeExcludes, final boolean timeIncludeAllMode) {
+    private void handleSearchSelectedDrives(final List<String> drives, final String queryText, final SearchEventListener listener, final FilterPlan filterPlan) {
         if (drives == null || drives.isEmpty()) {
             listener.onError("Keine Laufwerke angegeben");
             return;
@@ -198,10 +300,11 @@ public final class SearchService {
 
         final long startNano = System.nanoTime();
         final String searchId = UUID.randomUUID().toString();
-        final SearchHandle handle = createSearchHandle(startNano, drives.size());
+        final SearchHandle handle = createSearchHandle(startNano, drives.size(), filterPlan);
 
         searches.put(searchId, handle);
 
+        final List<Path> rootPaths = new ArrayList<>();
         for (String drive : drives) {
             if (drive == null || drive.isEmpty()) {
                 handle.getRemainingTasks().decrementAndGet();
@@ -210,16 +313,22 @@ public final class SearchService {
 
             final Path rootPath = Paths.get(drive);
             if (Files.exists(rootPath)) {
-                startSearchTask(searchId, rootPath, queryText, handle, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+                rootPaths.add(rootPath);
             } else {
                 handle.getRemainingTasks().decrementAndGet();
             }
         }
 
+        for (final FileStoreGroup storeGroup : assignFileStores(handle, rootPaths)) {
+            for (final Path rootPath : storeGroup.getRoots()) {
+                startSearchTask(searchId, rootPath, storeGroup, queryText, handle, listener, filterPlan);
+            }
+        }
+
         checkComplete(handle, listener);
     }
 
-    private void startSearch(final String folderPath, final String queryText, final SearchEventListener listener, final boolean caseSensitive, final List<String> extensionsAllow, final List<String> extensionsDeny, final List<String> includes, final java.util.Map<String, Boolean> includesCase, final List<String> excludes, final java.util.Map<String, Boolean> excludesCase, final boolean includeAllMode, final List<String> contentIncludes, final java.util.Map<String, Boolean> contentIncludesCase, final List<String> contentExcludes, final java.util.Map<String, Boolean> contentExcludesCase, final boolean contentIncludeAllMode, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeIncludes, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeExcludes, final boolean timeIncludeAllMode) {
+    private void startSearch(final String folderPath, final String queryText, final SearchEventListener listener, final FilterPlan filterPlan) {
         final Path startPath = Paths.get(folderPath);
         if (!Files.exists(startPath)) {
             listener.onError("Der angegebene Ordner existiert nicht: " + folderPath);
@@ -228,71 +337,291 @@ public final class SearchService {
 
         final long startNano = System.nanoTime();
         final String searchId = UUID.randomUUID().toString();
-        final SearchHandle handle = createSearchHandle(startNano, 1);
+        final SearchHandle handle = createSearchHandle(startNano, 1, filterPlan);
 
         searches.put(searchId, handle);
 
-        startSearchTask(searchId, startPath, queryText, handle, listener, caseSensitive, extensionsAllow, extensionsDeny, includes, includesCase, excludes, excludesCase, includeAllMode, contentIncludes, contentIncludesCase, contentExcludes, contentExcludesCase, contentIncludeAllMode, timeIncludes, timeExcludes, timeIncludeAllMode);
+        final List<Path> rootPaths = List.of(startPath);
+        for (final FileStoreGroup storeGroup : assignFileStores(handle, rootPaths)) {
+            for (final Path rootPath : storeGroup.getRoots()) {
+                startSearchTask(searchId, rootPath, storeGroup, queryText, handle, listener, filterPlan);
+            }
+        }
 
         checkComplete(handle, listener);
     }
 
-    private void startSearchTask(final String searchId, final Path rootPath, final String queryText, final SearchHandle handle, final SearchEventListener listener, final boolean caseSensitive, final List<String> extensionsAllow, final List<String> extensionsDeny, final List<String> includes, final java.util.Map<String, Boolean> includesCase, final List<String> excludes, final java.util.Map<String, Boolean> excludesCase, final boolean includeAllMode, final List<String> contentIncludes, final java.util.Map<String, Boolean> contentIncludesCase, final List<String> contentExcludes, final java.util.Map<String, Boolean> contentExcludesCase, final boolean contentIncludeAllMode, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeIncludes, final java.util.List<com.mlprograms.searchmax.model.TimeRangeTableModel.Entry> timeExcludes, final boolean timeIncludeAllMode) {
+    private List<FileStoreGroup> assignFileStores(final SearchHandle handle, final List<Path> rootPaths) {
+        final int defaultParallelism = engineSettings.usesVirtualThreads() ? 1 : pool.getParallelism();
+        final List<FileStoreGroup> groups = FileStoreScheduler.groupByFileStore(rootPaths, defaultParallelism, handle.getStatistics());
+        handle.setFileStoreGroups(groups);
+
+        final TraversalSettings traversal = traversalSettings;
+        final boolean usePriorityTraversal = traversal.usesPriorityQueue() && !engineSettings.usesVirtualThreads();
+        if (usePriorityTraversal) {
+            for (final FileStoreGroup group : groups) {
+                group.setTraversal(new PriorityTraversal(traversal, handle.getFilterPlan().getQueryBoostTerm(), group.getParallelism()));
+            }
+        }
+
+        if (usePriorityTraversal || groups.stream().anyMatch(group -> group.getPool() != null)) {
+            // Der Regler steuert nur den gemeinsamen Pool
+            handle.setParallelismController(null);
+        }
+        return groups;
+    }
+
+    private void startSearchTask(final String searchId, final Path rootPath, final FileStoreGroup storeGroup, final String queryText, final SearchHandle handle, final SearchEventListener listener, final FilterPlan filterPlan) {
+        if (!handle.getVisitedSet().markRoot(rootPath)) {
+            // Startverzeichnis liegt bereits in einem anderen Startverzeichnis oder ist dasselbe physische Verzeichnis
+            handle.getRemainingTasks().decrementAndGet();
+            return;
+        }
+
         // Create DirectoryTask with the correct argument order expected by DirectoryTask constructor
         final DirectoryTask task = new DirectoryTask(rootPath,
                 handle.getResults(),
                 handle.getMatchCount(),
                 handle.getRemainingTasks(), // pass remainingTasks so root-tasks can decrement when finished
-                queryText,
                 handle.getStartNano(),
                 (s) -> safeSendMatch(listener, s),
-                handle.getCancelled(),
-                caseSensitive,
-                extensionsAllow,
-                extensionsDeny,
-                includes,
-                includesCase,
-                excludes,
-                excludesCase,
-                includeAllMode,
-                contentIncludes,
-                contentIncludesCase,
-                contentExcludes,
-                contentExcludesCase,
-                contentIncludeAllMode,
-                timeIncludes,
-                timeExcludes,
-                timeIncludeAllMode,
-                extractionMode);
-        // Register and submit
+                handle.getBudget(),
+                filterPlan,
+                extractionMode,
+                storeGroup.getStatistics(),
+                handle.getContentPipeline(),
+                handle.getVirtualThreadEngine(),
+                0,
+                storeGroup.getTraversal(),
+                handle.getExclusionRules(),
+                handle.getVisitedSet(),
+                handle.getTraversalBoundary().forRoot(rootPath),
+                handle.getLargeFileScanner(),
+                handle.getBinaryFileDetector());
+
+        final PriorityTraversal traversal = storeGroup.getTraversal();
+        if (traversal != null) {
+            traversal.submitRoot(task);
+            return;
+        }
+
+        final VirtualThreadEngine virtualThreadEngine = handle.getVirtualThreadEngine();
+        if (virtualThreadEngine != null) {
+            // Abbruch erfolgt hier ausschließlich über das Budget, die Aufgabe läuft nicht im Pool
+            virtualThreadEngine.submitDirectory(task::invoke);
+            return;
+        }
+
+        // Register and submit, roots on their own device get their own pool
         handle.getTasks().add(task);
-        pool.submit(task);
+        final ForkJoinPool storePool = storeGroup.getPool();
+        (storePool != null ? storePool : pool).submit(task);
     }
 
-    private SearchHandle createSearchHandle(long startNano, int remainingTasks) {
-        return new SearchHandle(null, startNano, new AtomicInteger(remainingTasks), new AtomicInteger(0), new ConcurrentLinkedQueue<>(), remainingTasks);
+    private SearchHandle createSearchHandle(long startNano, int remainingTasks, final FilterPlan filterPlan) {
+        final SearchBudget budget = new SearchBudget(searchLimits, startNano);
+        final SearchHandle handle = new SearchHandle(null, startNano, new AtomicInteger(remainingTasks), new AtomicInteger(0), new ConcurrentLinkedQueue<>(), remainingTasks, budget);
+        handle.setExclusionRules(DirectoryExclusionRules.compile(exclusionRules));
+        handle.setVisitedSet(new VisitedSet(traversalSettings.followLinks(), remainingTasks > 1));
+        handle.setTraversalBoundary(TraversalBoundary.create(traversalSettings));
+        handle.setLargeFileScanner(LargeFileScanner.create(contentScanSettings));
+        handle.setBinaryFileDetector(BinaryFileDetector.create(contentScanSettings));
+        handle.setFilterPlan(filterPlan);
+
+        if (isAdaptiveParallelism()) {
+            final ForkJoinPool searchPool = pool;
+            handle.setParallelismController(new ParallelismController(searchPool.getParallelism(),
+                    engineSettings.maxParallelism(), startNano, searchPool::setParallelism));
+        }
+
+        final EngineSettings engine = engineSettings;
+        if (engine.usesVirtualThreads()) {
+            handle.setVirtualThreadEngine(new VirtualThreadEngine(engine.maxOpenDirectories(), engine.maxOpenFiles()));
+            return handle;
+        }
+
+        final PipelineSettings settings = pipelineSettings;
+        if (settings.enabled()) {
+            handle.setContentPipeline(new ContentPipeline(settings.contentThreads(), settings.queueCapacity()));
+        }
+        return handle;
     }
 
     private void checkComplete(final SearchHandle handle, final SearchEventListener listener) {
-        pool.submit(() -> {
+        // Eigener Thread statt Pool-Worker, damit die Überwachung keinen Such-Thread blockiert,
+        // auch wenn die Parallelität auf 1 sinkt
+        Thread.ofPlatform().daemon().name("search-monitor").start(() -> {
             try {
-                while (handle.getRemainingTasks().get() > 0) {
+                long nextProgressNano = System.nanoTime() + PROGRESS_INTERVAL_NANOS;
+                while (isSearchRunning(handle)) {
                     try {
                         Thread.sleep(100);
                     } catch (InterruptedException ie) {
                         Thread.currentThread().interrupt();
                         break;
                     }
+
+                    final ParallelismController parallelismController = handle.getParallelismController();
+                    if (parallelismController != null) {
+                        parallelismController.sample(handle.getStatistics().getVisitedFiles().get(), handle.getBudget().getBytesScanned());
+                    }
+
+                    if (System.nanoTime() - nextProgressNano >= 0) {
+                        nextProgressNano += PROGRESS_INTERVAL_NANOS;
+                        safeSendProgress(listener, buildProgress(handle));
+                    }
                 }
                 final int total = handle.getMatchCount() == null ? 0 : handle.getMatchCount().get();
-                listener.onEnd(String.format("%d files found", total));
+                listener.onEnd(buildSummary(handle, total));
                 searches.entrySet().removeIf(e -> e.getValue() == handle);
             } catch (Exception e) {
                 log.debug("checkComplete thread interrupted", e);
+            } finally {
+                final ContentPipeline contentPipeline = handle.getContentPipeline();
+                if (contentPipeline != null) {
+                    contentPipeline.shutdown();
+                }
+                final VirtualThreadEngine virtualThreadEngine = handle.getVirtualThreadEngine();
+                if (virtualThreadEngine != null) {
+                    virtualThreadEngine.shutdown();
+                }
+                handle.getFileStoreGroups().forEach(FileStoreGroup::shutdown);
+                restoreParallelism(handle);
             }
         });
     }
 
+    private static void restoreParallelism(final SearchHandle handle) {
+        final ParallelismController parallelismController = handle.getParallelismController();
+        if (parallelismController != null) {
+            parallelismController.restore();
+        }
+    }
+
+    private boolean isSearchRunning(final SearchHandle handle) {
+        final ContentPipeline contentPipeline = handle.getContentPipeline();
+        final VirtualThreadEngine virtualThreadEngine = handle.getVirtualThreadEngine();
+        return handle.getRemainingTasks().get() > 0
+                || (contentPipeline != null && !contentPipeline.isIdle())
+                || (virtualThreadEngine != null && !virtualThreadEngine.isIdle())
+                || !handle.getFileStoreGroups().stream().allMatch(FileStoreGroup::isTraversalIdle);
+    }
+
+    private String buildProgress(final SearchHandle handle) {
+        final double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - handle.getStartNano()) / 1e9);
+        final long walkedFiles = handle.getStatistics().getVisitedFiles().get();
+        final StringBuilder progress = new StringBuilder(String.format("%d files walked (%.0f/s)",
+                walkedFiles, walkedFiles / elapsedSeconds));
+
+        final ContentPipeline contentPipeline = handle.getContentPipeline();
+        if (contentPipeline != null) {
+            final long evaluated = contentPipeline.getEvaluatedCandidates().get();
+            progress.append(String.format(" | content queue %d/%d, %d evaluated (%.0f/s)",
+                    contentPipeline.getQueueDepth(), contentPipeline.getCapacity(), evaluated, evaluated / elapsedSeconds));
+        }
+
+        final int queuedDirectories = handle.getFileStoreGroups().stream()
+                .map(FileStoreGroup::getTraversal)
+                .filter(java.util.Objects::nonNull)
+                .mapToInt(PriorityTraversal::getQueueDepth)
+                .sum();
+        if (queuedDirectories > 0) {
+            progress.append(String.format(" | %d directories queued", queuedDirectories));
+        }
+
+        final ParallelismController parallelismController = handle.getParallelismController();
+        if (parallelismController != null) {
+            progress.append(String.format(" | parallelism %d/%d",
+                    parallelismController.getCurrentParallelism(), parallelismController.getMaxParallelism()));
+        }
+
+        final VirtualThreadEngine virtualThreadEngine = handle.getVirtualThreadEngine();
+        if (virtualThreadEngine != null) {
+            progress.append(String.format(" | %d virtual threads, directories %d/%d, files %d/%d",
+                    virtualThreadEngine.getPendingTasks(),
+                    virtualThreadEngine.getOpenDirectories(), virtualThreadEngine.getMaxOpenDirectories(),
+                    virtualThreadEngine.getOpenFileCount(), virtualThreadEngine.getMaxOpenFiles()));
+        }
+        return progress.toString();
+    }
+
+    private String buildSummary(final SearchHandle handle, final int total) {
+        String summary = String.format("%d files found (%s)", total, handle.getStatistics().formatSummary());
+        final String resultLatency = handle.getStatistics().formatResultLatency(handle.getStartNano());
+        if (!resultLatency.isEmpty()) {
+            summary += " - results after " + resultLatency;
+            log.info("Durchlaufreihenfolge {}: Treffer nach {}", traversalSettings.order(), resultLatency);
+        }
+        final ParallelismController parallelismController = handle.getParallelismController();
+        if (parallelismController != null) {
+            summary += String.format(" - parallelism %d", parallelismController.getCurrentParallelism());
+            log.info("Durchsatzkurve: {}", parallelismController.formatCurve());
+        }
+
+        final DirectoryExclusionRules rules = handle.getExclusionRules();
+        final String pruneCounts = rules.formatPruneCounts();
+        if (!pruneCounts.isEmpty()) {
+            summary += " - pruned " + pruneCounts;
+            log.info("Ausgeschlossen: {}", pruneCounts);
+        }
+
+        final String boundaryCounts = handle.getTraversalBoundary().formatPruneCounts();
+        if (!boundaryCounts.isEmpty()) {
+            summary += " - skipped directories " + boundaryCounts;
+        }
+
+        final String filterExplain = handle.getFilterPlan().formatExplain();
+        if (!filterExplain.isEmpty()) {
+            summary += " - filter order " + filterExplain;
+            log.info("Filterreihenfolge: {}", filterExplain);
+        }
+
+        final String largeFileSummary = handle.getLargeFileScanner().formatSummary();
+        if (!largeFileSummary.isEmpty()) {
+            summary += " - " + largeFileSummary;
+        }
+
+        final String binaryFileSummary = handle.getBinaryFileDetector().formatSummary();
+        if (!binaryFileSummary.isEmpty()) {
+            summary += " - " + binaryFileSummary;
+        }
+
+        final VisitedSet visitedSet = handle.getVisitedSet();
+        if (visitedSet.getSkippedDirectories() > 0 || visitedSet.getSkippedFiles() > 0 || visitedSet.getReusedContentChecks() > 0) {
+            summary += String.format(" - %d duplicate directories skipped, %d duplicate files skipped, %d content checks reused",
+                    visitedSet.getSkippedDirectories(), visitedSet.getSkippedFiles(), visitedSet.getReusedContentChecks());
+        }
+
+        final List<FileStoreGroup> storeGroups = handle.getFileStoreGroups();
+        if (!storeGroups.isEmpty()) {
+            final List<String> storeThroughput = new ArrayList<>(storeGroups.size());
+            for (final FileStoreGroup storeGroup : storeGroups) {
+                storeThroughput.add(storeGroup.formatThroughput(handle.getStartNano()));
+            }
+            log.info("Durchsatz pro Laufwerk: {}", String.join("; ", storeThroughput));
+            if (storeGroups.size() > 1) {
+                summary += " - " + String.join("; ", storeThroughput);
+            }
+        }
+
+        final SearchBudget.StopReason stopReason = handle.getBudget().getStopReason();
+        if (stopReason == null) {
+            return summary;
+        }
+
+        log.info("Suche beendet: {} ({} Dateien geprüft, {} Bytes gelesen)", stopReason.getDescription(),
+                handle.getBudget().getFilesExamined(), handle.getBudget().getBytesScanned());
+        return summary + " - stopped: " + stopReason.getDescription();
+    }
+
+    private void safeSendProgress(final SearchEventListener listener, final String progress) {
+        try {
+            listener.onProgress(progress);
+        } catch (Exception e) {
+            log.debug("Fehler beim Senden des Fortschritts", e);
+        }
+    }
+
     private void safeSendMatch(final SearchEventListener listener, final String data) {
         try {
             listener.onMatch(data);
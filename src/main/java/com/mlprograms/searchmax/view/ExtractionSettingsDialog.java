@@ -1,6 +1,15 @@
 package com.mlprograms.searchmax.view;
 
+import com.mlprograms.searchmax.ContentScanSettings;
+import com.mlprograms.searchmax.DirectoryExclusionRules;
+import com.mlprograms.searchmax.EngineSettings;
+import com.mlprograms.searchmax.ExecutionEngine;
 import com.mlprograms.searchmax.ExtractionMode;
+import com.mlprograms.searchmax.PipelineSettings;
+import com.mlprograms.searchmax.SearchLimits;
+import com.mlprograms.searchmax.StartByteFilter;
+import com.mlprograms.searchmax.TraversalOrder;
+import com.mlprograms.searchmax.TraversalSettings;
 import lombok.Getter;
 
 import javax.swing.*;
@@ -18,26 +27,80 @@ import java.util.List;
 public final class ExtractionSettingsDialog extends JDialog {
 
     private static final int DIALOG_WIDTH = 640;
-    private static final int DIALOG_HEIGHT = 420;
+    private static final int DIALOG_HEIGHT = 1080;
     private static final int VERTICAL_STRUT_SIZE = 4;
     private static final int SECTION_SPACING = 8;
     private static final int LAYOUT_GAP = 8;
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+    private static final int EXCLUSION_RULES_ROWS = 6;
 
     private ExtractionMode selectedExtractionMode = null;
+    private SearchLimits selectedSearchLimits = null;
+    private PipelineSettings selectedPipelineSettings = null;
+    private EngineSettings selectedEngineSettings = null;
+    private TraversalSettings selectedTraversalSettings = null;
+    private ContentScanSettings selectedContentScanSettings = null;
+    private List<String> selectedExclusionRules = null;
     private final JPanel sectionsContainerPanel = new JPanel();
     private final ButtonGroup extractionModeButtonGroup = new ButtonGroup();
-
-    public ExtractionSettingsDialog(final Window owner, final ExtractionMode currentExtractionMode) {
+    private final JSpinner maxSecondsSpinner = createLimitSpinner();
+    private final JSpinner maxResultsSpinner = createLimitSpinner();
+    private final JSpinner maxMegabytesSpinner = createLimitSpinner();
+    private final JSpinner maxFilesSpinner = createLimitSpinner();
+    private final JCheckBox pipelineModeCheckbox = new JCheckBox(GuiConstants.CHECKBOX_PIPELINE_MODE);
+    private final JSpinner walkerThreadsSpinner = createCountSpinner(0);
+    private final JSpinner contentThreadsSpinner = createCountSpinner(1);
+    private final JSpinner queueCapacitySpinner = createCountSpinner(1);
+    private final JComboBox<String> executionEngineComboBox = new JComboBox<>(new String[]{
+            GuiConstants.ENGINE_FORK_JOIN, GuiConstants.ENGINE_VIRTUAL_THREADS
+    });
+    private final JSpinner maxOpenDirectoriesSpinner = createCountSpinner(1);
+    private final JSpinner maxOpenFilesSpinner = createCountSpinner(1);
+    private final JCheckBox adaptiveParallelismCheckbox = new JCheckBox(GuiConstants.CHECKBOX_ADAPTIVE_PARALLELISM);
+    private final JSpinner maxParallelismSpinner = createCountSpinner(1);
+    private final JComboBox<String> traversalOrderComboBox = new JComboBox<>(new String[]{
+            GuiConstants.TRAVERSAL_DEPTH_FIRST, GuiConstants.TRAVERSAL_BREADTH_FIRST,
+            GuiConstants.TRAVERSAL_SHALLOW_FIRST, GuiConstants.TRAVERSAL_RECENTLY_MODIFIED_FIRST
+    });
+    private final JCheckBox boostQueryMatchesCheckbox = new JCheckBox(GuiConstants.CHECKBOX_BOOST_QUERY_MATCHES);
+    private final JCheckBox followLinksCheckbox = new JCheckBox(GuiConstants.CHECKBOX_FOLLOW_LINKS);
+    private final JSpinner maxDepthSpinner = createCountSpinner(0);
+    private final JCheckBox stayOnFileSystemCheckbox = new JCheckBox(GuiConstants.CHECKBOX_STAY_ON_FILE_SYSTEM);
+    private final JCheckBox skipPseudoFileSystemsCheckbox = new JCheckBox(GuiConstants.CHECKBOX_SKIP_PSEUDO_FILE_SYSTEMS);
+    private final JSpinner memoryMapThresholdSpinner = createCountSpinner(0);
+    private final JCheckBox vectorizedPrefilterCheckbox = new JCheckBox(GuiConstants.CHECKBOX_VECTORIZED_PREFILTER);
+    private final JCheckBox scanBinaryFilesCheckbox = new JCheckBox(GuiConstants.CHECKBOX_SCAN_BINARY_FILES);
+    private final JTextArea exclusionRulesTextArea = new JTextArea(EXCLUSION_RULES_ROWS, 0);
+
+    public ExtractionSettingsDialog(final Window owner, final ExtractionMode currentExtractionMode,
+                                    final SearchLimits currentSearchLimits,
+                                    final PipelineSettings currentPipelineSettings,
+                                    final EngineSettings currentEngineSettings,
+                                    final TraversalSettings currentTraversalSettings,
+                                    final ContentScanSettings currentContentScanSettings,
+                                    final List<String> currentExclusionRules) {
         super(owner, GuiConstants.TITLE_EXTRACTION_SETTINGS, ModalityType.APPLICATION_MODAL);
-        initializeUserInterface(currentExtractionMode);
+        initializeUserInterface(currentExtractionMode, currentSearchLimits, currentPipelineSettings, currentEngineSettings,
+                currentTraversalSettings, currentContentScanSettings, currentExclusionRules);
     }
 
-    private void initializeUserInterface(final ExtractionMode currentExtractionMode) {
+    private void initializeUserInterface(final ExtractionMode currentExtractionMode, final SearchLimits currentSearchLimits,
+                                         final PipelineSettings currentPipelineSettings,
+                                         final EngineSettings currentEngineSettings,
+                                         final TraversalSettings currentTraversalSettings,
+                                         final ContentScanSettings currentContentScanSettings,
+                                         final List<String> currentExclusionRules) {
         final JPanel rootPanel = createRootPanel();
         initializeSectionsContainer();
 
         final JPanel extractionSettingsPanel = createExtractionSettingsPanel(currentExtractionMode);
         addSectionComponent(extractionSettingsPanel);
+        addSectionComponent(createExecutionPanel(currentPipelineSettings, currentEngineSettings));
+        addSectionComponent(createTraversalPanel(currentTraversalSettings));
+        addSectionComponent(createContentScanningPanel(currentContentScanSettings));
+        addSectionComponent(createExclusionRulesPanel(currentExclusionRules));
+        addSectionComponent(createSearchLimitsPanel(currentSearchLimits));
         // Add troubleshoot section
         final JPanel troubleshootPanel = createTroubleshootPanel();
         addSectionComponent(troubleshootPanel);
@@ -75,6 +138,220 @@ public final class ExtractionSettingsDialog extends JDialog {
         return extractionPanel;
     }
 
+    private JPanel createExecutionPanel(final PipelineSettings currentPipelineSettings,
+                                        final EngineSettings currentEngineSettings) {
+        final JPanel executionPanel = new JPanel(new GridBagLayout());
+        executionPanel.setBorder(createTitledBorder(GuiConstants.SECTION_EXECUTION));
+
+        final PipelineSettings settings = currentPipelineSettings == null ? PipelineSettings.DISABLED : currentPipelineSettings;
+        pipelineModeCheckbox.setSelected(settings.enabled());
+        walkerThreadsSpinner.setValue(settings.walkerThreads());
+        contentThreadsSpinner.setValue(settings.contentThreads());
+        queueCapacitySpinner.setValue(settings.queueCapacity());
+
+        final EngineSettings engineSettings = currentEngineSettings == null ? EngineSettings.DEFAULT : currentEngineSettings;
+        executionEngineComboBox.setSelectedIndex(engineSettings.engine().ordinal());
+        maxOpenDirectoriesSpinner.setValue(engineSettings.maxOpenDirectories());
+        maxOpenFilesSpinner.setValue(engineSettings.maxOpenFiles());
+        adaptiveParallelismCheckbox.setSelected(engineSettings.adaptiveParallelism());
+        maxParallelismSpinner.setValue(engineSettings.maxParallelism());
+
+        addLabeledComponent(executionPanel, 0, GuiConstants.LABEL_EXECUTION_ENGINE, executionEngineComboBox);
+        addLabeledComponent(executionPanel, 1, GuiConstants.LABEL_MAX_OPEN_DIRECTORIES, maxOpenDirectoriesSpinner);
+        addLabeledComponent(executionPanel, 2, GuiConstants.LABEL_MAX_OPEN_FILES, maxOpenFilesSpinner);
+        addFullWidthComponent(executionPanel, 3, adaptiveParallelismCheckbox);
+        addLabeledComponent(executionPanel, 4, GuiConstants.LABEL_MAX_PARALLELISM, maxParallelismSpinner);
+        addFullWidthComponent(executionPanel, 5, pipelineModeCheckbox);
+        addLabeledComponent(executionPanel, 6, GuiConstants.LABEL_WALKER_THREADS, walkerThreadsSpinner);
+        addLabeledComponent(executionPanel, 7, GuiConstants.LABEL_CONTENT_THREADS, contentThreadsSpinner);
+        addLabeledComponent(executionPanel, 8, GuiConstants.LABEL_QUEUE_CAPACITY, queueCapacitySpinner);
+
+        return executionPanel;
+    }
+
+    private static JSpinner createCountSpinner(final int minimum) {
+        return new JSpinner(new SpinnerNumberModel(minimum, minimum, Integer.MAX_VALUE, 1));
+    }
+
+    private PipelineSettings readPipelineSettings() {
+        return new PipelineSettings(
+                pipelineModeCheckbox.isSelected(),
+                (int) spinnerValue(walkerThreadsSpinner),
+                (int) spinnerValue(contentThreadsSpinner),
+                (int) spinnerValue(queueCapacitySpinner)
+        );
+    }
+
+    private EngineSettings readEngineSettings() {
+        return new EngineSettings(
+                ExecutionEngine.values()[executionEngineComboBox.getSelectedIndex()],
+                (int) spinnerValue(maxOpenDirectoriesSpinner),
+                (int) spinnerValue(maxOpenFilesSpinner),
+                adaptiveParallelismCheckbox.isSelected(),
+                (int) spinnerValue(maxParallelismSpinner)
+        );
+    }
+
+    private JPanel createTraversalPanel(final TraversalSettings currentTraversalSettings) {
+        final JPanel traversalPanel = new JPanel(new GridBagLayout());
+        traversalPanel.setBorder(createTitledBorder(GuiConstants.SECTION_TRAVERSAL));
+
+        final TraversalSettings settings = currentTraversalSettings == null ? TraversalSettings.DEFAULT : currentTraversalSettings;
+        traversalOrderComboBox.setSelectedIndex(settings.order().ordinal());
+        boostQueryMatchesCheckbox.setSelected(settings.boostQueryMatches());
+        followLinksCheckbox.setSelected(settings.followLinks());
+        maxDepthSpinner.setValue(settings.maxDepth());
+        stayOnFileSystemCheckbox.setSelected(settings.stayOnFileSystem());
+        skipPseudoFileSystemsCheckbox.setSelected(settings.skipPseudoFileSystems());
+
+        addLabeledComponent(traversalPanel, 0, GuiConstants.LABEL_TRAVERSAL_ORDER, traversalOrderComboBox);
+        addFullWidthComponent(traversalPanel, 1, boostQueryMatchesCheckbox);
+        addFullWidthComponent(traversalPanel, 2, followLinksCheckbox);
+        addLabeledComponent(traversalPanel, 3, GuiConstants.LABEL_MAX_DEPTH, maxDepthSpinner);
+        addFullWidthComponent(traversalPanel, 4, stayOnFileSystemCheckbox);
+        addFullWidthComponent(traversalPanel, 5, skipPseudoFileSystemsCheckbox);
+
+        return traversalPanel;
+    }
+
+    private TraversalSettings readTraversalSettings() {
+        return new TraversalSettings(
+                TraversalOrder.values()[traversalOrderComboBox.getSelectedIndex()],
+                boostQueryMatchesCheckbox.isSelected(),
+                followLinksCheckbox.isSelected(),
+                (int) spinnerValue(maxDepthSpinner),
+                stayOnFileSystemCheckbox.isSelected(),
+                skipPseudoFileSystemsCheckbox.isSelected()
+        );
+    }
+
+    private JPanel createContentScanningPanel(final ContentScanSettings currentContentScanSettings) {
+        final JPanel contentScanningPanel = new JPanel(new GridBagLayout());
+        contentScanningPanel.setBorder(createTitledBorder(GuiConstants.SECTION_CONTENT_SCANNING));
+
+        final ContentScanSettings settings = currentContentScanSettings == null ? ContentScanSettings.DEFAULT : currentContentScanSettings;
+        memoryMapThresholdSpinner.setValue(settings.memoryMapThresholdMegabytes());
+        vectorizedPrefilterCheckbox.setSelected(settings.vectorizedPrefilter());
+        vectorizedPrefilterCheckbox.setToolTipText(GuiConstants.TOOLTIP_VECTORIZED_PREFILTER);
+        if (!StartByteFilter.isVectorSearchAvailable()) {
+            vectorizedPrefilterCheckbox.setText(GuiConstants.CHECKBOX_VECTORIZED_PREFILTER_UNAVAILABLE);
+        }
+        scanBinaryFilesCheckbox.setSelected(settings.scanBinaryFiles());
+
+        addLabeledComponent(contentScanningPanel, 0, GuiConstants.LABEL_MEMORY_MAP_THRESHOLD, memoryMapThresholdSpinner);
+        addFullWidthComponent(contentScanningPanel, 1, vectorizedPrefilterCheckbox);
+        addFullWidthComponent(contentScanningPanel, 2, scanBinaryFilesCheckbox);
+
+        return contentScanningPanel;
+    }
+
+    private ContentScanSettings readContentScanSettings() {
+        return new ContentScanSettings(
+                (int) spinnerValue(memoryMapThresholdSpinner),
+                vectorizedPrefilterCheckbox.isSelected(),
+                scanBinaryFilesCheckbox.isSelected()
+        );
+    }
+
+    private JPanel createExclusionRulesPanel(final List<String> currentExclusionRules) {
+        final JPanel exclusionPanel = new JPanel(new BorderLayout(LAYOUT_GAP, LAYOUT_GAP));
+        exclusionPanel.setBorder(createTitledBorder(GuiConstants.SECTION_EXCLUSION_RULES));
+
+        final JLabel infoLabel = new JLabel("<html>" + GuiConstants.EXCLUSION_RULES_INFO + "</html>");
+        exclusionPanel.add(infoLabel, BorderLayout.NORTH);
+
+        exclusionRulesTextArea.setText(String.join("\n",
+                currentExclusionRules == null ? DirectoryExclusionRules.DEFAULT_RULES : currentExclusionRules));
+        exclusionPanel.add(new JScrollPane(exclusionRulesTextArea), BorderLayout.CENTER);
+
+        final JButton addBuildCacheRulesButton = new JButton(GuiConstants.BUTTON_ADD_BUILD_CACHE_RULES);
+        addBuildCacheRulesButton.addActionListener(actionEvent -> {
+            final List<String> rules = new ArrayList<>(readExclusionRules());
+            for (final String rule : DirectoryExclusionRules.BUILD_AND_CACHE_RULES) {
+                if (!rules.contains(rule)) {
+                    rules.add(rule);
+                }
+            }
+            exclusionRulesTextArea.setText(String.join("\n", rules));
+        });
+
+        final JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(addBuildCacheRulesButton);
+        exclusionPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        return exclusionPanel;
+    }
+
+    private List<String> readExclusionRules() {
+        final List<String> rules = new ArrayList<>();
+        for (final String line : exclusionRulesTextArea.getText().split("\\R")) {
+            final String trimmed = line.trim();
+            if (!trimmed.isEmpty()) {
+                rules.add(trimmed);
+            }
+        }
+        return rules;
+    }
+
+    private JPanel createSearchLimitsPanel(final SearchLimits currentSearchLimits) {
+        final JPanel limitsPanel = new JPanel(new GridBagLayout());
+        limitsPanel.setBorder(createTitledBorder(GuiConstants.SECTION_SEARCH_LIMITS));
+
+        final SearchLimits limits = currentSearchLimits == null ? SearchLimits.UNLIMITED : currentSearchLimits;
+        maxSecondsSpinner.setValue(Math.max(0L, limits.maxDurationMillis() / MILLIS_PER_SECOND));
+        maxResultsSpinner.setValue(Math.max(0L, limits.maxResults()));
+        maxMegabytesSpinner.setValue(Math.max(0L, limits.maxBytesScanned() / BYTES_PER_MEGABYTE));
+        maxFilesSpinner.setValue(Math.max(0L, limits.maxFilesExamined()));
+
+        addLabeledComponent(limitsPanel, 0, GuiConstants.LABEL_LIMIT_MAX_SECONDS, maxSecondsSpinner);
+        addLabeledComponent(limitsPanel, 1, GuiConstants.LABEL_LIMIT_MAX_RESULTS, maxResultsSpinner);
+        addLabeledComponent(limitsPanel, 2, GuiConstants.LABEL_LIMIT_MAX_MEGABYTES, maxMegabytesSpinner);
+        addLabeledComponent(limitsPanel, 3, GuiConstants.LABEL_LIMIT_MAX_FILES, maxFilesSpinner);
+
+        return limitsPanel;
+    }
+
+    private static JSpinner createLimitSpinner() {
+        return new JSpinner(new SpinnerNumberModel(Long.valueOf(0L), Long.valueOf(0L), Long.valueOf(Long.MAX_VALUE), Long.valueOf(1L)));
+    }
+
+    private void addLabeledComponent(final JPanel panel, final int row, final String labelText, final JComponent component) {
+        final GridBagConstraints constraints = new GridBagConstraints();
+        constraints.insets = new Insets(VERTICAL_STRUT_SIZE, VERTICAL_STRUT_SIZE, VERTICAL_STRUT_SIZE, VERTICAL_STRUT_SIZE);
+        constraints.gridy = row;
+        constraints.gridx = 0;
+        constraints.anchor = GridBagConstraints.WEST;
+        panel.add(new JLabel(labelText), constraints);
+
+        constraints.gridx = 1;
+        constraints.weightx = 1.0;
+        constraints.fill = GridBagConstraints.HORIZONTAL;
+        panel.add(component, constraints);
+    }
+
+    private void addFullWidthComponent(final JPanel panel, final int row, final JComponent component) {
+        final GridBagConstraints constraints = new GridBagConstraints();
+        constraints.insets = new Insets(VERTICAL_STRUT_SIZE, VERTICAL_STRUT_SIZE, VERTICAL_STRUT_SIZE, VERTICAL_STRUT_SIZE);
+        constraints.gridy = row;
+        constraints.gridx = 0;
+        constraints.gridwidth = 2;
+        constraints.anchor = GridBagConstraints.WEST;
+        panel.add(component, constraints);
+    }
+
+    private SearchLimits readSearchLimits() {
+        return new SearchLimits(
+                spinnerValue(maxSecondsSpinner) * MILLIS_PER_SECOND,
+                spinnerValue(maxResultsSpinner),
+                spinnerValue(maxMegabytesSpinner) * BYTES_PER_MEGABYTE,
+                spinnerValue(maxFilesSpinner)
+        );
+    }
+
+    private long spinnerValue(final JSpinner spinner) {
+        return ((Number) spinner.getValue()).longValue();
+    }
+
     private TitledBorder createTitledBorder(final String title) {
         return BorderFactory.createTitledBorder(
                 BorderFactory.createEtchedBorder(),
@@ -134,12 +411,24 @@ public final class ExtractionSettingsDialog extends JDialog {
     private void initializeButtonListeners(final JButton cancelButton, final JButton confirmButton) {
         cancelButton.addActionListener(actionEvent -> {
             selectedExtractionMode = null;
+            selectedSearchLimits = null;
+            selectedPipelineSettings = null;
+            selectedEngineSettings = null;
+            selectedTraversalSettings = null;
+            selectedContentScanSettings = null;
+            selectedExclusionRules = null;
             setVisible(false);
         });
 
         confirmButton.addActionListener(actionEvent -> {
             final String selectedActionCommand = extractionModeButtonGroup.getSelection().getActionCommand();
             selectedExtractionMode = ExtractionMode.valueOf(selectedActionCommand);
+            selectedSearchLimits = readSearchLimits();
+            selectedPipelineSettings = readPipelineSettings();
+            selectedEngineSettings = readEngineSettings();
+            selectedTraversalSettings = readTraversalSettings();
+            selectedContentScanSettings = readContentScanSettings();
+            selectedExclusionRules = readExclusionRules();
             setVisible(false);
         });
     }
@@ -1,5 +1,6 @@
 package com.mlprograms.searchmax.view;
 
+import com.mlprograms.searchmax.ExtensionCategory;
 import com.mlprograms.searchmax.model.*;
 import com.mlprograms.searchmax.view.timerange.TimeRangeInputDialog;
 import com.mlprograms.searchmax.view.timerange.TimeRangeInputResult;
@@ -18,12 +19,18 @@ public final class FiltersDialog extends JDialog {
     private static final int TABLE_ROW_HEIGHT = 24;
     private static final int LAYOUT_GAP = 8;
     private static final int BUTTON_GAP = 6;
+    private static final TextFiltersTableModel.Syntax[] NAME_SYNTAXES = {
+            TextFiltersTableModel.Syntax.TEXT, TextFiltersTableModel.Syntax.GLOB, TextFiltersTableModel.Syntax.REGEX,
+            TextFiltersTableModel.Syntax.LIST};
+    private static final TextFiltersTableModel.Syntax[] CONTENT_SYNTAXES = {
+            TextFiltersTableModel.Syntax.TEXT, TextFiltersTableModel.Syntax.WORD, TextFiltersTableModel.Syntax.PHRASE,
+            TextFiltersTableModel.Syntax.NEAR, TextFiltersTableModel.Syntax.REGEX};
 
     // Filter Models
-    private final TextFiltersTableModel filenameIncludesModel = new TextFiltersTableModel();
-    private final TextFiltersTableModel filenameExcludesModel = new TextFiltersTableModel();
-    private final TextFiltersTableModel contentIncludesModel = new TextFiltersTableModel();
-    private final TextFiltersTableModel contentExcludesModel = new TextFiltersTableModel();
+    private final TextFiltersTableModel filenameIncludesModel = new TextFiltersTableModel(NAME_SYNTAXES);
+    private final TextFiltersTableModel filenameExcludesModel = new TextFiltersTableModel(NAME_SYNTAXES);
+    private final TextFiltersTableModel contentIncludesModel = new TextFiltersTableModel(CONTENT_SYNTAXES);
+    private final TextFiltersTableModel contentExcludesModel = new TextFiltersTableModel(CONTENT_SYNTAXES);
     private final TimeRangeTableModel timeIncludesModel = new TimeRangeTableModel();
     private final TimeRangeTableModel timeExcludesModel = new TimeRangeTableModel();
 
@@ -128,7 +135,7 @@ public final class FiltersDialog extends JDialog {
                 if (key != null) {
                     final String trimmedKey = key.trim();
                     if (!trimmedKey.isEmpty()) {
-                        targetModel.addEntry(trimmedKey, enabled);
+                        targetModel.addKey(trimmedKey, enabled);
                     }
                 }
             }
@@ -162,7 +169,7 @@ public final class FiltersDialog extends JDialog {
     private void applyCaseSensitivityToModel(final Map<String, Boolean> caseMap,
                                              final TextFiltersTableModel model) {
         for (final TextFiltersTableModel.Entry entry : model.getEntries()) {
-            final Boolean isCaseSensitive = caseMap.get(entry.pattern);
+            final Boolean isCaseSensitive = caseMap.get(entry.key());
             entry.caseSensitive = Boolean.TRUE.equals(isCaseSensitive);
         }
     }
@@ -250,6 +257,12 @@ public final class FiltersDialog extends JDialog {
         final int removeColumnIndex = model.getRemoveColumnIndex();
         table.getColumnModel().getColumn(removeColumnIndex).setCellRenderer(new ButtonCellRenderer());
         table.getColumnModel().getColumn(removeColumnIndex).setCellEditor(new ButtonCellEditor(model::removeAt));
+
+        final int syntaxColumnIndex = model.getSyntaxColumnIndex();
+        if (syntaxColumnIndex >= 0) {
+            table.getColumnModel().getColumn(syntaxColumnIndex)
+                    .setCellEditor(new DefaultCellEditor(new JComboBox<>(model.getSyntaxes())));
+        }
     }
 
     private JTabbedPane createFilterTabbedPane(final JTable includeTable, final JTable excludeTable) {
@@ -300,12 +313,35 @@ public final class FiltersDialog extends JDialog {
                 actionEvent -> handleDisableAllTextFilters(tabbedPane, includesModel, excludesModel));
 
         panel.add(addButton);
+        if (includesModel.isOffered(TextFiltersTableModel.Syntax.LIST)) {
+            panel.add(createButton(GuiConstants.BUTTON_IMPORT_LIST,
+                    actionEvent -> handleImportPatternList(tabbedPane, includesModel, excludesModel)));
+        }
         panel.add(enableAllButton);
         panel.add(disableAllButton);
 
         return panel;
     }
 
+    /**
+     * Fügt eine Musterliste als einen Eintrag hinzu. Gespeichert wird nur der Pfad; die Liste wird bei jeder Suche
+     * neu gelesen und kann daher beliebig groß sein.
+     */
+    private void handleImportPatternList(final JTabbedPane tabbedPane,
+                                         final TextFiltersTableModel includesModel,
+                                         final TextFiltersTableModel excludesModel) {
+
+        final JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(GuiConstants.CHOOSER_SELECT_PATTERN_LIST);
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            final String path = fileChooser.getSelectedFile().getAbsolutePath();
+            final TextFiltersTableModel targetModel = tabbedPane.getSelectedIndex() == 0 ? includesModel : excludesModel;
+            targetModel.addEntry(path, true, TextFiltersTableModel.Syntax.LIST);
+        }
+    }
+
     private JButton createButton(final String text, final java.awt.event.ActionListener actionListener) {
         final JButton button = new JButton(text);
         button.setPreferredSize(new Dimension(BUTTON_WIDTH, BUTTON_HEIGHT));
@@ -326,9 +362,9 @@ public final class FiltersDialog extends JDialog {
             if (!trimmedInput.isEmpty()) {
                 final int selectedTabIndex = tabbedPane.getSelectedIndex();
                 if (selectedTabIndex == 0) {
-                    includesModel.addEntry(trimmedInput, true);
+                    includesModel.addKey(trimmedInput, true);
                 } else {
-                    excludesModel.addEntry(trimmedInput, true);
+                    excludesModel.addKey(trimmedInput, true);
                 }
             }
         }
@@ -411,6 +447,9 @@ public final class FiltersDialog extends JDialog {
             return extension;
         }
         final String lowerCaseExtension = extension.toLowerCase();
+        if (lowerCaseExtension.startsWith(ExtensionCategory.PREFIX)) {
+            return lowerCaseExtension;
+        }
         return lowerCaseExtension.startsWith(".") ? lowerCaseExtension : "." + lowerCaseExtension;
     }
 
@@ -438,6 +477,9 @@ public final class FiltersDialog extends JDialog {
         final JButton addButton = createButton(GuiConstants.BUTTON_ADD,
                 actionEvent -> handleAddExtension(tabbedPane, allowModel, denyModel));
 
+        final JButton addCategoryButton = createButton(GuiConstants.BUTTON_ADD_CATEGORY,
+                actionEvent -> handleAddExtensionCategory(tabbedPane, allowModel, denyModel));
+
         final JButton enableAllButton = createButton(GuiConstants.BUTTON_ENABLE_ALL,
                 actionEvent -> handleEnableAllExtensions(tabbedPane, allowModel, denyModel));
 
@@ -445,12 +487,49 @@ public final class FiltersDialog extends JDialog {
                 actionEvent -> handleDisableAllExtensions(tabbedPane, allowModel, denyModel));
 
         panel.add(addButton);
+        panel.add(addCategoryButton);
         panel.add(enableAllButton);
         panel.add(disableAllButton);
 
         return panel;
     }
 
+    /**
+     * Fügt eine Gruppe wie „Bilder“ als einen Eintrag {@code category:images} hinzu.
+     */
+    private void handleAddExtensionCategory(final JTabbedPane tabbedPane,
+                                            final AllowExtensionsTableModel allowModel,
+                                            final DenyExtensionsTableModel denyModel) {
+
+        final ExtensionCategory[] categories = ExtensionCategory.values();
+        final String[] labels = new String[categories.length];
+        for (int i = 0; i < categories.length; i++) {
+            labels[i] = categoryLabel(categories[i]);
+        }
+
+        final Object selection = JOptionPane.showInputDialog(this, GuiConstants.INPUT_SELECT_CATEGORY,
+                GuiConstants.INPUT_ADD_TITLE, JOptionPane.PLAIN_MESSAGE, null, labels, labels[0]);
+        if (selection == null) {
+            return;
+        }
+
+        final String filterKey = categories[Arrays.asList(labels).indexOf(selection)].filterKey();
+        if (tabbedPane.getSelectedIndex() == 0) {
+            addExtensionToModel(allowModel, filterKey, GuiConstants.MSG_EXTENSION_EXISTS);
+        } else {
+            addExtensionToModel(denyModel, filterKey, GuiConstants.MSG_EXTENSION_EXISTS);
+        }
+    }
+
+    private static String categoryLabel(final ExtensionCategory category) {
+        return switch (category) {
+            case DOCUMENTS -> GuiConstants.CATEGORY_DOCUMENTS;
+            case SOURCE_CODE -> GuiConstants.CATEGORY_SOURCE_CODE;
+            case IMAGES -> GuiConstants.CATEGORY_IMAGES;
+            case ARCHIVES -> GuiConstants.CATEGORY_ARCHIVES;
+        };
+    }
+
     private void handleAddExtension(final JTabbedPane tabbedPane,
                                     final AllowExtensionsTableModel allowModel,
                                     final DenyExtensionsTableModel denyModel) {
@@ -702,7 +781,7 @@ public final class FiltersDialog extends JDialog {
     private Map<String, Boolean> createFilterMap(final TextFiltersTableModel model) {
         final Map<String, Boolean> map = new LinkedHashMap<>();
         for (final TextFiltersTableModel.Entry entry : model.getEntries()) {
-            map.put(entry.pattern, entry.enabled);
+            map.put(entry.key(), entry.enabled);
         }
         return map;
     }
@@ -710,7 +789,7 @@ public final class FiltersDialog extends JDialog {
     private Map<String, Boolean> createCaseSensitivityMap(final TextFiltersTableModel model) {
         final Map<String, Boolean> map = new LinkedHashMap<>();
         for (final TextFiltersTableModel.Entry entry : model.getEntries()) {
-            map.put(entry.pattern, entry.caseSensitive);
+            map.put(entry.key(), entry.caseSensitive);
         }
         return map;
     }
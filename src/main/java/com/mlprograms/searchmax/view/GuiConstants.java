@@ -13,11 +13,17 @@ public final class GuiConstants {
     // TopPanel
     public static final String BROWSE_BUTTON = "Browse";
     public static final String CASE_SENSITIVE = "Match case";
+    public static final String FOLD_DIACRITICS = "Ignore accents (ä = ae = a, ß = ss)";
+    public static final String TOOLTIP_FOLD_DIACRITICS = "<html>Applies to the search text and to text filters for names and content.<br>"
+            + "Implies ignoring case. Regex, word, phrase and NEAR filters are not affected.</html>";
     public static final String SEARCH_BUTTON = "Search";
     public static final String CANCEL_BUTTON = "Cancel";
     public static final String MANAGE_FILTERS = "Manage filters";
     public static final String LABEL_FOLDER = "Folder";
     public static final String LABEL_SEARCHTEXT = "Filename";
+    public static final String TOOLTIP_SEARCH_QUERY = "<html>Part of the file name, or a query such as<br>"
+            + "<code>ext:pdf AND (content:invoice OR name:rechnung) AND NOT size:&gt;10MB</code><br>"
+            + "Fields: name:, ext:, content:, size:, modified:2024-01..2024-03</html>";
 
     // SearchView / JFileChooser / JOptionPane messages
     public static final String CHOOSER_SELECT_FOLDER = "Select folder";
@@ -42,11 +48,19 @@ public final class GuiConstants {
     public static final String BUTTON_ADD = "Add";
     public static final String BUTTON_ENABLE_ALL = "Enable all";
     public static final String BUTTON_DISABLE_ALL = "Disable all";
-    public static final String INPUT_ADD_PATTERN = "New pattern (e.g. part of filename):";
+    public static final String BUTTON_IMPORT_LIST = "Import list...";
+    public static final String CHOOSER_SELECT_PATTERN_LIST = "Select pattern list (one filename or *fragment* per line)";
+    public static final String INPUT_ADD_PATTERN = "New pattern (part of filename, glob:*.log, regex:^report-\\d+ or list:/path/to/names.txt):";
     public static final String INPUT_ADD_TITLE = "Add";
 
     public static final String EXT_PANEL_TITLE = "File type";
-    public static final String INPUT_NEW_EXTENSION = "New file type (e.g. .txt):";
+    public static final String INPUT_NEW_EXTENSION = "New file type (e.g. .txt or .tar.gz):";
+    public static final String BUTTON_ADD_CATEGORY = "Add group...";
+    public static final String INPUT_SELECT_CATEGORY = "File type group:";
+    public static final String CATEGORY_DOCUMENTS = "Documents";
+    public static final String CATEGORY_SOURCE_CODE = "Source code";
+    public static final String CATEGORY_IMAGES = "Images";
+    public static final String CATEGORY_ARCHIVES = "Archives";
     public static final String MSG_EXTENSION_EXISTS = "Extension already exists.";
     public static final String MSG_ERROR_TITLE = "Error";
 
@@ -55,12 +69,20 @@ public final class GuiConstants {
 
     // Content panel (neu)
     public static final String CONTENT_PANEL_TITLE = "File content";
-    public static final String INPUT_ADD_CONTENT_PATTERN = "New content pattern (e.g. text inside file):";
+    public static final String INPUT_ADD_CONTENT_PATTERN = "New content pattern (text, word:art, phrase:quick brown fox, near:invoice NEAR/5 paid or regex:[A-Z]{2}\\d{2}):";
 
     // Table column constants (English)
     public static final String COLUMN_ACTIVE = "Active";
     public static final String COLUMN_PATTERN = "Pattern";
     public static final String COLUMN_CASE_SENSITIVE = "Case sensitive";
+    public static final String COLUMN_SYNTAX = "Syntax";
+    public static final String SYNTAX_TEXT = "Text";
+    public static final String SYNTAX_WORD = "Whole word";
+    public static final String SYNTAX_PHRASE = "Phrase";
+    public static final String SYNTAX_NEAR = "Near";
+    public static final String SYNTAX_GLOB = "Glob";
+    public static final String SYNTAX_REGEX = "Regex";
+    public static final String SYNTAX_LIST = "List file";
     public static final String COLUMN_REMOVE = "Remove";
 
     // Time range columns
@@ -89,6 +111,55 @@ public final class GuiConstants {
     public static final String RADIO_TIKA_ONLY = "Tika only (broad support)";
     public static final String RADIO_POI_THEN_TIKA = "POI, then Tika (recommended)";
 
+    // Execution / pipeline
+    public static final String SECTION_EXECUTION = "Execution";
+    public static final String CHECKBOX_PIPELINE_MODE = "Pipeline mode (separate pool for content checks)";
+    public static final String LABEL_WALKER_THREADS = "Directory walker threads (0 = automatic)";
+    public static final String LABEL_CONTENT_THREADS = "Content check threads";
+    public static final String LABEL_QUEUE_CAPACITY = "Candidate queue capacity";
+    public static final String LABEL_EXECUTION_ENGINE = "Execution engine";
+    public static final String ENGINE_FORK_JOIN = "Fork/join pool";
+    public static final String ENGINE_VIRTUAL_THREADS = "Virtual threads";
+    public static final String LABEL_MAX_OPEN_DIRECTORIES = "Max. open directories (virtual threads)";
+    public static final String LABEL_MAX_OPEN_FILES = "Max. open files (virtual threads)";
+    public static final String CHECKBOX_ADAPTIVE_PARALLELISM = "Adaptive parallelism (tune threads to measured throughput)";
+    public static final String LABEL_MAX_PARALLELISM = "Max. parallelism (performance mode)";
+
+    // Traversal order
+    public static final String SECTION_TRAVERSAL = "Traversal order";
+    public static final String LABEL_TRAVERSAL_ORDER = "Directory order";
+    public static final String TRAVERSAL_DEPTH_FIRST = "Depth-first (default)";
+    public static final String TRAVERSAL_BREADTH_FIRST = "Breadth-first (discovery order)";
+    public static final String TRAVERSAL_SHALLOW_FIRST = "Shallowest directories first";
+    public static final String TRAVERSAL_RECENTLY_MODIFIED_FIRST = "Recently modified directories first";
+    public static final String CHECKBOX_BOOST_QUERY_MATCHES = "Prefer directories whose name contains the search term";
+    public static final String CHECKBOX_FOLLOW_LINKS = "Follow symbolic links (each physical directory is searched once)";
+    public static final String LABEL_MAX_DEPTH = "Max. depth (0 = unlimited):";
+    public static final String CHECKBOX_STAY_ON_FILE_SYSTEM = "Stay on the file system of the start folder";
+    public static final String CHECKBOX_SKIP_PSEUDO_FILE_SYSTEMS = "Skip pseudo file systems (proc, sysfs, devtmpfs, cgroup, ...)";
+
+    // Content scanning
+    public static final String SECTION_CONTENT_SCANNING = "Content scanning";
+    public static final String LABEL_MEMORY_MAP_THRESHOLD = "Memory-map text files from (MB, 0 = never)";
+    public static final String CHECKBOX_VECTORIZED_PREFILTER = "Vector API prefilter";
+    public static final String CHECKBOX_VECTORIZED_PREFILTER_UNAVAILABLE = "Vector API prefilter (inactive: jdk.incubator.vector not loaded)";
+    public static final String TOOLTIP_VECTORIZED_PREFILTER = "<html>Finds match candidates in memory-mapped files with SIMD instructions.<br>"
+            + "Requires starting Java with --add-modules jdk.incubator.vector, which java -jar does not do;<br>"
+            + "without it, files are scanned by the scalar automaton.</html>";
+    public static final String CHECKBOX_SCAN_BINARY_FILES = "Search content of binary files (archives, images, videos, disk images)";
+
+    // Directory exclusion rules
+    public static final String SECTION_EXCLUSION_RULES = "Excluded directories and entries";
+    public static final String EXCLUSION_RULES_INFO = "One rule per line: name:<exact name>, glob:<pattern>, prefix:<absolute path>, regex:<expression on full directory path>. Lines starting with # are ignored.";
+    public static final String BUTTON_ADD_BUILD_CACHE_RULES = "Add build/cache directories";
+
+    // Search limits
+    public static final String SECTION_SEARCH_LIMITS = "Search limits (0 = unlimited)";
+    public static final String LABEL_LIMIT_MAX_SECONDS = "Maximum duration (seconds)";
+    public static final String LABEL_LIMIT_MAX_RESULTS = "Maximum results";
+    public static final String LABEL_LIMIT_MAX_MEGABYTES = "Maximum content scanned (MB)";
+    public static final String LABEL_LIMIT_MAX_FILES = "Maximum files examined";
+
     // Troubleshoot / reset settings
     public static final String SECTION_TROUBLESHOOT = "Troubleshoot";
     public static final String TROUBLESHOOT_INFO = "If you encounter problems with filters or settings, this action will delete the local configuration file '.searchmax.properties' in your user home and restart the application. Default settings will be loaded after restart. Use this only if you accept losing your custom settings.";
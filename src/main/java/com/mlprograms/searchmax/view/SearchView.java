@@ -1,6 +1,14 @@
 package com.mlprograms.searchmax.view;
 
+import com.mlprograms.searchmax.ContentScanSettings;
 import com.mlprograms.searchmax.ExtractionMode;
+import com.mlprograms.searchmax.PipelineSettings;
+import com.mlprograms.searchmax.DirectoryExclusionRules;
+import com.mlprograms.searchmax.EngineSettings;
+import com.mlprograms.searchmax.ExecutionEngine;
+import com.mlprograms.searchmax.TraversalOrder;
+import com.mlprograms.searchmax.TraversalSettings;
+import com.mlprograms.searchmax.SearchLimits;
 import com.mlprograms.searchmax.controller.SearchController;
 import com.mlprograms.searchmax.model.SearchModel;
 import com.mlprograms.searchmax.model.TimeRangeTableModel;
@@ -78,6 +86,7 @@ public final class SearchView extends JFrame {
     private static final String PROPERTY_START_FOLDER = "startFolder";
     private static final String PROPERTY_QUERY = "query";
     private static final String PROPERTY_CASE_SENSITIVE = "caseSensitive";
+    private static final String PROPERTY_FOLD_DIACRITICS = "foldDiacritics";
     private static final String PROPERTY_DRIVES = "drives";
     private static final String PROPERTY_INCLUDES = "includes";
     private static final String PROPERTY_EXCLUDES = "excludes";
@@ -96,6 +105,29 @@ public final class SearchView extends JFrame {
     private static final String PROPERTY_CONTENT_INCLUDES_MODE = "contentIncludesMode";
     private static final String PROPERTY_USE_ALL_CORES = "useAllCores";
     private static final String PROPERTY_EXTRACTION_MODE = "extractionMode";
+    private static final String PROPERTY_LIMIT_MAX_DURATION_MILLIS = "limitMaxDurationMillis";
+    private static final String PROPERTY_LIMIT_MAX_RESULTS = "limitMaxResults";
+    private static final String PROPERTY_LIMIT_MAX_BYTES = "limitMaxBytes";
+    private static final String PROPERTY_LIMIT_MAX_FILES = "limitMaxFiles";
+    private static final String PROPERTY_PIPELINE_ENABLED = "pipelineEnabled";
+    private static final String PROPERTY_PIPELINE_WALKER_THREADS = "pipelineWalkerThreads";
+    private static final String PROPERTY_PIPELINE_CONTENT_THREADS = "pipelineContentThreads";
+    private static final String PROPERTY_PIPELINE_QUEUE_CAPACITY = "pipelineQueueCapacity";
+    private static final String PROPERTY_EXECUTION_ENGINE = "executionEngine";
+    private static final String PROPERTY_MAX_OPEN_DIRECTORIES = "maxOpenDirectories";
+    private static final String PROPERTY_MAX_OPEN_FILES = "maxOpenFiles";
+    private static final String PROPERTY_ADAPTIVE_PARALLELISM = "adaptiveParallelism";
+    private static final String PROPERTY_MAX_PARALLELISM = "maxParallelism";
+    private static final String PROPERTY_TRAVERSAL_ORDER = "traversalOrder";
+    private static final String PROPERTY_BOOST_QUERY_MATCHES = "boostQueryMatches";
+    private static final String PROPERTY_EXCLUSION_RULES = "exclusionRules";
+    private static final String PROPERTY_FOLLOW_LINKS = "followLinks";
+    private static final String PROPERTY_MAX_DEPTH = "maxDepth";
+    private static final String PROPERTY_STAY_ON_FILE_SYSTEM = "stayOnFileSystem";
+    private static final String PROPERTY_SKIP_PSEUDO_FILE_SYSTEMS = "skipPseudoFileSystems";
+    private static final String PROPERTY_MEMORY_MAP_THRESHOLD_MEGABYTES = "memoryMapThresholdMegabytes";
+    private static final String PROPERTY_VECTORIZED_PREFILTER = "vectorizedPrefilter";
+    private static final String PROPERTY_SCAN_BINARY_FILES = "scanBinaryFiles";
 
     private final SearchController searchController;
     private final SearchModel searchModel;
@@ -127,6 +159,12 @@ public final class SearchView extends JFrame {
     private boolean timeIncludeAllMode = false;
     private boolean useAllCores = false;
     private ExtractionMode extractionMode = ExtractionMode.POI_THEN_TIKA;
+    private SearchLimits searchLimits = SearchLimits.UNLIMITED;
+    private PipelineSettings pipelineSettings = PipelineSettings.DISABLED;
+    private EngineSettings engineSettings = EngineSettings.DEFAULT;
+    private TraversalSettings traversalSettings = TraversalSettings.DEFAULT;
+    private ContentScanSettings contentScanSettings = ContentScanSettings.DEFAULT;
+    private List<String> exclusionRules = DirectoryExclusionRules.DEFAULT_RULES;
 
     public SearchView(final SearchController searchController, final SearchModel searchModel) {
         super(GuiConstants.TITLE_SEARCHMAX);
@@ -204,6 +242,7 @@ public final class SearchView extends JFrame {
         topPanel.getFolderPathTextField().getDocument().addDocumentListener(autoSaveListener);
 
         topPanel.getCaseSensitiveCheckbox().addActionListener(actionEvent -> saveApplicationSettings());
+        topPanel.getFoldDiacriticsCheckbox().addActionListener(actionEvent -> saveApplicationSettings());
         bottomPanel.getPerformanceModeCheckbox().addActionListener(actionEvent -> {
             useAllCores = bottomPanel.getPerformanceModeCheckbox().isSelected();
             searchController.setUseAllCores(useAllCores);
@@ -267,7 +306,7 @@ public final class SearchView extends JFrame {
 
     public void onShowSettings() {
         try {
-            final ExtractionSettingsDialog settingsDialog = new ExtractionSettingsDialog(this, extractionMode);
+            final ExtractionSettingsDialog settingsDialog = new ExtractionSettingsDialog(this, extractionMode, searchLimits, pipelineSettings, engineSettings, traversalSettings, contentScanSettings, exclusionRules);
             settingsDialog.setVisible(true);
             final ExtractionMode selectedMode = settingsDialog.getSelectedExtractionMode();
 
@@ -278,6 +317,19 @@ public final class SearchView extends JFrame {
                 } catch (final Exception exception) {
                     log.warn("Fehler beim Setzen des ExtractionMode", exception);
                 }
+
+                searchLimits = settingsDialog.getSelectedSearchLimits();
+                searchController.setSearchLimits(searchLimits);
+                pipelineSettings = settingsDialog.getSelectedPipelineSettings();
+                searchController.setPipelineSettings(pipelineSettings);
+                engineSettings = settingsDialog.getSelectedEngineSettings();
+                searchController.setEngineSettings(engineSettings);
+                traversalSettings = settingsDialog.getSelectedTraversalSettings();
+                searchController.setTraversalSettings(traversalSettings);
+                contentScanSettings = settingsDialog.getSelectedContentScanSettings();
+                searchController.setContentScanSettings(contentScanSettings);
+                exclusionRules = settingsDialog.getSelectedExclusionRules();
+                searchController.setExclusionRules(exclusionRules);
                 saveApplicationSettings();
             }
         } catch (final Exception exception) {
@@ -294,6 +346,7 @@ public final class SearchView extends JFrame {
             return;
         }
 
+        searchController.setFoldDiacritics(topPanel.getFoldDiacriticsCheckbox().isSelected());
         searchController.startSearch(
                 searchParameters.folderPath(),
                 searchParameters.searchQuery(),
@@ -490,6 +543,7 @@ public final class SearchView extends JFrame {
         topPanel.getCancelSearchButton().setEnabled(isRunning);
         topPanel.getSearchQueryTextField().setEnabled(!isRunning);
         topPanel.getCaseSensitiveCheckbox().setEnabled(!isRunning);
+        topPanel.getFoldDiacriticsCheckbox().setEnabled(!isRunning);
         topPanel.getManageFiltersButton().setEnabled(!isRunning);
         bottomPanel.getPerformanceModeCheckbox().setEnabled(!isRunning);
         bottomPanel.getShowSettingsButton().setEnabled(!isRunning);
@@ -511,6 +565,8 @@ public final class SearchView extends JFrame {
                     getSafeText(topPanel.getSearchQueryTextField().getText()));
             settingsProperties.setProperty(PROPERTY_CASE_SENSITIVE,
                     Boolean.toString(topPanel.getCaseSensitiveCheckbox().isSelected()));
+            settingsProperties.setProperty(PROPERTY_FOLD_DIACRITICS,
+                    Boolean.toString(topPanel.getFoldDiacriticsCheckbox().isSelected()));
             settingsProperties.setProperty(PROPERTY_DRIVES,
                     String.join(",", drivePanel.getSelectedDrives()));
 
@@ -556,6 +612,29 @@ public final class SearchView extends JFrame {
         properties.setProperty(PROPERTY_USE_ALL_CORES, Boolean.toString(useAllCores));
         properties.setProperty(PROPERTY_EXTRACTION_MODE,
                 extractionMode == null ? "POI_THEN_TIKA" : extractionMode.name());
+        properties.setProperty(PROPERTY_LIMIT_MAX_DURATION_MILLIS, Long.toString(searchLimits.maxDurationMillis()));
+        properties.setProperty(PROPERTY_LIMIT_MAX_RESULTS, Long.toString(searchLimits.maxResults()));
+        properties.setProperty(PROPERTY_LIMIT_MAX_BYTES, Long.toString(searchLimits.maxBytesScanned()));
+        properties.setProperty(PROPERTY_LIMIT_MAX_FILES, Long.toString(searchLimits.maxFilesExamined()));
+        properties.setProperty(PROPERTY_PIPELINE_ENABLED, Boolean.toString(pipelineSettings.enabled()));
+        properties.setProperty(PROPERTY_PIPELINE_WALKER_THREADS, Integer.toString(pipelineSettings.walkerThreads()));
+        properties.setProperty(PROPERTY_PIPELINE_CONTENT_THREADS, Integer.toString(pipelineSettings.contentThreads()));
+        properties.setProperty(PROPERTY_PIPELINE_QUEUE_CAPACITY, Integer.toString(pipelineSettings.queueCapacity()));
+        properties.setProperty(PROPERTY_EXECUTION_ENGINE, engineSettings.engine().name());
+        properties.setProperty(PROPERTY_MAX_OPEN_DIRECTORIES, Integer.toString(engineSettings.maxOpenDirectories()));
+        properties.setProperty(PROPERTY_MAX_OPEN_FILES, Integer.toString(engineSettings.maxOpenFiles()));
+        properties.setProperty(PROPERTY_ADAPTIVE_PARALLELISM, Boolean.toString(engineSettings.adaptiveParallelism()));
+        properties.setProperty(PROPERTY_MAX_PARALLELISM, Integer.toString(engineSettings.maxParallelism()));
+        properties.setProperty(PROPERTY_TRAVERSAL_ORDER, traversalSettings.order().name());
+        properties.setProperty(PROPERTY_BOOST_QUERY_MATCHES, Boolean.toString(traversalSettings.boostQueryMatches()));
+        properties.setProperty(PROPERTY_FOLLOW_LINKS, Boolean.toString(traversalSettings.followLinks()));
+        properties.setProperty(PROPERTY_MAX_DEPTH, Integer.toString(traversalSettings.maxDepth()));
+        properties.setProperty(PROPERTY_STAY_ON_FILE_SYSTEM, Boolean.toString(traversalSettings.stayOnFileSystem()));
+        properties.setProperty(PROPERTY_SKIP_PSEUDO_FILE_SYSTEMS, Boolean.toString(traversalSettings.skipPseudoFileSystems()));
+        properties.setProperty(PROPERTY_MEMORY_MAP_THRESHOLD_MEGABYTES, Integer.toString(contentScanSettings.memoryMapThresholdMegabytes()));
+        properties.setProperty(PROPERTY_VECTORIZED_PREFILTER, Boolean.toString(contentScanSettings.vectorizedPrefilter()));
+        properties.setProperty(PROPERTY_SCAN_BINARY_FILES, Boolean.toString(contentScanSettings.scanBinaryFiles()));
+        properties.setProperty(PROPERTY_EXCLUSION_RULES, String.join("\n", exclusionRules));
     }
 
     private String convertMapToString(final Map<String, Boolean> map) {
@@ -626,6 +705,9 @@ public final class SearchView extends JFrame {
         final String caseSensitive = properties.getProperty(PROPERTY_CASE_SENSITIVE, "false").trim();
         topPanel.getCaseSensitiveCheckbox().setSelected("true".equalsIgnoreCase(caseSensitive));
 
+        final String foldDiacritics = properties.getProperty(PROPERTY_FOLD_DIACRITICS, "false").trim();
+        topPanel.getFoldDiacriticsCheckbox().setSelected("true".equalsIgnoreCase(foldDiacritics));
+
         final String drives = properties.getProperty(PROPERTY_DRIVES, "").trim();
         if (!drives.isEmpty()) {
             final String[] driveParts = drives.split(",");
@@ -678,6 +760,85 @@ public final class SearchView extends JFrame {
         final String extractionModeString = properties.getProperty(PROPERTY_EXTRACTION_MODE, "POI_THEN_TIKA").trim();
         extractionMode = ExtractionMode.valueOf(extractionModeString);
         searchController.setExtractionMode(extractionMode);
+
+        searchLimits = new SearchLimits(
+                parseLongProperty(properties, PROPERTY_LIMIT_MAX_DURATION_MILLIS),
+                parseLongProperty(properties, PROPERTY_LIMIT_MAX_RESULTS),
+                parseLongProperty(properties, PROPERTY_LIMIT_MAX_BYTES),
+                parseLongProperty(properties, PROPERTY_LIMIT_MAX_FILES)
+        );
+        searchController.setSearchLimits(searchLimits);
+
+        pipelineSettings = new PipelineSettings(
+                "true".equalsIgnoreCase(properties.getProperty(PROPERTY_PIPELINE_ENABLED, "false").trim()),
+                (int) parseLongProperty(properties, PROPERTY_PIPELINE_WALKER_THREADS),
+                (int) parseLongProperty(properties, PROPERTY_PIPELINE_CONTENT_THREADS, PipelineSettings.DISABLED.contentThreads()),
+                (int) parseLongProperty(properties, PROPERTY_PIPELINE_QUEUE_CAPACITY, PipelineSettings.DEFAULT_QUEUE_CAPACITY)
+        );
+        searchController.setPipelineSettings(pipelineSettings);
+
+        engineSettings = new EngineSettings(
+                parseExecutionEngine(properties.getProperty(PROPERTY_EXECUTION_ENGINE, ExecutionEngine.FORK_JOIN.name())),
+                (int) parseLongProperty(properties, PROPERTY_MAX_OPEN_DIRECTORIES, EngineSettings.DEFAULT_MAX_OPEN_DIRECTORIES),
+                (int) parseLongProperty(properties, PROPERTY_MAX_OPEN_FILES, EngineSettings.DEFAULT_MAX_OPEN_FILES),
+                !"false".equalsIgnoreCase(properties.getProperty(PROPERTY_ADAPTIVE_PARALLELISM, "true").trim()),
+                (int) parseLongProperty(properties, PROPERTY_MAX_PARALLELISM, EngineSettings.DEFAULT_MAX_PARALLELISM)
+        );
+        searchController.setEngineSettings(engineSettings);
+
+        traversalSettings = new TraversalSettings(
+                parseTraversalOrder(properties.getProperty(PROPERTY_TRAVERSAL_ORDER, TraversalOrder.DEPTH_FIRST.name())),
+                "true".equalsIgnoreCase(properties.getProperty(PROPERTY_BOOST_QUERY_MATCHES, "false").trim()),
+                "true".equalsIgnoreCase(properties.getProperty(PROPERTY_FOLLOW_LINKS, "false").trim()),
+                (int) parseLongProperty(properties, PROPERTY_MAX_DEPTH),
+                "true".equalsIgnoreCase(properties.getProperty(PROPERTY_STAY_ON_FILE_SYSTEM, "false").trim()),
+                "true".equalsIgnoreCase(properties.getProperty(PROPERTY_SKIP_PSEUDO_FILE_SYSTEMS, "true").trim())
+        );
+        searchController.setTraversalSettings(traversalSettings);
+
+        contentScanSettings = new ContentScanSettings(
+                (int) parseLongProperty(properties, PROPERTY_MEMORY_MAP_THRESHOLD_MEGABYTES, ContentScanSettings.DEFAULT.memoryMapThresholdMegabytes()),
+                !"false".equalsIgnoreCase(properties.getProperty(PROPERTY_VECTORIZED_PREFILTER, "true").trim()),
+                "true".equalsIgnoreCase(properties.getProperty(PROPERTY_SCAN_BINARY_FILES, "false").trim())
+        );
+        searchController.setContentScanSettings(contentScanSettings);
+
+        final String exclusionRulesText = properties.getProperty(PROPERTY_EXCLUSION_RULES);
+        exclusionRules = exclusionRulesText == null
+                ? DirectoryExclusionRules.DEFAULT_RULES
+                : Arrays.stream(exclusionRulesText.split("\\R")).map(String::trim).filter(line -> !line.isEmpty()).toList();
+        searchController.setExclusionRules(exclusionRules);
+    }
+
+    private TraversalOrder parseTraversalOrder(final String value) {
+        try {
+            return TraversalOrder.valueOf(value.trim());
+        } catch (final IllegalArgumentException illegalArgumentException) {
+            log.warn("Unbekannte Durchlaufreihenfolge: {}", value);
+            return TraversalOrder.DEPTH_FIRST;
+        }
+    }
+
+    private ExecutionEngine parseExecutionEngine(final String value) {
+        try {
+            return ExecutionEngine.valueOf(value.trim());
+        } catch (final IllegalArgumentException illegalArgumentException) {
+            log.warn("Unbekanntes Ausführungsmodell: {}", value);
+            return ExecutionEngine.FORK_JOIN;
+        }
+    }
+
+    private long parseLongProperty(final Properties properties, final String key) {
+        return parseLongProperty(properties, key, 0L);
+    }
+
+    private long parseLongProperty(final Properties properties, final String key, final long defaultValue) {
+        try {
+            return Long.parseLong(properties.getProperty(key, Long.toString(defaultValue)).trim());
+        } catch (final NumberFormatException numberFormatException) {
+            log.warn("Ungültiger Wert für Einstellung {}", key, numberFormatException);
+            return defaultValue;
+        }
     }
 
     private void loadFilterMap(final String filterString, final Map<String, Boolean> targetMap) {
@@ -708,7 +869,8 @@ public final class SearchView extends JFrame {
                 continue;
             }
 
-            final int separatorIndex = trimmedPair.indexOf('=');
+            // Der Wert ist immer true/false, Muster (z. B. reguläre Ausdrücke) dürfen selbst '=' enthalten
+            final int separatorIndex = trimmedPair.lastIndexOf('=');
             if (separatorIndex <= 0) {
                 continue;
             }
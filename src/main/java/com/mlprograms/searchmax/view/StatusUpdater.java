@@ -14,6 +14,7 @@ public final class StatusUpdater {
     private static final String RESULT_ADDED_PROPERTY = "resultAdded";
     private static final String RESULTS_BATCH_PROPERTY = "resultsBatch";
     private static final String STATUS_PROPERTY = "status";
+    private static final String PROGRESS_INFO_PROPERTY = "progressInfo";
     private static final int DOT_ANIMATION_DELAY_MS = 250;
     private static final int MAX_DOT_COUNT = 4;
 
@@ -30,6 +31,7 @@ public final class StatusUpdater {
                 case RESULT_ADDED_PROPERTY -> handleSingleResultAdded(propertyChangeEvent);
                 case RESULTS_BATCH_PROPERTY -> handleResultsBatchUpdate(propertyChangeEvent);
                 case STATUS_PROPERTY -> handleStatusUpdate(propertyChangeEvent);
+                case PROGRESS_INFO_PROPERTY -> handleProgressInfoUpdate(propertyChangeEvent);
                 default -> logUnknownProperty(propertyName);
             }
         });
@@ -103,6 +105,11 @@ public final class StatusUpdater {
         updateStatusDisplay(newStatus);
     }
 
+    private void handleProgressInfoUpdate(final PropertyChangeEvent propertyChangeEvent) {
+        final Object newValue = propertyChangeEvent.getNewValue();
+        searchView.getBottomPanel().updateProgressInfo(newValue == null ? "" : newValue.toString());
+    }
+
     private void logUnknownProperty(final String propertyName) {
         System.out.println("Unbekannte Property geändert: " + propertyName);
     }
@@ -16,6 +16,7 @@ public final class BottomPanel extends JPanel {
     private static final int LAYOUT_GAP = 8;
 
     private final JLabel statusLabel = new JLabel(GuiConstants.STATUS_READY);
+    private final JLabel progressInfoLabel = new JLabel();
     private final JProgressBar progressBar = new JProgressBar();
     private final JCheckBox performanceModeCheckbox = new JCheckBox(GuiConstants.PERFORMANCE_MODE);
     private final JButton showSettingsButton = new JButton(GuiConstants.BUTTON_SETTINGS);
@@ -42,6 +43,7 @@ public final class BottomPanel extends JPanel {
         panel.add(new JLabel(GuiConstants.STATUS_LABEL_PREFIX));
         panel.add(statusLabel);
         panel.add(Box.createHorizontalStrut(HORIZONTAL_STRUT_SIZE));
+        panel.add(progressInfoLabel);
         return panel;
     }
 
@@ -94,4 +96,8 @@ public final class BottomPanel extends JPanel {
         statusLabel.setText(statusMessage);
     }
 
+    public void updateProgressInfo(final String progressInfo) {
+        progressInfoLabel.setText(progressInfo);
+    }
+
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ public final class TopPanel extends JPanel {
     private final JButton browseFolderButton = new JButton(GuiConstants.BROWSE_BUTTON);
     private final JTextField searchQueryTextField = new JTextField(20);
     private final JCheckBox caseSensitiveCheckbox = new JCheckBox(GuiConstants.CASE_SENSITIVE);
+    private final JCheckBox foldDiacriticsCheckbox = new JCheckBox(GuiConstants.FOLD_DIACRITICS);
     private final JButton searchButton = new JButton(GuiConstants.SEARCH_BUTTON);
     private final JButton cancelSearchButton = new JButton(GuiConstants.CANCEL_BUTTON);
     private final JButton manageFiltersButton = new JButton(GuiConstants.MANAGE_FILTERS);
@@ -34,6 +35,7 @@ public final class TopPanel extends JPanel {
         addSearchQueryComponents(gridBagConstraints);
         addActionButtons(gridBagConstraints);
         addCaseSensitiveCheckbox(gridBagConstraints);
+        addFoldDiacriticsCheckbox(gridBagConstraints);
     }
 
     private void addFolderSelectionComponents(final GridBagConstraints gridBagConstraints) {
@@ -61,6 +63,7 @@ public final class TopPanel extends JPanel {
         gridBagConstraints.weightx = 0;
         add(new JLabel(GuiConstants.LABEL_SEARCHTEXT), gridBagConstraints);
 
+        searchQueryTextField.setToolTipText(GuiConstants.TOOLTIP_SEARCH_QUERY);
         addTextFieldWithButton(gridBagConstraints, searchQueryTextField, manageFiltersButton);
     }
 
@@ -88,6 +91,17 @@ public final class TopPanel extends JPanel {
         add(caseSensitiveCheckbox, gridBagConstraints);
     }
 
+    private void addFoldDiacriticsCheckbox(final GridBagConstraints gridBagConstraints) {
+        gridBagConstraints.gridy = 4;
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridwidth = 3;
+        gridBagConstraints.fill = GridBagConstraints.NONE;
+        gridBagConstraints.weightx = 0;
+        gridBagConstraints.anchor = GridBagConstraints.WEST;
+        foldDiacriticsCheckbox.setToolTipText(GuiConstants.TOOLTIP_FOLD_DIACRITICS);
+        add(foldDiacriticsCheckbox, gridBagConstraints);
+    }
+
     private void addTextFieldWithButton(final GridBagConstraints gridBagConstraints,
                                         final JTextField textField, final JButton button) {
         gridBagConstraints.gridx = 1;
@@ -0,0 +1,127 @@
+package com.mlprograms.searchmax;
+
+import com.mlprograms.searchmax.model.TextFiltersTableModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Durchsatz des Inhaltsautomaten bei 1, 10, 100 und 1000 Mustern im Vergleich zur früheren Prüfung mit einem
+ * {@code contains} pro Filter über ein gleitendes Fenster. Gemessen wird der ungünstigste Fall: Kein Muster kommt
+ * vor, der Text wird also vollständig gelesen. Jedes dritte Muster beachtet Groß-/Kleinschreibung.
+ * <p>
+ * Kein Test, sondern ein eigenständiges Programm:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) com.mlprograms.searchmax.ContentMatcherBenchmark [MB]
+ * </pre>
+ */
+public final class ContentMatcherBenchmark {
+
+    private static final int[] PATTERN_COUNTS = {1, 10, 100, 1000};
+    private static final int CHUNK_SIZE = 8192;
+    private static final int REPETITIONS = 5;
+    private static final String FILLER = "the quick brown fox jumps over lazy dog lorem ipsum dolor sit amet consectetur adipiscing elit ";
+
+    private ContentMatcherBenchmark() {
+    }
+
+    public static void main(final String[] arguments) {
+        final int megabytes = arguments.length > 0 ? Integer.parseInt(arguments[0]) : 64;
+        final StringBuilder builder = new StringBuilder(megabytes << 20);
+        while (builder.length() < megabytes << 20) {
+            builder.append(FILLER);
+        }
+        final char[] text = builder.toString().toCharArray();
+        final Random random = new Random(42);
+
+        System.out.printf("%d MB of text without hits, best of %d runs%n", megabytes, REPETITIONS);
+        System.out.printf("%8s %10s %22s %28s%n", "patterns", "states", "automaton Mchars/s", "per-filter contains Mchars/s");
+        for (final int patternCount : PATTERN_COUNTS) {
+            final List<FilterPlan.TextPattern> patterns = randomPatterns(random, patternCount);
+            final ContentMatcher matcher = ContentMatcher.compile(patterns, false);
+
+            double automatonThroughput = 0;
+            for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+                final long startNano = System.nanoTime();
+                final ContentMatcher.Scan scan = matcher.newScan(patternCount, 0, true, null);
+                for (int offset = 0; offset < text.length; offset += CHUNK_SIZE) {
+                    scan.feed(text, offset, Math.min(CHUNK_SIZE, text.length - offset));
+                }
+                automatonThroughput = Math.max(automatonThroughput, throughput(text.length, startNano));
+            }
+
+            // Die alte Prüfung ist bei vielen Mustern so langsam, dass ein Ausschnitt genügt
+            final int baselineLength = patternCount >= 1000 ? text.length / 16 : text.length;
+            double baselineThroughput = 0;
+            for (int repetition = 0; repetition < (patternCount >= 100 ? 1 : 3); repetition++) {
+                final long startNano = System.nanoTime();
+                containsPerFilter(text, baselineLength, patterns);
+                baselineThroughput = Math.max(baselineThroughput, throughput(baselineLength, startNano));
+            }
+
+            System.out.printf("%8d %10d %22.0f %28.1f%n", patternCount, matcher.getStateCount(), automatonThroughput, baselineThroughput);
+        }
+    }
+
+    /**
+     * Nachbildung der früheren Inhaltsprüfung: Fenster aus dem aktuellen Block und dem Rest des vorherigen, pro Filter
+     * ein {@code contains}, bei Filtern ohne Beachtung der Groß-/Kleinschreibung auf einer Kopie in Kleinbuchstaben.
+     */
+    private static void containsPerFilter(final char[] text, final int length, final List<FilterPlan.TextPattern> patterns) {
+        final boolean[] matched = new boolean[patterns.size()];
+        int longestPattern = 0;
+        for (final FilterPlan.TextPattern pattern : patterns) {
+            longestPattern = Math.max(longestPattern, pattern.patternKey().length());
+        }
+
+        final StringBuilder window = new StringBuilder();
+        for (int offset = 0; offset < length; offset += CHUNK_SIZE) {
+            window.append(text, offset, Math.min(CHUNK_SIZE, length - offset));
+            String original = null;
+            String lowerCase = null;
+            for (int i = 0; i < patterns.size(); i++) {
+                if (matched[i]) {
+                    continue;
+                }
+                final FilterPlan.TextPattern pattern = patterns.get(i);
+                if (pattern.caseSensitive()) {
+                    if (original == null) {
+                        original = window.toString();
+                    }
+                    matched[i] = original.contains(pattern.patternKey());
+                } else {
+                    if (lowerCase == null) {
+                        lowerCase = window.toString().toLowerCase(Locale.ROOT);
+                    }
+                    matched[i] = lowerCase.contains(pattern.patternKey());
+                }
+            }
+            if (window.length() > longestPattern) {
+                window.delete(0, window.length() - longestPattern);
+            }
+        }
+    }
+
+    private static List<FilterPlan.TextPattern> randomPatterns(final Random random, final int count) {
+        final List<FilterPlan.TextPattern> patterns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final StringBuilder pattern = new StringBuilder("kw");
+            final int length = 6 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                pattern.append((char) ('a' + random.nextInt(26)));
+            }
+            final boolean caseSensitive = i % 3 == 0;
+            patterns.add(new FilterPlan.TextPattern(pattern.toString(), caseSensitive,
+                    caseSensitive ? pattern.toString() : CaseFolding.fold(pattern.toString()), TextFiltersTableModel.Syntax.TEXT));
+        }
+        return patterns;
+    }
+
+    private static double throughput(final long characters, final long startNano) {
+        return characters / 1e6 / ((System.nanoTime() - startNano) / 1e9);
+    }
+
+}
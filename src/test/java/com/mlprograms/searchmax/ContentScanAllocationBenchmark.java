@@ -0,0 +1,79 @@
+package com.mlprograms.searchmax;
+
+import com.mlprograms.searchmax.model.TextFiltersTableModel;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Allokation und Durchsatz der Inhaltsprüfung ohne Beachtung der Groß-/Kleinschreibung pro 8K-Block: Automat über
+ * {@code char[]}, Automat über einen Bereich eines Strings (extrahierter PDF-/Office-Text) und zum Vergleich die
+ * frühere Prüfung mit {@code toString().toLowerCase()} pro Block. Gezählt werden die vom Thread allozierten Bytes
+ * ({@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}); die ersten Runden dienen dem Aufwärmen.
+ * <p>
+ * Kein Test, sondern ein eigenständiges Programm:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) com.mlprograms.searchmax.ContentScanAllocationBenchmark
+ * </pre>
+ */
+public final class ContentScanAllocationBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int CHUNKS = 200_000;
+    private static final int ROUNDS = 3;
+
+    private ContentScanAllocationBenchmark() {
+    }
+
+    public static void main(final String[] arguments) {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final char[] chunk = new char[CHUNK_SIZE];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (char) ('a' + i % 26);
+        }
+        final String chunkText = new String(chunk);
+        final ContentMatcher matcher = ContentMatcher.compile(List.of(
+                new FilterPlan.TextPattern("NeedleX", false, CaseFolding.fold("NeedleX"), TextFiltersTableModel.Syntax.TEXT)), false);
+
+        System.out.printf("%5s %30s %30s %36s%n", "round", "char[] feed B/chunk, Mchars/s", "CharSequence feed B/chunk",
+                "toString+toLowerCase B/chunk, Mchars/s");
+        for (int round = 1; round <= ROUNDS; round++) {
+            ContentMatcher.Scan scan = matcher.newScan(1, 0, true, null);
+            long startNano = System.nanoTime();
+            long startBytes = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < CHUNKS; i++) {
+                scan.feed(chunk, 0, chunk.length);
+            }
+            final double arrayBytes = (threads.getCurrentThreadAllocatedBytes() - startBytes) / (double) CHUNKS;
+            final double arrayThroughput = throughput((long) CHUNKS * CHUNK_SIZE, startNano);
+
+            scan = matcher.newScan(1, 0, true, null);
+            startBytes = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < CHUNKS / 10; i++) {
+                scan.feed(chunkText, 0, chunkText.length());
+            }
+            final double textBytes = (threads.getCurrentThreadAllocatedBytes() - startBytes) / (double) (CHUNKS / 10);
+
+            int found = 0;
+            startNano = System.nanoTime();
+            startBytes = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < CHUNKS / 10; i++) {
+                if (new String(chunk, 0, chunk.length).toLowerCase(Locale.ROOT).contains("needlex")) {
+                    found++;
+                }
+            }
+            final double copyBytes = (threads.getCurrentThreadAllocatedBytes() - startBytes) / (double) (CHUNKS / 10);
+            final double copyThroughput = throughput((long) CHUNKS / 10 * CHUNK_SIZE, startNano);
+
+            System.out.printf("%5d %20.2f %9.0f %30.2f %26.0f %9.0f%s%n", round, arrayBytes, arrayThroughput, textBytes,
+                    copyBytes, copyThroughput, found > 0 || scan.isAccepted() ? " (unexpected hit)" : "");
+        }
+    }
+
+    private static double throughput(final long characters, final long startNano) {
+        return characters / 1e6 / ((System.nanoTime() - startNano) / 1e9);
+    }
+
+}
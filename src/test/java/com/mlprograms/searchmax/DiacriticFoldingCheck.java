@@ -0,0 +1,117 @@
+package com.mlprograms.searchmax;
+
+import com.mlprograms.searchmax.model.TextFiltersTableModel;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Prüft, dass die Suche ohne Beachtung von Akzenten alles findet, was die Suche ohne Beachtung der
+ * Groß-/Kleinschreibung findet, insbesondere Teilwörter, die an einem entfallenen {@code e} beginnen oder deren
+ * Faltung vom Kontext abhängt. Geprüft werden alle vier Vergleichswege: Suchfeld und Namensfilter
+ * ({@link DiacriticFolding#containsFolded(CharSequence, int, String)} über {@link NamePattern}), Musterlisten
+ * ({@link NamePatternList}) und Inhaltsfilter ({@link ContentMatcher}). Zusätzlich werden zufällige Texte mit der
+ * Suche ohne Beachtung der Groß-/Kleinschreibung verglichen.
+ * <p>
+ * Kein Test, sondern ein eigenständiges Programm; bei Abweichungen endet es mit Status 1:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) com.mlprograms.searchmax.DiacriticFoldingCheck
+ * </pre>
+ */
+public final class DiacriticFoldingCheck {
+
+    private static final String[][] MATCHING = {
+            {"Mueller", "eller"}, {"Mueller", "el"}, {"Feuer", "uer"}, {"Steuer", "uer"}, {"Goethe", "ethe"},
+            {"Quelle", "uelle"}, {"Queen", "queen"}, {"Mueller", "Müller"}, {"Müller", "Mueller"}, {"Muller", "Müller"},
+            {"Straße", "strasse"}, {"Strasse", "Straße"}, {"Café", "cafe"}
+    };
+    private static final String[][] NOT_MATCHING = {
+            {"Qun", "queen"}, {"Feur", "feuer"}
+    };
+    private static final String RANDOM_ALPHABET = "aeouqiblsßÄÖÜéEAUy x";
+    private static final int RANDOM_CASES = 100_000;
+
+    private DiacriticFoldingCheck() {
+    }
+
+    public static void main(final String[] arguments) throws IOException {
+        int failures = 0;
+        for (final String[] testCase : MATCHING) {
+            failures += check(testCase[0], testCase[1], true);
+        }
+        for (final String[] testCase : NOT_MATCHING) {
+            failures += check(testCase[0], testCase[1], false);
+        }
+
+        final Random random = new Random(7);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            final String text = randomText(random, 1 + random.nextInt(12));
+            final String pattern = randomText(random, 1 + random.nextInt(4));
+            final boolean caseInsensitiveMatch = text.toLowerCase(Locale.ROOT).contains(pattern.toLowerCase(Locale.ROOT));
+            if (caseInsensitiveMatch && !containsFolded(text, pattern)
+                    || containsFolded(text, pattern) != matchesContent(text, pattern)) {
+                System.out.printf("random: \"%s\" / \"%s\" folded=%s content=%s%n", text, pattern,
+                        containsFolded(text, pattern), matchesContent(text, pattern));
+                failures++;
+            }
+        }
+
+        System.out.printf("%d failures%n", failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int check(final String text, final String pattern, final boolean expected) throws IOException {
+        final boolean name = NamePattern.compile(pattern, false, true).matches(text, text.length());
+        final boolean content = matchesContent(text, pattern);
+        final boolean listFragment = matchesList(text, "*" + pattern + "*");
+        final boolean listName = matchesList(text, pattern);
+        // Ein vollständiger Listenname trifft nur bei gleicher gefalteter Form zu
+        final boolean expectedListName = DiacriticFolding.fold(text).equals(DiacriticFolding.fold(pattern));
+        if (name == expected && content == expected && listFragment == expected && listName == expectedListName) {
+            return 0;
+        }
+        System.out.printf("\"%s\" / \"%s\": expected %s, name=%s content=%s list fragment=%s list name=%s%n",
+                text, pattern, expected, name, content, listFragment, listName);
+        return 1;
+    }
+
+    private static boolean containsFolded(final String text, final String pattern) {
+        return DiacriticFolding.containsFolded(text, text.length(), DiacriticFolding.foldAccents(pattern));
+    }
+
+    private static boolean matchesContent(final String text, final String pattern) {
+        final ContentMatcher matcher = ContentMatcher.compile(List.of(
+                new FilterPlan.TextPattern(pattern, false, DiacriticFolding.fold(pattern), TextFiltersTableModel.Syntax.TEXT)), true);
+        final ContentMatcher.Scan scan = matcher.newScan(1, 0, true, null);
+        scan.feed(text);
+        scan.finish();
+        return scan.isMatched(0);
+    }
+
+    private static boolean matchesList(final String text, final String entry) throws IOException {
+        final Path file = Files.createTempFile("searchmax-list", ".txt");
+        try {
+            Files.writeString(file, entry + "\n", StandardCharsets.UTF_8);
+            return NamePatternList.load(file, false, true).matches(text);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static String randomText(final Random random, final int length) {
+        final StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(RANDOM_ALPHABET.charAt(random.nextInt(RANDOM_ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+}
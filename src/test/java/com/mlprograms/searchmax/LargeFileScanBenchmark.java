@@ -0,0 +1,117 @@
+package com.mlprograms.searchmax;
+
+import com.mlprograms.searchmax.model.TextFiltersTableModel;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Durchsatz großer Textdateien über den Reader, über eingeblendete Fenster mit dem skalaren Automaten und über
+ * eingeblendete Fenster mit der vektorisierten Kandidatensuche. Die Muster kommen nicht vor, die Datei wird also
+ * vollständig gelesen. Ohne Pfadangabe wird ein synthetisches Zugriffsprotokoll im temporären Verzeichnis erzeugt.
+ * <p>
+ * Kein Test, sondern ein eigenständiges Programm; die Vektorspalte erscheint nur mit dem Modul der Vector API:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes:$(cat target/classpath.txt) \
+ *     com.mlprograms.searchmax.LargeFileScanBenchmark [datei] [MB]
+ * </pre>
+ */
+public final class LargeFileScanBenchmark {
+
+    private static final int REPETITIONS = 5;
+    private static final int READER_BUFFER_SIZE = 8192;
+    private static final String[][] PATTERN_SETS = {{"ZQXJ-absent-token"}, {"timeout"}, {"timeout", "exception", "fatal"}};
+
+    private LargeFileScanBenchmark() {
+    }
+
+    public static void main(final String[] arguments) throws IOException {
+        final Path file = arguments.length > 0 ? Path.of(arguments[0]) : Path.of(System.getProperty("java.io.tmpdir"), "searchmax-benchmark.log");
+        final long megabytes = arguments.length > 1 ? Long.parseLong(arguments[1]) : 1024;
+        if (!Files.exists(file)) {
+            writeAccessLog(file, megabytes << 20);
+        }
+
+        final long fileSize = Files.size(file);
+        final boolean vectorAvailable = StartByteFilter.isVectorSearchAvailable();
+        final LargeFileScanner scalarScanner = LargeFileScanner.create(new ContentScanSettings(1, false, false));
+        final LargeFileScanner vectorScanner = LargeFileScanner.create(new ContentScanSettings(1, true, false));
+
+        System.out.printf("%s (%d MB), best of %d runs, MB/s%s%n", file, fileSize >> 20, REPETITIONS,
+                vectorAvailable ? "" : " - jdk.incubator.vector not loaded, vector column skipped");
+        System.out.printf("%-26s %8s %12s %12s%n", "patterns", "reader", "mmap-scalar", "mmap-vector");
+        for (final String[] patternSet : PATTERN_SETS) {
+            final ContentMatcher matcher = ContentMatcher.compile(patterns(patternSet), false);
+            double reader = 0;
+            double scalar = 0;
+            double vector = 0;
+            for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+                long startNano = System.nanoTime();
+                scanWithReader(file, matcher, patternSet.length);
+                reader = Math.max(reader, throughput(fileSize, startNano));
+
+                startNano = System.nanoTime();
+                scalarScanner.search(file, matcher.newScan(patternSet.length, 0, false, null), () -> false, bytes -> {
+                });
+                scalar = Math.max(scalar, throughput(fileSize, startNano));
+
+                if (vectorAvailable) {
+                    startNano = System.nanoTime();
+                    vectorScanner.search(file, matcher.newScan(patternSet.length, 0, false, null), () -> false, bytes -> {
+                    });
+                    vector = Math.max(vector, throughput(fileSize, startNano));
+                }
+            }
+            System.out.printf("%-26s %8.0f %12.0f %12s%n", String.join(",", patternSet), reader, scalar,
+                    vectorAvailable ? String.format("%.0f", vector) : "-");
+        }
+    }
+
+    private static boolean scanWithReader(final Path file, final ContentMatcher matcher, final int patternCount) throws IOException {
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final ContentMatcher.Scan scan = matcher.newScan(patternCount, 0, false, null);
+            final char[] buffer = new char[READER_BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                if (scan.feed(buffer, 0, read)) {
+                    return scan.isAccepted();
+                }
+            }
+            return scan.finish();
+        }
+    }
+
+    private static List<FilterPlan.TextPattern> patterns(final String[] texts) {
+        final List<FilterPlan.TextPattern> patterns = new ArrayList<>(texts.length);
+        for (final String text : texts) {
+            patterns.add(new FilterPlan.TextPattern(text, false, CaseFolding.fold(text), TextFiltersTableModel.Syntax.TEXT));
+        }
+        return patterns;
+    }
+
+    private static void writeAccessLog(final Path file, final long size) throws IOException {
+        final Random random = new Random(1);
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            long written = 0;
+            while (written < size) {
+                final String line = "2024-03-0" + (1 + random.nextInt(9)) + "T12:00:00 INFO  [worker-" + random.nextInt(64)
+                        + "] GET /api/v1/items/" + random.nextInt(1_000_000) + " status=200 bytes=" + random.nextInt(99_999) + "\n";
+                writer.write(line);
+                written += line.length();
+            }
+        }
+    }
+
+    private static double throughput(final long bytes, final long startNano) {
+        return bytes / 1e6 / ((System.nanoTime() - startNano) / 1e9);
+    }
+
+}